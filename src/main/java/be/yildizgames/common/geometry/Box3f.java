@@ -0,0 +1,145 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Axis aligned box with float coordinates, immutable and normalized at construction: min values are never greater
+ * than max values. Borders are part of the box. Safe to share between threads.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Box3f implements ConvexShape {
+
+    /**
+     * Lowest x value.
+     */
+    public final float minX;
+
+    /**
+     * Lowest y value.
+     */
+    public final float minY;
+
+    /**
+     * Lowest z value.
+     */
+    public final float minZ;
+
+    /**
+     * Highest x value.
+     */
+    public final float maxX;
+
+    /**
+     * Highest y value.
+     */
+    public final float maxY;
+
+    /**
+     * Highest z value.
+     */
+    public final float maxZ;
+
+    /**
+     * Values in the {@link NarrowPhase} batch layout.
+     */
+    final float[] data;
+
+    private Box3f(final float minX, final float minY, final float minZ, final float maxX, final float maxY, final float maxZ) {
+        super();
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+        this.data = new float[]{minX, minY, minZ, maxX, maxY, maxZ};
+    }
+
+    /**
+     * Create a box from two corners, in any order.
+     *
+     * @param x1 First x value.
+     * @param y1 First y value.
+     * @param z1 First z value.
+     * @param x2 Second x value.
+     * @param y2 Second y value.
+     * @param z2 Second z value.
+     * @return The created box.
+     */
+    public static Box3f valueOf(final float x1, final float y1, final float z1, final float x2, final float y2, final float z2) {
+        return new Box3f(Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2), Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+    }
+
+    /**
+     * Create a box from two corners, in any order.
+     *
+     * @param p1 First corner.
+     * @param p2 Second corner.
+     * @return The created box.
+     */
+    public static Box3f valueOf(final Point3D p1, final Point3D p2) {
+        return valueOf(p1.x, p1.y, p1.z, p2.x, p2.y, p2.z);
+    }
+
+    @Override
+    public void support(final double x, final double y, final double z, final double[] result) {
+        result[0] = x < 0 ? this.minX : this.maxX;
+        result[1] = y < 0 ? this.minY : this.maxY;
+        result[2] = z < 0 ? this.minZ : this.maxZ;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Box3f other = (Box3f) o;
+        return Float.compare(this.minX, other.minX) == 0
+                && Float.compare(this.minY, other.minY) == 0
+                && Float.compare(this.minZ, other.minZ) == 0
+                && Float.compare(this.maxX, other.maxX) == 0
+                && Float.compare(this.maxY, other.maxY) == 0
+                && Float.compare(this.maxZ, other.maxZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.hashCode(this.minX);
+        result = 31 * result + Float.hashCode(this.minY);
+        result = 31 * result + Float.hashCode(this.minZ);
+        result = 31 * result + Float.hashCode(this.maxX);
+        result = 31 * result + Float.hashCode(this.maxY);
+        return 31 * result + Float.hashCode(this.maxZ);
+    }
+
+    @Override
+    public String toString() {
+        return "Box3f(min=" + this.minX + "," + this.minY + "," + this.minZ + ", max=" + this.maxX + "," + this.maxY + "," + this.maxZ + ")";
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Immutable capsule: the points closer than a radius to a segment. Safe to share between threads.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Capsule implements ConvexShape {
+
+    /**
+     * First segment end.
+     */
+    public final Point3D start;
+
+    /**
+     * Second segment end.
+     */
+    public final Point3D end;
+
+    /**
+     * Capsule radius, never negative.
+     */
+    public final float radius;
+
+    /**
+     * Values in the {@link NarrowPhase} batch layout.
+     */
+    final float[] data;
+
+    private Capsule(final Point3D start, final Point3D end, final float radius) {
+        super();
+        this.start = start;
+        this.end = end;
+        this.radius = radius;
+        this.data = new float[]{start.x, start.y, start.z, end.x, end.y, end.z, radius};
+    }
+
+    /**
+     * Create a capsule.
+     *
+     * @param start  First segment end.
+     * @param end    Second segment end.
+     * @param radius Capsule radius.
+     * @return The created capsule.
+     * @throws IllegalArgumentException If the radius is negative or not a number.
+     */
+    public static Capsule valueOf(final Point3D start, final Point3D end, final float radius) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Invalid radius: " + radius);
+        }
+        return new Capsule(start, end, radius);
+    }
+
+    @Override
+    public void support(final double x, final double y, final double z, final double[] result) {
+        double along = x * (this.end.x - this.start.x) + y * (this.end.y - this.start.y) + z * (this.end.z - this.start.z);
+        Point3D p = along > 0 ? this.end : this.start;
+        double length = Math.sqrt(x * x + y * y + z * z);
+        if (length > 0) {
+            double scale = this.radius / length;
+            result[0] = p.x + x * scale;
+            result[1] = p.y + y * scale;
+            result[2] = p.z + z * scale;
+        } else {
+            result[0] = p.x + this.radius;
+            result[1] = p.y;
+            result[2] = p.z;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Capsule other = (Capsule) o;
+        return this.start.equals(other.start) && this.end.equals(other.end) && Float.compare(this.radius, other.radius) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.start.hashCode();
+        result = 31 * result + this.end.hashCode();
+        return 31 * result + Float.hashCode(this.radius);
+    }
+
+    @Override
+    public String toString() {
+        return "Capsule(start=" + this.start + ", end=" + this.end + ", radius=" + this.radius + ")";
+    }
+}
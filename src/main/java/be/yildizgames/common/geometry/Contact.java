@@ -0,0 +1,80 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Result of a narrow phase test between two shapes.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Contact {
+
+    /**
+     * Unit direction from the first shape to the second one: moving the second shape by the penetration along this
+     * normal separates the shapes.
+     */
+    public final Point3D normal;
+
+    /**
+     * Signed distance between the shapes, negative when they overlap: its opposite is then the penetration depth.
+     */
+    public final float distance;
+
+    private Contact(final Point3D normal, final float distance) {
+        super();
+        this.normal = normal;
+        this.distance = distance;
+    }
+
+    /**
+     * Create a contact.
+     *
+     * @param normal   Unit direction from the first shape to the second one.
+     * @param distance Signed distance between the shapes.
+     * @return The created contact.
+     */
+    public static Contact valueOf(final Point3D normal, final float distance) {
+        return new Contact(normal, distance);
+    }
+
+    /**
+     * @return true if the shapes overlap or touch.
+     */
+    public boolean isIntersecting() {
+        return this.distance <= 0;
+    }
+
+    /**
+     * @return The penetration depth, 0 if the shapes do not overlap.
+     */
+    public float getPenetration() {
+        return Math.max(0, -this.distance);
+    }
+
+    @Override
+    public String toString() {
+        return "Contact(normal=" + this.normal + ", distance=" + this.distance + ")";
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Convex hull of a set of 2d points.
+ * The static methods compute the hull of a whole set: Andrew's monotone chain is used for small inputs and a
+ * quickhull forked on a ForkJoinPool for large ones.
+ * An instance is an incremental hull: points can be added one by one, a point inside the hull is rejected in O(log h)
+ * and the hull is only rebuilt when it actually grows.
+ * Hulls are counter clockwise, without collinear vertices, starting from the lowest x (then lowest y) point.
+ * Orientation tests are evaluated in double, which is exact for the products of float differences.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class ConvexHull2D {
+
+    /**
+     * Number of points from which the quickhull is used instead of the monotone chain.
+     */
+    static final int QUICKHULL_THRESHOLD = 50_000;
+
+    /**
+     * Number of points in a quickhull subset from which the work is forked.
+     */
+    private static final int FORK_THRESHOLD = 8_192;
+
+    /**
+     * Hull vertices as interleaved x,y values.
+     */
+    private float[] vertices = new float[16];
+
+    /**
+     * Buffer the updated hull is built in before being swapped with the vertices, at least as large as them.
+     */
+    private float[] scratch = new float[16];
+
+    /**
+     * Number of vertices in the hull.
+     */
+    private int size;
+
+    /**
+     * Create an empty incremental hull.
+     */
+    public ConvexHull2D() {
+        super();
+    }
+
+    /**
+     * Compute the convex hull of a set of points.
+     *
+     * @param points Points to use.
+     * @return The hull vertices, in counter clockwise order.
+     */
+    public static Point2D[] compute(final Point2D[] points) {
+        float[] coordinates = new float[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 2] = points[i].x;
+            coordinates[i * 2 + 1] = points[i].y;
+        }
+        int[] hull = compute(coordinates);
+        Point2D[] result = new Point2D[hull.length];
+        for (int i = 0; i < hull.length; i++) {
+            result[i] = points[hull[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Compute the convex hull of a set of points, large inputs are processed on the common pool.
+     *
+     * @param coordinates Interleaved x,y values.
+     * @return The indexes of the hull points, in counter clockwise order.
+     */
+    public static int[] compute(final float[] coordinates) {
+        return compute(coordinates, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the convex hull of a set of points.
+     *
+     * @param coordinates Interleaved x,y values.
+     * @param pool        Pool used to process large inputs.
+     * @return The indexes of the hull points, in counter clockwise order.
+     */
+    public static int[] compute(final float[] coordinates, final ForkJoinPool pool) {
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int[] hull = coordinates.length / 2 < QUICKHULL_THRESHOLD ? monotoneChain(coordinates) : quickHull(coordinates, pool);
+        event.commit("ConvexHull2D.compute", coordinates.length / 2, hull.length);
+        return hull;
+    }
+
+    /**
+     * Andrew's monotone chain, O(n log n).
+     *
+     * @param coordinates Interleaved x,y values.
+     * @return The indexes of the hull points, in counter clockwise order.
+     */
+    static int[] monotoneChain(final float[] coordinates) {
+        int count = coordinates.length / 2;
+        if (count == 0) {
+            return new int[0];
+        }
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        sortLexicographic(coordinates, sorted, 0, count - 1);
+        int[] hull = new int[count * 2];
+        int k = 0;
+        for (int i = 0; i < count; i++) {
+            while (k >= 2 && cross(coordinates, hull[k - 2], hull[k - 1], sorted[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = sorted[i];
+        }
+        int lower = k + 1;
+        for (int i = count - 2; i >= 0; i--) {
+            while (k >= lower && cross(coordinates, hull[k - 2], hull[k - 1], sorted[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = sorted[i];
+        }
+        k--;
+        if (k == 2 && same(coordinates, hull[0], hull[1])) {
+            k = 1;
+        }
+        return Arrays.copyOf(hull, Math.max(k, 1));
+    }
+
+    /**
+     * Quickhull, O(n log n) expected, each side of the hull is processed in its own task.
+     *
+     * @param coordinates Interleaved x,y values.
+     * @param pool        Pool running the tasks.
+     * @return The indexes of the hull points, in counter clockwise order.
+     */
+    static int[] quickHull(final float[] coordinates, final ForkJoinPool pool) {
+        int count = coordinates.length / 2;
+        if (count == 0) {
+            return new int[0];
+        }
+        int min = 0;
+        int max = 0;
+        for (int i = 1; i < count; i++) {
+            if (compare(coordinates, i, min) < 0) {
+                min = i;
+            }
+            if (compare(coordinates, i, max) > 0) {
+                max = i;
+            }
+        }
+        if (same(coordinates, min, max)) {
+            return new int[]{min};
+        }
+        int[] all = new int[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = i;
+        }
+        HullTask lowerTask = new HullTask(coordinates, all, count, min, max);
+        HullTask upperTask = new HullTask(coordinates, all, count, max, min);
+        int[][] sides = pool.invoke(new RecursiveTask<int[][]>() {
+            @Override
+            protected int[][] compute() {
+                upperTask.fork();
+                int[] lower = lowerTask.compute();
+                return new int[][]{lower, upperTask.join()};
+            }
+        });
+        int[] result = new int[sides[0].length + sides[1].length + 2];
+        result[0] = min;
+        System.arraycopy(sides[0], 0, result, 1, sides[0].length);
+        result[sides[0].length + 1] = max;
+        System.arraycopy(sides[1], 0, result, sides[0].length + 2, sides[1].length);
+        return result;
+    }
+
+    /**
+     * Add a point to the hull.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return true if the hull changed.
+     */
+    public boolean add(final float x, final float y) {
+        if (this.size == 0) {
+            this.vertices[0] = x;
+            this.vertices[1] = y;
+            this.size = 1;
+            return true;
+        }
+        if (this.size == 1) {
+            if (this.vertices[0] == x && this.vertices[1] == y) {
+                return false;
+            }
+            this.vertices[2] = x;
+            this.vertices[3] = y;
+            this.size = 2;
+            return true;
+        }
+        if (this.size == 2) {
+            return this.addToSegment(x, y);
+        }
+        if (this.contains(x, y)) {
+            return false;
+        }
+        int start = -1;
+        for (int i = 0; i < this.size; i++) {
+            if (this.visible(i, x, y) && !this.visible((i + this.size - 1) % this.size, x, y)) {
+                start = i;
+                break;
+            }
+        }
+        int end = start;
+        while (this.visible((end + 1) % this.size, x, y)) {
+            end = (end + 1) % this.size;
+        }
+        int kept = ((start - end - 1 + this.size) % this.size) + 1;
+        int needed = (kept + 1) * 2;
+        if (this.scratch.length < needed) {
+            this.scratch = new float[Math.max(needed, this.scratch.length * 2)];
+        }
+        float[] result = this.scratch;
+        for (int i = 0; i < kept; i++) {
+            int from = (end + 1 + i) % this.size;
+            result[i * 2] = this.vertices[from * 2];
+            result[i * 2 + 1] = this.vertices[from * 2 + 1];
+        }
+        result[kept * 2] = x;
+        result[kept * 2 + 1] = y;
+        this.scratch = this.vertices;
+        this.vertices = result;
+        this.size = kept + 1;
+        if (this.scratch.length < this.vertices.length) {
+            this.scratch = new float[this.vertices.length];
+        }
+        return true;
+    }
+
+    /**
+     * Add a point to the hull.
+     *
+     * @param point Point to add.
+     * @return true if the hull changed.
+     */
+    public boolean add(final Point2D point) {
+        return this.add(point.x, point.y);
+    }
+
+    /**
+     * Add all the points of a buffer to the hull.
+     *
+     * @param coordinates Interleaved x,y values.
+     * @return true if the hull changed.
+     */
+    public boolean addAll(final float[] coordinates) {
+        boolean changed = false;
+        for (int i = 0; i + 1 < coordinates.length; i += 2) {
+            changed |= this.add(coordinates[i], coordinates[i + 1]);
+        }
+        return changed;
+    }
+
+    /**
+     * Check if a point is inside the hull or on its boundary, O(log h).
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return true if the point is in the hull.
+     */
+    public boolean contains(final float x, final float y) {
+        if (this.size < 3) {
+            return this.size > 0 && this.onSegment(x, y);
+        }
+        float[] v = this.vertices;
+        if (cross(v[0], v[1], v[2], v[3], x, y) < 0 || cross(v[0], v[1], v[(this.size - 1) * 2], v[(this.size - 1) * 2 + 1], x, y) > 0) {
+            return false;
+        }
+        int low = 1;
+        int high = this.size - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (cross(v[0], v[1], v[middle * 2], v[middle * 2 + 1], x, y) >= 0) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return cross(v[low * 2], v[low * 2 + 1], v[high * 2], v[high * 2 + 1], x, y) >= 0;
+    }
+
+    /**
+     * @return The number of hull vertices.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return A copy of the hull vertices as interleaved x,y values, in counter clockwise order.
+     */
+    public float[] getCoordinates() {
+        return Arrays.copyOf(this.vertices, this.size * 2);
+    }
+
+    /**
+     * @return The hull vertices, in counter clockwise order.
+     */
+    public Point2D[] getPoints() {
+        Point2D[] result = new Point2D[this.size];
+        for (int i = 0; i < this.size; i++) {
+            result[i] = Point2D.valueOf(this.vertices[i * 2], this.vertices[i * 2 + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Add a point when the hull is a segment, the result is a longer segment or a counter clockwise triangle.
+     */
+    private boolean addToSegment(final float x, final float y) {
+        float[] v = this.vertices;
+        double c = cross(v[0], v[1], v[2], v[3], x, y);
+        if (c > 0) {
+            v[4] = x;
+            v[5] = y;
+            this.size = 3;
+            return true;
+        }
+        if (c < 0) {
+            v[4] = v[2];
+            v[5] = v[3];
+            v[2] = x;
+            v[3] = y;
+            this.size = 3;
+            return true;
+        }
+        if (this.onSegment(x, y)) {
+            return false;
+        }
+        double dx = v[2] - v[0];
+        double dy = v[3] - v[1];
+        double t = ((x - v[0]) * dx + (y - v[1]) * dy) / (dx * dx + dy * dy);
+        if (t < 0) {
+            v[0] = x;
+            v[1] = y;
+        } else {
+            v[2] = x;
+            v[3] = y;
+        }
+        return true;
+    }
+
+    private boolean onSegment(final float x, final float y) {
+        float[] v = this.vertices;
+        float x2 = this.size == 1 ? v[0] : v[2];
+        float y2 = this.size == 1 ? v[1] : v[3];
+        return cross(v[0], v[1], x2, y2, x, y) == 0
+                && x >= Math.min(v[0], x2) && x <= Math.max(v[0], x2)
+                && y >= Math.min(v[1], y2) && y <= Math.max(v[1], y2);
+    }
+
+    /**
+     * An edge is visible from a point outside of the hull when the point is on its right side or on its line.
+     */
+    private boolean visible(final int edge, final float x, final float y) {
+        int next = (edge + 1) % this.size;
+        return cross(this.vertices[edge * 2], this.vertices[edge * 2 + 1], this.vertices[next * 2], this.vertices[next * 2 + 1], x, y) <= 0;
+    }
+
+    /**
+     * Orientation of c relative to the line a to b.
+     *
+     * @return A positive value if c is on the left, negative on the right, 0 if collinear.
+     */
+    static double cross(final float ax, final float ay, final float bx, final float by, final float cx, final float cy) {
+        return ((double) bx - ax) * ((double) cy - ay) - ((double) by - ay) * ((double) cx - ax);
+    }
+
+    private static double cross(final float[] c, final int a, final int b, final int p) {
+        return cross(c[a * 2], c[a * 2 + 1], c[b * 2], c[b * 2 + 1], c[p * 2], c[p * 2 + 1]);
+    }
+
+    private static int compare(final float[] c, final int a, final int b) {
+        int result = Float.compare(c[a * 2], c[b * 2]);
+        return result != 0 ? result : Float.compare(c[a * 2 + 1], c[b * 2 + 1]);
+    }
+
+    private static boolean same(final float[] c, final int a, final int b) {
+        return c[a * 2] == c[b * 2] && c[a * 2 + 1] == c[b * 2 + 1];
+    }
+
+    /**
+     * Quicksort of point indexes on x then y.
+     */
+    private static void sortLexicographic(final float[] c, final int[] indexes, final int from, final int to) {
+        int low = from;
+        int high = to;
+        while (high - low > 16) {
+            int pivot = indexes[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(c, indexes[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(c, indexes[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int t = indexes[i];
+                    indexes[i++] = indexes[j];
+                    indexes[j--] = t;
+                }
+            }
+            if (j - low < high - i) {
+                sortLexicographic(c, indexes, low, j);
+                low = i;
+            } else {
+                sortLexicographic(c, indexes, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int value = indexes[i];
+            int j = i - 1;
+            while (j >= low && compare(c, indexes[j], value) > 0) {
+                indexes[j + 1] = indexes[j];
+                j--;
+            }
+            indexes[j + 1] = value;
+        }
+    }
+
+    /**
+     * Compute the hull chain between 2 hull points, for the candidates on the right of the directed line from to to.
+     */
+    private static final class HullTask extends RecursiveTask<int[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient float[] coordinates;
+
+        private final transient int[] candidates;
+
+        private final int count;
+
+        private final int from;
+
+        private final int to;
+
+        private HullTask(final float[] coordinates, final int[] candidates, final int count, final int from, final int to) {
+            super();
+            this.coordinates = coordinates;
+            this.candidates = candidates;
+            this.count = count;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            float[] c = this.coordinates;
+            int[] outside = new int[this.count];
+            int outsideCount = 0;
+            int farthest = -1;
+            double distance = 0;
+            double projection = 0;
+            double dx = (double) c[this.to * 2] - c[this.from * 2];
+            double dy = (double) c[this.to * 2 + 1] - c[this.from * 2 + 1];
+            for (int i = 0; i < this.count; i++) {
+                int p = this.candidates[i];
+                double d = -cross(c, this.from, this.to, p);
+                if (d > 0) {
+                    outside[outsideCount++] = p;
+                    // Points at the same distance are on a hull edge, only the extreme one along from -> to is a vertex.
+                    double along = ((double) c[p * 2] - c[this.from * 2]) * dx + ((double) c[p * 2 + 1] - c[this.from * 2 + 1]) * dy;
+                    if (d > distance || d == distance && along > projection) {
+                        distance = d;
+                        projection = along;
+                        farthest = p;
+                    }
+                }
+            }
+            if (farthest < 0) {
+                return new int[0];
+            }
+            HullTask first = new HullTask(c, outside, outsideCount, this.from, farthest);
+            HullTask second = new HullTask(c, outside, outsideCount, farthest, this.to);
+            int[] firstChain;
+            int[] secondChain;
+            if (outsideCount > FORK_THRESHOLD) {
+                second.fork();
+                firstChain = first.compute();
+                secondChain = second.join();
+            } else {
+                firstChain = first.compute();
+                secondChain = second.compute();
+            }
+            int[] result = new int[firstChain.length + secondChain.length + 1];
+            System.arraycopy(firstChain, 0, result, 0, firstChain.length);
+            result[firstChain.length] = farthest;
+            System.arraycopy(secondChain, 0, result, firstChain.length + 1, secondChain.length);
+            return result;
+        }
+    }
+}
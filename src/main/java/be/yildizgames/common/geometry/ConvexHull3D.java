@@ -0,0 +1,543 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Convex hull of a 3d point cloud, computed with the quickhull algorithm, immutable.
+ * The result is an indexed triangle list over a compact vertex buffer, triangles are counter clockwise seen from
+ * outside of the hull.
+ * A point is considered above a face only if its distance is greater than a tolerance derived from the point cloud
+ * extent and the Point3D epsilon, so nearly coplanar points do not produce slivers.
+ * The farthest points are processed first, so limiting the vertex count gives a simplified hull made of the most
+ * significant points, some of the input points may then be outside of it.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class ConvexHull3D implements ConvexShape {
+
+    /**
+     * Hull vertices as interleaved x,y,z values.
+     */
+    private final float[] vertices;
+
+    /**
+     * Index of each hull vertex in the source points.
+     */
+    private final int[] sourceIndexes;
+
+    /**
+     * Triangle vertex indexes, 3 per triangle, in the vertices buffer.
+     */
+    private final int[] triangles;
+
+    private ConvexHull3D(final float[] vertices, final int[] sourceIndexes, final int[] triangles) {
+        super();
+        this.vertices = vertices;
+        this.sourceIndexes = sourceIndexes;
+        this.triangles = triangles;
+    }
+
+    /**
+     * Compute the convex hull of a set of points.
+     *
+     * @param points Points to use, at least 4 non coplanar.
+     * @return The computed hull.
+     */
+    public static ConvexHull3D compute(final Point3D[] points) {
+        return compute(points, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute a simplified convex hull of a set of points.
+     *
+     * @param points      Points to use, at least 4 non coplanar.
+     * @param maxVertices Maximum number of vertices in the hull, at least 4.
+     * @return The computed hull.
+     */
+    public static ConvexHull3D compute(final Point3D[] points, final int maxVertices) {
+        float[] coordinates = new float[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 3] = points[i].x;
+            coordinates[i * 3 + 1] = points[i].y;
+            coordinates[i * 3 + 2] = points[i].z;
+        }
+        return compute(coordinates, maxVertices);
+    }
+
+    /**
+     * Compute the convex hull of a set of points.
+     *
+     * @param coordinates Interleaved x,y,z values, at least 4 non coplanar points.
+     * @return The computed hull.
+     */
+    public static ConvexHull3D compute(final float[] coordinates) {
+        return compute(coordinates, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute a simplified convex hull of a set of points.
+     *
+     * @param coordinates Interleaved x,y,z values, at least 4 non coplanar points.
+     * @param maxVertices Maximum number of vertices in the hull, at least 4.
+     * @return The computed hull.
+     */
+    public static ConvexHull3D compute(final float[] coordinates, final int maxVertices) {
+        if (maxVertices < 4) {
+            throw new IllegalArgumentException("A hull has at least 4 vertices.");
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        ConvexHull3D hull = new Builder(coordinates).build(maxVertices);
+        event.commit("ConvexHull3D.compute", coordinates.length / 3, hull.getVertexCount());
+        return hull;
+    }
+
+    @Override
+    public void support(final double x, final double y, final double z, final double[] result) {
+        int best = 0;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < this.vertices.length; i += 3) {
+            double dot = x * this.vertices[i] + y * this.vertices[i + 1] + z * this.vertices[i + 2];
+            if (dot > max) {
+                max = dot;
+                best = i;
+            }
+        }
+        result[0] = this.vertices[best];
+        result[1] = this.vertices[best + 1];
+        result[2] = this.vertices[best + 2];
+    }
+
+    /**
+     * @return The number of hull vertices.
+     */
+    public int getVertexCount() {
+        return this.sourceIndexes.length;
+    }
+
+    /**
+     * @return The number of hull triangles.
+     */
+    public int getTriangleCount() {
+        return this.triangles.length / 3;
+    }
+
+    /**
+     * @return A copy of the hull vertices, as interleaved x,y,z values.
+     */
+    public float[] getVertices() {
+        return this.vertices.clone();
+    }
+
+    /**
+     * @return A copy of the index of each hull vertex in the source points.
+     */
+    public int[] getSourceIndexes() {
+        return this.sourceIndexes.clone();
+    }
+
+    /**
+     * @return A copy of the triangle indexes in the vertex buffer, 3 per triangle, counter clockwise seen from outside.
+     */
+    public int[] getTriangles() {
+        return this.triangles.clone();
+    }
+
+    /**
+     * Check if a point is inside the hull or on its boundary, within the hull tolerance.
+     *
+     * @param point Point to check.
+     * @return true if the point is in the hull.
+     */
+    public boolean contains(final Point3D point) {
+        double tolerance = tolerance(this.vertices);
+        for (int i = 0; i < this.triangles.length; i += 3) {
+            int a = this.triangles[i] * 3;
+            int b = this.triangles[i + 1] * 3;
+            int c = this.triangles[i + 2] * 3;
+            double ux = this.vertices[b] - this.vertices[a];
+            double uy = this.vertices[b + 1] - this.vertices[a + 1];
+            double uz = this.vertices[b + 2] - this.vertices[a + 2];
+            double vx = this.vertices[c] - this.vertices[a];
+            double vy = this.vertices[c + 1] - this.vertices[a + 1];
+            double vz = this.vertices[c + 2] - this.vertices[a + 2];
+            double nx = uy * vz - uz * vy;
+            double ny = uz * vx - ux * vz;
+            double nz = ux * vy - uy * vx;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            double distance = (nx * (point.x - this.vertices[a]) + ny * (point.y - this.vertices[a + 1]) + nz * (point.z - this.vertices[a + 2])) / length;
+            if (length > 0 && distance > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute the distance tolerance for a point set.
+     *
+     * @param coordinates Interleaved x,y,z values.
+     * @return Point3D epsilon scaled by the point set extent.
+     */
+    static double tolerance(final float[] coordinates) {
+        double maxX = 0;
+        double maxY = 0;
+        double maxZ = 0;
+        for (int i = 0; i + 2 < coordinates.length; i += 3) {
+            maxX = Math.max(maxX, Math.abs(coordinates[i]));
+            maxY = Math.max(maxY, Math.abs(coordinates[i + 1]));
+            maxZ = Math.max(maxZ, Math.abs(coordinates[i + 2]));
+        }
+        return Point3D.EPSILON * Math.max(1, maxX + maxY + maxZ);
+    }
+
+    /**
+     * Hull triangle, edge i goes from vertex i to vertex i + 1, neighbour i is the face sharing edge i.
+     */
+    private static final class Face {
+
+        private final int[] vertex = new int[3];
+
+        private final Face[] neighbour = new Face[3];
+
+        private double nx;
+
+        private double ny;
+
+        private double nz;
+
+        private double offset;
+
+        private int[] outside = new int[4];
+
+        private int outsideCount;
+
+        private int farthest = -1;
+
+        private double farthestDistance;
+
+        private boolean alive = true;
+
+        private int visited = -1;
+
+        private Face(final float[] c, final int a, final int b, final int d) {
+            super();
+            this.vertex[0] = a;
+            this.vertex[1] = b;
+            this.vertex[2] = d;
+            double ux = (double) c[b * 3] - c[a * 3];
+            double uy = (double) c[b * 3 + 1] - c[a * 3 + 1];
+            double uz = (double) c[b * 3 + 2] - c[a * 3 + 2];
+            double vx = (double) c[d * 3] - c[a * 3];
+            double vy = (double) c[d * 3 + 1] - c[a * 3 + 1];
+            double vz = (double) c[d * 3 + 2] - c[a * 3 + 2];
+            double x = uy * vz - uz * vy;
+            double y = uz * vx - ux * vz;
+            double z = ux * vy - uy * vx;
+            double length = Math.sqrt(x * x + y * y + z * z);
+            if (length > 0) {
+                this.nx = x / length;
+                this.ny = y / length;
+                this.nz = z / length;
+            }
+            this.offset = this.nx * c[a * 3] + this.ny * c[a * 3 + 1] + this.nz * c[a * 3 + 2];
+        }
+
+        private double distance(final float[] c, final int p) {
+            return this.nx * c[p * 3] + this.ny * c[p * 3 + 1] + this.nz * c[p * 3 + 2] - this.offset;
+        }
+
+        private void addOutside(final int p, final double distance) {
+            if (this.outsideCount == this.outside.length) {
+                this.outside = Arrays.copyOf(this.outside, this.outsideCount * 2);
+            }
+            this.outside[this.outsideCount++] = p;
+            if (distance > this.farthestDistance) {
+                this.farthestDistance = distance;
+                this.farthest = p;
+            }
+        }
+
+        private void replaceNeighbour(final Face oldFace, final Face newFace) {
+            for (int i = 0; i < 3; i++) {
+                if (this.neighbour[i] == oldFace) {
+                    this.neighbour[i] = newFace;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the quickhull on a point set.
+     */
+    private static final class Builder {
+
+        private final float[] c;
+
+        private final int count;
+
+        private final double tolerance;
+
+        private final List<Face> faces = new ArrayList<>();
+
+        private final PriorityQueue<Face> queue = new PriorityQueue<>((f1, f2) -> Double.compare(f2.farthestDistance, f1.farthestDistance));
+
+        private Builder(final float[] coordinates) {
+            super();
+            this.c = coordinates;
+            this.count = coordinates.length / 3;
+            this.tolerance = tolerance(coordinates);
+        }
+
+        private ConvexHull3D build(final int maxVertices) {
+            int[] simplex = this.initialSimplex();
+            Face[] initial = {
+                    new Face(this.c, simplex[0], simplex[1], simplex[2]),
+                    new Face(this.c, simplex[0], simplex[3], simplex[1]),
+                    new Face(this.c, simplex[1], simplex[3], simplex[2]),
+                    new Face(this.c, simplex[2], simplex[3], simplex[0])};
+            for (Face face : initial) {
+                for (int edge = 0; edge < 3; edge++) {
+                    face.neighbour[edge] = find(initial, face.vertex[(edge + 1) % 3], face.vertex[edge]);
+                }
+                this.faces.add(face);
+            }
+            for (int p = 0; p < this.count; p++) {
+                if (p != simplex[0] && p != simplex[1] && p != simplex[2] && p != simplex[3]) {
+                    this.assign(p, initial, initial.length);
+                }
+            }
+            for (Face face : initial) {
+                if (face.outsideCount > 0) {
+                    this.queue.add(face);
+                }
+            }
+            int vertexCount = 4;
+            int iteration = 0;
+            Face[] byStart = new Face[this.count];
+            List<Face> visible = new ArrayList<>();
+            List<Face> created = new ArrayList<>();
+            while (!this.queue.isEmpty() && vertexCount < maxVertices) {
+                Face face = this.queue.poll();
+                if (!face.alive) {
+                    continue;
+                }
+                this.addPoint(face, face.farthest, iteration++, byStart, visible, created);
+                vertexCount++;
+            }
+            return this.result();
+        }
+
+        /**
+         * Add an eye point to the hull: remove the faces it can see and connect it to the horizon.
+         * A neighbour face is removed as soon as the eye is strictly above it, even within the tolerance,
+         * otherwise the new face built on the shared edge would be concave.
+         */
+        private void addPoint(final Face start, final int eye, final int iteration, final Face[] byStart, final List<Face> visible, final List<Face> created) {
+            visible.clear();
+            created.clear();
+            start.visited = iteration;
+            start.alive = false;
+            visible.add(start);
+            for (int v = 0; v < visible.size(); v++) {
+                Face face = visible.get(v);
+                for (int edge = 0; edge < 3; edge++) {
+                    Face other = face.neighbour[edge];
+                    if (other.visited == iteration && !other.alive) {
+                        continue;
+                    }
+                    if (other.visited != iteration && other.distance(this.c, eye) > 0) {
+                        other.visited = iteration;
+                        other.alive = false;
+                        visible.add(other);
+                        continue;
+                    }
+                    other.visited = iteration;
+                    Face newFace = new Face(this.c, face.vertex[edge], face.vertex[(edge + 1) % 3], eye);
+                    newFace.neighbour[0] = other;
+                    other.replaceNeighbour(face, newFace);
+                    byStart[newFace.vertex[0]] = newFace;
+                    created.add(newFace);
+                }
+            }
+            for (Face newFace : created) {
+                Face next = byStart[newFace.vertex[1]];
+                newFace.neighbour[1] = next;
+                next.neighbour[2] = newFace;
+                this.faces.add(newFace);
+            }
+            Face[] candidates = created.toArray(new Face[0]);
+            for (Face face : visible) {
+                for (int i = 0; i < face.outsideCount; i++) {
+                    int p = face.outside[i];
+                    if (p != eye) {
+                        this.assign(p, candidates, candidates.length);
+                    }
+                }
+                face.outside = null;
+            }
+            for (Face newFace : created) {
+                byStart[newFace.vertex[0]] = null;
+                if (newFace.outsideCount > 0) {
+                    this.queue.add(newFace);
+                }
+            }
+        }
+
+        private void assign(final int p, final Face[] candidates, final int size) {
+            for (int i = 0; i < size; i++) {
+                double distance = candidates[i].distance(this.c, p);
+                if (distance > this.tolerance) {
+                    candidates[i].addOutside(p, distance);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Find 4 non coplanar points as far as possible from each other, ordered so that the 4th is below the plane of the
+         * 3 first.
+         */
+        private int[] initialSimplex() {
+            if (this.count < 4) {
+                throw new IllegalArgumentException("At least 4 points are required, got " + this.count + ".");
+            }
+            int[] min = new int[3];
+            int[] max = new int[3];
+            for (int p = 1; p < this.count; p++) {
+                for (int axis = 0; axis < 3; axis++) {
+                    if (this.c[p * 3 + axis] < this.c[min[axis] * 3 + axis]) {
+                        min[axis] = p;
+                    }
+                    if (this.c[p * 3 + axis] > this.c[max[axis] * 3 + axis]) {
+                        max[axis] = p;
+                    }
+                }
+            }
+            int bestAxis = 0;
+            double bestExtent = -1;
+            for (int axis = 0; axis < 3; axis++) {
+                double extent = (double) this.c[max[axis] * 3 + axis] - this.c[min[axis] * 3 + axis];
+                if (extent > bestExtent) {
+                    bestExtent = extent;
+                    bestAxis = axis;
+                }
+            }
+            if (bestExtent <= this.tolerance) {
+                throw new IllegalArgumentException("Points are coincident.");
+            }
+            int p0 = min[bestAxis];
+            int p1 = max[bestAxis];
+            double dx = (double) this.c[p1 * 3] - this.c[p0 * 3];
+            double dy = (double) this.c[p1 * 3 + 1] - this.c[p0 * 3 + 1];
+            double dz = (double) this.c[p1 * 3 + 2] - this.c[p0 * 3 + 2];
+            int p2 = -1;
+            double best = 0;
+            for (int p = 0; p < this.count; p++) {
+                double ex = this.c[p * 3] - this.c[p0 * 3];
+                double ey = this.c[p * 3 + 1] - this.c[p0 * 3 + 1];
+                double ez = this.c[p * 3 + 2] - this.c[p0 * 3 + 2];
+                double x = dy * ez - dz * ey;
+                double y = dz * ex - dx * ez;
+                double z = dx * ey - dy * ex;
+                double distance = x * x + y * y + z * z;
+                if (distance > best) {
+                    best = distance;
+                    p2 = p;
+                }
+            }
+            if (p2 < 0 || Math.sqrt(best) / Math.sqrt(dx * dx + dy * dy + dz * dz) <= this.tolerance) {
+                throw new IllegalArgumentException("Points are collinear.");
+            }
+            Face base = new Face(this.c, p0, p1, p2);
+            int p3 = -1;
+            best = 0;
+            for (int p = 0; p < this.count; p++) {
+                double distance = Math.abs(base.distance(this.c, p));
+                if (distance > best) {
+                    best = distance;
+                    p3 = p;
+                }
+            }
+            if (best <= this.tolerance) {
+                throw new IllegalArgumentException("Points are coplanar.");
+            }
+            if (base.distance(this.c, p3) > 0) {
+                return new int[]{p0, p2, p1, p3};
+            }
+            return new int[]{p0, p1, p2, p3};
+        }
+
+        private static Face find(final Face[] faces, final int from, final int to) {
+            for (Face face : faces) {
+                for (int edge = 0; edge < 3; edge++) {
+                    if (face.vertex[edge] == from && face.vertex[(edge + 1) % 3] == to) {
+                        return face;
+                    }
+                }
+            }
+            throw new IllegalStateException("Open edge " + from + "," + to + ".");
+        }
+
+        private ConvexHull3D result() {
+            int[] compact = new int[this.count];
+            Arrays.fill(compact, -1);
+            int[] sources = new int[this.count];
+            int vertexCount = 0;
+            int triangleCount = 0;
+            for (Face face : this.faces) {
+                if (face.alive) {
+                    triangleCount++;
+                }
+            }
+            int[] triangles = new int[triangleCount * 3];
+            int t = 0;
+            for (Face face : this.faces) {
+                if (!face.alive) {
+                    continue;
+                }
+                for (int i = 0; i < 3; i++) {
+                    int source = face.vertex[i];
+                    if (compact[source] < 0) {
+                        compact[source] = vertexCount;
+                        sources[vertexCount++] = source;
+                    }
+                    triangles[t++] = compact[source];
+                }
+            }
+            float[] vertices = new float[vertexCount * 3];
+            for (int i = 0; i < vertexCount; i++) {
+                System.arraycopy(this.c, sources[i] * 3, vertices, i * 3, 3);
+            }
+            return new ConvexHull3D(vertices, Arrays.copyOf(sources, vertexCount), triangles);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Flatten 2d paths made of lines, quadratic and cubic Bezier curves into polylines.
+ * The number of segments of each curve is computed with Wang's formula: it is the smallest uniform subdivision
+ * guaranteeing the polyline stays within the tolerance of the curve, so flat curves produce few segments and only
+ * the tight ones are finely split.
+ * The polylines are written in internal primitive buffers, reused from one path to the next: call {@link #clear()}
+ * then build a path, or flatten a whole path with {@link #flatten(byte[], float[])}. A new polyline is started by each
+ * move.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class CurveFlattener {
+
+    /**
+     * Path verb starting a new polyline, followed by x,y.
+     */
+    public static final byte MOVE_TO = 0;
+
+    /**
+     * Path verb for a straight line, followed by x,y.
+     */
+    public static final byte LINE_TO = 1;
+
+    /**
+     * Path verb for a quadratic curve, followed by the control x,y and the end x,y.
+     */
+    public static final byte QUAD_TO = 2;
+
+    /**
+     * Path verb for a cubic curve, followed by the 2 control x,y and the end x,y.
+     */
+    public static final byte CUBIC_TO = 3;
+
+    /**
+     * Path verb going back to the start of the current polyline, without value.
+     */
+    public static final byte CLOSE = 4;
+
+    /**
+     * Maximum number of segments for a single curve.
+     */
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    private final float tolerance;
+
+    /**
+     * Polyline points, interleaved x,y values.
+     */
+    private float[] points = new float[64];
+
+    private int pointCount;
+
+    /**
+     * Index of the first point of each polyline.
+     */
+    private int[] starts = new int[4];
+
+    private int polylineCount;
+
+    /**
+     * Create a flattener.
+     *
+     * @param tolerance Maximum distance between a curve and its polyline.
+     * @throws IllegalArgumentException If the tolerance is not strictly positive.
+     */
+    public CurveFlattener(final float tolerance) {
+        super();
+        if (!(tolerance > 0) || tolerance == Float.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compute the number of segments needed by a quadratic curve.
+     *
+     * @param x0        Start x value.
+     * @param y0        Start y value.
+     * @param x1        Control x value.
+     * @param y1        Control y value.
+     * @param x2        End x value.
+     * @param y2        End y value.
+     * @param tolerance Maximum distance between the curve and its polyline.
+     * @return The number of segments, at least 1.
+     */
+    public static int quadraticSegments(final float x0, final float y0, final float x1, final float y1,
+                                        final float x2, final float y2, final float tolerance) {
+        double dx = x0 - 2.0 * x1 + x2;
+        double dy = y0 - 2.0 * y1 + y2;
+        return segments(0.25 * Math.sqrt(dx * dx + dy * dy) / tolerance);
+    }
+
+    /**
+     * Compute the number of segments needed by a cubic curve.
+     *
+     * @param x0        Start x value.
+     * @param y0        Start y value.
+     * @param x1        First control x value.
+     * @param y1        First control y value.
+     * @param x2        Second control x value.
+     * @param y2        Second control y value.
+     * @param x3        End x value.
+     * @param y3        End y value.
+     * @param tolerance Maximum distance between the curve and its polyline.
+     * @return The number of segments, at least 1.
+     */
+    public static int cubicSegments(final float x0, final float y0, final float x1, final float y1,
+                                    final float x2, final float y2, final float x3, final float y3, final float tolerance) {
+        double ax = x0 - 2.0 * x1 + x2;
+        double ay = y0 - 2.0 * y1 + y2;
+        double bx = x1 - 2.0 * x2 + x3;
+        double by = y1 - 2.0 * y2 + y3;
+        double m = Math.sqrt(Math.max(ax * ax + ay * ay, bx * bx + by * by));
+        return segments(0.75 * m / tolerance);
+    }
+
+    /**
+     * @param squared Square of the segment count, from Wang's formula.
+     */
+    private static int segments(final double squared) {
+        double n = Math.ceil(Math.sqrt(squared));
+        if (!(n >= 1)) {
+            return 1;
+        }
+        return (int) Math.min(n, MAX_SEGMENTS);
+    }
+
+    /**
+     * Remove all polylines, the buffers are kept.
+     */
+    public void clear() {
+        this.pointCount = 0;
+        this.polylineCount = 0;
+    }
+
+    /**
+     * Flatten a whole path, the previous polylines are removed.
+     *
+     * @param verbs       Path verbs, the first one must be {@link #MOVE_TO}.
+     * @param coordinates Values used by the verbs, in order.
+     * @return The number of points written.
+     * @throws IllegalArgumentException If a verb is unknown, or the coordinates do not match the verbs.
+     */
+    public int flatten(final byte[] verbs, final float[] coordinates) {
+        this.clear();
+        int c = 0;
+        for (byte verb : verbs) {
+            if (verb < MOVE_TO || verb > CLOSE) {
+                throw new IllegalArgumentException("Unknown verb: " + verb);
+            }
+            int needed = verb == CLOSE ? 0 : verb == QUAD_TO ? 4 : verb == CUBIC_TO ? 6 : 2;
+            if (c + needed > coordinates.length) {
+                throw new IllegalArgumentException("Missing coordinates for verb " + verb + " at value " + c);
+            }
+            switch (verb) {
+                case MOVE_TO:
+                    this.moveTo(coordinates[c], coordinates[c + 1]);
+                    break;
+                case LINE_TO:
+                    this.lineTo(coordinates[c], coordinates[c + 1]);
+                    break;
+                case QUAD_TO:
+                    this.quadTo(coordinates[c], coordinates[c + 1], coordinates[c + 2], coordinates[c + 3]);
+                    break;
+                case CUBIC_TO:
+                    this.cubicTo(coordinates[c], coordinates[c + 1], coordinates[c + 2], coordinates[c + 3],
+                            coordinates[c + 4], coordinates[c + 5]);
+                    break;
+                default:
+                    this.close();
+                    break;
+            }
+            c += needed;
+        }
+        return this.pointCount;
+    }
+
+    /**
+     * Start a new polyline.
+     *
+     * @param x Start x value.
+     * @param y Start y value.
+     */
+    public void moveTo(final float x, final float y) {
+        if (this.polylineCount == this.starts.length) {
+            this.starts = Arrays.copyOf(this.starts, this.polylineCount * 2);
+        }
+        this.starts[this.polylineCount++] = this.pointCount;
+        this.add(x, y);
+    }
+
+    /**
+     * Add a straight line from the current point.
+     *
+     * @param x End x value.
+     * @param y End y value.
+     * @throws IllegalStateException If no polyline is started.
+     */
+    public void lineTo(final float x, final float y) {
+        this.checkStarted();
+        this.add(x, y);
+    }
+
+    /**
+     * Add a quadratic curve from the current point.
+     *
+     * @param cx Control x value.
+     * @param cy Control y value.
+     * @param x  End x value.
+     * @param y  End y value.
+     * @throws IllegalStateException If no polyline is started.
+     */
+    public void quadTo(final float cx, final float cy, final float x, final float y) {
+        this.checkStarted();
+        float x0 = this.points[this.pointCount * 2 - 2];
+        float y0 = this.points[this.pointCount * 2 - 1];
+        int n = quadraticSegments(x0, y0, cx, cy, x, y, this.tolerance);
+        this.reserve(n);
+        float step = 1f / n;
+        for (int i = 1; i < n; i++) {
+            float t = i * step;
+            float s = 1 - t;
+            this.add(s * s * x0 + 2 * s * t * cx + t * t * x, s * s * y0 + 2 * s * t * cy + t * t * y);
+        }
+        this.add(x, y);
+    }
+
+    /**
+     * Add a cubic curve from the current point.
+     *
+     * @param cx1 First control x value.
+     * @param cy1 First control y value.
+     * @param cx2 Second control x value.
+     * @param cy2 Second control y value.
+     * @param x   End x value.
+     * @param y   End y value.
+     * @throws IllegalStateException If no polyline is started.
+     */
+    public void cubicTo(final float cx1, final float cy1, final float cx2, final float cy2, final float x, final float y) {
+        this.checkStarted();
+        float x0 = this.points[this.pointCount * 2 - 2];
+        float y0 = this.points[this.pointCount * 2 - 1];
+        int n = cubicSegments(x0, y0, cx1, cy1, cx2, cy2, x, y, this.tolerance);
+        this.reserve(n);
+        float step = 1f / n;
+        for (int i = 1; i < n; i++) {
+            float t = i * step;
+            float s = 1 - t;
+            float a = s * s * s;
+            float b = 3 * s * s * t;
+            float c = 3 * s * t * t;
+            float d = t * t * t;
+            this.add(a * x0 + b * cx1 + c * cx2 + d * x, a * y0 + b * cy1 + c * cy2 + d * y);
+        }
+        this.add(x, y);
+    }
+
+    /**
+     * Close the current polyline with a line back to its first point, if it does not already end there.
+     *
+     * @throws IllegalStateException If no polyline is started.
+     */
+    public void close() {
+        this.checkStarted();
+        int start = this.starts[this.polylineCount - 1] * 2;
+        float x = this.points[start];
+        float y = this.points[start + 1];
+        if (this.points[this.pointCount * 2 - 2] != x || this.points[this.pointCount * 2 - 1] != y) {
+            this.add(x, y);
+        }
+    }
+
+    private void checkStarted() {
+        if (this.polylineCount == 0) {
+            throw new IllegalStateException("No polyline started, call moveTo first.");
+        }
+    }
+
+    private void reserve(final int count) {
+        int needed = (this.pointCount + count) * 2;
+        if (needed > this.points.length) {
+            this.points = Arrays.copyOf(this.points, Math.max(needed, this.points.length * 2));
+        }
+    }
+
+    private void add(final float x, final float y) {
+        this.reserve(1);
+        this.points[this.pointCount * 2] = x;
+        this.points[this.pointCount * 2 + 1] = y;
+        this.pointCount++;
+    }
+
+    /**
+     * @return The flattening tolerance.
+     */
+    public float getTolerance() {
+        return this.tolerance;
+    }
+
+    /**
+     * @return The number of points of all polylines.
+     */
+    public int getPointCount() {
+        return this.pointCount;
+    }
+
+    /**
+     * @return The number of polylines.
+     */
+    public int getPolylineCount() {
+        return this.polylineCount;
+    }
+
+    /**
+     * @param polyline Polyline index.
+     * @return The index of the first point of the polyline.
+     */
+    public int getPolylineStart(final int polyline) {
+        this.checkPolyline(polyline);
+        return this.starts[polyline];
+    }
+
+    /**
+     * @param polyline Polyline index.
+     * @return The number of points of the polyline.
+     */
+    public int getPolylineSize(final int polyline) {
+        this.checkPolyline(polyline);
+        int end = polyline == this.polylineCount - 1 ? this.pointCount : this.starts[polyline + 1];
+        return end - this.starts[polyline];
+    }
+
+    /**
+     * @param polyline Polyline index.
+     * @return The points of the polyline.
+     */
+    public Point2D[] getPolyline(final int polyline) {
+        int start = this.getPolylineStart(polyline);
+        Point2D[] result = new Point2D[this.getPolylineSize(polyline)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Point2D.valueOf(this.points[(start + i) * 2], this.points[(start + i) * 2 + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * @return A copy of the points of all polylines, interleaved x,y values.
+     */
+    public float[] getPoints() {
+        return Arrays.copyOf(this.points, this.pointCount * 2);
+    }
+
+    /**
+     * Copy the points of all polylines without allocating.
+     *
+     * @param destination Receive the interleaved x,y values, at least 2 per point.
+     * @throws IllegalArgumentException If the destination is too small.
+     */
+    public void copyPoints(final float[] destination) {
+        if (destination.length < this.pointCount * 2) {
+            throw new IllegalArgumentException("Destination too small: " + destination.length + " for " + this.pointCount + " points.");
+        }
+        System.arraycopy(this.points, 0, destination, 0, this.pointCount * 2);
+    }
+
+    private void checkPolyline(final int polyline) {
+        if (polyline < 0 || polyline >= this.polylineCount) {
+            throw new IndexOutOfBoundsException("Polyline " + polyline + " out of bounds for " + this.polylineCount + " polylines.");
+        }
+    }
+}
@@ -0,0 +1,694 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Delaunay triangulation of a set of 2d points, immutable.
+ * Built with a sweep-hull: the points are inserted by increasing distance from a seed triangle and the new triangles
+ * are legalized by edge flips. Orientation and in-circle tests use a floating point filter with an exact fallback,
+ * so the topology stays valid for collinear and cocircular inputs.
+ * Triangles are stored as vertex indexes, 3 per triangle, counter clockwise. Half-edge e goes from triangles[e] to
+ * the next vertex of its triangle, halfedges[e] is the opposite half-edge in the adjacent triangle, or -1 on the hull.
+ * Coincident points are kept only once, the duplicates are not part of any triangle.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Delaunay {
+
+    /**
+     * Relative error bound of the orientation filter.
+     */
+    private static final double ORIENT_BOUND = (3.0 + 16.0 * 0x1p-53) * 0x1p-53;
+
+    /**
+     * Relative error bound of the in-circle filter.
+     */
+    private static final double IN_CIRCLE_BOUND = (10.0 + 96.0 * 0x1p-53) * 0x1p-53;
+
+    /**
+     * Point coordinates, interleaved x,y values.
+     */
+    private final float[] coordinates;
+
+    /**
+     * Triangle vertex indexes.
+     */
+    private final int[] triangles;
+
+    /**
+     * Opposite half-edges.
+     */
+    private final int[] halfedges;
+
+    /**
+     * Convex hull vertex indexes, counter clockwise.
+     */
+    private final int[] hull;
+
+    private Delaunay(final float[] coordinates, final int[] triangles, final int[] halfedges, final int[] hull) {
+        super();
+        this.coordinates = coordinates;
+        this.triangles = triangles;
+        this.halfedges = halfedges;
+        this.hull = hull;
+    }
+
+    /**
+     * Triangulate a set of points.
+     *
+     * @param points Points to triangulate.
+     * @return The triangulation.
+     */
+    public static Delaunay triangulate(final Point2D[] points) {
+        float[] coordinates = new float[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 2] = points[i].x;
+            coordinates[i * 2 + 1] = points[i].y;
+        }
+        return build(coordinates);
+    }
+
+    /**
+     * Triangulate a set of points.
+     *
+     * @param coordinates Interleaved x,y values, copied.
+     * @return The triangulation.
+     */
+    public static Delaunay triangulate(final float[] coordinates) {
+        return build(Arrays.copyOf(coordinates, coordinates.length - coordinates.length % 2));
+    }
+
+    private static Delaunay build(final float[] coordinates) {
+        IndexBuildEvent event = new IndexBuildEvent();
+        event.begin();
+        Delaunay delaunay = new Builder(coordinates).build();
+        event.commit("Delaunay", delaunay.getPointCount(), delaunay.getTriangleCount());
+        return delaunay;
+    }
+
+    /**
+     * @return The number of triangulated points, duplicates included.
+     */
+    public int getPointCount() {
+        return this.coordinates.length / 2;
+    }
+
+    /**
+     * @return The number of triangles.
+     */
+    public int getTriangleCount() {
+        return this.triangles.length / 3;
+    }
+
+    /**
+     * @return A copy of the triangle vertex indexes, 3 per triangle, counter clockwise.
+     */
+    public int[] getTriangles() {
+        return this.triangles.clone();
+    }
+
+    /**
+     * @return A copy of the opposite half-edge of each half-edge, -1 for the hull edges.
+     */
+    public int[] getHalfedges() {
+        return this.halfedges.clone();
+    }
+
+    /**
+     * @return A copy of the convex hull vertex indexes, counter clockwise, points lying on a hull edge included.
+     * If all points are collinear, the points sorted along their line.
+     */
+    public int[] getHull() {
+        return this.hull.clone();
+    }
+
+    /**
+     * Compute the Voronoi diagram dual to this triangulation, each cell is clipped to a rectangle.
+     *
+     * @param bounds Clipping rectangle.
+     * @return The Voronoi cells, one per point.
+     */
+    public Voronoi voronoi(final Rectangle bounds) {
+        IndexBuildEvent event = new IndexBuildEvent();
+        event.begin();
+        int count = this.getPointCount();
+        int[] neighbourCount = new int[count + 1];
+        for (int e = 0; e < this.triangles.length; e++) {
+            neighbourCount[this.triangles[e]]++;
+            if (this.halfedges[e] == -1) {
+                neighbourCount[this.triangles[next(e)]]++;
+            }
+        }
+        if (this.triangles.length == 0) {
+            for (int i = 0; i + 1 < this.hull.length; i++) {
+                neighbourCount[this.hull[i]]++;
+                neighbourCount[this.hull[i + 1]]++;
+            }
+        }
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] = offsets[i] + neighbourCount[i];
+        }
+        int[] neighbours = new int[offsets[count]];
+        int[] position = Arrays.copyOf(offsets, count);
+        for (int e = 0; e < this.triangles.length; e++) {
+            int from = this.triangles[e];
+            int to = this.triangles[next(e)];
+            neighbours[position[from]++] = to;
+            if (this.halfedges[e] == -1) {
+                neighbours[position[to]++] = from;
+            }
+        }
+        if (this.triangles.length == 0) {
+            for (int i = 0; i + 1 < this.hull.length; i++) {
+                neighbours[position[this.hull[i]]++] = this.hull[i + 1];
+                neighbours[position[this.hull[i + 1]]++] = this.hull[i];
+            }
+        }
+        boolean[] used = new boolean[count];
+        for (int point : this.hull) {
+            used[point] = true;
+        }
+        for (int point : this.triangles) {
+            used[point] = true;
+        }
+        Voronoi voronoi = Voronoi.build(this.coordinates, neighbours, offsets, used, bounds);
+        event.commit("Voronoi", count, offsets[count]);
+        return voronoi;
+    }
+
+    /**
+     * @param e Half-edge.
+     * @return The next half-edge in the same triangle.
+     */
+    static int next(final int e) {
+        return e % 3 == 2 ? e - 2 : e + 1;
+    }
+
+    /**
+     * Orientation of c relative to the line a to b, the sign is exact.
+     *
+     * @return A positive value if a, b, c are counter clockwise, negative if clockwise, 0 if collinear.
+     */
+    static double orient(final double ax, final double ay, final double bx, final double by, final double cx, final double cy) {
+        double left = (ax - cx) * (by - cy);
+        double right = (ay - cy) * (bx - cx);
+        double det = left - right;
+        if (Math.abs(det) >= ORIENT_BOUND * (Math.abs(left) + Math.abs(right))) {
+            return det;
+        }
+        BigDecimal acx = new BigDecimal(ax).subtract(new BigDecimal(cx));
+        BigDecimal acy = new BigDecimal(ay).subtract(new BigDecimal(cy));
+        BigDecimal bcx = new BigDecimal(bx).subtract(new BigDecimal(cx));
+        BigDecimal bcy = new BigDecimal(by).subtract(new BigDecimal(cy));
+        return acx.multiply(bcy).subtract(acy.multiply(bcx)).signum();
+    }
+
+    /**
+     * Position of d relative to the circumcircle of the counter clockwise triangle a, b, c, the sign is exact.
+     *
+     * @return A positive value if d is inside the circle, negative if outside, 0 if on it.
+     */
+    static double inCircle(final double ax, final double ay, final double bx, final double by,
+                           final double cx, final double cy, final double dx, final double dy) {
+        double adx = ax - dx;
+        double ady = ay - dy;
+        double bdx = bx - dx;
+        double bdy = by - dy;
+        double cdx = cx - dx;
+        double cdy = cy - dy;
+        double bdxcdy = bdx * cdy;
+        double cdxbdy = cdx * bdy;
+        double cdxady = cdx * ady;
+        double adxcdy = adx * cdy;
+        double adxbdy = adx * bdy;
+        double bdxady = bdx * ady;
+        double alift = adx * adx + ady * ady;
+        double blift = bdx * bdx + bdy * bdy;
+        double clift = cdx * cdx + cdy * cdy;
+        double det = alift * (bdxcdy - cdxbdy) + blift * (cdxady - adxcdy) + clift * (adxbdy - bdxady);
+        double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift
+                + (Math.abs(cdxady) + Math.abs(adxcdy)) * blift
+                + (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+        if (Math.abs(det) > IN_CIRCLE_BOUND * permanent) {
+            return det;
+        }
+        BigDecimal eadx = new BigDecimal(ax).subtract(new BigDecimal(dx));
+        BigDecimal eady = new BigDecimal(ay).subtract(new BigDecimal(dy));
+        BigDecimal ebdx = new BigDecimal(bx).subtract(new BigDecimal(dx));
+        BigDecimal ebdy = new BigDecimal(by).subtract(new BigDecimal(dy));
+        BigDecimal ecdx = new BigDecimal(cx).subtract(new BigDecimal(dx));
+        BigDecimal ecdy = new BigDecimal(cy).subtract(new BigDecimal(dy));
+        BigDecimal ealift = eadx.multiply(eadx).add(eady.multiply(eady));
+        BigDecimal eblift = ebdx.multiply(ebdx).add(ebdy.multiply(ebdy));
+        BigDecimal eclift = ecdx.multiply(ecdx).add(ecdy.multiply(ecdy));
+        return ealift.multiply(ebdx.multiply(ecdy).subtract(ecdx.multiply(ebdy)))
+                .add(eblift.multiply(ecdx.multiply(eady).subtract(eadx.multiply(ecdy))))
+                .add(eclift.multiply(eadx.multiply(ebdy).subtract(ebdx.multiply(eady))))
+                .signum();
+    }
+
+    /**
+     * Run the sweep-hull on a point set.
+     */
+    private static final class Builder {
+
+        private final float[] source;
+
+        private final double[] c;
+
+        private final int count;
+
+        private int[] triangles;
+
+        private int[] halfedges;
+
+        private int trianglesLength;
+
+        private final int[] hullPrev;
+
+        private final int[] hullNext;
+
+        private final int[] hullTri;
+
+        private final int[] hullHash;
+
+        private final int hashSize;
+
+        private int hullStart;
+
+        private double centerX;
+
+        private double centerY;
+
+        private int[] edgeStack = new int[512];
+
+        private Builder(final float[] coordinates) {
+            super();
+            this.source = coordinates;
+            this.count = coordinates.length / 2;
+            this.c = new double[coordinates.length];
+            for (int i = 0; i < coordinates.length; i++) {
+                this.c[i] = coordinates[i];
+            }
+            int maxTriangles = Math.max(2 * this.count - 5, 0);
+            this.triangles = new int[maxTriangles * 3];
+            this.halfedges = new int[maxTriangles * 3];
+            this.hullPrev = new int[this.count];
+            this.hullNext = new int[this.count];
+            this.hullTri = new int[this.count];
+            this.hashSize = Math.max(1, (int) Math.ceil(Math.sqrt(this.count)));
+            this.hullHash = new int[this.hashSize];
+        }
+
+        private Delaunay build() {
+            double[] c = this.c;
+            int n = this.count;
+            if (n == 0) {
+                return new Delaunay(this.source, new int[0], new int[0], new int[0]);
+            }
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, c[i * 2]);
+                minY = Math.min(minY, c[i * 2 + 1]);
+                maxX = Math.max(maxX, c[i * 2]);
+                maxY = Math.max(maxY, c[i * 2 + 1]);
+            }
+            double midX = (minX + maxX) / 2;
+            double midY = (minY + maxY) / 2;
+            int i0 = 0;
+            double minDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double d = distance(midX, midY, c[i * 2], c[i * 2 + 1]);
+                if (d < minDistance) {
+                    i0 = i;
+                    minDistance = d;
+                }
+            }
+            double i0x = c[i0 * 2];
+            double i0y = c[i0 * 2 + 1];
+            int i1 = -1;
+            minDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double d = distance(i0x, i0y, c[i * 2], c[i * 2 + 1]);
+                if (i != i0 && d < minDistance && d > 0) {
+                    i1 = i;
+                    minDistance = d;
+                }
+            }
+            int i2 = -1;
+            double minRadius = Double.POSITIVE_INFINITY;
+            if (i1 >= 0) {
+                for (int i = 0; i < n; i++) {
+                    if (i == i0 || i == i1) {
+                        continue;
+                    }
+                    double r = circumradius(i0x, i0y, c[i1 * 2], c[i1 * 2 + 1], c[i * 2], c[i * 2 + 1]);
+                    if (r < minRadius && orient(i0x, i0y, c[i1 * 2], c[i1 * 2 + 1], c[i * 2], c[i * 2 + 1]) != 0) {
+                        i2 = i;
+                        minRadius = r;
+                    }
+                }
+            }
+            if (i2 < 0) {
+                return this.collinear();
+            }
+            if (orient(i0x, i0y, c[i1 * 2], c[i1 * 2 + 1], c[i2 * 2], c[i2 * 2 + 1]) < 0) {
+                int t = i1;
+                i1 = i2;
+                i2 = t;
+            }
+            double i1x = c[i1 * 2];
+            double i1y = c[i1 * 2 + 1];
+            double i2x = c[i2 * 2];
+            double i2y = c[i2 * 2 + 1];
+            double dx = i1x - i0x;
+            double dy = i1y - i0y;
+            double ex = i2x - i0x;
+            double ey = i2y - i0y;
+            double bl = dx * dx + dy * dy;
+            double cl = ex * ex + ey * ey;
+            double d = 0.5 / (dx * ey - dy * ex);
+            this.centerX = i0x + (ey * bl - dy * cl) * d;
+            this.centerY = i0y + (dx * cl - ex * bl) * d;
+            double[] distances = new double[n];
+            int[] ids = new int[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = i;
+                distances[i] = distance(c[i * 2], c[i * 2 + 1], this.centerX, this.centerY);
+            }
+            sort(ids, distances, 0, n - 1);
+            this.hullStart = i0;
+            Arrays.fill(this.hullHash, -1);
+            this.hullNext[i0] = i1;
+            this.hullPrev[i1] = i0;
+            this.hullNext[i1] = i2;
+            this.hullPrev[i2] = i1;
+            this.hullNext[i2] = i0;
+            this.hullPrev[i0] = i2;
+            this.hullTri[i0] = 0;
+            this.hullTri[i1] = 1;
+            this.hullTri[i2] = 2;
+            this.hullHash[this.hashKey(i0x, i0y)] = i0;
+            this.hullHash[this.hashKey(i1x, i1y)] = i1;
+            this.hullHash[this.hashKey(i2x, i2y)] = i2;
+            this.addTriangle(i0, i1, i2, -1, -1, -1);
+            int hullSize = 3;
+            double previousX = Double.NaN;
+            double previousY = Double.NaN;
+            for (int k = 0; k < n; k++) {
+                int i = ids[k];
+                double x = c[i * 2];
+                double y = c[i * 2 + 1];
+                if (x == previousX && y == previousY) {
+                    continue;
+                }
+                previousX = x;
+                previousY = y;
+                if (i == i0 || i == i1 || i == i2) {
+                    continue;
+                }
+                int start = 0;
+                int key = this.hashKey(x, y);
+                for (int j = 0; j < this.hashSize; j++) {
+                    start = this.hullHash[(key + j) % this.hashSize];
+                    if (start != -1 && start != this.hullNext[start]) {
+                        break;
+                    }
+                }
+                start = this.hullPrev[start];
+                int e = start;
+                int q = this.hullNext[e];
+                while (!this.visible(e, q, x, y)) {
+                    e = q;
+                    if (e == start) {
+                        e = -1;
+                        break;
+                    }
+                    q = this.hullNext[e];
+                }
+                if (e == -1) {
+                    continue;
+                }
+                int t = this.addTriangle(e, i, this.hullNext[e], -1, -1, this.hullTri[e]);
+                this.hullTri[i] = this.legalize(t + 2);
+                this.hullTri[e] = t;
+                hullSize++;
+                int next = this.hullNext[e];
+                q = this.hullNext[next];
+                while (this.visible(next, q, x, y)) {
+                    t = this.addTriangle(next, i, q, this.hullTri[i], -1, this.hullTri[next]);
+                    this.hullTri[i] = this.legalize(t + 2);
+                    this.hullNext[next] = next;
+                    hullSize--;
+                    next = q;
+                    q = this.hullNext[next];
+                }
+                if (e == start) {
+                    q = this.hullPrev[e];
+                    while (this.visible(q, e, x, y)) {
+                        t = this.addTriangle(q, i, e, -1, this.hullTri[e], this.hullTri[q]);
+                        this.legalize(t + 2);
+                        this.hullTri[q] = t;
+                        this.hullNext[e] = e;
+                        hullSize--;
+                        e = q;
+                        q = this.hullPrev[e];
+                    }
+                }
+                this.hullStart = e;
+                this.hullPrev[i] = e;
+                this.hullNext[e] = i;
+                this.hullPrev[next] = i;
+                this.hullNext[i] = next;
+                this.hullHash[this.hashKey(x, y)] = i;
+                this.hullHash[this.hashKey(c[e * 2], c[e * 2 + 1])] = e;
+            }
+            int[] hull = new int[hullSize];
+            int e = this.hullStart;
+            for (int i = 0; i < hullSize; i++) {
+                hull[i] = e;
+                e = this.hullNext[e];
+            }
+            return new Delaunay(this.source, Arrays.copyOf(this.triangles, this.trianglesLength),
+                    Arrays.copyOf(this.halfedges, this.trianglesLength), hull);
+        }
+
+        /**
+         * All points are on a line, there is no triangle and the hull is the points sorted along the line.
+         */
+        private Delaunay collinear() {
+            int n = this.count;
+            double[] projections = new double[n];
+            int[] ids = new int[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = i;
+                double px = this.c[i * 2] - this.c[0];
+                projections[i] = px != 0 ? px : this.c[i * 2 + 1] - this.c[1];
+            }
+            sort(ids, projections, 0, n - 1);
+            int[] hull = new int[n];
+            int size = 0;
+            double last = Double.NEGATIVE_INFINITY;
+            for (int id : ids) {
+                if (projections[id] > last) {
+                    hull[size++] = id;
+                    last = projections[id];
+                }
+            }
+            return new Delaunay(this.source, new int[0], new int[0], Arrays.copyOf(hull, size));
+        }
+
+        /**
+         * The hull edge from a to b is visible from a point strictly on its right side.
+         */
+        private boolean visible(final int a, final int b, final double x, final double y) {
+            return orient(this.c[a * 2], this.c[a * 2 + 1], this.c[b * 2], this.c[b * 2 + 1], x, y) < 0;
+        }
+
+        /**
+         * Flip the edge a and the edges behind it until they all satisfy the Delaunay condition.
+         *
+         * @param edge Edge to check.
+         * @return The half-edge that ends as the outgoing edge of the new point.
+         */
+        private int legalize(final int edge) {
+            int a = edge;
+            int i = 0;
+            int ar;
+            while (true) {
+                int b = this.halfedges[a];
+                int a0 = a - a % 3;
+                ar = a0 + (a + 2) % 3;
+                if (b == -1) {
+                    if (i == 0) {
+                        break;
+                    }
+                    a = this.edgeStack[--i];
+                    continue;
+                }
+                int b0 = b - b % 3;
+                int al = a0 + (a + 1) % 3;
+                int bl = b0 + (b + 2) % 3;
+                int p0 = this.triangles[ar];
+                int pr = this.triangles[a];
+                int pl = this.triangles[al];
+                int p1 = this.triangles[bl];
+                boolean illegal = inCircle(
+                        this.c[p0 * 2], this.c[p0 * 2 + 1],
+                        this.c[pr * 2], this.c[pr * 2 + 1],
+                        this.c[pl * 2], this.c[pl * 2 + 1],
+                        this.c[p1 * 2], this.c[p1 * 2 + 1]) > 0;
+                if (illegal) {
+                    this.triangles[a] = p1;
+                    this.triangles[b] = p0;
+                    int hbl = this.halfedges[bl];
+                    if (hbl == -1) {
+                        int e = this.hullStart;
+                        do {
+                            if (this.hullTri[e] == bl) {
+                                this.hullTri[e] = a;
+                                break;
+                            }
+                            e = this.hullPrev[e];
+                        } while (e != this.hullStart);
+                    }
+                    this.link(a, hbl);
+                    this.link(b, this.halfedges[ar]);
+                    this.link(ar, bl);
+                    int br = b0 + (b + 1) % 3;
+                    if (i == this.edgeStack.length) {
+                        this.edgeStack = Arrays.copyOf(this.edgeStack, i * 2);
+                    }
+                    this.edgeStack[i++] = br;
+                } else {
+                    if (i == 0) {
+                        break;
+                    }
+                    a = this.edgeStack[--i];
+                }
+            }
+            return ar;
+        }
+
+        private int addTriangle(final int i0, final int i1, final int i2, final int a, final int b, final int c) {
+            int t = this.trianglesLength;
+            this.triangles[t] = i0;
+            this.triangles[t + 1] = i1;
+            this.triangles[t + 2] = i2;
+            this.link(t, a);
+            this.link(t + 1, b);
+            this.link(t + 2, c);
+            this.trianglesLength += 3;
+            return t;
+        }
+
+        private void link(final int a, final int b) {
+            this.halfedges[a] = b;
+            if (b != -1) {
+                this.halfedges[b] = a;
+            }
+        }
+
+        /**
+         * Bucket of a point in the hull hash, from its pseudo angle around the seed circumcenter.
+         */
+        private int hashKey(final double x, final double y) {
+            double dx = x - this.centerX;
+            double dy = y - this.centerY;
+            double p = dx / (Math.abs(dx) + Math.abs(dy));
+            double angle = (dy > 0 ? 3 - p : 1 + p) / 4;
+            return (int) Math.floor(angle * this.hashSize) % this.hashSize;
+        }
+
+        private static double distance(final double ax, final double ay, final double bx, final double by) {
+            double dx = ax - bx;
+            double dy = ay - by;
+            return dx * dx + dy * dy;
+        }
+
+        private static double circumradius(final double ax, final double ay, final double bx, final double by, final double cx, final double cy) {
+            double dx = bx - ax;
+            double dy = by - ay;
+            double ex = cx - ax;
+            double ey = cy - ay;
+            double bl = dx * dx + dy * dy;
+            double cl = ex * ex + ey * ey;
+            double d = 0.5 / (dx * ey - dy * ex);
+            double x = (ey * bl - dy * cl) * d;
+            double y = (dx * cl - ex * bl) * d;
+            return x * x + y * y;
+        }
+
+        /**
+         * Quicksort of ids on their value.
+         */
+        private static void sort(final int[] ids, final double[] values, final int from, final int to) {
+            int low = from;
+            int high = to;
+            while (high - low > 16) {
+                double pivot = values[ids[(low + high) >>> 1]];
+                int i = low;
+                int j = high;
+                while (i <= j) {
+                    while (values[ids[i]] < pivot) {
+                        i++;
+                    }
+                    while (values[ids[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int t = ids[i];
+                        ids[i++] = ids[j];
+                        ids[j--] = t;
+                    }
+                }
+                if (j - low < high - i) {
+                    sort(ids, values, low, j);
+                    low = i;
+                } else {
+                    sort(ids, values, i, high);
+                    high = j;
+                }
+            }
+            for (int i = low + 1; i <= high; i++) {
+                int id = ids[i];
+                double value = values[id];
+                int j = i - 1;
+                while (j >= low && values[ids[j]] > value) {
+                    ids[j + 1] = ids[j];
+                    j--;
+                }
+                ids[j + 1] = id;
+            }
+        }
+    }
+}
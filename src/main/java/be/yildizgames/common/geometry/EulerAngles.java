@@ -0,0 +1,324 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Rotation expressed as 3 angles around the x, y and z axes, composed in an {@link EulerOrder}.
+ * Conversions to and from {@link Quaternion} are provided for a single rotation or in bulk over primitive arrays.
+ * The sine and cosine of each half angle are evaluated together, sharing the range reduction.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class EulerAngles {
+
+    /**
+     * Constant for no rotation.
+     */
+    public static final EulerAngles ZERO = new EulerAngles(0, 0, 0);
+
+    /**
+     * Above this value, the middle rotation is considered to be at +/- 90 degrees, the first and third axes are aligned.
+     */
+    private static final double GIMBAL_LOCK = 1 - 1e-6;
+
+    private static final double HALF_PI = Math.PI / 2;
+
+    /**
+     * Angle around the x axis, in radians.
+     */
+    public final float x;
+
+    /**
+     * Angle around the y axis, in radians.
+     */
+    public final float y;
+
+    /**
+     * Angle around the z axis, in radians.
+     */
+    public final float z;
+
+    private EulerAngles(final float x, final float y, final float z) {
+        super();
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Create angles.
+     *
+     * @param x Angle around the x axis, in radians.
+     * @param y Angle around the y axis, in radians.
+     * @param z Angle around the z axis, in radians.
+     * @return The angles.
+     */
+    public static EulerAngles valueOf(final float x, final float y, final float z) {
+        return new EulerAngles(x, y, z);
+    }
+
+    /**
+     * Create angles.
+     *
+     * @param x Angle around the x axis.
+     * @param y Angle around the y axis.
+     * @param z Angle around the z axis.
+     * @return The angles.
+     */
+    public static EulerAngles valueOf(final Radian x, final Radian y, final Radian z) {
+        return new EulerAngles(x.angle, y.angle, z.angle);
+    }
+
+    /**
+     * Create angles.
+     *
+     * @param x Angle around the x axis.
+     * @param y Angle around the y axis.
+     * @param z Angle around the z axis.
+     * @return The angles.
+     */
+    public static EulerAngles valueOf(final Degree x, final Degree y, final Degree z) {
+        return new EulerAngles((float) Math.toRadians(x.angle), (float) Math.toRadians(y.angle), (float) Math.toRadians(z.angle));
+    }
+
+    /**
+     * Extract the angles of a rotation.
+     * In gimbal lock, when the middle angle is +/- 90 degrees, the third angle is set to 0 and the first one holds the
+     * whole rotation around the aligned axes.
+     *
+     * @param rotation Rotation, does not need to be normalized.
+     * @param order    Order of the rotations.
+     * @return The angles, the middle one in [-PI/2, PI/2], the others in [-PI, PI].
+     * @throws IllegalArgumentException If the quaternion is zero.
+     */
+    public static EulerAngles valueOf(final Quaternion rotation, final EulerOrder order) {
+        float[] angles = new float[3];
+        toEuler(rotation.w, rotation.x, rotation.y, rotation.z, order, angles, 0);
+        return new EulerAngles(angles[0], angles[1], angles[2]);
+    }
+
+    /**
+     * Convert to a quaternion.
+     *
+     * @param order Order of the rotations.
+     * @return The unit quaternion.
+     */
+    public Quaternion toQuaternion(final EulerOrder order) {
+        float[] q = new float[4];
+        toQuaternion(this.x, this.y, this.z, order, q, 0);
+        return Quaternion.valueOf(q[0], q[1], q[2], q[3]);
+    }
+
+    /**
+     * Convert angles to quaternions in bulk.
+     *
+     * @param angles Angles around x, y and z in radians, 3 values per rotation.
+     * @param order  Order of the rotations.
+     * @param result Receive the unit quaternions as w,x,y,z values, at least 4 values per rotation.
+     * @throws IllegalArgumentException If angles is not made of triples or result is too small.
+     */
+    public static void toQuaternions(final float[] angles, final EulerOrder order, final float[] result) {
+        if (angles.length % 3 != 0) {
+            throw new IllegalArgumentException("Angles must contain x,y,z values.");
+        }
+        int count = angles.length / 3;
+        if (result.length < count * 4) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + count + " rotations.");
+        }
+        for (int i = 0; i < count; i++) {
+            toQuaternion(angles[i * 3], angles[i * 3 + 1], angles[i * 3 + 2], order, result, i * 4);
+        }
+    }
+
+    /**
+     * Convert quaternions to angles in bulk, gimbal lock is handled like {@link #valueOf(Quaternion, EulerOrder)}.
+     *
+     * @param quaternions Rotations as w,x,y,z values, 4 values per rotation, do not need to be normalized.
+     * @param order       Order of the rotations.
+     * @param result      Receive the angles around x, y and z in radians, at least 3 values per rotation.
+     * @throws IllegalArgumentException If quaternions is not made of 4 values per rotation, result is too small or a quaternion is zero.
+     */
+    public static void toEulerAngles(final float[] quaternions, final EulerOrder order, final float[] result) {
+        if (quaternions.length % 4 != 0) {
+            throw new IllegalArgumentException("Quaternions must contain w,x,y,z values.");
+        }
+        int count = quaternions.length / 4;
+        if (result.length < count * 3) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + count + " rotations.");
+        }
+        for (int i = 0; i < count; i++) {
+            int q = i * 4;
+            toEuler(quaternions[q], quaternions[q + 1], quaternions[q + 2], quaternions[q + 3], order, result, i * 3);
+        }
+    }
+
+    private static void toQuaternion(final float x, final float y, final float z, final EulerOrder order,
+                                     final float[] result, final int offset) {
+        double h0 = half(component(x, y, z, order.first));
+        double h1 = half(component(x, y, z, order.second));
+        double h2 = half(component(x, y, z, order.third));
+        int k0 = quadrant(h0);
+        int k1 = quadrant(h1);
+        int k2 = quadrant(h2);
+        double r0 = reduce(h0, k0);
+        double r1 = reduce(h1, k1);
+        double r2 = reduce(h2, k2);
+        double s0 = sin(r0, k0);
+        double c0 = cos(r0, k0);
+        double s1 = sin(r1, k1);
+        double c1 = cos(r1, k1);
+        double s2 = sin(r2, k2);
+        double c2 = cos(r2, k2);
+        double parity = order.parity;
+        result[offset] = (float) (c0 * c1 * c2 - parity * s0 * s1 * s2);
+        result[offset + 1 + order.first] = (float) (s0 * c1 * c2 + parity * c0 * s1 * s2);
+        result[offset + 1 + order.second] = (float) (c0 * s1 * c2 - parity * s0 * c1 * s2);
+        result[offset + 1 + order.third] = (float) (c0 * c1 * s2 + parity * s0 * s1 * c2);
+    }
+
+    private static void toEuler(final float w, final float x, final float y, final float z, final EulerOrder order,
+                                final float[] result, final int offset) {
+        double norm = (double) w * w + (double) x * x + (double) y * y + (double) z * z;
+        if (norm == 0 || !Double.isFinite(norm)) {
+            throw new IllegalArgumentException("Cannot extract angles from " + w + ", " + x + ", " + y + ", " + z);
+        }
+        double scale = 2 / norm;
+        int a0 = order.first;
+        int a1 = order.second;
+        int a2 = order.third;
+        double parity = order.parity;
+        double sinMiddle = parity * matrix(w, x, y, z, scale, a0, a2);
+        if (Math.abs(sinMiddle) >= GIMBAL_LOCK) {
+            result[offset + a0] = (float) Math.atan2(parity * matrix(w, x, y, z, scale, a2, a1), matrix(w, x, y, z, scale, a1, a1));
+            result[offset + a1] = (float) Math.copySign(HALF_PI, sinMiddle);
+            result[offset + a2] = 0;
+        } else {
+            result[offset + a0] = (float) Math.atan2(-parity * matrix(w, x, y, z, scale, a1, a2), matrix(w, x, y, z, scale, a2, a2));
+            result[offset + a1] = (float) Math.asin(sinMiddle);
+            result[offset + a2] = (float) Math.atan2(-parity * matrix(w, x, y, z, scale, a0, a1), matrix(w, x, y, z, scale, a0, a0));
+        }
+    }
+
+    /**
+     * Compute an entry of the rotation matrix of a quaternion.
+     *
+     * @param scale 2 / squared norm of the quaternion.
+     * @param row   Row index.
+     * @param col   Column index.
+     */
+    private static double matrix(final double w, final double x, final double y, final double z, final double scale,
+                                 final int row, final int col) {
+        double r = component(x, y, z, row);
+        if (row == col) {
+            return 1 - scale * (x * x + y * y + z * z - r * r);
+        }
+        double c = component(x, y, z, col);
+        double other = component(x, y, z, 3 - row - col);
+        return (col - row + 3) % 3 == 1 ? scale * (r * c - w * other) : scale * (r * c + w * other);
+    }
+
+    private static double component(final double x, final double y, final double z, final int index) {
+        return index == 0 ? x : index == 1 ? y : z;
+    }
+
+    /**
+     * @return Half the angle, large values are first wrapped in [-PI, PI].
+     */
+    private static double half(final double angle) {
+        double h = angle * 0.5;
+        return Math.abs(h) > 1e6 ? Math.IEEEremainder(h, Radian.PI2) : h;
+    }
+
+    /**
+     * @return The number of quarter turns closest to the angle.
+     */
+    private static int quadrant(final double angle) {
+        return (int) Math.rint(angle / HALF_PI);
+    }
+
+    /**
+     * @return The angle minus its quarter turns, in [-PI/4, PI/4].
+     */
+    private static double reduce(final double angle, final int quadrant) {
+        return angle - quadrant * HALF_PI;
+    }
+
+    /**
+     * Compute the sine of a reduced angle, moved back to its quadrant.
+     */
+    private static double sin(final double r, final int quadrant) {
+        double v = (quadrant & 1) == 0 ? sinPolynomial(r) : cosPolynomial(r);
+        return (quadrant & 2) == 0 ? v : -v;
+    }
+
+    /**
+     * Compute the cosine of a reduced angle, moved back to its quadrant.
+     */
+    private static double cos(final double r, final int quadrant) {
+        double v = (quadrant & 1) == 0 ? cosPolynomial(r) : sinPolynomial(r);
+        return ((quadrant + 1) & 2) == 0 ? v : -v;
+    }
+
+    /**
+     * Taylor series up to r^11, error below 1e-11 in [-PI/4, PI/4].
+     */
+    private static double sinPolynomial(final double r) {
+        double r2 = r * r;
+        return r * (1 - r2 / 6 * (1 - r2 / 20 * (1 - r2 / 42 * (1 - r2 / 72 * (1 - r2 / 110)))));
+    }
+
+    /**
+     * Taylor series up to r^12, error below 1e-12 in [-PI/4, PI/4].
+     */
+    private static double cosPolynomial(final double r) {
+        double r2 = r * r;
+        return 1 - r2 / 2 * (1 - r2 / 12 * (1 - r2 / 30 * (1 - r2 / 56 * (1 - r2 / 90 * (1 - r2 / 132)))));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EulerAngles)) {
+            return false;
+        }
+        EulerAngles other = (EulerAngles) o;
+        return Float.compare(this.x, other.x) == 0 && Float.compare(this.y, other.y) == 0 && Float.compare(this.z, other.z) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(this.x);
+        result = 31 * result + Float.floatToIntBits(this.y);
+        result = 31 * result + Float.floatToIntBits(this.z);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "EulerAngles: " + this.x + ", " + this.y + ", " + this.z;
+    }
+}
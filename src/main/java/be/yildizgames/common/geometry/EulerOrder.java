@@ -0,0 +1,92 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Order in which Euler angle rotations are composed.
+ * For XYZ, the rotation is X * Y * Z: the rotation around X is applied first to the local frame, then Y around the
+ * rotated frame, then Z, equivalent to applying Z, Y and X around the fixed world axes.
+ *
+ * @author Gregory Van den Borre
+ */
+public enum EulerOrder {
+
+    /**
+     * X, then Y, then Z.
+     */
+    XYZ(0, 1, 2),
+
+    /**
+     * X, then Z, then Y.
+     */
+    XZY(0, 2, 1),
+
+    /**
+     * Y, then X, then Z: yaw, pitch and roll if Y = up.
+     */
+    YXZ(1, 0, 2),
+
+    /**
+     * Y, then Z, then X.
+     */
+    YZX(1, 2, 0),
+
+    /**
+     * Z, then X, then Y.
+     */
+    ZXY(2, 0, 1),
+
+    /**
+     * Z, then Y, then X: yaw, pitch and roll if Z = up.
+     */
+    ZYX(2, 1, 0);
+
+    /**
+     * Index of the first axis, 0 for x, 1 for y and 2 for z.
+     */
+    final int first;
+
+    /**
+     * Index of the second axis.
+     */
+    final int second;
+
+    /**
+     * Index of the third axis.
+     */
+    final int third;
+
+    /**
+     * 1 if the axes are a cyclic permutation of x,y,z, -1 otherwise.
+     */
+    final float parity;
+
+    EulerOrder(final int first, final int second, final int third) {
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.parity = (second - first + 3) % 3 == 1 ? 1 : -1;
+    }
+}
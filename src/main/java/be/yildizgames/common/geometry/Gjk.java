@@ -0,0 +1,954 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Collision queries between any pair of convex shapes given by their support function.
+ * The distance and intersection use the Gilbert-Johnson-Keerthi algorithm on the Minkowski difference of the shapes,
+ * the penetration of overlapping shapes uses the expanding polytope algorithm.
+ * Contacts follow the {@link NarrowPhase} conventions: signed distance, negative when the shapes overlap, and normal
+ * from the first shape to the second one.
+ * An instance holds all the working memory of the queries, they do not allocate; it is not thread safe, use one
+ * instance per thread. A {@link GjkCache} per persistent pair warm starts the queries from the previous simplex.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Gjk {
+
+    private static final int MAX_ITERATIONS = 64;
+
+    private static final int EPA_ITERATIONS = 64;
+
+    private static final int MAX_VERTICES = 4 + EPA_ITERATIONS;
+
+    private static final int MAX_FACES = 4 * MAX_VERTICES;
+
+    /**
+     * Convergence tolerance, relative to the distance.
+     */
+    private static final double TOLERANCE = 1e-6;
+
+    /**
+     * Squared values under this tolerance, relative to the squared size of the Minkowski difference, are considered 0.
+     */
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * Distances to a face plane under this tolerance, relative to the size of the Minkowski difference, are considered 0.
+     */
+    private static final double PLANE_TOLERANCE = 1e-9;
+
+    /**
+     * Search directions used to build a full tetrahedron from a smaller simplex.
+     */
+    private static final double[] AXES = {1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1, 0, 0, 0, 1, 0, 0, -1};
+
+    private final double[] supportA = new double[3];
+
+    private final double[] supportB = new double[3];
+
+    /**
+     * Simplex vertices in the Minkowski difference, x,y,z per vertex.
+     */
+    private final double[] simplex = new double[12];
+
+    /**
+     * Support points on the first shape of each simplex vertex.
+     */
+    private final double[] simplexA = new double[12];
+
+    /**
+     * Support points on the second shape of each simplex vertex.
+     */
+    private final double[] simplexB = new double[12];
+
+    /**
+     * Search direction of each simplex vertex.
+     */
+    private final double[] simplexDirections = new double[12];
+
+    /**
+     * Barycentric coordinates of the closest point in the simplex.
+     */
+    private final double[] lambdas = new double[4];
+
+    /**
+     * Copy of the simplex while it is reduced.
+     */
+    private final double[] reduced = new double[48];
+
+    private int size;
+
+    private final int[] candidate = new int[3];
+
+    private final double[] candidateLambdas = new double[3];
+
+    private int candidateSize;
+
+    private final int[] best = new int[4];
+
+    private final double[] bestLambdas = new double[4];
+
+    private int bestSize;
+
+    /**
+     * Closest point to the origin in the simplex.
+     */
+    private double vx;
+
+    private double vy;
+
+    private double vz;
+
+    /**
+     * Largest squared length of the Minkowski difference vertices met, the scale of the tolerances.
+     */
+    private double scale;
+
+    private int supportCalls;
+
+    private final double[] polytope = new double[MAX_VERTICES * 3];
+
+    private final double[] polytopeA = new double[MAX_VERTICES * 3];
+
+    private final double[] polytopeB = new double[MAX_VERTICES * 3];
+
+    private int vertexCount;
+
+    private final int[] faces = new int[MAX_FACES * 3];
+
+    private final double[] faceNormals = new double[MAX_FACES * 3];
+
+    private final double[] faceDistances = new double[MAX_FACES];
+
+    private int faceCount;
+
+    /**
+     * Faces seen from the vertex being added.
+     */
+    private final boolean[] visible = new boolean[MAX_FACES];
+
+    private final int[] horizon = new int[MAX_FACES * 6];
+
+    private int horizonSize;
+
+    /**
+     * Result of the last contact query.
+     */
+    private double distance;
+
+    private final double[] normal = new double[3];
+
+    private final double[] closestA = new double[3];
+
+    private final double[] closestB = new double[3];
+
+    /**
+     * Create a new instance, with all the memory needed by the queries.
+     */
+    public Gjk() {
+        super();
+    }
+
+    /**
+     * Check if 2 shapes intersect.
+     *
+     * @param a First shape.
+     * @param b Second shape.
+     * @return true if the shapes overlap or touch.
+     */
+    public boolean intersects(final ConvexShape a, final ConvexShape b) {
+        return this.intersects(a, b, null);
+    }
+
+    /**
+     * Check if 2 shapes intersect, stopping as soon as a separating plane is found.
+     *
+     * @param a     First shape.
+     * @param b     Second shape.
+     * @param cache Cache to warm start from and update, can be null.
+     * @return true if the shapes overlap or touch.
+     */
+    public boolean intersects(final ConvexShape a, final ConvexShape b, final GjkCache cache) {
+        return this.run(a, b, cache, true);
+    }
+
+    /**
+     * Compute the signed distance between 2 shapes.
+     *
+     * @param a First shape.
+     * @param b Second shape.
+     * @return The distance, negative when the shapes overlap: its opposite is then the penetration depth.
+     */
+    public float distance(final ConvexShape a, final ConvexShape b) {
+        return this.distance(a, b, null);
+    }
+
+    /**
+     * Compute the signed distance between 2 shapes.
+     *
+     * @param a     First shape.
+     * @param b     Second shape.
+     * @param cache Cache to warm start from and update, can be null.
+     * @return The distance, negative when the shapes overlap: its opposite is then the penetration depth.
+     */
+    public float distance(final ConvexShape a, final ConvexShape b, final GjkCache cache) {
+        this.compute(a, b, cache);
+        return (float) this.distance;
+    }
+
+    /**
+     * Compute the contact between 2 shapes.
+     *
+     * @param a First shape.
+     * @param b Second shape.
+     * @return The contact.
+     */
+    public Contact contact(final ConvexShape a, final ConvexShape b) {
+        return this.contact(a, b, (GjkCache) null);
+    }
+
+    /**
+     * Compute the contact between 2 shapes.
+     *
+     * @param a     First shape.
+     * @param b     Second shape.
+     * @param cache Cache to warm start from and update, can be null.
+     * @return The contact.
+     */
+    public Contact contact(final ConvexShape a, final ConvexShape b, final GjkCache cache) {
+        this.compute(a, b, cache);
+        return Contact.valueOf(Point3D.valueOf((float) this.normal[0], (float) this.normal[1], (float) this.normal[2]), (float) this.distance);
+    }
+
+    /**
+     * Compute the contact between 2 shapes without allocation.
+     *
+     * @param a      First shape.
+     * @param b      Second shape.
+     * @param cache  Cache to warm start from and update, can be null.
+     * @param result Receive the normal x,y,z and the signed distance, as in the {@link NarrowPhase} batch contacts.
+     * @return The signed distance.
+     */
+    public float contact(final ConvexShape a, final ConvexShape b, final GjkCache cache, final float[] result) {
+        this.compute(a, b, cache);
+        result[0] = (float) this.normal[0];
+        result[1] = (float) this.normal[1];
+        result[2] = (float) this.normal[2];
+        result[3] = (float) this.distance;
+        return result[3];
+    }
+
+    /**
+     * Provide the closest points of the last distance or contact query: when the shapes overlap, the deepest points
+     * of each shape inside the other.
+     *
+     * @param result Receive the point on the first shape x,y,z then the point on the second shape x,y,z.
+     */
+    public void getClosestPoints(final float[] result) {
+        for (int i = 0; i < 3; i++) {
+            result[i] = (float) this.closestA[i];
+            result[i + 3] = (float) this.closestB[i];
+        }
+    }
+
+    /**
+     * @return The number of support function evaluations of each shape during the last query.
+     */
+    public int getSupportCalls() {
+        return this.supportCalls;
+    }
+
+    private void compute(final ConvexShape a, final ConvexShape b, final GjkCache cache) {
+        if (!this.run(a, b, cache, false)) {
+            this.distance = Math.sqrt(this.vx * this.vx + this.vy * this.vy + this.vz * this.vz);
+            this.normal[0] = -this.vx / this.distance;
+            this.normal[1] = -this.vy / this.distance;
+            this.normal[2] = -this.vz / this.distance;
+            for (int k = 0; k < 3; k++) {
+                double pa = 0;
+                double pb = 0;
+                for (int i = 0; i < this.size; i++) {
+                    pa += this.lambdas[i] * this.simplexA[i * 3 + k];
+                    pb += this.lambdas[i] * this.simplexB[i * 3 + k];
+                }
+                this.closestA[k] = pa;
+                this.closestB[k] = pb;
+            }
+        } else {
+            this.distance = -this.penetration(a, b);
+        }
+    }
+
+    /**
+     * Run the GJK iterations.
+     *
+     * @param separation Stop as soon as a separating plane is found, the distance is then not computed.
+     * @return true if the origin is in the Minkowski difference.
+     */
+    private boolean run(final ConvexShape a, final ConvexShape b, final GjkCache cache, final boolean separation) {
+        this.size = 0;
+        this.scale = 0;
+        this.supportCalls = 0;
+        if (cache != null) {
+            double[] directions = cache.directions;
+            for (int i = 0; i < cache.size; i++) {
+                this.support(a, b, directions[i * 3], directions[i * 3 + 1], directions[i * 3 + 2], this.size);
+                if (!this.isDuplicate()) {
+                    this.size++;
+                }
+            }
+        }
+        if (this.size == 0) {
+            this.support(a, b, 1, 0, 0, 0);
+            this.size = 1;
+        }
+        this.solve();
+        boolean separated = false;
+        for (int iteration = 0; iteration < MAX_ITERATIONS && !this.isOriginInside(); iteration++) {
+            double squared = this.vx * this.vx + this.vy * this.vy + this.vz * this.vz;
+            this.support(a, b, -this.vx, -this.vy, -this.vz, this.size);
+            int w = this.size * 3;
+            double dot = this.vx * this.simplex[w] + this.vy * this.simplex[w + 1] + this.vz * this.simplex[w + 2];
+            if (separation && dot > 0) {
+                separated = true;
+                break;
+            }
+            if (squared - dot <= TOLERANCE * squared || this.isDuplicate()) {
+                break;
+            }
+            this.size++;
+            this.solve();
+            if (this.vx * this.vx + this.vy * this.vy + this.vz * this.vz >= squared) {
+                break;
+            }
+        }
+        if (cache != null) {
+            cache.size = this.size;
+            System.arraycopy(this.simplexDirections, 0, cache.directions, 0, this.size * 3);
+        }
+        return !separated && this.isOriginInside();
+    }
+
+    private boolean isOriginInside() {
+        return this.size == 4 || this.vx * this.vx + this.vy * this.vy + this.vz * this.vz <= EPSILON * this.scale;
+    }
+
+    /**
+     * Evaluate the support of the Minkowski difference a - b and store it in a simplex slot.
+     */
+    private void support(final ConvexShape a, final ConvexShape b, final double x, final double y, final double z, final int slot) {
+        a.support(x, y, z, this.supportA);
+        b.support(-x, -y, -z, this.supportB);
+        this.supportCalls++;
+        int i = slot * 3;
+        double length = 0;
+        for (int k = 0; k < 3; k++) {
+            this.simplexA[i + k] = this.supportA[k];
+            this.simplexB[i + k] = this.supportB[k];
+            this.simplex[i + k] = this.supportA[k] - this.supportB[k];
+            length += this.simplex[i + k] * this.simplex[i + k];
+        }
+        this.simplexDirections[i] = x;
+        this.simplexDirections[i + 1] = y;
+        this.simplexDirections[i + 2] = z;
+        this.scale = Math.max(this.scale, length);
+    }
+
+    /**
+     * @return true if the vertex after the simplex is already in it.
+     */
+    private boolean isDuplicate() {
+        int w = this.size * 3;
+        for (int i = 0; i < this.size; i++) {
+            double dx = this.simplex[w] - this.simplex[i * 3];
+            double dy = this.simplex[w + 1] - this.simplex[i * 3 + 1];
+            double dz = this.simplex[w + 2] - this.simplex[i * 3 + 2];
+            if (dx * dx + dy * dy + dz * dz <= EPSILON * this.scale) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the closest point to the origin in the simplex, and reduce the simplex to the smallest one containing it.
+     */
+    private void solve() {
+        switch (this.size) {
+            case 1:
+                this.candidateSize = 1;
+                this.candidate[0] = 0;
+                this.candidateLambdas[0] = 1;
+                this.keepCandidate();
+                break;
+            case 2:
+                this.segment(0, 1);
+                this.keepCandidate();
+                break;
+            case 3:
+                this.triangle(0, 1, 2);
+                this.keepCandidate();
+                break;
+            default:
+                this.tetrahedron();
+                break;
+        }
+        this.vx = 0;
+        this.vy = 0;
+        this.vz = 0;
+        System.arraycopy(this.simplex, 0, this.reduced, 0, 12);
+        System.arraycopy(this.simplexA, 0, this.reduced, 12, 12);
+        System.arraycopy(this.simplexB, 0, this.reduced, 24, 12);
+        System.arraycopy(this.simplexDirections, 0, this.reduced, 36, 12);
+        for (int i = 0; i < this.bestSize; i++) {
+            int from = this.best[i] * 3;
+            System.arraycopy(this.reduced, from, this.simplex, i * 3, 3);
+            System.arraycopy(this.reduced, 12 + from, this.simplexA, i * 3, 3);
+            System.arraycopy(this.reduced, 24 + from, this.simplexB, i * 3, 3);
+            System.arraycopy(this.reduced, 36 + from, this.simplexDirections, i * 3, 3);
+            double lambda = this.bestLambdas[i];
+            this.lambdas[i] = lambda;
+            this.vx += lambda * this.simplex[i * 3];
+            this.vy += lambda * this.simplex[i * 3 + 1];
+            this.vz += lambda * this.simplex[i * 3 + 2];
+        }
+        this.size = this.bestSize;
+    }
+
+    private void keepCandidate() {
+        this.bestSize = this.candidateSize;
+        for (int i = 0; i < this.candidateSize; i++) {
+            this.best[i] = this.candidate[i];
+            this.bestLambdas[i] = this.candidateLambdas[i];
+        }
+    }
+
+    private double vertex(final int slot) {
+        double x = this.simplex[slot * 3];
+        double y = this.simplex[slot * 3 + 1];
+        double z = this.simplex[slot * 3 + 2];
+        this.candidateSize = 1;
+        this.candidate[0] = slot;
+        this.candidateLambdas[0] = 1;
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Closest point to the origin on a segment of the simplex, stored as candidate.
+     *
+     * @return The squared distance to the origin.
+     */
+    private double segment(final int i, final int j) {
+        double ax = this.simplex[i * 3];
+        double ay = this.simplex[i * 3 + 1];
+        double az = this.simplex[i * 3 + 2];
+        double abx = this.simplex[j * 3] - ax;
+        double aby = this.simplex[j * 3 + 1] - ay;
+        double abz = this.simplex[j * 3 + 2] - az;
+        double length = abx * abx + aby * aby + abz * abz;
+        double t = length > 0 ? -(ax * abx + ay * aby + az * abz) / length : 0;
+        if (t <= 0) {
+            return this.vertex(i);
+        }
+        if (t >= 1) {
+            return this.vertex(j);
+        }
+        this.candidateSize = 2;
+        this.candidate[0] = i;
+        this.candidate[1] = j;
+        this.candidateLambdas[0] = 1 - t;
+        this.candidateLambdas[1] = t;
+        double x = ax + abx * t;
+        double y = ay + aby * t;
+        double z = az + abz * t;
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Closest point to the origin on a triangle of the simplex, stored as candidate, from Ericson, Real-Time
+     * Collision Detection, 5.1.5.
+     *
+     * @return The squared distance to the origin.
+     */
+    private double triangle(final int i, final int j, final int k) {
+        double ax = this.simplex[i * 3];
+        double ay = this.simplex[i * 3 + 1];
+        double az = this.simplex[i * 3 + 2];
+        double abx = this.simplex[j * 3] - ax;
+        double aby = this.simplex[j * 3 + 1] - ay;
+        double abz = this.simplex[j * 3 + 2] - az;
+        double acx = this.simplex[k * 3] - ax;
+        double acy = this.simplex[k * 3 + 1] - ay;
+        double acz = this.simplex[k * 3 + 2] - az;
+        double d1 = -(abx * ax + aby * ay + abz * az);
+        double d2 = -(acx * ax + acy * ay + acz * az);
+        if (d1 <= 0 && d2 <= 0) {
+            return this.vertex(i);
+        }
+        double bx = this.simplex[j * 3];
+        double by = this.simplex[j * 3 + 1];
+        double bz = this.simplex[j * 3 + 2];
+        double d3 = -(abx * bx + aby * by + abz * bz);
+        double d4 = -(acx * bx + acy * by + acz * bz);
+        if (d3 >= 0 && d4 <= d3) {
+            return this.vertex(j);
+        }
+        double vc = d1 * d4 - d3 * d2;
+        if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+            return this.segment(i, j);
+        }
+        double cx = this.simplex[k * 3];
+        double cy = this.simplex[k * 3 + 1];
+        double cz = this.simplex[k * 3 + 2];
+        double d5 = -(abx * cx + aby * cy + abz * cz);
+        double d6 = -(acx * cx + acy * cy + acz * cz);
+        if (d6 >= 0 && d5 <= d6) {
+            return this.vertex(k);
+        }
+        double vb = d5 * d2 - d1 * d6;
+        if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+            return this.segment(i, k);
+        }
+        double va = d3 * d6 - d5 * d4;
+        if (va <= 0 && d4 - d3 >= 0 && d5 - d6 >= 0) {
+            return this.segment(j, k);
+        }
+        double sum = va + vb + vc;
+        if (sum <= EPSILON * this.scale * this.scale) {
+            // Degenerated triangle, its vertices are aligned.
+            double ab = abx * abx + aby * aby + abz * abz;
+            double ac = acx * acx + acy * acy + acz * acz;
+            double bcx = cx - bx;
+            double bcy = cy - by;
+            double bcz = cz - bz;
+            double bc = bcx * bcx + bcy * bcy + bcz * bcz;
+            if (ab >= ac && ab >= bc) {
+                return this.segment(i, j);
+            }
+            return ac >= bc ? this.segment(i, k) : this.segment(j, k);
+        }
+        double v = vb / sum;
+        double w = vc / sum;
+        this.candidateSize = 3;
+        this.candidate[0] = i;
+        this.candidate[1] = j;
+        this.candidate[2] = k;
+        this.candidateLambdas[0] = 1 - v - w;
+        this.candidateLambdas[1] = v;
+        this.candidateLambdas[2] = w;
+        double x = ax + abx * v + acx * w;
+        double y = ay + aby * v + acy * w;
+        double z = az + abz * v + acz * w;
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Closest point to the origin in the tetrahedron of the simplex, from Ericson, Real-Time Collision Detection, 5.1.6.
+     * The simplex is kept whole if the origin is inside.
+     */
+    private void tetrahedron() {
+        double volume = this.orientation(0, 1, 2, 3);
+        boolean flat = volume * volume <= EPSILON * this.scale * this.scale * this.scale;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        this.bestSize = 0;
+        bestDistance = this.face(0, 1, 2, 3, flat, bestDistance);
+        bestDistance = this.face(0, 3, 1, 2, flat, bestDistance);
+        bestDistance = this.face(0, 2, 3, 1, flat, bestDistance);
+        this.face(1, 3, 2, 0, flat, bestDistance);
+        if (this.bestSize == 0) {
+            this.bestSize = 4;
+            for (int i = 0; i < 4; i++) {
+                this.best[i] = i;
+                this.bestLambdas[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * Test a face of the tetrahedron if the origin is on its outer side, and keep its closest point if it is the best.
+     *
+     * @return The best squared distance.
+     */
+    private double face(final int i, final int j, final int k, final int opposite, final boolean flat, final double bestDistance) {
+        if (!flat) {
+            double origin = this.orientation(i, j, k, -1);
+            double other = this.orientation(i, j, k, opposite);
+            if (origin * other >= 0) {
+                return bestDistance;
+            }
+        }
+        double distance = this.triangle(i, j, k);
+        if (distance < bestDistance) {
+            this.keepCandidate();
+            return distance;
+        }
+        return bestDistance;
+    }
+
+    /**
+     * Compute (b - a) x (c - a) . (d - a), d being the origin if its index is -1.
+     */
+    private double orientation(final int a, final int b, final int c, final int d) {
+        double ax = this.simplex[a * 3];
+        double ay = this.simplex[a * 3 + 1];
+        double az = this.simplex[a * 3 + 2];
+        double abx = this.simplex[b * 3] - ax;
+        double aby = this.simplex[b * 3 + 1] - ay;
+        double abz = this.simplex[b * 3 + 2] - az;
+        double acx = this.simplex[c * 3] - ax;
+        double acy = this.simplex[c * 3 + 1] - ay;
+        double acz = this.simplex[c * 3 + 2] - az;
+        double adx = d < 0 ? -ax : this.simplex[d * 3] - ax;
+        double ady = d < 0 ? -ay : this.simplex[d * 3 + 1] - ay;
+        double adz = d < 0 ? -az : this.simplex[d * 3 + 2] - az;
+        return (aby * acz - abz * acy) * adx + (abz * acx - abx * acz) * ady + (abx * acy - aby * acx) * adz;
+    }
+
+    /**
+     * Compute the penetration of overlapping shapes with the expanding polytope algorithm, starting from the GJK
+     * simplex containing the origin.
+     *
+     * @return The penetration depth.
+     */
+    private double penetration(final ConvexShape a, final ConvexShape b) {
+        System.arraycopy(this.simplex, 0, this.polytope, 0, this.size * 3);
+        System.arraycopy(this.simplexA, 0, this.polytopeA, 0, this.size * 3);
+        System.arraycopy(this.simplexB, 0, this.polytopeB, 0, this.size * 3);
+        this.vertexCount = this.size;
+        if (!this.expand(a, b)) {
+            // Flat Minkowski difference, the shapes only touch.
+            this.normal[0] = 1;
+            this.normal[1] = 0;
+            this.normal[2] = 0;
+            System.arraycopy(this.polytopeA, 0, this.closestA, 0, 3);
+            System.arraycopy(this.polytopeB, 0, this.closestB, 0, 3);
+            return 0;
+        }
+        this.faceCount = 0;
+        this.addFace(0, 1, 2, 3);
+        this.addFace(0, 3, 1, 2);
+        this.addFace(0, 2, 3, 1);
+        this.addFace(1, 3, 2, 0);
+        // Heights under this value are rounding errors, a vertex that close to a face plane does not see it.
+        double epsilon = PLANE_TOLERANCE * Math.sqrt(this.scale);
+        // GJK accepts the origin this far outside its simplex, the first faces may be behind it by as much.
+        double contact = Math.sqrt(EPSILON * this.scale);
+        int closest = this.closestFace();
+        double best = Double.POSITIVE_INFINITY;
+        for (int iteration = 0; iteration < EPA_ITERATIONS && this.vertexCount < MAX_VERTICES; iteration++) {
+            int n = closest * 3;
+            // Negative when GJK stopped with the origin on the boundary of the polytope, the expansion then covers it.
+            double distance = this.faceDistances[closest];
+            int w = this.polytopeSupport(a, b, this.faceNormals[n], this.faceNormals[n + 1], this.faceNormals[n + 2]);
+            double depth = this.faceNormals[n] * this.polytope[w * 3] + this.faceNormals[n + 1] * this.polytope[w * 3 + 1]
+                    + this.faceNormals[n + 2] * this.polytope[w * 3 + 2];
+            // Moving the shapes apart by the support depth along a face normal separates them, the smallest such move
+            // is kept: it is the penetration once it meets the closest face distance, its lower bound.
+            if (depth < best) {
+                best = depth;
+                System.arraycopy(this.faceNormals, n, this.normal, 0, 3);
+                System.arraycopy(this.polytopeA, w * 3, this.closestA, 0, 3);
+                System.arraycopy(this.polytopeB, w * 3, this.closestB, 0, 3);
+            }
+            if (best - distance <= Math.max(TOLERANCE * distance, epsilon) || this.isPolytopeVertex(w, epsilon)) {
+                break;
+            }
+            // The polytope grows, so its closest face cannot get closer: a closer new face comes from rounding.
+            if (!this.expandPolytope(w, epsilon, Math.min(distance, -contact) - epsilon)) {
+                break;
+            }
+            this.vertexCount++;
+            closest = this.closestFace();
+        }
+        return Math.max(0, best);
+    }
+
+    /**
+     * Add vertices to the polytope until it is a tetrahedron.
+     *
+     * @return false if the Minkowski difference is flat.
+     */
+    private boolean expand(final ConvexShape a, final ConvexShape b) {
+        double tolerance = EPSILON * Math.max(this.scale, Double.MIN_NORMAL);
+        if (this.vertexCount == 1) {
+            for (int i = 0; i < AXES.length && this.vertexCount == 1; i += 3) {
+                int w = this.polytopeSupport(a, b, AXES[i], AXES[i + 1], AXES[i + 2]);
+                double dx = this.polytope[w * 3] - this.polytope[0];
+                double dy = this.polytope[w * 3 + 1] - this.polytope[1];
+                double dz = this.polytope[w * 3 + 2] - this.polytope[2];
+                if (dx * dx + dy * dy + dz * dz > tolerance) {
+                    this.vertexCount = 2;
+                }
+            }
+        }
+        if (this.vertexCount == 2) {
+            double dx = this.polytope[3] - this.polytope[0];
+            double dy = this.polytope[4] - this.polytope[1];
+            double dz = this.polytope[5] - this.polytope[2];
+            double length = dx * dx + dy * dy + dz * dz;
+            // Perpendicular directions: cross product with the axis the least aligned with the segment, then again.
+            double ex = 0;
+            double ey = 0;
+            double ez = 0;
+            if (Math.abs(dx) <= Math.abs(dy) && Math.abs(dx) <= Math.abs(dz)) {
+                ex = 1;
+            } else if (Math.abs(dy) <= Math.abs(dz)) {
+                ey = 1;
+            } else {
+                ez = 1;
+            }
+            double px = dy * ez - dz * ey;
+            double py = dz * ex - dx * ez;
+            double pz = dx * ey - dy * ex;
+            double qx = dy * pz - dz * py;
+            double qy = dz * px - dx * pz;
+            double qz = dx * py - dy * px;
+            for (int i = 0; i < 4 && this.vertexCount == 2; i++) {
+                double sign = i < 2 ? 1 : -1;
+                int w = (i & 1) == 0
+                        ? this.polytopeSupport(a, b, px * sign, py * sign, pz * sign)
+                        : this.polytopeSupport(a, b, qx * sign, qy * sign, qz * sign);
+                double ux = this.polytope[w * 3] - this.polytope[0];
+                double uy = this.polytope[w * 3 + 1] - this.polytope[1];
+                double uz = this.polytope[w * 3 + 2] - this.polytope[2];
+                double cx = uy * dz - uz * dy;
+                double cy = uz * dx - ux * dz;
+                double cz = ux * dy - uy * dx;
+                if (cx * cx + cy * cy + cz * cz > tolerance * length) {
+                    this.vertexCount = 3;
+                }
+            }
+        }
+        if (this.vertexCount == 3) {
+            double abx = this.polytope[3] - this.polytope[0];
+            double aby = this.polytope[4] - this.polytope[1];
+            double abz = this.polytope[5] - this.polytope[2];
+            double acx = this.polytope[6] - this.polytope[0];
+            double acy = this.polytope[7] - this.polytope[1];
+            double acz = this.polytope[8] - this.polytope[2];
+            double nx = aby * acz - abz * acy;
+            double ny = abz * acx - abx * acz;
+            double nz = abx * acy - aby * acx;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            for (int i = 0; i < 2 && this.vertexCount == 3; i++) {
+                double sign = i == 0 ? 1 : -1;
+                int w = this.polytopeSupport(a, b, nx * sign, ny * sign, nz * sign);
+                double height = (this.polytope[w * 3] - this.polytope[0]) * nx + (this.polytope[w * 3 + 1] - this.polytope[1]) * ny
+                        + (this.polytope[w * 3 + 2] - this.polytope[2]) * nz;
+                if (Math.abs(height) > Math.sqrt(tolerance) * length) {
+                    this.vertexCount = 4;
+                }
+            }
+        }
+        return this.vertexCount == 4;
+    }
+
+    /**
+     * Evaluate the support of the Minkowski difference and store it after the polytope vertices.
+     *
+     * @return The slot of the new vertex, not yet counted in the polytope.
+     */
+    private int polytopeSupport(final ConvexShape a, final ConvexShape b, final double x, final double y, final double z) {
+        a.support(x, y, z, this.supportA);
+        b.support(-x, -y, -z, this.supportB);
+        this.supportCalls++;
+        int i = this.vertexCount * 3;
+        for (int k = 0; k < 3; k++) {
+            this.polytopeA[i + k] = this.supportA[k];
+            this.polytopeB[i + k] = this.supportB[k];
+            this.polytope[i + k] = this.supportA[k] - this.supportB[k];
+        }
+        return this.vertexCount;
+    }
+
+    /**
+     * Add a face of the initial tetrahedron, oriented away from the opposite vertex.
+     */
+    private void addFace(final int i, final int j, final int k, final int opposite) {
+        this.addFace(i, j, k);
+        int f = (this.faceCount - 1) * 3;
+        double side = this.faceNormals[f] * (this.polytope[opposite * 3] - this.polytope[i * 3])
+                + this.faceNormals[f + 1] * (this.polytope[opposite * 3 + 1] - this.polytope[i * 3 + 1])
+                + this.faceNormals[f + 2] * (this.polytope[opposite * 3 + 2] - this.polytope[i * 3 + 2]);
+        if (side > 0) {
+            this.faceCount--;
+            this.addFace(i, k, j);
+        }
+    }
+
+    /**
+     * Add a face, counter clockwise seen from outside of the polytope.
+     */
+    private void addFace(final int i, final int j, final int k) {
+        int f = this.faceCount * 3;
+        this.faces[f] = i;
+        this.faces[f + 1] = j;
+        this.faces[f + 2] = k;
+        double ax = this.polytope[i * 3];
+        double ay = this.polytope[i * 3 + 1];
+        double az = this.polytope[i * 3 + 2];
+        double abx = this.polytope[j * 3] - ax;
+        double aby = this.polytope[j * 3 + 1] - ay;
+        double abz = this.polytope[j * 3 + 2] - az;
+        double acx = this.polytope[k * 3] - ax;
+        double acy = this.polytope[k * 3 + 1] - ay;
+        double acz = this.polytope[k * 3 + 2] - az;
+        double nx = aby * acz - abz * acy;
+        double ny = abz * acx - abx * acz;
+        double nz = abx * acy - aby * acx;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length > 0) {
+            this.faceNormals[f] = nx / length;
+            this.faceNormals[f + 1] = ny / length;
+            this.faceNormals[f + 2] = nz / length;
+            this.faceDistances[this.faceCount] = (nx * ax + ny * ay + nz * az) / length;
+        } else {
+            // Degenerated face, never the closest and never visible.
+            this.faceNormals[f] = 0;
+            this.faceNormals[f + 1] = 0;
+            this.faceNormals[f + 2] = 0;
+            this.faceDistances[this.faceCount] = Double.POSITIVE_INFINITY;
+        }
+        this.faceCount++;
+    }
+
+    private int closestFace() {
+        int closest = 0;
+        for (int f = 1; f < this.faceCount; f++) {
+            if (this.faceDistances[f] < this.faceDistances[closest]) {
+                closest = f;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return true if a new vertex is at the same place as a vertex of the polytope.
+     */
+    private boolean isPolytopeVertex(final int vertex, final double epsilon) {
+        int w = vertex * 3;
+        for (int i = 0; i < this.vertexCount; i++) {
+            double dx = this.polytope[w] - this.polytope[i * 3];
+            double dy = this.polytope[w + 1] - this.polytope[i * 3 + 1];
+            double dz = this.polytope[w + 2] - this.polytope[i * 3 + 2];
+            if (dx * dx + dy * dy + dz * dz <= epsilon * epsilon) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the faces seen from a new vertex and connect it to the horizon. The polytope is left unchanged if a new
+     * face would be degenerated or closer to the origin than a minimum distance.
+     *
+     * @param vertex  Slot of the new vertex.
+     * @param epsilon Height from which a face is seen from the vertex.
+     * @param minimum Minimum distance of a new face.
+     * @return false if the polytope cannot grow anymore.
+     */
+    private boolean expandPolytope(final int vertex, final double epsilon, final double minimum) {
+        double x = this.polytope[vertex * 3];
+        double y = this.polytope[vertex * 3 + 1];
+        double z = this.polytope[vertex * 3 + 2];
+        this.horizonSize = 0;
+        int visibleCount = 0;
+        for (int f = 0; f < this.faceCount; f++) {
+            int n = f * 3;
+            int a = this.faces[n] * 3;
+            double height = this.faceNormals[n] * (x - this.polytope[a]) + this.faceNormals[n + 1] * (y - this.polytope[a + 1])
+                    + this.faceNormals[n + 2] * (z - this.polytope[a + 2]);
+            this.visible[f] = height > epsilon;
+            if (this.visible[f]) {
+                visibleCount++;
+                this.addHorizonEdge(this.faces[n], this.faces[n + 1]);
+                this.addHorizonEdge(this.faces[n + 1], this.faces[n + 2]);
+                this.addHorizonEdge(this.faces[n + 2], this.faces[n]);
+            }
+        }
+        if (this.horizonSize == 0 || this.faceCount - visibleCount + this.horizonSize / 2 > MAX_FACES) {
+            return false;
+        }
+        for (int e = 0; e < this.horizonSize; e += 2) {
+            if (!(this.planeDistance(this.horizon[e], this.horizon[e + 1], vertex) >= minimum)) {
+                return false;
+            }
+        }
+        int kept = 0;
+        for (int f = 0; f < this.faceCount; f++) {
+            if (!this.visible[f]) {
+                System.arraycopy(this.faces, f * 3, this.faces, kept * 3, 3);
+                System.arraycopy(this.faceNormals, f * 3, this.faceNormals, kept * 3, 3);
+                this.faceDistances[kept] = this.faceDistances[f];
+                kept++;
+            }
+        }
+        this.faceCount = kept;
+        for (int e = 0; e < this.horizonSize; e += 2) {
+            this.addFace(this.horizon[e], this.horizon[e + 1], vertex);
+        }
+        return true;
+    }
+
+    /**
+     * Compute the distance from the origin to the plane of a face, counter clockwise seen from outside of the polytope.
+     *
+     * @return The signed distance, NaN if the face is degenerated.
+     */
+    private double planeDistance(final int i, final int j, final int k) {
+        double ax = this.polytope[i * 3];
+        double ay = this.polytope[i * 3 + 1];
+        double az = this.polytope[i * 3 + 2];
+        double abx = this.polytope[j * 3] - ax;
+        double aby = this.polytope[j * 3 + 1] - ay;
+        double abz = this.polytope[j * 3 + 2] - az;
+        double acx = this.polytope[k * 3] - ax;
+        double acy = this.polytope[k * 3 + 1] - ay;
+        double acz = this.polytope[k * 3 + 2] - az;
+        double nx = aby * acz - abz * acy;
+        double ny = abz * acx - abx * acz;
+        double nz = abx * acy - aby * acx;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        return length > 0 ? (nx * ax + ny * ay + nz * az) / length : Double.NaN;
+    }
+
+    /**
+     * Add an edge of a removed face to the horizon, or remove it if it is shared with another removed face.
+     */
+    private void addHorizonEdge(final int from, final int to) {
+        for (int e = 0; e < this.horizonSize; e += 2) {
+            if (this.horizon[e] == to && this.horizon[e + 1] == from) {
+                this.horizonSize -= 2;
+                this.horizon[e] = this.horizon[this.horizonSize];
+                this.horizon[e + 1] = this.horizon[this.horizonSize + 1];
+                return;
+            }
+        }
+        this.horizon[this.horizonSize] = from;
+        this.horizon[this.horizonSize + 1] = to;
+        this.horizonSize += 2;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Simplex of a previous {@link Gjk} query, to warm start the next query on the same pair of shapes.
+ * Shapes moving a little between frames usually end on a simplex close to the previous one, the query then needs
+ * only a few iterations. Keep one cache per persistent pair, not thread safe.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class GjkCache {
+
+    /**
+     * Search directions that produced the simplex vertices, x,y,z per vertex.
+     */
+    final double[] directions = new double[12];
+
+    /**
+     * Number of cached vertices, 0 if the cache is empty.
+     */
+    int size;
+
+    /**
+     * Create an empty cache.
+     */
+    public GjkCache() {
+        super();
+    }
+
+    /**
+     * Forget the cached simplex, to call when the cache is reused for another pair.
+     */
+    public void reset() {
+        this.size = 0;
+    }
+
+    /**
+     * @return true if no simplex is cached.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+}
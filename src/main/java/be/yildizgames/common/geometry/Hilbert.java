@@ -0,0 +1,507 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Hilbert curve indexes for integer cell coordinates.
+ * The order is the number of bits per axis, a curve of order n covers a grid of 2^n cells per side.
+ * The 2D curve is computed with a state machine consuming 4 levels per table lookup,
+ * the 3D curve uses the transpose algorithm from J. Skilling.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Hilbert {
+
+    /**
+     * Highest order for a 2D index.
+     */
+    public static final int MAX_ORDER_2D = 32;
+
+    /**
+     * Highest order for a 3D index.
+     */
+    public static final int MAX_ORDER_3D = 21;
+
+    /**
+     * State bit telling the x and y bits are swapped.
+     */
+    private static final int SWAP = 1;
+
+    /**
+     * State bit telling the x and y bits are complemented.
+     */
+    private static final int FLIP = 2;
+
+    /**
+     * Lookup on state, 4 x bits and 4 y bits, gives the 8 index bits and the next state.
+     */
+    private static final int[] ENCODE_TABLE = new int[4 << 8];
+
+    /**
+     * Lookup on state and 8 index bits, gives 4 x bits, 4 y bits and the next state.
+     */
+    private static final int[] DECODE_TABLE = new int[4 << 8];
+
+    static {
+        for (int state = 0; state < 4; state++) {
+            for (int nibbles = 0; nibbles < 256; nibbles++) {
+                int s = state;
+                int index = 0;
+                for (int bit = 3; bit >= 0; bit--) {
+                    int step = encodeStep(s, (nibbles >>> (4 + bit)) & 1, (nibbles >>> bit) & 1);
+                    index = (index << 2) | (step >>> 2);
+                    s = step & 3;
+                }
+                ENCODE_TABLE[(state << 8) | nibbles] = (index << 2) | s;
+                s = state;
+                int x = 0;
+                int y = 0;
+                for (int digit = 3; digit >= 0; digit--) {
+                    int step = decodeStep(s, (nibbles >>> (digit * 2)) & 3);
+                    x = (x << 1) | ((step >>> 3) & 1);
+                    y = (y << 1) | ((step >>> 2) & 1);
+                    s = step & 3;
+                }
+                DECODE_TABLE[(state << 8) | nibbles] = (((x << 4) | y) << 2) | s;
+            }
+        }
+    }
+
+    private Hilbert() {
+        super();
+    }
+
+    /**
+     * Compute the index of a cell on a 2D curve of order 32.
+     *
+     * @param x X cell coordinate, used as an unsigned value.
+     * @param y Y cell coordinate, used as an unsigned value.
+     * @return The Hilbert index.
+     */
+    public static long encode2D(final int x, final int y) {
+        return encode2D(x, y, MAX_ORDER_2D);
+    }
+
+    /**
+     * Compute the index of a cell on a 2D curve.
+     *
+     * @param x     X cell coordinate, only the order lowest bits are used.
+     * @param y     Y cell coordinate, only the order lowest bits are used.
+     * @param order Curve order, from 1 to 32.
+     * @return The Hilbert index.
+     */
+    public static long encode2D(final int x, final int y, final int order) {
+        checkOrder(order, MAX_ORDER_2D);
+        int state = 0;
+        long index = 0;
+        int level = order;
+        while ((level & 3) != 0) {
+            level--;
+            int step = encodeStep(state, (x >>> level) & 1, (y >>> level) & 1);
+            index = (index << 2) | (step >>> 2);
+            state = step & 3;
+        }
+        while (level > 0) {
+            level -= 4;
+            int step = ENCODE_TABLE[(state << 8) | (((x >>> level) & 0xF) << 4) | ((y >>> level) & 0xF)];
+            index = (index << 8) | (step >>> 2);
+            state = step & 3;
+        }
+        return index;
+    }
+
+    /**
+     * Retrieve the cell coordinates from an index on a 2D curve of order 32.
+     *
+     * @param index  Hilbert index.
+     * @param result Array receiving x and y.
+     */
+    public static void decode2D(final long index, final int[] result) {
+        decode2D(index, MAX_ORDER_2D, result);
+    }
+
+    /**
+     * Retrieve the cell coordinates from an index on a 2D curve.
+     *
+     * @param index  Hilbert index.
+     * @param order  Curve order, from 1 to 32.
+     * @param result Array receiving x and y.
+     */
+    public static void decode2D(final long index, final int order, final int[] result) {
+        checkOrder(order, MAX_ORDER_2D);
+        int state = 0;
+        int x = 0;
+        int y = 0;
+        int level = order;
+        while ((level & 3) != 0) {
+            level--;
+            int step = decodeStep(state, (int) (index >>> (level * 2)) & 3);
+            x = (x << 1) | ((step >>> 3) & 1);
+            y = (y << 1) | ((step >>> 2) & 1);
+            state = step & 3;
+        }
+        while (level > 0) {
+            level -= 4;
+            int step = DECODE_TABLE[(state << 8) | ((int) (index >>> (level * 2)) & 0xFF)];
+            x = (x << 4) | (step >>> 6);
+            y = (y << 4) | ((step >>> 2) & 0xF);
+            state = step & 3;
+        }
+        result[0] = x;
+        result[1] = y;
+    }
+
+    /**
+     * Compute the index of a cell on a 3D curve of order 21.
+     *
+     * @param x X cell coordinate.
+     * @param y Y cell coordinate.
+     * @param z Z cell coordinate.
+     * @return The Hilbert index.
+     */
+    public static long encode3D(final int x, final int y, final int z) {
+        return encode3D(x, y, z, MAX_ORDER_3D);
+    }
+
+    /**
+     * Compute the index of a cell on a 3D curve.
+     *
+     * @param x     X cell coordinate, only the order lowest bits are used.
+     * @param y     Y cell coordinate, only the order lowest bits are used.
+     * @param z     Z cell coordinate, only the order lowest bits are used.
+     * @param order Curve order, from 1 to 21.
+     * @return The Hilbert index.
+     */
+    public static long encode3D(final int x, final int y, final int z, final int order) {
+        checkOrder(order, MAX_ORDER_3D);
+        int mask = (1 << order) - 1;
+        int x0 = x & mask;
+        int x1 = y & mask;
+        int x2 = z & mask;
+        int t;
+        for (int q = 1 << (order - 1); q > 1; q >>>= 1) {
+            int p = q - 1;
+            if ((x0 & q) != 0) {
+                x0 ^= p;
+            }
+            if ((x1 & q) != 0) {
+                x0 ^= p;
+            } else {
+                t = (x0 ^ x1) & p;
+                x0 ^= t;
+                x1 ^= t;
+            }
+            if ((x2 & q) != 0) {
+                x0 ^= p;
+            } else {
+                t = (x0 ^ x2) & p;
+                x0 ^= t;
+                x2 ^= t;
+            }
+        }
+        x1 ^= x0;
+        x2 ^= x1;
+        t = 0;
+        for (int q = 1 << (order - 1); q > 1; q >>>= 1) {
+            if ((x2 & q) != 0) {
+                t ^= q - 1;
+            }
+        }
+        return Morton.spread3(x2 ^ t) | (Morton.spread3(x1 ^ t) << 1) | (Morton.spread3(x0 ^ t) << 2);
+    }
+
+    /**
+     * Retrieve the cell coordinates from an index on a 3D curve of order 21.
+     *
+     * @param index  Hilbert index.
+     * @param result Array receiving x, y and z.
+     */
+    public static void decode3D(final long index, final int[] result) {
+        decode3D(index, MAX_ORDER_3D, result);
+    }
+
+    /**
+     * Retrieve the cell coordinates from an index on a 3D curve.
+     *
+     * @param index  Hilbert index.
+     * @param order  Curve order, from 1 to 21.
+     * @param result Array receiving x, y and z.
+     */
+    public static void decode3D(final long index, final int order, final int[] result) {
+        checkOrder(order, MAX_ORDER_3D);
+        int x0 = Morton.compact3(index >>> 2);
+        int x1 = Morton.compact3(index >>> 1);
+        int x2 = Morton.compact3(index);
+        int t = x2 >>> 1;
+        x2 ^= x1;
+        x1 ^= x0;
+        x0 ^= t;
+        int end = 1 << order;
+        for (int q = 2; q != end; q <<= 1) {
+            int p = q - 1;
+            if ((x2 & q) != 0) {
+                x0 ^= p;
+            } else {
+                t = (x0 ^ x2) & p;
+                x0 ^= t;
+                x2 ^= t;
+            }
+            if ((x1 & q) != 0) {
+                x0 ^= p;
+            } else {
+                t = (x0 ^ x1) & p;
+                x0 ^= t;
+                x1 ^= t;
+            }
+            if ((x0 & q) != 0) {
+                x0 ^= p;
+            }
+        }
+        int mask = (1 << order) - 1;
+        result[0] = x0 & mask;
+        result[1] = x1 & mask;
+        result[2] = x2 & mask;
+    }
+
+    /**
+     * Quantize a point on a grid and compute its index on a 2D curve of order 32, coordinates out of the grid are clamped.
+     *
+     * @param point    Point to encode.
+     * @param origin   Grid origin, is cell 0,0.
+     * @param cellSize Size of a grid cell.
+     * @return The Hilbert index of the cell containing the point.
+     */
+    public static long encode(final Point2D point, final Point2D origin, final float cellSize) {
+        float inv = 1 / cellSize;
+        return encode2D(Morton.quantize(point.x, origin.x, inv, Morton.MAX_2D), Morton.quantize(point.y, origin.y, inv, Morton.MAX_2D));
+    }
+
+    /**
+     * Quantize a point on a grid and compute its index on a 3D curve of order 21, coordinates out of the grid are clamped.
+     *
+     * @param point    Point to encode.
+     * @param origin   Grid origin, is cell 0,0,0.
+     * @param cellSize Size of a grid cell.
+     * @return The Hilbert index of the cell containing the point.
+     */
+    public static long encode(final Point3D point, final Point3D origin, final float cellSize) {
+        float inv = 1 / cellSize;
+        return encode3D(
+                Morton.quantize(point.x, origin.x, inv, Morton.MAX_3D),
+                Morton.quantize(point.y, origin.y, inv, Morton.MAX_3D),
+                Morton.quantize(point.z, origin.z, inv, Morton.MAX_3D));
+    }
+
+    /**
+     * Compute the minimal set of index intervals covering exactly the cells of a rectangle, left, top, right and bottom
+     * are inclusive cell coordinates, the part of the rectangle outside of the curve is ignored.
+     *
+     * @param query Rectangle to cover.
+     * @param order Curve order, from 1 to 32.
+     * @return The sorted intervals, as inclusive start and end index pairs.
+     */
+    public static long[] ranges(final Rectangle query, final int order) {
+        return ranges(query, order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Compute a set of index intervals covering the cells of a rectangle.
+     * If the exact cover needs more than maxRanges intervals, the intervals separated by the smallest gaps are merged,
+     * the result then covers some cells outside of the rectangle.
+     *
+     * @param query     Rectangle to cover.
+     * @param order     Curve order, from 1 to 32.
+     * @param maxRanges Maximum number of intervals to return, at least 1.
+     * @return The sorted intervals, as inclusive start and end index pairs.
+     */
+    public static long[] ranges(final Rectangle query, final int order, final int maxRanges) {
+        checkOrder(order, MAX_ORDER_2D);
+        if (maxRanges < 1) {
+            throw new IllegalArgumentException("maxRanges must be at least 1.");
+        }
+        long max = (1L << order) - 1;
+        long minX = Math.max(0, Math.min(query.getLeft(), query.getRight()));
+        long maxX = Math.min(max, Math.max(query.getLeft(), query.getRight()));
+        long minY = Math.max(0, Math.min(query.getTop(), query.getBottom()));
+        long maxY = Math.min(max, Math.max(query.getTop(), query.getBottom()));
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        RangeBuilder builder = new RangeBuilder();
+        if (minX <= maxX && minY <= maxY) {
+            builder.cover(minX, minY, maxX, maxY, order, 0, 0, 0, 0);
+        }
+        long[] ranges = builder.build(maxRanges);
+        event.commit("Hilbert", "ranges", order, 1, builder.visited, ranges.length / 2);
+        return ranges;
+    }
+
+    /**
+     * Process one level of the 2D curve.
+     *
+     * @param state Current state.
+     * @param x     X bit for this level.
+     * @param y     Y bit for this level.
+     * @return The index digit shifted left by 2, or-ed with the next state.
+     */
+    private static int encodeStep(final int state, final int x, final int y) {
+        int rx = x;
+        int ry = y;
+        if ((state & FLIP) != 0) {
+            rx ^= 1;
+            ry ^= 1;
+        }
+        if ((state & SWAP) != 0) {
+            int t = rx;
+            rx = ry;
+            ry = t;
+        }
+        return (((3 * rx) ^ ry) << 2) | nextState(state, rx, ry);
+    }
+
+    /**
+     * Process one level of the 2D curve.
+     *
+     * @param state Current state.
+     * @param digit Index digit for this level.
+     * @return The x bit shifted left by 3, the y bit shifted left by 2, or-ed with the next state.
+     */
+    private static int decodeStep(final int state, final int digit) {
+        int rx = digit >>> 1;
+        int ry = (digit ^ rx) & 1;
+        int x = rx;
+        int y = ry;
+        if ((state & SWAP) != 0) {
+            x = ry;
+            y = rx;
+        }
+        if ((state & FLIP) != 0) {
+            x ^= 1;
+            y ^= 1;
+        }
+        return (x << 3) | (y << 2) | nextState(state, rx, ry);
+    }
+
+    private static int nextState(final int state, final int rx, final int ry) {
+        if (ry != 0) {
+            return state;
+        }
+        return rx == 0 ? state ^ SWAP : state ^ SWAP ^ FLIP;
+    }
+
+    private static void checkOrder(final int order, final int max) {
+        if (order < 1 || order > max) {
+            throw new IllegalArgumentException("Order must be between 1 and " + max + ", got " + order + ".");
+        }
+    }
+
+    /**
+     * Collect the intervals while walking down the curve, the children of a node are visited in curve order so the
+     * intervals are produced sorted and contiguous ones are merged on the fly.
+     */
+    private static final class RangeBuilder {
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        /**
+         * Number of curve nodes visited.
+         */
+        private long visited;
+
+        private void cover(final long minX, final long minY, final long maxX, final long maxY,
+                           final int level, final long prefix, final int state, final long cellX, final long cellY) {
+            this.visited++;
+            long last = (1L << level) - 1;
+            if (cellX > maxX || cellY > maxY || cellX + last < minX || cellY + last < minY) {
+                return;
+            }
+            if (cellX >= minX && cellY >= minY && cellX + last <= maxX && cellY + last <= maxY) {
+                long start = prefix << (level * 2);
+                this.add(start, level == MAX_ORDER_2D ? -1L : start + (1L << (level * 2)) - 1);
+                return;
+            }
+            int childLevel = level - 1;
+            for (int digit = 0; digit < 4; digit++) {
+                int step = decodeStep(state, digit);
+                this.cover(minX, minY, maxX, maxY, childLevel, (prefix << 2) | digit, step & 3,
+                        cellX + (((long) (step >>> 3) & 1) << childLevel),
+                        cellY + (((long) (step >>> 2) & 1) << childLevel));
+            }
+        }
+
+        private void add(final long start, final long end) {
+            if (this.size > 0 && this.values[this.size - 1] + 1 == start) {
+                this.values[this.size - 1] = end;
+                return;
+            }
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = start;
+            this.values[this.size++] = end;
+        }
+
+        private long[] build(final int maxRanges) {
+            int count = this.size / 2;
+            if (count <= maxRanges) {
+                return Arrays.copyOf(this.values, this.size);
+            }
+            long[] gaps = new long[count - 1];
+            for (int i = 0; i < gaps.length; i++) {
+                long gap = this.values[i * 2 + 2] - this.values[i * 2 + 1];
+                gaps[i] = gap < 0 ? Long.MAX_VALUE : gap;
+            }
+            long[] sorted = gaps.clone();
+            Arrays.sort(sorted);
+            int toMerge = count - maxRanges;
+            long threshold = sorted[toMerge - 1];
+            int belowThreshold = 0;
+            while (belowThreshold < toMerge && sorted[belowThreshold] < threshold) {
+                belowThreshold++;
+            }
+            int equalToMerge = toMerge - belowThreshold;
+            long[] result = new long[maxRanges * 2];
+            int position = 0;
+            result[0] = this.values[0];
+            for (int i = 0; i < gaps.length; i++) {
+                boolean merge = gaps[i] < threshold;
+                if (!merge && gaps[i] == threshold && equalToMerge > 0) {
+                    equalToMerge--;
+                    merge = true;
+                }
+                if (!merge) {
+                    result[position * 2 + 1] = this.values[i * 2 + 1];
+                    position++;
+                    result[position * 2] = this.values[i * 2 + 2];
+                }
+            }
+            result[position * 2 + 1] = this.values[this.size - 1];
+            return result;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the build of an index or a derived structure.
+ * Disabled by default, enable it in the recording settings with be.yildizgames.geometry.IndexBuild#enabled=true.
+ *
+ * @author Gregory Van den Borre
+ */
+@Name("be.yildizgames.geometry.IndexBuild")
+@Label("Index Build")
+@Category({"Yildiz", "Geometry"})
+@Description("Build of a spatial index or structure")
+@Enabled(false)
+@StackTrace(false)
+final class IndexBuildEvent extends Event {
+
+    @Label("Structure")
+    String structure;
+
+    @Label("Elements")
+    @Description("Number of input elements")
+    int elements;
+
+    @Label("Nodes")
+    @Description("Number of nodes or entries built")
+    long nodes;
+
+    /**
+     * Fill and commit the event if it is enabled and lasted longer than its threshold.
+     */
+    void commit(final String structure, final int elements, final long nodes) {
+        if (this.shouldCommit()) {
+            this.structure = structure;
+            this.elements = elements;
+            this.nodes = nodes;
+            this.commit();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of the shape and usage of a spatial index, to tune its parameters from real traffic.
+ * The depth histogram holds the number of leaves at each depth, flat structures having all their leaves at depth 0.
+ * The occupancy histogram holds the number of leaves per element count bucket: bucket 0 for empty leaves, and bucket
+ * k for leaves holding from 2^(k-1) to 2^k - 1 elements.
+ * The memory footprint is an estimate of the bytes held by the index arrays.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class IndexStatistics {
+
+    private final long nodeCount;
+
+    private final int[] depthHistogram;
+
+    private final int[] occupancyHistogram;
+
+    private final long memoryFootprint;
+
+    private final long rebuildCount;
+
+    private final long queryCount;
+
+    private final long visitedCount;
+
+    IndexStatistics(final long nodeCount, final int[] depthHistogram, final int[] occupancyHistogram,
+                    final long memoryFootprint, final long rebuildCount, final long queryCount, final long visitedCount) {
+        super();
+        this.nodeCount = nodeCount;
+        this.depthHistogram = depthHistogram;
+        this.occupancyHistogram = occupancyHistogram;
+        this.memoryFootprint = memoryFootprint;
+        this.rebuildCount = rebuildCount;
+        this.queryCount = queryCount;
+        this.visitedCount = visitedCount;
+    }
+
+    /**
+     * @param count Number of elements in a leaf.
+     * @return The occupancy bucket of the leaf.
+     */
+    static int occupancyBucket(final int count) {
+        return 32 - Integer.numberOfLeadingZeros(count);
+    }
+
+    /**
+     * Estimate the size of an array.
+     *
+     * @param length      Array length.
+     * @param elementSize Size of an element, in bytes.
+     * @return The estimated size in bytes, header included.
+     */
+    static long arraySize(final int length, final int elementSize) {
+        return 16 + (long) length * elementSize;
+    }
+
+    /**
+     * @return The number of nodes, or slots for hash based structures.
+     */
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * @return A copy of the number of leaves at each depth.
+     */
+    public int[] getDepthHistogram() {
+        return this.depthHistogram.clone();
+    }
+
+    /**
+     * @return The depth of the deepest leaf, -1 if there is no leaf.
+     */
+    public int getMaxDepth() {
+        return this.depthHistogram.length - 1;
+    }
+
+    /**
+     * @return A copy of the number of leaves per occupancy bucket.
+     */
+    public int[] getOccupancyHistogram() {
+        return this.occupancyHistogram.clone();
+    }
+
+    /**
+     * @return The estimated memory used by the index, in bytes.
+     */
+    public long getMemoryFootprint() {
+        return this.memoryFootprint;
+    }
+
+    /**
+     * @return The number of times the index was rebuilt, rebalanced or grown.
+     */
+    public long getRebuildCount() {
+        return this.rebuildCount;
+    }
+
+    /**
+     * @return The number of queries run on the index.
+     */
+    public long getQueryCount() {
+        return this.queryCount;
+    }
+
+    /**
+     * @return The total number of nodes or elements visited by the queries.
+     */
+    public long getVisitedCount() {
+        return this.visitedCount;
+    }
+
+    /**
+     * @return The mean number of nodes or elements visited per query, 0 if there was no query.
+     */
+    public double getAverageVisited() {
+        return this.queryCount == 0 ? 0 : (double) this.visitedCount / this.queryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexStatistics: " + this.nodeCount + " nodes, depths " + Arrays.toString(this.depthHistogram)
+                + ", occupancy " + Arrays.toString(this.occupancyHistogram) + ", " + this.memoryFootprint + " bytes, "
+                + this.rebuildCount + " rebuilds, " + this.queryCount + " queries, " + this.getAverageVisited()
+                + " visited per query";
+    }
+
+    /**
+     * Histogram growing with the largest index added.
+     */
+    static final class Histogram {
+
+        private int[] values = new int[8];
+
+        private int length;
+
+        /**
+         * Count a value.
+         *
+         * @param index Histogram bucket.
+         * @param count Number to add to the bucket.
+         */
+        void add(final int index, final int count) {
+            if (index >= this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.max(index + 1, this.values.length * 2));
+            }
+            this.values[index] += count;
+            this.length = Math.max(this.length, index + 1);
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.length);
+        }
+    }
+}
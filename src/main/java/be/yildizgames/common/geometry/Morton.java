@@ -0,0 +1,387 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Morton (Z-order) codes, interleave the bits of integer cell coordinates so that points close in space get close keys.
+ * 2D codes use 32 bits per axis, 3D codes use 21 bits per axis.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Morton {
+
+    /**
+     * Highest cell coordinate for a 2D code.
+     */
+    public static final long MAX_2D = 0xFFFFFFFFL;
+
+    /**
+     * Highest cell coordinate for a 3D code.
+     */
+    public static final int MAX_3D = 0x1FFFFF;
+
+    /**
+     * Number of cells per axis used when quantizing a buffer on its own bounds, matches the float mantissa precision.
+     */
+    private static final int AUTO_CELLS_2D = 0xFFFFFF;
+
+    private Morton() {
+        super();
+    }
+
+    /**
+     * Interleave 2 cell coordinates, x bits are on the even positions.
+     *
+     * @param x X cell coordinate, used as an unsigned value.
+     * @param y Y cell coordinate, used as an unsigned value.
+     * @return The Morton code.
+     */
+    public static long encode2D(final int x, final int y) {
+        return spread2(x) | (spread2(y) << 1);
+    }
+
+    /**
+     * @param code Morton code built with encode2D.
+     * @return The X cell coordinate.
+     */
+    public static int decode2DX(final long code) {
+        return compact2(code);
+    }
+
+    /**
+     * @param code Morton code built with encode2D.
+     * @return The Y cell coordinate.
+     */
+    public static int decode2DY(final long code) {
+        return compact2(code >>> 1);
+    }
+
+    /**
+     * Interleave 3 cell coordinates, only the 21 lowest bits of each value are used.
+     *
+     * @param x X cell coordinate.
+     * @param y Y cell coordinate.
+     * @param z Z cell coordinate.
+     * @return The Morton code.
+     */
+    public static long encode3D(final int x, final int y, final int z) {
+        return spread3(x) | (spread3(y) << 1) | (spread3(z) << 2);
+    }
+
+    /**
+     * @param code Morton code built with encode3D.
+     * @return The X cell coordinate.
+     */
+    public static int decode3DX(final long code) {
+        return compact3(code);
+    }
+
+    /**
+     * @param code Morton code built with encode3D.
+     * @return The Y cell coordinate.
+     */
+    public static int decode3DY(final long code) {
+        return compact3(code >>> 1);
+    }
+
+    /**
+     * @param code Morton code built with encode3D.
+     * @return The Z cell coordinate.
+     */
+    public static int decode3DZ(final long code) {
+        return compact3(code >>> 2);
+    }
+
+    /**
+     * Quantize a point on a grid and compute its Morton code, coordinates out of the grid are clamped.
+     *
+     * @param point    Point to encode.
+     * @param origin   Grid origin, is cell 0,0.
+     * @param cellSize Size of a grid cell.
+     * @return The Morton code of the cell containing the point.
+     */
+    public static long encode(final Point2D point, final Point2D origin, final float cellSize) {
+        return encode2D(quantize(point.x, origin.x, 1 / cellSize, MAX_2D), quantize(point.y, origin.y, 1 / cellSize, MAX_2D));
+    }
+
+    /**
+     * Quantize a point on a grid and compute its Morton code, coordinates out of the grid are clamped.
+     *
+     * @param point    Point to encode.
+     * @param origin   Grid origin, is cell 0,0,0.
+     * @param cellSize Size of a grid cell.
+     * @return The Morton code of the cell containing the point.
+     */
+    public static long encode(final Point3D point, final Point3D origin, final float cellSize) {
+        float inv = 1 / cellSize;
+        return encode3D(
+                quantize(point.x, origin.x, inv, MAX_3D),
+                quantize(point.y, origin.y, inv, MAX_3D),
+                quantize(point.z, origin.z, inv, MAX_3D));
+    }
+
+    /**
+     * Sort a buffer of x,y coordinates and its ids by Morton code, the grid is computed from the buffer bounds.
+     *
+     * @param coordinates Interleaved x,y values, sorted in place.
+     * @param ids         One id per point, sorted in place with the coordinates.
+     * @return The sorted Morton codes, one per point.
+     */
+    public static long[] sort2D(final float[] coordinates, final int[] ids) {
+        float[] bounds = bounds(coordinates, 2);
+        float cellSize = cellSize(bounds, 2, AUTO_CELLS_2D);
+        return sort2D(coordinates, ids, Point2D.valueOf(bounds[0], bounds[1]), cellSize);
+    }
+
+    /**
+     * Sort a buffer of x,y coordinates and its ids by Morton code.
+     *
+     * @param coordinates Interleaved x,y values, sorted in place.
+     * @param ids         One id per point, sorted in place with the coordinates.
+     * @param origin      Grid origin.
+     * @param cellSize    Size of a grid cell.
+     * @return The sorted Morton codes, one per point.
+     */
+    public static long[] sort2D(final float[] coordinates, final int[] ids, final Point2D origin, final float cellSize) {
+        int size = checkSize(coordinates, ids, 2);
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        float inv = 1 / cellSize;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = encode2D(
+                    quantize(coordinates[i * 2], origin.x, inv, MAX_2D),
+                    quantize(coordinates[i * 2 + 1], origin.y, inv, MAX_2D));
+        }
+        sortByKeys(keys, coordinates, 2, ids);
+        event.commit("Morton.sort2D", size, size);
+        return keys;
+    }
+
+    /**
+     * Sort a buffer of x,y,z coordinates and its ids by Morton code, the grid is computed from the buffer bounds.
+     *
+     * @param coordinates Interleaved x,y,z values, sorted in place.
+     * @param ids         One id per point, sorted in place with the coordinates.
+     * @return The sorted Morton codes, one per point.
+     */
+    public static long[] sort3D(final float[] coordinates, final int[] ids) {
+        float[] bounds = bounds(coordinates, 3);
+        float cellSize = cellSize(bounds, 3, MAX_3D);
+        return sort3D(coordinates, ids, Point3D.valueOf(bounds[0], bounds[1], bounds[2]), cellSize);
+    }
+
+    /**
+     * Sort a buffer of x,y,z coordinates and its ids by Morton code.
+     *
+     * @param coordinates Interleaved x,y,z values, sorted in place.
+     * @param ids         One id per point, sorted in place with the coordinates.
+     * @param origin      Grid origin.
+     * @param cellSize    Size of a grid cell.
+     * @return The sorted Morton codes, one per point.
+     */
+    public static long[] sort3D(final float[] coordinates, final int[] ids, final Point3D origin, final float cellSize) {
+        int size = checkSize(coordinates, ids, 3);
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        float inv = 1 / cellSize;
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = encode3D(
+                    quantize(coordinates[i * 3], origin.x, inv, MAX_3D),
+                    quantize(coordinates[i * 3 + 1], origin.y, inv, MAX_3D),
+                    quantize(coordinates[i * 3 + 2], origin.z, inv, MAX_3D));
+        }
+        sortByKeys(keys, coordinates, 3, ids);
+        event.commit("Morton.sort3D", size, size);
+        return keys;
+    }
+
+    /**
+     * Sort the keys in place and apply the same permutation to the coordinates and ids.
+     *
+     * @param keys        Keys to sort.
+     * @param coordinates Coordinates to reorder.
+     * @param stride      Number of coordinates per key.
+     * @param ids         Ids to reorder.
+     */
+    static void sortByKeys(final long[] keys, final float[] coordinates, final int stride, final int[] ids) {
+        int[] permutation = radixSort(keys);
+        float[] coordinatesCopy = Arrays.copyOf(coordinates, keys.length * stride);
+        int[] idsCopy = Arrays.copyOf(ids, keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            int from = permutation[i];
+            ids[i] = idsCopy[from];
+            System.arraycopy(coordinatesCopy, from * stride, coordinates, i * stride, stride);
+        }
+    }
+
+    /**
+     * LSD radix sort on unsigned 64 bits keys, 8 bits per pass, a pass is skipped when all keys share the same digit.
+     *
+     * @param keys Keys to sort in place.
+     * @return The permutation, result[i] is the original index of the i-th sorted key.
+     */
+    static int[] radixSort(final long[] keys) {
+        int size = keys.length;
+        long[] sourceKeys = keys;
+        long[] targetKeys = new long[size];
+        int[] source = new int[size];
+        int[] target = new int[size];
+        for (int i = 0; i < size; i++) {
+            source[i] = i;
+        }
+        int[] count = new int[257];
+        for (int shift = 0; shift < Long.SIZE; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < size; i++) {
+                count[((int) (sourceKeys[i] >>> shift) & 0xFF) + 1]++;
+            }
+            if (size == 0 || count[((int) (sourceKeys[0] >>> shift) & 0xFF) + 1] == size) {
+                continue;
+            }
+            for (int i = 0; i < 256; i++) {
+                count[i + 1] += count[i];
+            }
+            for (int i = 0; i < size; i++) {
+                int position = count[(int) (sourceKeys[i] >>> shift) & 0xFF]++;
+                targetKeys[position] = sourceKeys[i];
+                target[position] = source[i];
+            }
+            long[] tempKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = tempKeys;
+            int[] temp = source;
+            source = target;
+            target = temp;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, size);
+        }
+        return source;
+    }
+
+    /**
+     * Quantize a coordinate on a grid axis.
+     *
+     * @param value   Coordinate.
+     * @param origin  Grid origin on the axis.
+     * @param inverse Inverse of the cell size.
+     * @param max     Highest cell.
+     * @return The cell index, clamped in [0, max].
+     */
+    static int quantize(final float value, final float origin, final float inverse, final long max) {
+        double cell = Math.floor((value - origin) * (double) inverse);
+        if (cell <= 0) {
+            return 0;
+        }
+        if (cell >= max) {
+            return (int) max;
+        }
+        return (int) (long) cell;
+    }
+
+    /**
+     * Compute the bounds of an interleaved coordinate buffer.
+     *
+     * @param coordinates Coordinates.
+     * @param stride      Number of coordinates per point.
+     * @return The min values followed by the max values.
+     */
+    static float[] bounds(final float[] coordinates, final int stride) {
+        float[] bounds = new float[stride * 2];
+        for (int axis = 0; axis < stride; axis++) {
+            bounds[axis] = Float.POSITIVE_INFINITY;
+            bounds[axis + stride] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i + stride <= coordinates.length; i += stride) {
+            for (int axis = 0; axis < stride; axis++) {
+                bounds[axis] = Math.min(bounds[axis], coordinates[i + axis]);
+                bounds[axis + stride] = Math.max(bounds[axis + stride], coordinates[i + axis]);
+            }
+        }
+        if (coordinates.length < stride) {
+            Arrays.fill(bounds, 0);
+        }
+        return bounds;
+    }
+
+    private static float cellSize(final float[] bounds, final int stride, final int cells) {
+        float extent = 0;
+        for (int axis = 0; axis < stride; axis++) {
+            extent = Math.max(extent, bounds[axis + stride] - bounds[axis]);
+        }
+        return extent > 0 ? extent / cells : 1;
+    }
+
+    private static int checkSize(final float[] coordinates, final int[] ids, final int stride) {
+        if (coordinates.length % stride != 0) {
+            throw new IllegalArgumentException("Coordinates length must be a multiple of " + stride + ".");
+        }
+        int size = coordinates.length / stride;
+        if (ids.length != size) {
+            throw new IllegalArgumentException("Expected " + size + " ids, got " + ids.length + ".");
+        }
+        return size;
+    }
+
+    private static long spread2(final int value) {
+        long v = value & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        return (v | (v << 1)) & 0x5555555555555555L;
+    }
+
+    private static int compact2(final long code) {
+        long v = code & 0x5555555555555555L;
+        v = (v | (v >>> 1)) & 0x3333333333333333L;
+        v = (v | (v >>> 2)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v >>> 4)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v >>> 8)) & 0x0000FFFF0000FFFFL;
+        return (int) (v | (v >>> 16));
+    }
+
+    static long spread3(final int value) {
+        long v = value & 0x1FFFFFL;
+        v = (v | (v << 32)) & 0x001F00000000FFFFL;
+        v = (v | (v << 16)) & 0x001F0000FF0000FFL;
+        v = (v | (v << 8)) & 0x100F00F00F00F00FL;
+        v = (v | (v << 4)) & 0x10C30C30C30C30C3L;
+        return (v | (v << 2)) & 0x1249249249249249L;
+    }
+
+    static int compact3(final long code) {
+        long v = code & 0x1249249249249249L;
+        v = (v | (v >>> 2)) & 0x10C30C30C30C30C3L;
+        v = (v | (v >>> 4)) & 0x100F00F00F00F00FL;
+        v = (v | (v >>> 8)) & 0x001F0000FF0000FFL;
+        v = (v | (v >>> 16)) & 0x001F00000000FFFFL;
+        return (int) ((v | (v >>> 32)) & 0x1FFFFFL);
+    }
+}
@@ -0,0 +1,889 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Exact intersection, distance and penetration tests between pairs of convex shapes.
+ * Each test exists for a single pair of shapes, and in batch over candidate pairs from a broad phase.
+ * Batch shapes are stored in float arrays, one block of values per shape:
+ * <ul>
+ * <li>sphere: center x,y,z, radius.</li>
+ * <li>box: min x,y,z, max x,y,z.</li>
+ * <li>capsule: start x,y,z, end x,y,z, radius.</li>
+ * <li>oriented box: center x,y,z, unit local x axis, unit local y axis, unit local z axis, half extents x,y,z.</li>
+ * </ul>
+ * Pairs are int arrays with 2 shape indexes per pair.
+ * Distances are signed, negative when the shapes overlap, and normals go from the first shape of the pair to the
+ * second one; when the direction is undefined, as for concentric spheres, the x axis is used.
+ * Shapes touching at their border intersect.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class NarrowPhase {
+
+    /**
+     * Number of values per sphere.
+     */
+    public static final int SPHERE_STRIDE = 4;
+
+    /**
+     * Number of values per box.
+     */
+    public static final int BOX_STRIDE = 6;
+
+    /**
+     * Number of values per capsule.
+     */
+    public static final int CAPSULE_STRIDE = 7;
+
+    /**
+     * Number of values per oriented box.
+     */
+    public static final int ORIENTED_BOX_STRIDE = 15;
+
+    /**
+     * Number of values per contact in the batch results: normal x,y,z, signed distance.
+     */
+    public static final int CONTACT_STRIDE = 4;
+
+    private static final int SPHERE_SPHERE = 0;
+
+    private static final int SPHERE_BOX = 1;
+
+    private static final int BOX_BOX = 2;
+
+    private static final int CAPSULE_CAPSULE = 3;
+
+    private static final int ORIENTED_BOX_ORIENTED_BOX = 4;
+
+    private static final String[] INTERSECT_NAMES = {"NarrowPhase intersect sphere-sphere", "NarrowPhase intersect sphere-box",
+            "NarrowPhase intersect box-box", "NarrowPhase intersect capsule-capsule", "NarrowPhase intersect obb-obb"};
+
+    private static final String[] CONTACT_NAMES = {"NarrowPhase contact sphere-sphere", "NarrowPhase contact sphere-box",
+            "NarrowPhase contact box-box", "NarrowPhase contact capsule-capsule", "NarrowPhase contact obb-obb"};
+
+    /**
+     * Squared length under which a segment is considered a point, or 2 box edges parallel.
+     */
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * Working memory of the exact oriented box distance, one per thread so the batches do not allocate.
+     */
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private NarrowPhase() {
+        super();
+    }
+
+    /**
+     * @param a First sphere.
+     * @param b Second sphere.
+     * @return true if the spheres intersect.
+     */
+    public static boolean intersects(final Sphere a, final Sphere b) {
+        return overlaps(SPHERE_SPHERE, a.data, 0, b.data, 0);
+    }
+
+    /**
+     * @param a First sphere.
+     * @param b Second sphere.
+     * @return The signed distance between the spheres.
+     */
+    public static float distance(final Sphere a, final Sphere b) {
+        return distance(SPHERE_SPHERE, a.data, 0, b.data, 0, null, 0);
+    }
+
+    /**
+     * @param a First sphere.
+     * @param b Second sphere.
+     * @return The contact between the spheres.
+     */
+    public static Contact contact(final Sphere a, final Sphere b) {
+        return contact(SPHERE_SPHERE, a.data, b.data);
+    }
+
+    /**
+     * @param a Sphere.
+     * @param b Box.
+     * @return true if the sphere and the box intersect.
+     */
+    public static boolean intersects(final Sphere a, final Box3f b) {
+        return overlaps(SPHERE_BOX, a.data, 0, b.data, 0);
+    }
+
+    /**
+     * @param a Sphere.
+     * @param b Box.
+     * @return The signed distance between the sphere and the box.
+     */
+    public static float distance(final Sphere a, final Box3f b) {
+        return distance(SPHERE_BOX, a.data, 0, b.data, 0, null, 0);
+    }
+
+    /**
+     * @param a Sphere.
+     * @param b Box.
+     * @return The contact between the sphere and the box.
+     */
+    public static Contact contact(final Sphere a, final Box3f b) {
+        return contact(SPHERE_BOX, a.data, b.data);
+    }
+
+    /**
+     * @param a First box.
+     * @param b Second box.
+     * @return true if the boxes intersect.
+     */
+    public static boolean intersects(final Box3f a, final Box3f b) {
+        return overlaps(BOX_BOX, a.data, 0, b.data, 0);
+    }
+
+    /**
+     * @param a First box.
+     * @param b Second box.
+     * @return The signed distance between the boxes.
+     */
+    public static float distance(final Box3f a, final Box3f b) {
+        return distance(BOX_BOX, a.data, 0, b.data, 0, null, 0);
+    }
+
+    /**
+     * @param a First box.
+     * @param b Second box.
+     * @return The contact between the boxes, the normal is a box axis when they overlap.
+     */
+    public static Contact contact(final Box3f a, final Box3f b) {
+        return contact(BOX_BOX, a.data, b.data);
+    }
+
+    /**
+     * @param a First capsule.
+     * @param b Second capsule.
+     * @return true if the capsules intersect.
+     */
+    public static boolean intersects(final Capsule a, final Capsule b) {
+        return overlaps(CAPSULE_CAPSULE, a.data, 0, b.data, 0);
+    }
+
+    /**
+     * @param a First capsule.
+     * @param b Second capsule.
+     * @return The signed distance between the capsules.
+     */
+    public static float distance(final Capsule a, final Capsule b) {
+        return distance(CAPSULE_CAPSULE, a.data, 0, b.data, 0, null, 0);
+    }
+
+    /**
+     * @param a First capsule.
+     * @param b Second capsule.
+     * @return The contact between the capsules.
+     */
+    public static Contact contact(final Capsule a, final Capsule b) {
+        return contact(CAPSULE_CAPSULE, a.data, b.data);
+    }
+
+    /**
+     * Test 2 oriented boxes with the separating axis theorem.
+     *
+     * @param a First box.
+     * @param b Second box.
+     * @return true if the boxes intersect.
+     */
+    public static boolean intersects(final OrientedBox3f a, final OrientedBox3f b) {
+        return overlaps(ORIENTED_BOX_ORIENTED_BOX, a.data, 0, b.data, 0);
+    }
+
+    /**
+     * Compute the signed distance between 2 oriented boxes.
+     * The separating axis theorem tells if the boxes overlap, the penetration is then the smallest overlap on the 15
+     * tested axes. When the boxes are separated, the distance between their closest points is computed with {@link Gjk}.
+     *
+     * @param a First box.
+     * @param b Second box.
+     * @return The signed distance between the boxes.
+     */
+    public static float distance(final OrientedBox3f a, final OrientedBox3f b) {
+        return distance(ORIENTED_BOX_ORIENTED_BOX, a.data, 0, b.data, 0, null, 0);
+    }
+
+    /**
+     * Compute the contact between 2 oriented boxes, see {@link #distance(OrientedBox3f, OrientedBox3f)}.
+     *
+     * @param a First box.
+     * @param b Second box.
+     * @return The contact between the boxes, the normal is the axis with the smallest overlap, or the direction from the
+     * closest point of the first box to the closest point of the second one.
+     */
+    public static Contact contact(final OrientedBox3f a, final OrientedBox3f b) {
+        return contact(ORIENTED_BOX_ORIENTED_BOX, a.data, b.data);
+    }
+
+    /**
+     * Test sphere pairs.
+     *
+     * @param spheres Spheres, {@link #SPHERE_STRIDE} values each.
+     * @param pairs   Indexes of the spheres to test, 2 per pair.
+     * @param result  Bitset receiving a bit per pair, set if the spheres intersect, at least
+     *                {@link RectangleBuffer#wordCount(int)} of pair count words.
+     * @return The number of intersecting pairs.
+     */
+    public static int intersectSpheres(final float[] spheres, final int[] pairs, final long[] result) {
+        return intersect(SPHERE_SPHERE, spheres, SPHERE_STRIDE, spheres, SPHERE_STRIDE, pairs, result);
+    }
+
+    /**
+     * Test sphere and box pairs.
+     *
+     * @param spheres Spheres, {@link #SPHERE_STRIDE} values each.
+     * @param boxes   Boxes, {@link #BOX_STRIDE} values each.
+     * @param pairs   Sphere index and box index of each pair.
+     * @param result  Bitset receiving a bit per pair, set if the shapes intersect, at least
+     *                {@link RectangleBuffer#wordCount(int)} of pair count words.
+     * @return The number of intersecting pairs.
+     */
+    public static int intersectSphereBoxes(final float[] spheres, final float[] boxes, final int[] pairs, final long[] result) {
+        return intersect(SPHERE_BOX, spheres, SPHERE_STRIDE, boxes, BOX_STRIDE, pairs, result);
+    }
+
+    /**
+     * Test box pairs.
+     *
+     * @param boxes  Boxes, {@link #BOX_STRIDE} values each.
+     * @param pairs  Indexes of the boxes to test, 2 per pair.
+     * @param result Bitset receiving a bit per pair, set if the boxes intersect, at least
+     *               {@link RectangleBuffer#wordCount(int)} of pair count words.
+     * @return The number of intersecting pairs.
+     */
+    public static int intersectBoxes(final float[] boxes, final int[] pairs, final long[] result) {
+        return intersect(BOX_BOX, boxes, BOX_STRIDE, boxes, BOX_STRIDE, pairs, result);
+    }
+
+    /**
+     * Test capsule pairs.
+     *
+     * @param capsules Capsules, {@link #CAPSULE_STRIDE} values each.
+     * @param pairs    Indexes of the capsules to test, 2 per pair.
+     * @param result   Bitset receiving a bit per pair, set if the capsules intersect, at least
+     *                 {@link RectangleBuffer#wordCount(int)} of pair count words.
+     * @return The number of intersecting pairs.
+     */
+    public static int intersectCapsules(final float[] capsules, final int[] pairs, final long[] result) {
+        return intersect(CAPSULE_CAPSULE, capsules, CAPSULE_STRIDE, capsules, CAPSULE_STRIDE, pairs, result);
+    }
+
+    /**
+     * Test oriented box pairs with the separating axis theorem.
+     *
+     * @param boxes  Oriented boxes, {@link #ORIENTED_BOX_STRIDE} values each.
+     * @param pairs  Indexes of the boxes to test, 2 per pair.
+     * @param result Bitset receiving a bit per pair, set if the boxes intersect, at least
+     *               {@link RectangleBuffer#wordCount(int)} of pair count words.
+     * @return The number of intersecting pairs.
+     */
+    public static int intersectOrientedBoxes(final float[] boxes, final int[] pairs, final long[] result) {
+        return intersect(ORIENTED_BOX_ORIENTED_BOX, boxes, ORIENTED_BOX_STRIDE, boxes, ORIENTED_BOX_STRIDE, pairs, result);
+    }
+
+    /**
+     * Compute the contacts of sphere pairs.
+     *
+     * @param spheres Spheres, {@link #SPHERE_STRIDE} values each.
+     * @param pairs   Indexes of the spheres to test, 2 per pair.
+     * @param result  Receive {@link #CONTACT_STRIDE} values per pair.
+     * @return The number of intersecting pairs.
+     */
+    public static int contactSpheres(final float[] spheres, final int[] pairs, final float[] result) {
+        return contacts(SPHERE_SPHERE, spheres, SPHERE_STRIDE, spheres, SPHERE_STRIDE, pairs, result);
+    }
+
+    /**
+     * Compute the contacts of sphere and box pairs.
+     *
+     * @param spheres Spheres, {@link #SPHERE_STRIDE} values each.
+     * @param boxes   Boxes, {@link #BOX_STRIDE} values each.
+     * @param pairs   Sphere index and box index of each pair.
+     * @param result  Receive {@link #CONTACT_STRIDE} values per pair.
+     * @return The number of intersecting pairs.
+     */
+    public static int contactSphereBoxes(final float[] spheres, final float[] boxes, final int[] pairs, final float[] result) {
+        return contacts(SPHERE_BOX, spheres, SPHERE_STRIDE, boxes, BOX_STRIDE, pairs, result);
+    }
+
+    /**
+     * Compute the contacts of box pairs.
+     *
+     * @param boxes  Boxes, {@link #BOX_STRIDE} values each.
+     * @param pairs  Indexes of the boxes to test, 2 per pair.
+     * @param result Receive {@link #CONTACT_STRIDE} values per pair.
+     * @return The number of intersecting pairs.
+     */
+    public static int contactBoxes(final float[] boxes, final int[] pairs, final float[] result) {
+        return contacts(BOX_BOX, boxes, BOX_STRIDE, boxes, BOX_STRIDE, pairs, result);
+    }
+
+    /**
+     * Compute the contacts of capsule pairs.
+     *
+     * @param capsules Capsules, {@link #CAPSULE_STRIDE} values each.
+     * @param pairs    Indexes of the capsules to test, 2 per pair.
+     * @param result   Receive {@link #CONTACT_STRIDE} values per pair.
+     * @return The number of intersecting pairs.
+     */
+    public static int contactCapsules(final float[] capsules, final int[] pairs, final float[] result) {
+        return contacts(CAPSULE_CAPSULE, capsules, CAPSULE_STRIDE, capsules, CAPSULE_STRIDE, pairs, result);
+    }
+
+    /**
+     * Compute the contacts of oriented box pairs, see {@link #distance(OrientedBox3f, OrientedBox3f)}.
+     *
+     * @param boxes  Oriented boxes, {@link #ORIENTED_BOX_STRIDE} values each.
+     * @param pairs  Indexes of the boxes to test, 2 per pair.
+     * @param result Receive {@link #CONTACT_STRIDE} values per pair.
+     * @return The number of intersecting pairs.
+     */
+    public static int contactOrientedBoxes(final float[] boxes, final int[] pairs, final float[] result) {
+        return contacts(ORIENTED_BOX_ORIENTED_BOX, boxes, ORIENTED_BOX_STRIDE, boxes, ORIENTED_BOX_STRIDE, pairs, result);
+    }
+
+    private static Contact contact(final int type, final float[] a, final float[] b) {
+        float[] normal = new float[3];
+        float distance = distance(type, a, 0, b, 0, normal, 0);
+        return Contact.valueOf(Point3D.valueOf(normal[0], normal[1], normal[2]), distance);
+    }
+
+    private static int pairCount(final int[] pairs) {
+        if ((pairs.length & 1) != 0) {
+            throw new IllegalArgumentException("Pairs must contain 2 indexes per pair.");
+        }
+        return pairs.length / 2;
+    }
+
+    private static int intersect(final int type, final float[] a, final int aStride, final float[] b, final int bStride,
+                                 final int[] pairs, final long[] result) {
+        int count = pairCount(pairs);
+        if (result.length < RectangleBuffer.wordCount(count)) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + count + " pairs.");
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int intersecting = 0;
+        for (int base = 0, word = 0; base < count; base += 64, word++) {
+            int end = Math.min(64, count - base);
+            long bits = 0;
+            for (int j = 0; j < end; j++) {
+                int p = (base + j) * 2;
+                boolean overlap = overlaps(type, a, pairs[p] * aStride, b, pairs[p + 1] * bStride);
+                bits |= (overlap ? 1L : 0L) << j;
+            }
+            result[word] = bits;
+            intersecting += Long.bitCount(bits);
+        }
+        event.commit(INTERSECT_NAMES[type], count, intersecting);
+        return intersecting;
+    }
+
+    private static int contacts(final int type, final float[] a, final int aStride, final float[] b, final int bStride,
+                                final int[] pairs, final float[] result) {
+        int count = pairCount(pairs);
+        if (result.length < count * CONTACT_STRIDE) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + count + " pairs.");
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int intersecting = 0;
+        for (int i = 0; i < count; i++) {
+            int r = i * CONTACT_STRIDE;
+            float distance = distance(type, a, pairs[i * 2] * aStride, b, pairs[i * 2 + 1] * bStride, result, r);
+            result[r + 3] = distance;
+            if (distance <= 0) {
+                intersecting++;
+            }
+        }
+        event.commit(CONTACT_NAMES[type], count, intersecting);
+        return intersecting;
+    }
+
+    /**
+     * Intersection test, cheaper than the distance when possible.
+     */
+    private static boolean overlaps(final int type, final float[] a, final int ao, final float[] b, final int bo) {
+        switch (type) {
+            case SPHERE_SPHERE: {
+                float dx = b[bo] - a[ao];
+                float dy = b[bo + 1] - a[ao + 1];
+                float dz = b[bo + 2] - a[ao + 2];
+                float r = a[ao + 3] + b[bo + 3];
+                return dx * dx + dy * dy + dz * dz <= r * r;
+            }
+            case SPHERE_BOX: {
+                float dx = a[ao] - clamp(a[ao], b[bo], b[bo + 3]);
+                float dy = a[ao + 1] - clamp(a[ao + 1], b[bo + 1], b[bo + 4]);
+                float dz = a[ao + 2] - clamp(a[ao + 2], b[bo + 2], b[bo + 5]);
+                return dx * dx + dy * dy + dz * dz <= a[ao + 3] * a[ao + 3];
+            }
+            case BOX_BOX:
+                return a[ao] <= b[bo + 3] & a[ao + 3] >= b[bo]
+                        & a[ao + 1] <= b[bo + 4] & a[ao + 4] >= b[bo + 1]
+                        & a[ao + 2] <= b[bo + 5] & a[ao + 5] >= b[bo + 2];
+            case ORIENTED_BOX_ORIENTED_BOX:
+                return orientedBoxes(a, ao, b, bo, null, 0) <= 0;
+            default:
+                return distance(type, a, ao, b, bo, null, 0) <= 0;
+        }
+    }
+
+    /**
+     * Compute the signed distance, and the normal if an array to receive it is provided.
+     */
+    private static float distance(final int type, final float[] a, final int ao, final float[] b, final int bo,
+                                  final float[] normal, final int no) {
+        switch (type) {
+            case SPHERE_SPHERE:
+                return separation(b[bo] - a[ao], b[bo + 1] - a[ao + 1], b[bo + 2] - a[ao + 2], a[ao + 3] + b[bo + 3], normal, no);
+            case SPHERE_BOX:
+                return sphereBox(a, ao, b, bo, normal, no);
+            case BOX_BOX:
+                return boxBox(a, ao, b, bo, normal, no);
+            case CAPSULE_CAPSULE:
+                return capsuleCapsule(a, ao, b, bo, normal, no);
+            case ORIENTED_BOX_ORIENTED_BOX:
+                return orientedBoxDistance(a, ao, b, bo, normal, no);
+            default:
+                throw new IllegalArgumentException("Unknown test: " + type);
+        }
+    }
+
+    private static float clamp(final float value, final float min, final float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Distance between 2 points inflated by a radius.
+     *
+     * @param dx     Vector from the first point to the second one, x value.
+     * @param dy     Vector from the first point to the second one, y value.
+     * @param dz     Vector from the first point to the second one, z value.
+     * @param radius Sum of the radii.
+     */
+    private static float separation(final double dx, final double dy, final double dz, final double radius,
+                                    final float[] normal, final int no) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (normal != null) {
+            if (length > 0) {
+                setNormal(normal, no, dx / length, dy / length, dz / length);
+            } else {
+                setNormal(normal, no, 1, 0, 0);
+            }
+        }
+        return (float) (length - radius);
+    }
+
+    private static void setNormal(final float[] normal, final int no, final double x, final double y, final double z) {
+        if (normal != null) {
+            normal[no] = (float) x;
+            normal[no + 1] = (float) y;
+            normal[no + 2] = (float) z;
+        }
+    }
+
+    private static float sphereBox(final float[] s, final int so, final float[] b, final int bo, final float[] normal, final int no) {
+        float x = s[so];
+        float y = s[so + 1];
+        float z = s[so + 2];
+        float radius = s[so + 3];
+        float dx = clamp(x, b[bo], b[bo + 3]) - x;
+        float dy = clamp(y, b[bo + 1], b[bo + 4]) - y;
+        float dz = clamp(z, b[bo + 2], b[bo + 5]) - z;
+        if (dx != 0 || dy != 0 || dz != 0) {
+            return separation(dx, dy, dz, radius, normal, no);
+        }
+        // Center inside the box: the sphere leaves through the closest face, the box moves the other way.
+        int axis = 0;
+        float sign = 1;
+        float depth = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < 3; i++) {
+            float toMin = s[so + i] - b[bo + i];
+            float toMax = b[bo + 3 + i] - s[so + i];
+            if (toMin < depth) {
+                depth = toMin;
+                axis = i;
+                sign = 1;
+            }
+            if (toMax < depth) {
+                depth = toMax;
+                axis = i;
+                sign = -1;
+            }
+        }
+        setNormal(normal, no, axis == 0 ? sign : 0, axis == 1 ? sign : 0, axis == 2 ? sign : 0);
+        return -(depth + radius);
+    }
+
+    private static float boxBox(final float[] a, final int ao, final float[] b, final int bo, final float[] normal, final int no) {
+        double gapX = gap(a[ao], a[ao + 3], b[bo], b[bo + 3]);
+        double gapY = gap(a[ao + 1], a[ao + 4], b[bo + 1], b[bo + 4]);
+        double gapZ = gap(a[ao + 2], a[ao + 5], b[bo + 2], b[bo + 5]);
+        if (gapX != 0 || gapY != 0 || gapZ != 0) {
+            return separation(gapX, gapY, gapZ, 0, normal, no);
+        }
+        // Overlapping: the smallest move of b separating the boxes, in either direction on an axis.
+        int axis = 0;
+        float sign = 1;
+        float depth = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < 3; i++) {
+            float forward = a[ao + 3 + i] - b[bo + i];
+            float backward = b[bo + 3 + i] - a[ao + i];
+            if (forward < depth) {
+                depth = forward;
+                axis = i;
+                sign = 1;
+            }
+            if (backward < depth) {
+                depth = backward;
+                axis = i;
+                sign = -1;
+            }
+        }
+        setNormal(normal, no, axis == 0 ? sign : 0, axis == 1 ? sign : 0, axis == 2 ? sign : 0);
+        return -depth;
+    }
+
+    /**
+     * @return The signed gap from the interval a to the interval b, 0 if they overlap.
+     */
+    private static double gap(final float aMin, final float aMax, final float bMin, final float bMax) {
+        if (bMin > aMax) {
+            return (double) bMin - aMax;
+        }
+        if (aMin > bMax) {
+            return (double) bMax - aMin;
+        }
+        return 0;
+    }
+
+    private static float capsuleCapsule(final float[] a, final int ao, final float[] b, final int bo, final float[] normal, final int no) {
+        double p1x = a[ao];
+        double p1y = a[ao + 1];
+        double p1z = a[ao + 2];
+        double d1x = a[ao + 3] - p1x;
+        double d1y = a[ao + 4] - p1y;
+        double d1z = a[ao + 5] - p1z;
+        double p2x = b[bo];
+        double p2y = b[bo + 1];
+        double p2z = b[bo + 2];
+        double d2x = b[bo + 3] - p2x;
+        double d2y = b[bo + 4] - p2y;
+        double d2z = b[bo + 5] - p2z;
+        double rx = p1x - p2x;
+        double ry = p1y - p2y;
+        double rz = p1z - p2z;
+        double lengthA = d1x * d1x + d1y * d1y + d1z * d1z;
+        double lengthB = d2x * d2x + d2y * d2y + d2z * d2z;
+        double f = d2x * rx + d2y * ry + d2z * rz;
+        double s;
+        double t;
+        // Closest points of 2 segments, from Ericson, Real-Time Collision Detection, 5.1.9.
+        if (lengthA <= EPSILON && lengthB <= EPSILON) {
+            s = 0;
+            t = 0;
+        } else if (lengthA <= EPSILON) {
+            s = 0;
+            t = clamp01(f / lengthB);
+        } else {
+            double c = d1x * rx + d1y * ry + d1z * rz;
+            if (lengthB <= EPSILON) {
+                t = 0;
+                s = clamp01(-c / lengthA);
+            } else {
+                double dot = d1x * d2x + d1y * d2y + d1z * d2z;
+                double denominator = lengthA * lengthB - dot * dot;
+                s = denominator > 0 ? clamp01((dot * f - c * lengthB) / denominator) : 0;
+                t = (dot * s + f) / lengthB;
+                if (t < 0) {
+                    t = 0;
+                    s = clamp01(-c / lengthA);
+                } else if (t > 1) {
+                    t = 1;
+                    s = clamp01((dot - c) / lengthA);
+                }
+            }
+        }
+        double dx = p2x + d2x * t - p1x - d1x * s;
+        double dy = p2y + d2y * t - p1y - d1y * s;
+        double dz = p2z + d2z * t - p1z - d1z * s;
+        double radius = (double) a[ao + 6] + b[bo + 6];
+        if (dx == 0 && dy == 0 && dz == 0) {
+            // Crossing segments, the direction perpendicular to both is the best separation.
+            double cx = d1y * d2z - d1z * d2y;
+            double cy = d1z * d2x - d1x * d2z;
+            double cz = d1x * d2y - d1y * d2x;
+            double length = Math.sqrt(cx * cx + cy * cy + cz * cz);
+            if (length > 0) {
+                setNormal(normal, no, cx / length, cy / length, cz / length);
+                return (float) -radius;
+            }
+        }
+        return separation(dx, dy, dz, radius, normal, no);
+    }
+
+    private static double clamp01(final double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    /**
+     * Signed distance between 2 oriented boxes: the separating axis penetration when they overlap, the distance between
+     * their closest points otherwise. The separation on the best axis is a lower bound of that distance, the largest
+     * value is kept against the rounding of the closest point search.
+     */
+    private static float orientedBoxDistance(final float[] a, final int ao, final float[] b, final int bo, final float[] normal, final int no) {
+        float separation = orientedBoxes(a, ao, b, bo, normal, no);
+        if (separation <= 0) {
+            return separation;
+        }
+        Workspace workspace = WORKSPACE.get();
+        workspace.a.set(a, ao);
+        workspace.b.set(b, bo);
+        float distance = workspace.gjk.contact(workspace.a, workspace.b, null, workspace.contact);
+        // Do not keep the caller arrays reachable from the thread.
+        workspace.a.set(null, 0);
+        workspace.b.set(null, 0);
+        if (distance <= separation) {
+            return separation;
+        }
+        if (normal != null) {
+            System.arraycopy(workspace.contact, 0, normal, no, 3);
+        }
+        return distance;
+    }
+
+    /**
+     * Separating axis test between 2 oriented boxes, from Ericson, Real-Time Collision Detection, 4.4.1, keeping the
+     * axis with the largest separation instead of stopping at the first separating one.
+     */
+    private static float orientedBoxes(final float[] a, final int ao, final float[] b, final int bo, final float[] normal, final int no) {
+        double tx = (double) b[bo] - a[ao];
+        double ty = (double) b[bo + 1] - a[ao + 1];
+        double tz = (double) b[bo + 2] - a[ao + 2];
+        double ea0 = a[ao + 12];
+        double ea1 = a[ao + 13];
+        double ea2 = a[ao + 14];
+        double eb0 = b[bo + 12];
+        double eb1 = b[bo + 13];
+        double eb2 = b[bo + 14];
+        // Rotation of b in the frame of a.
+        double r00 = dot(a, ao + 3, b, bo + 3);
+        double r01 = dot(a, ao + 3, b, bo + 6);
+        double r02 = dot(a, ao + 3, b, bo + 9);
+        double r10 = dot(a, ao + 6, b, bo + 3);
+        double r11 = dot(a, ao + 6, b, bo + 6);
+        double r12 = dot(a, ao + 6, b, bo + 9);
+        double r20 = dot(a, ao + 9, b, bo + 3);
+        double r21 = dot(a, ao + 9, b, bo + 6);
+        double r22 = dot(a, ao + 9, b, bo + 9);
+        // Translation in the frame of a.
+        double t0 = tx * a[ao + 3] + ty * a[ao + 4] + tz * a[ao + 5];
+        double t1 = tx * a[ao + 6] + ty * a[ao + 7] + tz * a[ao + 8];
+        double t2 = tx * a[ao + 9] + ty * a[ao + 10] + tz * a[ao + 11];
+
+        double best = Math.abs(t0) - ea0 - (eb0 * Math.abs(r00) + eb1 * Math.abs(r01) + eb2 * Math.abs(r02));
+        int axis = 0;
+        double separation = Math.abs(t1) - ea1 - (eb0 * Math.abs(r10) + eb1 * Math.abs(r11) + eb2 * Math.abs(r12));
+        if (separation > best) {
+            best = separation;
+            axis = 1;
+        }
+        separation = Math.abs(t2) - ea2 - (eb0 * Math.abs(r20) + eb1 * Math.abs(r21) + eb2 * Math.abs(r22));
+        if (separation > best) {
+            best = separation;
+            axis = 2;
+        }
+        separation = Math.abs(t0 * r00 + t1 * r10 + t2 * r20) - (ea0 * Math.abs(r00) + ea1 * Math.abs(r10) + ea2 * Math.abs(r20)) - eb0;
+        if (separation > best) {
+            best = separation;
+            axis = 3;
+        }
+        separation = Math.abs(t0 * r01 + t1 * r11 + t2 * r21) - (ea0 * Math.abs(r01) + ea1 * Math.abs(r11) + ea2 * Math.abs(r21)) - eb1;
+        if (separation > best) {
+            best = separation;
+            axis = 4;
+        }
+        separation = Math.abs(t0 * r02 + t1 * r12 + t2 * r22) - (ea0 * Math.abs(r02) + ea1 * Math.abs(r12) + ea2 * Math.abs(r22)) - eb2;
+        if (separation > best) {
+            best = separation;
+            axis = 5;
+        }
+        // Cross products of an axis i of a and an axis j of b, axis index 6 + 3 * i + j.
+        separation = edgeSeparation(t1, t2, r10, r20, ea1, ea2, eb1, eb2, r01, r02, r00);
+        if (separation > best) {
+            best = separation;
+            axis = 6;
+        }
+        separation = edgeSeparation(t1, t2, r11, r21, ea1, ea2, eb2, eb0, r02, r00, r01);
+        if (separation > best) {
+            best = separation;
+            axis = 7;
+        }
+        separation = edgeSeparation(t1, t2, r12, r22, ea1, ea2, eb0, eb1, r00, r01, r02);
+        if (separation > best) {
+            best = separation;
+            axis = 8;
+        }
+        separation = edgeSeparation(t2, t0, r20, r00, ea2, ea0, eb1, eb2, r11, r12, r10);
+        if (separation > best) {
+            best = separation;
+            axis = 9;
+        }
+        separation = edgeSeparation(t2, t0, r21, r01, ea2, ea0, eb2, eb0, r12, r10, r11);
+        if (separation > best) {
+            best = separation;
+            axis = 10;
+        }
+        separation = edgeSeparation(t2, t0, r22, r02, ea2, ea0, eb0, eb1, r10, r11, r12);
+        if (separation > best) {
+            best = separation;
+            axis = 11;
+        }
+        separation = edgeSeparation(t0, t1, r00, r10, ea0, ea1, eb1, eb2, r21, r22, r20);
+        if (separation > best) {
+            best = separation;
+            axis = 12;
+        }
+        separation = edgeSeparation(t0, t1, r01, r11, ea0, ea1, eb2, eb0, r22, r20, r21);
+        if (separation > best) {
+            best = separation;
+            axis = 13;
+        }
+        separation = edgeSeparation(t0, t1, r02, r12, ea0, ea1, eb0, eb1, r20, r21, r22);
+        if (separation > best) {
+            best = separation;
+            axis = 14;
+        }
+        if (normal != null) {
+            orientedBoxNormal(a, ao, b, bo, axis, tx, ty, tz, normal, no);
+        }
+        return (float) best;
+    }
+
+    /**
+     * Separation along the cross product of the axis i of a and the axis j of b, i1, i2 being the axes following i
+     * and j1, j2 the ones following j.
+     *
+     * @param t1   Translation along the axis i1 of a.
+     * @param t2   Translation along the axis i2 of a.
+     * @param ri1j Rotation entry i1, j.
+     * @param ri2j Rotation entry i2, j.
+     * @param ea1  Half extent of a along i1.
+     * @param ea2  Half extent of a along i2.
+     * @param eb1  Half extent of b along j1.
+     * @param eb2  Half extent of b along j2.
+     * @param rij1 Rotation entry i, j1.
+     * @param rij2 Rotation entry i, j2.
+     * @param rij  Rotation entry i, j.
+     * @return The separation, negative infinity if the axes are parallel, the face axes are then enough.
+     */
+    private static double edgeSeparation(final double t1, final double t2, final double ri1j, final double ri2j,
+                                         final double ea1, final double ea2, final double eb1, final double eb2,
+                                         final double rij1, final double rij2, final double rij) {
+        double length = 1 - rij * rij;
+        if (length <= 1e-9) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        double distance = Math.abs(t2 * ri1j - t1 * ri2j);
+        double ra = ea1 * Math.abs(ri2j) + ea2 * Math.abs(ri1j);
+        double rb = eb1 * Math.abs(rij2) + eb2 * Math.abs(rij1);
+        return (distance - ra - rb) / Math.sqrt(length);
+    }
+
+    private static double dot(final float[] a, final int ao, final float[] b, final int bo) {
+        return (double) a[ao] * b[bo] + (double) a[ao + 1] * b[bo + 1] + (double) a[ao + 2] * b[bo + 2];
+    }
+
+    /**
+     * Write the world direction of a separating axis, oriented from a to b.
+     */
+    private static void orientedBoxNormal(final float[] a, final int ao, final float[] b, final int bo, final int axis,
+                                          final double tx, final double ty, final double tz, final float[] normal, final int no) {
+        double x;
+        double y;
+        double z;
+        if (axis < 3) {
+            x = a[ao + 3 + axis * 3];
+            y = a[ao + 4 + axis * 3];
+            z = a[ao + 5 + axis * 3];
+        } else if (axis < 6) {
+            x = b[bo + 3 + (axis - 3) * 3];
+            y = b[bo + 4 + (axis - 3) * 3];
+            z = b[bo + 5 + (axis - 3) * 3];
+        } else {
+            int u = ao + 3 + (axis - 6) / 3 * 3;
+            int v = bo + 3 + (axis - 6) % 3 * 3;
+            x = (double) a[u + 1] * b[v + 2] - (double) a[u + 2] * b[v + 1];
+            y = (double) a[u + 2] * b[v] - (double) a[u] * b[v + 2];
+            z = (double) a[u] * b[v + 1] - (double) a[u + 1] * b[v];
+            double length = Math.sqrt(x * x + y * y + z * z);
+            x /= length;
+            y /= length;
+            z /= length;
+        }
+        double sign = x * tx + y * ty + z * tz >= 0 ? 1 : -1;
+        setNormal(normal, no, x * sign, y * sign, z * sign);
+    }
+
+    /**
+     * Oriented box stored in a batch array, seen as a convex shape.
+     */
+    private static final class BoxView implements ConvexShape {
+
+        private float[] data;
+
+        private int offset;
+
+        private void set(final float[] data, final int offset) {
+            this.data = data;
+            this.offset = offset;
+        }
+
+        @Override
+        public void support(final double x, final double y, final double z, final double[] result) {
+            OrientedBox3f.support(this.data, this.offset, x, y, z, result);
+        }
+    }
+
+    /**
+     * Closest point search state of a thread.
+     */
+    private static final class Workspace {
+
+        private final Gjk gjk = new Gjk();
+
+        private final BoxView a = new BoxView();
+
+        private final BoxView b = new BoxView();
+
+        private final float[] contact = new float[CONTACT_STRIDE];
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Immutable oriented box: a box rotated around its center. Safe to share between threads.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class OrientedBox3f implements ConvexShape {
+
+    /**
+     * Box center.
+     */
+    public final Point3D center;
+
+    /**
+     * Half of the box size on each of its local axes, never negative.
+     */
+    public final Point3D halfExtents;
+
+    /**
+     * Box rotation, normalized.
+     */
+    public final Quaternion rotation;
+
+    /**
+     * Values in the {@link NarrowPhase} batch layout: center, the 3 unit local axes, half extents.
+     */
+    final float[] data;
+
+    private OrientedBox3f(final Point3D center, final Point3D halfExtents, final Quaternion rotation) {
+        super();
+        this.center = center;
+        this.halfExtents = halfExtents;
+        this.rotation = rotation;
+        float w = rotation.w;
+        float x = rotation.x;
+        float y = rotation.y;
+        float z = rotation.z;
+        this.data = new float[]{
+                center.x, center.y, center.z,
+                1 - 2 * (y * y + z * z), 2 * (x * y + w * z), 2 * (x * z - w * y),
+                2 * (x * y - w * z), 1 - 2 * (x * x + z * z), 2 * (y * z + w * x),
+                2 * (x * z + w * y), 2 * (y * z - w * x), 1 - 2 * (x * x + y * y),
+                halfExtents.x, halfExtents.y, halfExtents.z};
+    }
+
+    /**
+     * Create an oriented box.
+     *
+     * @param center      Box center.
+     * @param halfExtents Half of the box size on each of its local axes.
+     * @param rotation    Box rotation, normalized if needed.
+     * @return The created box.
+     * @throws IllegalArgumentException If a half extent is negative or the rotation is zero.
+     */
+    public static OrientedBox3f valueOf(final Point3D center, final Point3D halfExtents, final Quaternion rotation) {
+        if (!(halfExtents.x >= 0 && halfExtents.y >= 0 && halfExtents.z >= 0)) {
+            throw new IllegalArgumentException("Invalid half extents: " + halfExtents);
+        }
+        float norm = (float) Math.sqrt(rotation.w * rotation.w + rotation.x * rotation.x + rotation.y * rotation.y + rotation.z * rotation.z);
+        if (!(norm > 0) || !Float.isFinite(norm)) {
+            throw new IllegalArgumentException("Invalid rotation.");
+        }
+        return new OrientedBox3f(center, halfExtents,
+                Quaternion.valueOf(rotation.w / norm, rotation.x / norm, rotation.y / norm, rotation.z / norm));
+    }
+
+    /**
+     * Create an oriented box from an axis aligned one.
+     *
+     * @param box Box to convert.
+     * @return The created box, with no rotation.
+     */
+    public static OrientedBox3f valueOf(final Box3f box) {
+        return new OrientedBox3f(
+                Point3D.valueOf((box.minX + box.maxX) * 0.5f, (box.minY + box.maxY) * 0.5f, (box.minZ + box.maxZ) * 0.5f),
+                Point3D.valueOf((box.maxX - box.minX) * 0.5f, (box.maxY - box.minY) * 0.5f, (box.maxZ - box.minZ) * 0.5f),
+                Quaternion.valueOf(1, 0, 0, 0));
+    }
+
+    /**
+     * @param axis Local axis index, 0 for x, 1 for y and 2 for z.
+     * @return The local axis in world coordinates.
+     */
+    public Point3D getAxis(final int axis) {
+        if (axis < 0 || axis > 2) {
+            throw new IllegalArgumentException("Invalid axis: " + axis);
+        }
+        return Point3D.valueOf(this.data[3 + axis * 3], this.data[4 + axis * 3], this.data[5 + axis * 3]);
+    }
+
+    @Override
+    public void support(final double x, final double y, final double z, final double[] result) {
+        support(this.data, 0, x, y, z, result);
+    }
+
+    /**
+     * Find the corner of a box the furthest along a direction.
+     *
+     * @param data   Boxes in the {@link NarrowPhase} batch layout.
+     * @param offset Index of the box first value.
+     * @param x      Direction x value.
+     * @param y      Direction y value.
+     * @param z      Direction z value.
+     * @param result Receive the corner x,y,z values.
+     */
+    static void support(final float[] data, final int offset, final double x, final double y, final double z, final double[] result) {
+        double px = data[offset];
+        double py = data[offset + 1];
+        double pz = data[offset + 2];
+        for (int i = 0; i < 3; i++) {
+            int a = offset + 3 + i * 3;
+            double extent = data[offset + 12 + i];
+            if (x * data[a] + y * data[a + 1] + z * data[a + 2] < 0) {
+                extent = -extent;
+            }
+            px += extent * data[a];
+            py += extent * data[a + 1];
+            pz += extent * data[a + 2];
+        }
+        result[0] = px;
+        result[1] = py;
+        result[2] = pz;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        OrientedBox3f other = (OrientedBox3f) o;
+        return this.center.equals(other.center) && this.halfExtents.equals(other.halfExtents)
+                && Float.compare(this.rotation.w, other.rotation.w) == 0
+                && Float.compare(this.rotation.x, other.rotation.x) == 0
+                && Float.compare(this.rotation.y, other.rotation.y) == 0
+                && Float.compare(this.rotation.z, other.rotation.z) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.center.hashCode();
+        result = 31 * result + this.halfExtents.hashCode();
+        result = 31 * result + Float.hashCode(this.rotation.w);
+        result = 31 * result + Float.hashCode(this.rotation.x);
+        result = 31 * result + Float.hashCode(this.rotation.y);
+        return 31 * result + Float.hashCode(this.rotation.z);
+    }
+
+    @Override
+    public String toString() {
+        return "OrientedBox3f(center=" + this.center + ", halfExtents=" + this.halfExtents
+                + ", rotation=" + this.rotation.w + "," + this.rotation.x + "," + this.rotation.y + "," + this.rotation.z + ")";
+    }
+}
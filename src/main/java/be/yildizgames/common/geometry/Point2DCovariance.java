@@ -0,0 +1,139 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.function.Consumer;
+
+/**
+ * Mutable accumulator computing the mean and the covariance matrix of a set of 2d points.
+ * Uses the Welford update and the Chan et al. pairwise merge, both numerically stable, so partial results computed
+ * in parallel can be combined without loss.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Point2DCovariance implements Consumer<Point2D> {
+
+    private long count;
+
+    private double meanX;
+
+    private double meanY;
+
+    private double xx;
+
+    private double xy;
+
+    private double yy;
+
+    /**
+     * Create an empty accumulator.
+     */
+    public Point2DCovariance() {
+        super();
+    }
+
+    @Override
+    public void accept(final Point2D point) {
+        this.accept(point.x, point.y);
+    }
+
+    /**
+     * Add a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     */
+    public void accept(final float x, final float y) {
+        this.count++;
+        double dx = x - this.meanX;
+        double dy = y - this.meanY;
+        this.meanX += dx / this.count;
+        this.meanY += dy / this.count;
+        double ex = x - this.meanX;
+        double ey = y - this.meanY;
+        this.xx += dx * ex;
+        this.xy += dx * ey;
+        this.yy += dy * ey;
+    }
+
+    /**
+     * Merge the state of an other instance in this one.
+     *
+     * @param other Covariance to merge.
+     * @return This instance.
+     */
+    public Point2DCovariance combine(final Point2DCovariance other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = this.count + other.count;
+        double dx = other.meanX - this.meanX;
+        double dy = other.meanY - this.meanY;
+        double factor = (double) this.count * other.count / total;
+        this.xx += other.xx + dx * dx * factor;
+        this.xy += other.xy + dx * dy * factor;
+        this.yy += other.yy + dy * dy * factor;
+        double weight = (double) other.count / total;
+        this.meanX += dx * weight;
+        this.meanY += dy * weight;
+        this.count = total;
+        return this;
+    }
+
+    /**
+     * @return The number of points added.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return The average of all points, ZERO if no point was added.
+     */
+    public Point2D getMean() {
+        return Point2D.valueOf((float) this.meanX, (float) this.meanY);
+    }
+
+    /**
+     * @return The x variance.
+     */
+    public double getXX() {
+        return this.count == 0 ? 0 : this.xx / this.count;
+    }
+
+    /**
+     * @return The x, y covariance.
+     */
+    public double getXY() {
+        return this.count == 0 ? 0 : this.xy / this.count;
+    }
+
+    /**
+     * @return The y variance.
+     */
+    public double getYY() {
+        return this.count == 0 ? 0 : this.yy / this.count;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Map of 2d points to objects.
+ * Keys are stored as raw float bits in primitive arrays with open addressing, there is no allocation per entry.
+ *
+ * @param <V> Value type.
+ * @author Gregory Van den Borre
+ */
+public final class Point2DObjectMap<V> extends PointHashTable {
+
+    /**
+     * Values, by slot.
+     */
+    private Object[] values;
+
+    /**
+     * Create an empty instance.
+     */
+    public Point2DObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Create an empty instance.
+     *
+     * @param expected Number of keys the instance can hold without growing.
+     */
+    public Point2DObjectMap(final int expected) {
+        super(2, expected);
+        this.values = new Object[this.capacity()];
+    }
+
+    /**
+     * Associate a value to a point, replacing the previous one.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param value Value to associate.
+     * @return The previous value, or null if the point was not present.
+     */
+    public V put(final float x, final float y, final V value) {
+        int slot = this.insert(bits(x), bits(y), 0);
+        if (slot < 0) {
+            this.values[-slot - 1] = value;
+            return null;
+        }
+        V previous = this.value(slot);
+        this.values[slot] = value;
+        return previous;
+    }
+
+    /**
+     * Associate a value to a point, replacing the previous one.
+     *
+     * @param point Point to use.
+     * @param value Value to associate.
+     * @return The previous value, or null if the point was not present.
+     */
+    public V put(final Point2D point, final V value) {
+        return this.put(point.x, point.y, value);
+    }
+
+    /**
+     * Get the value associated to a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return The value, or null if the point is not present.
+     */
+    public V get(final float x, final float y) {
+        int slot = this.find(bits(x), bits(y), 0);
+        return slot < 0 ? null : this.value(slot);
+    }
+
+    /**
+     * Get the value associated to a point.
+     *
+     * @param point Point to use.
+     * @return The value, or null if the point is not present.
+     */
+    public V get(final Point2D point) {
+        return this.get(point.x, point.y);
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return true if the point has a value.
+     */
+    public boolean containsKey(final float x, final float y) {
+        return this.find(bits(x), bits(y), 0) >= 0;
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param point Point to use.
+     * @return true if the point has a value.
+     */
+    public boolean containsKey(final Point2D point) {
+        return this.containsKey(point.x, point.y);
+    }
+
+    /**
+     * Remove a point and its value.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return The removed value, or null if the point was not present.
+     */
+    public V remove(final float x, final float y) {
+        int slot = this.find(bits(x), bits(y), 0);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = this.value(slot);
+        this.removeSlot(slot);
+        return previous;
+    }
+
+    /**
+     * Remove a point and its value.
+     *
+     * @param point Point to use.
+     * @return The removed value, or null if the point was not present.
+     */
+    public V remove(final Point2D point) {
+        return this.remove(point.x, point.y);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(final int slot) {
+        return (V) this.values[slot];
+    }
+
+    /**
+     * @return The values, in the same order as the keys.
+     */
+    public Object[] values() {
+        int[] slots = this.usedSlots();
+        Object[] result = new Object[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            result[i] = this.values[slots[i]];
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.values, null);
+        super.clear();
+    }
+
+    @Override
+    void remapValues(final int[] slots, final boolean[] oldUsed, final int capacity) {
+        Object[] moved = new Object[capacity];
+        for (int i = 0; i < slots.length; i++) {
+            if (oldUsed[i]) {
+                moved[slots[i]] = this.values[i];
+            }
+        }
+        this.values = moved;
+    }
+
+    @Override
+    int valueSize() {
+        // Compressed reference.
+        return 4;
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        this.values[to] = this.values[from];
+    }
+
+    @Override
+    void clearValue(final int slot) {
+        this.values[slot] = null;
+    }
+}
@@ -32,7 +32,10 @@ package be.yildizgames.common.geometry;
 public final class Point3D {
 
 
-    private static final float EPSILON = 0.00001f;
+    /**
+     * Tolerance under which a component is considered as 0.
+     */
+    static final float EPSILON = 0.00001f;
 
     public static final Point3D X_NEGATIVE = valueOfX(-1);
 
@@ -322,12 +325,19 @@ public final class Point3D {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Float.floatToIntBits(this.x);
-        result = prime * result + Float.floatToIntBits(this.y);
-        result = prime * result + Float.floatToIntBits(this.z);
+        result = prime * result + hashBits(this.x);
+        result = prime * result + hashBits(this.y);
+        result = prime * result + hashBits(this.z);
         return result;
     }
 
+    /**
+     * Bits of a component for the hash code, components near zero share the same bits as they are equal.
+     */
+    private static int hashBits(final float value) {
+        return value < EPSILON && value > -EPSILON ? 0 : Float.floatToIntBits(value);
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
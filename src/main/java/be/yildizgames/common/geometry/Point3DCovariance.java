@@ -0,0 +1,196 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.function.Consumer;
+
+/**
+ * Mutable accumulator computing the mean and the covariance matrix of a set of 3d points.
+ * Uses the Welford update and the Chan et al. pairwise merge, both numerically stable, so partial results computed
+ * in parallel can be combined without loss.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Point3DCovariance implements Consumer<Point3D> {
+
+    private long count;
+
+    private double meanX;
+
+    private double meanY;
+
+    private double meanZ;
+
+    private double xx;
+
+    private double xy;
+
+    private double xz;
+
+    private double yy;
+
+    private double yz;
+
+    private double zz;
+
+    /**
+     * Create an empty accumulator.
+     */
+    public Point3DCovariance() {
+        super();
+    }
+
+    @Override
+    public void accept(final Point3D point) {
+        this.accept(point.x, point.y, point.z);
+    }
+
+    /**
+     * Add a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     */
+    public void accept(final float x, final float y, final float z) {
+        this.count++;
+        double dx = x - this.meanX;
+        double dy = y - this.meanY;
+        double dz = z - this.meanZ;
+        this.meanX += dx / this.count;
+        this.meanY += dy / this.count;
+        this.meanZ += dz / this.count;
+        double ex = x - this.meanX;
+        double ey = y - this.meanY;
+        double ez = z - this.meanZ;
+        this.xx += dx * ex;
+        this.xy += dx * ey;
+        this.xz += dx * ez;
+        this.yy += dy * ey;
+        this.yz += dy * ez;
+        this.zz += dz * ez;
+    }
+
+    /**
+     * Merge the state of an other instance in this one.
+     *
+     * @param other Covariance to merge.
+     * @return This instance.
+     */
+    public Point3DCovariance combine(final Point3DCovariance other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = this.count + other.count;
+        double dx = other.meanX - this.meanX;
+        double dy = other.meanY - this.meanY;
+        double dz = other.meanZ - this.meanZ;
+        double factor = (double) this.count * other.count / total;
+        this.xx += other.xx + dx * dx * factor;
+        this.xy += other.xy + dx * dy * factor;
+        this.xz += other.xz + dx * dz * factor;
+        this.yy += other.yy + dy * dy * factor;
+        this.yz += other.yz + dy * dz * factor;
+        this.zz += other.zz + dz * dz * factor;
+        double weight = (double) other.count / total;
+        this.meanX += dx * weight;
+        this.meanY += dy * weight;
+        this.meanZ += dz * weight;
+        this.count = total;
+        return this;
+    }
+
+    /**
+     * @return The number of points added.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return The average of all points, ZERO if no point was added.
+     */
+    public Point3D getMean() {
+        return Point3D.valueOf((float) this.meanX, (float) this.meanY, (float) this.meanZ);
+    }
+
+    /**
+     * Provide the population covariance matrix, symmetric, row major.
+     *
+     * @return The 9 matrix values, all 0 if no point was added.
+     */
+    public double[] getMatrix() {
+        if (this.count == 0) {
+            return new double[9];
+        }
+        double n = this.count;
+        return new double[]{
+                this.xx / n, this.xy / n, this.xz / n,
+                this.xy / n, this.yy / n, this.yz / n,
+                this.xz / n, this.yz / n, this.zz / n};
+    }
+
+    /**
+     * @return The x variance.
+     */
+    public double getXX() {
+        return this.count == 0 ? 0 : this.xx / this.count;
+    }
+
+    /**
+     * @return The x, y covariance.
+     */
+    public double getXY() {
+        return this.count == 0 ? 0 : this.xy / this.count;
+    }
+
+    /**
+     * @return The x, z covariance.
+     */
+    public double getXZ() {
+        return this.count == 0 ? 0 : this.xz / this.count;
+    }
+
+    /**
+     * @return The y variance.
+     */
+    public double getYY() {
+        return this.count == 0 ? 0 : this.yy / this.count;
+    }
+
+    /**
+     * @return The y, z covariance.
+     */
+    public double getYZ() {
+        return this.count == 0 ? 0 : this.yz / this.count;
+    }
+
+    /**
+     * @return The z variance.
+     */
+    public double getZZ() {
+        return this.count == 0 ? 0 : this.zz / this.count;
+    }
+}
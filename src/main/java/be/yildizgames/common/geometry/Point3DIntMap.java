@@ -0,0 +1,220 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Map of 3d points to int values.
+ * Keys are stored as raw float bits in primitive arrays with open addressing, there is no allocation per entry.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Point3DIntMap extends PointHashTable {
+
+    /**
+     * Values, by slot.
+     */
+    private int[] values;
+
+    /**
+     * Create an empty instance.
+     */
+    public Point3DIntMap() {
+        this(16);
+    }
+
+    /**
+     * Create an empty instance.
+     *
+     * @param expected Number of keys the instance can hold without growing.
+     */
+    public Point3DIntMap(final int expected) {
+        super(3, expected);
+        this.values = new int[this.capacity()];
+    }
+
+    /**
+     * Associate a value to a point, replacing the previous one.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @param value Value to associate.
+     * @return true if the point was not already present.
+     */
+    public boolean put(final float x, final float y, final float z, final int value) {
+        int slot = this.insert(bits(x), bits(y), bits(z));
+        boolean added = slot < 0;
+        this.values[added ? -slot - 1 : slot] = value;
+        return added;
+    }
+
+    /**
+     * Associate a value to a point, replacing the previous one.
+     *
+     * @param point Point to use.
+     * @param value Value to associate.
+     * @return true if the point was not already present.
+     */
+    public boolean put(final Point3D point, final int value) {
+        return this.put(fold(point.x), fold(point.y), fold(point.z), value);
+    }
+
+    /**
+     * Get the value associated to a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @param defaultValue Value returned if the point is not present.
+     * @return The value, or the default value if the point is not present.
+     */
+    public int getOrDefault(final float x, final float y, final float z, final int defaultValue) {
+        int slot = this.find(bits(x), bits(y), bits(z));
+        return slot < 0 ? defaultValue : this.values[slot];
+    }
+
+    /**
+     * Get the value associated to a point.
+     *
+     * @param point Point to use.
+     * @param defaultValue Value returned if the point is not present.
+     * @return The value, or the default value if the point is not present.
+     */
+    public int getOrDefault(final Point3D point, final int defaultValue) {
+        return this.getOrDefault(fold(point.x), fold(point.y), fold(point.z), defaultValue);
+    }
+
+    /**
+     * Add an amount to the value associated to a point, a missing point counts as 0.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @param amount Amount to add.
+     * @return The new value.
+     */
+    public int addTo(final float x, final float y, final float z, final int amount) {
+        int slot = this.insert(bits(x), bits(y), bits(z));
+        if (slot < 0) {
+            slot = -slot - 1;
+            this.values[slot] = 0;
+        }
+        this.values[slot] += amount;
+        return this.values[slot];
+    }
+
+    /**
+     * Add an amount to the value associated to a point, a missing point counts as 0.
+     *
+     * @param point Point to use.
+     * @param amount Amount to add.
+     * @return The new value.
+     */
+    public int addTo(final Point3D point, final int amount) {
+        return this.addTo(fold(point.x), fold(point.y), fold(point.z), amount);
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @return true if the point has a value.
+     */
+    public boolean containsKey(final float x, final float y, final float z) {
+        return this.find(bits(x), bits(y), bits(z)) >= 0;
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param point Point to use.
+     * @return true if the point has a value.
+     */
+    public boolean containsKey(final Point3D point) {
+        return this.containsKey(fold(point.x), fold(point.y), fold(point.z));
+    }
+
+    /**
+     * Remove a point and its value.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @return true if the point was present.
+     */
+    public boolean remove(final float x, final float y, final float z) {
+        int slot = this.find(bits(x), bits(y), bits(z));
+        if (slot < 0) {
+            return false;
+        }
+        this.removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Remove a point and its value.
+     *
+     * @param point Point to use.
+     * @return true if the point was present.
+     */
+    public boolean remove(final Point3D point) {
+        return this.remove(fold(point.x), fold(point.y), fold(point.z));
+    }
+
+    /**
+     * @return The values, in the same order as the keys.
+     */
+    public int[] values() {
+        int[] slots = this.usedSlots();
+        int[] result = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            result[i] = this.values[slots[i]];
+        }
+        return result;
+    }
+
+    @Override
+    void remapValues(final int[] slots, final boolean[] oldUsed, final int capacity) {
+        int[] moved = new int[capacity];
+        for (int i = 0; i < slots.length; i++) {
+            if (oldUsed[i]) {
+                moved[slots[i]] = this.values[i];
+            }
+        }
+        this.values = moved;
+    }
+
+    @Override
+    int valueSize() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        this.values[to] = this.values[from];
+    }
+}
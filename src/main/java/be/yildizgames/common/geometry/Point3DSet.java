@@ -0,0 +1,131 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Set of 3d points.
+ * Keys are stored as raw float bits in primitive arrays with open addressing, there is no allocation per entry.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Point3DSet extends PointHashTable {
+
+    /**
+     * Create an empty instance.
+     */
+    public Point3DSet() {
+        this(16);
+    }
+
+    /**
+     * Create an empty instance.
+     *
+     * @param expected Number of keys the instance can hold without growing.
+     */
+    public Point3DSet(final int expected) {
+        super(3, expected);
+    }
+
+    /**
+     * Add a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @return true if the point was not already present.
+     */
+    public boolean add(final float x, final float y, final float z) {
+        return this.insert(bits(x), bits(y), bits(z)) < 0;
+    }
+
+    /**
+     * Add a point.
+     *
+     * @param point Point to use.
+     * @return true if the point was not already present.
+     */
+    public boolean add(final Point3D point) {
+        return this.add(fold(point.x), fold(point.y), fold(point.z));
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @return true if the point is in the set.
+     */
+    public boolean contains(final float x, final float y, final float z) {
+        return this.find(bits(x), bits(y), bits(z)) >= 0;
+    }
+
+    /**
+     * Check if a point is present.
+     *
+     * @param point Point to use.
+     * @return true if the point is in the set.
+     */
+    public boolean contains(final Point3D point) {
+        return this.contains(fold(point.x), fold(point.y), fold(point.z));
+    }
+
+    /**
+     * Remove a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     * @return true if the point was present.
+     */
+    public boolean remove(final float x, final float y, final float z) {
+        int slot = this.find(bits(x), bits(y), bits(z));
+        if (slot < 0) {
+            return false;
+        }
+        this.removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * Remove a point.
+     *
+     * @param point Point to use.
+     * @return true if the point was present.
+     */
+    public boolean remove(final Point3D point) {
+        return this.remove(fold(point.x), fold(point.y), fold(point.z));
+    }
+
+    @Override
+    void remapValues(final int[] slots, final boolean[] oldUsed, final int capacity) {
+        // No value.
+    }
+
+    @Override
+    void moveValue(final int from, final int to) {
+        // No value.
+    }
+}
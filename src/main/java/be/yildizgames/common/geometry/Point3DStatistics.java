@@ -0,0 +1,188 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.function.Consumer;
+
+/**
+ * Mutable accumulator computing count, sum, centroid and bounds of a set of 3d points.
+ * Sums are kept in double with Kahan-Babuska compensation, so adding millions of points does not drift.
+ * Designed to be used as a reduction target for streams, an instance is not thread safe, but two instances
+ * computed in parallel can be combined.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Point3DStatistics implements Consumer<Point3D> {
+
+    private long count;
+
+    private double sumX;
+
+    private double sumY;
+
+    private double sumZ;
+
+    private double compensationX;
+
+    private double compensationY;
+
+    private double compensationZ;
+
+    private float minX = Float.POSITIVE_INFINITY;
+
+    private float minY = Float.POSITIVE_INFINITY;
+
+    private float minZ = Float.POSITIVE_INFINITY;
+
+    private float maxX = Float.NEGATIVE_INFINITY;
+
+    private float maxY = Float.NEGATIVE_INFINITY;
+
+    private float maxZ = Float.NEGATIVE_INFINITY;
+
+    /**
+     * Create an empty accumulator.
+     */
+    public Point3DStatistics() {
+        super();
+    }
+
+    @Override
+    public void accept(final Point3D point) {
+        this.accept(point.x, point.y, point.z);
+    }
+
+    /**
+     * Add a point.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @param z Point z value.
+     */
+    public void accept(final float x, final float y, final float z) {
+        this.count++;
+        double t = this.sumX + x;
+        this.compensationX += Math.abs(this.sumX) >= Math.abs(x) ? (this.sumX - t) + x : (x - t) + this.sumX;
+        this.sumX = t;
+        t = this.sumY + y;
+        this.compensationY += Math.abs(this.sumY) >= Math.abs(y) ? (this.sumY - t) + y : (y - t) + this.sumY;
+        this.sumY = t;
+        t = this.sumZ + z;
+        this.compensationZ += Math.abs(this.sumZ) >= Math.abs(z) ? (this.sumZ - t) + z : (z - t) + this.sumZ;
+        this.sumZ = t;
+        this.minX = Math.min(this.minX, x);
+        this.minY = Math.min(this.minY, y);
+        this.minZ = Math.min(this.minZ, z);
+        this.maxX = Math.max(this.maxX, x);
+        this.maxY = Math.max(this.maxY, y);
+        this.maxZ = Math.max(this.maxZ, z);
+    }
+
+    /**
+     * Add all the values of an interleaved x,y,z buffer.
+     *
+     * @param coordinates Coordinates to add.
+     */
+    public void acceptAll(final float[] coordinates) {
+        for (int i = 0; i + 2 < coordinates.length; i += 3) {
+            this.accept(coordinates[i], coordinates[i + 1], coordinates[i + 2]);
+        }
+    }
+
+    /**
+     * Merge the state of an other instance in this one.
+     *
+     * @param other Statistics to merge.
+     * @return This instance.
+     */
+    public Point3DStatistics combine(final Point3DStatistics other) {
+        this.count += other.count;
+        double t = this.sumX + other.sumX;
+        this.compensationX += other.compensationX + (Math.abs(this.sumX) >= Math.abs(other.sumX) ? (this.sumX - t) + other.sumX : (other.sumX - t) + this.sumX);
+        this.sumX = t;
+        t = this.sumY + other.sumY;
+        this.compensationY += other.compensationY + (Math.abs(this.sumY) >= Math.abs(other.sumY) ? (this.sumY - t) + other.sumY : (other.sumY - t) + this.sumY);
+        this.sumY = t;
+        t = this.sumZ + other.sumZ;
+        this.compensationZ += other.compensationZ + (Math.abs(this.sumZ) >= Math.abs(other.sumZ) ? (this.sumZ - t) + other.sumZ : (other.sumZ - t) + this.sumZ);
+        this.sumZ = t;
+        this.minX = Math.min(this.minX, other.minX);
+        this.minY = Math.min(this.minY, other.minY);
+        this.minZ = Math.min(this.minZ, other.minZ);
+        this.maxX = Math.max(this.maxX, other.maxX);
+        this.maxY = Math.max(this.maxY, other.maxY);
+        this.maxZ = Math.max(this.maxZ, other.maxZ);
+        return this;
+    }
+
+    /**
+     * @return The number of points added.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return The sum of all points, ZERO if no point was added.
+     */
+    public Point3D getSum() {
+        return Point3D.valueOf(
+                (float) (this.sumX + this.compensationX),
+                (float) (this.sumY + this.compensationY),
+                (float) (this.sumZ + this.compensationZ));
+    }
+
+    /**
+     * @return The average of all points, ZERO if no point was added.
+     */
+    public Point3D getCentroid() {
+        if (this.count == 0) {
+            return Point3D.ZERO;
+        }
+        return Point3D.valueOf(
+                (float) ((this.sumX + this.compensationX) / this.count),
+                (float) ((this.sumY + this.compensationY) / this.count),
+                (float) ((this.sumZ + this.compensationZ) / this.count));
+    }
+
+    /**
+     * @return The lowest x, y and z values, positive infinity if no point was added.
+     */
+    public Point3D getMin() {
+        return Point3D.valueOf(this.minX, this.minY, this.minZ);
+    }
+
+    /**
+     * @return The highest x, y and z values, negative infinity if no point was added.
+     */
+    public Point3D getMax() {
+        return Point3D.valueOf(this.maxX, this.maxY, this.maxZ);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + this.count + ", centroid=" + this.getCentroid() + ", min=" + this.getMin() + ", max=" + this.getMax();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.stream.Collector;
+
+/**
+ * Stream collectors for Point2D and Point3D reductions.
+ * All collectors accumulate in a mutable container and are unordered, so they scale with parallel streams.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class PointCollectors {
+
+    private PointCollectors() {
+        super();
+    }
+
+    /**
+     * @return A collector computing the sum of the points, with compensated summation.
+     */
+    public static Collector<Point3D, ?, Point3D> sum3D() {
+        return Collector.of(Point3DStatistics::new, Point3DStatistics::accept, Point3DStatistics::combine,
+                Point3DStatistics::getSum, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return A collector computing the average of the points, ZERO for an empty stream.
+     */
+    public static Collector<Point3D, ?, Point3D> centroid3D() {
+        return Collector.of(Point3DStatistics::new, Point3DStatistics::accept, Point3DStatistics::combine,
+                Point3DStatistics::getCentroid, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return A collector computing count, sum, centroid and bounds of the points.
+     */
+    public static Collector<Point3D, ?, Point3DStatistics> bounds3D() {
+        return Collector.of(Point3DStatistics::new, Point3DStatistics::accept, Point3DStatistics::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * @return A collector computing the mean and the covariance matrix of the points.
+     */
+    public static Collector<Point3D, ?, Point3DCovariance> covariance3D() {
+        return Collector.of(Point3DCovariance::new, Point3DCovariance::accept, Point3DCovariance::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * @return A collector computing the sum of the points, with compensated summation.
+     */
+    public static Collector<Point2D, ?, Point2D> sum2D() {
+        return Collector.of(Point2DStatistics::new, Point2DStatistics::accept, Point2DStatistics::combine,
+                Point2DStatistics::getSum, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return A collector computing the average of the points, ZERO for an empty stream.
+     */
+    public static Collector<Point2D, ?, Point2D> centroid2D() {
+        return Collector.of(Point2DStatistics::new, Point2DStatistics::accept, Point2DStatistics::combine,
+                Point2DStatistics::getCentroid, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * @return A collector computing count, sum, centroid and bounds of the points.
+     */
+    public static Collector<Point2D, ?, Point2DStatistics> bounds2D() {
+        return Collector.of(Point2DStatistics::new, Point2DStatistics::accept, Point2DStatistics::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * @return A collector computing the mean and the covariance matrix of the points.
+     */
+    public static Collector<Point2D, ?, Point2DCovariance> covariance2D() {
+        return Collector.of(Point2DCovariance::new, Point2DCovariance::accept, Point2DCovariance::combine,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+}
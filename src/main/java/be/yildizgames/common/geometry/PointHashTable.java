@@ -0,0 +1,361 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table keyed by 2d or 3d points, base of the primitive point maps and sets.
+ * Keys are stored as the raw bits of their float coordinates in a primitive array, -0 being stored as 0 so keys
+ * equal for {@link Point2D#equals(Object)} share a slot. {@link Point3D#equals(Object)} also considers components
+ * closer to 0 than {@link Point3D#EPSILON} as equal, so the 3d overloads taking a {@link Point3D} fold those components
+ * to 0 before hashing; the overloads taking raw x,y,z values compare the exact bits.
+ * The slot is found by linear probing from a murmur3 finalizer hash of the bits, removal shifts the following
+ * entries back so no tombstone is left.
+ * Subclasses store their values in arrays indexed by slot.
+ * Lookups are counted with plain fields, as the table is not thread safe anyway.
+ *
+ * @author Gregory Van den Borre
+ */
+abstract class PointHashTable {
+
+    /**
+     * Maximum ratio of used slots before the table grows.
+     */
+    private static final float LOAD_FACTOR = 0.7f;
+
+    /**
+     * Number of coordinates per key, 2 or 3.
+     */
+    private final int dimension;
+
+    /**
+     * Key coordinate bits, dimension values per slot.
+     */
+    private int[] keys;
+
+    private boolean[] used;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    private long rehashCount;
+
+    private long lookupCount;
+
+    private long probeCount;
+
+    PointHashTable(final int dimension, final int expected) {
+        super();
+        if (expected < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expected);
+        }
+        this.dimension = dimension;
+        this.allocate(tableSize(expected));
+    }
+
+    private static int tableSize(final int expected) {
+        long needed = (long) Math.ceil(expected / LOAD_FACTOR);
+        int capacity = 8;
+        while (capacity < needed && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new int[capacity * this.dimension];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @param value Coordinate.
+     * @return The key bits of a coordinate.
+     */
+    static int bits(final float value) {
+        return Float.floatToIntBits(value + 0.0f);
+    }
+
+    /**
+     * @param value Coordinate of a {@link Point3D} key.
+     * @return 0 if the coordinate is equal to 0 for {@link Point3D#equals(Object)}, the coordinate otherwise.
+     */
+    static float fold(final float value) {
+        return value < Point3D.EPSILON && value > -Point3D.EPSILON ? 0 : value;
+    }
+
+    /**
+     * Hash the bits of a key, z is 0 for 2d keys.
+     */
+    static int hash(final int x, final int y, final int z) {
+        int h = x * 0x9E3779B1 + y;
+        h = h * 0x9E3779B1 + z;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Find the slot of a key.
+     *
+     * @return The slot if the key is present, or -(free slot) - 1 if it is not.
+     */
+    final int find(final int x, final int y, final int z) {
+        return this.find(x, y, z, hash(x, y, z));
+    }
+
+    /**
+     * Find the slot of a key whose hash is already computed.
+     *
+     * @return The slot if the key is present, or -(free slot) - 1 if it is not.
+     */
+    final int find(final int x, final int y, final int z, final int hash) {
+        int slot = hash & this.mask;
+        int probes = 0;
+        while (this.used[slot]) {
+            probes++;
+            int key = slot * this.dimension;
+            if (this.keys[key] == x && this.keys[key + 1] == y && (this.dimension == 2 || this.keys[key + 2] == z)) {
+                this.count(probes);
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.count(probes);
+        return -slot - 1;
+    }
+
+    private void count(final int probes) {
+        this.lookupCount++;
+        this.probeCount += probes;
+    }
+
+    /**
+     * Find the slot of a key, adding the key if it is not present.
+     *
+     * @return The slot if the key was present, or -(slot) - 1 if it was added.
+     */
+    final int insert(final int x, final int y, final int z) {
+        return this.insert(x, y, z, hash(x, y, z));
+    }
+
+    /**
+     * Find the slot of a key whose hash is already computed, adding the key if it is not present.
+     *
+     * @return The slot if the key was present, or -(slot) - 1 if it was added.
+     */
+    final int insert(final int x, final int y, final int z, final int hash) {
+        int slot = this.find(x, y, z, hash);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (this.size >= this.threshold) {
+            this.rehash(this.used.length * 2);
+            slot = -this.freeSlot(hash) - 1;
+        }
+        slot = -slot - 1;
+        int key = slot * this.dimension;
+        this.keys[key] = x;
+        this.keys[key + 1] = y;
+        if (this.dimension == 3) {
+            this.keys[key + 2] = z;
+        }
+        this.used[slot] = true;
+        this.size++;
+        return -slot - 1;
+    }
+
+    /**
+     * Remove the key in a slot, the next entries of the probe sequence are shifted back to fill the hole.
+     */
+    final void removeSlot(final int slot) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & this.mask;
+            if (!this.used[next]) {
+                break;
+            }
+            int key = next * this.dimension;
+            int home = hash(this.keys[key], this.keys[key + 1], this.dimension == 3 ? this.keys[key + 2] : 0) & this.mask;
+            boolean movable = next > hole ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                System.arraycopy(this.keys, key, this.keys, hole * this.dimension, this.dimension);
+                this.moveValue(next, hole);
+                hole = next;
+            }
+        }
+        this.used[hole] = false;
+        this.clearValue(hole);
+        this.size--;
+    }
+
+    /**
+     * Find the first free slot of the probe sequence of a key known to be absent.
+     */
+    private int freeSlot(final int hash) {
+        int slot = hash & this.mask;
+        while (this.used[slot]) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int capacity) {
+        int[] oldKeys = this.keys;
+        boolean[] oldUsed = this.used;
+        int[] slots = new int[oldUsed.length];
+        this.allocate(capacity);
+        this.rehashCount++;
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int key = i * this.dimension;
+                int z = this.dimension == 3 ? oldKeys[key + 2] : 0;
+                int slot = this.freeSlot(hash(oldKeys[key], oldKeys[key + 1], z));
+                System.arraycopy(oldKeys, key, this.keys, slot * this.dimension, this.dimension);
+                this.used[slot] = true;
+                slots[i] = slot;
+            }
+        }
+        this.remapValues(slots, oldUsed, capacity);
+    }
+
+    /**
+     * Move the values to a new table.
+     *
+     * @param slots    New slot of each old slot.
+     * @param oldUsed  Used flags of the old slots.
+     * @param capacity New capacity.
+     */
+    abstract void remapValues(int[] slots, boolean[] oldUsed, int capacity);
+
+    /**
+     * Move a value from a slot to another one.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Release the value of a freed slot.
+     */
+    void clearValue(final int slot) {
+        // Nothing to release for primitive values.
+    }
+
+    /**
+     * @return The size of a value in bytes, 0 for sets.
+     */
+    int valueSize() {
+        return 0;
+    }
+
+    /**
+     * The slots are the leaves of the table: the depth of a key is its distance to its home slot, and a slot holds
+     * 0 or 1 key. Lookups are the queries, the visited elements are the used slots probed, growths count as rebuilds.
+     *
+     * @return A snapshot of the table shape and of the lookups run so far.
+     */
+    public final IndexStatistics getStatistics() {
+        IndexStatistics.Histogram depth = new IndexStatistics.Histogram();
+        for (int slot = 0; slot < this.used.length; slot++) {
+            if (this.used[slot]) {
+                int key = slot * this.dimension;
+                int home = hash(this.keys[key], this.keys[key + 1], this.dimension == 3 ? this.keys[key + 2] : 0) & this.mask;
+                depth.add((slot - home) & this.mask, 1);
+            }
+        }
+        int capacity = this.used.length;
+        long memory = IndexStatistics.arraySize(this.keys.length, Integer.BYTES)
+                + IndexStatistics.arraySize(capacity, 1)
+                + (this.valueSize() == 0 ? 0 : IndexStatistics.arraySize(capacity, this.valueSize()));
+        return new IndexStatistics(capacity, depth.toArray(), new int[]{capacity - this.size, this.size}, memory,
+                this.rehashCount, this.lookupCount, this.probeCount);
+    }
+
+    /**
+     * @return The number of keys.
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true if there is no key.
+     */
+    public final boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Remove all keys, the capacity is kept.
+     */
+    public void clear() {
+        Arrays.fill(this.used, false);
+        this.size = 0;
+    }
+
+    /**
+     * @return The table capacity, in slots.
+     */
+    final int capacity() {
+        return this.used.length;
+    }
+
+    /**
+     * @return The used slots, in slot order.
+     */
+    final int[] usedSlots() {
+        int[] result = new int[this.size];
+        int index = 0;
+        for (int i = 0; i < this.used.length; i++) {
+            if (this.used[i]) {
+                result[index++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The key coordinates, 2 or 3 values per key, in the same order as the values of the map.
+     */
+    public final float[] keys() {
+        float[] result = new float[this.size * this.dimension];
+        int index = 0;
+        for (int i = 0; i < this.used.length; i++) {
+            if (this.used[i]) {
+                for (int d = 0; d < this.dimension; d++) {
+                    result[index++] = Float.intBitsToFloat(this.keys[i * this.dimension + d]);
+                }
+            }
+        }
+        return result;
+    }
+}
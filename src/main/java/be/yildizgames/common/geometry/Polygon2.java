@@ -0,0 +1,205 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Simple polygon with optional holes, immutable.
+ * The polygon is made of rings of interleaved x,y coordinates, the first one is the outer boundary and the next ones
+ * are the holes. A point is inside when a horizontal ray from it crosses the rings an odd number of times, so the
+ * winding of the rings does not matter. Points on the left and bottom boundaries are inside, the ones on the right
+ * and top boundaries are outside, so polygons sharing an edge never both contain a point.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Polygon2 {
+
+    /**
+     * Rings coordinates, the outer ring first.
+     */
+    private final float[][] rings;
+
+    private Polygon2(final float[][] rings) {
+        super();
+        this.rings = rings;
+    }
+
+    /**
+     * Create a polygon.
+     *
+     * @param outer Outer ring, interleaved x,y values, copied.
+     * @param holes Hole rings, interleaved x,y values, copied.
+     * @return The created polygon.
+     * @throws IllegalArgumentException If a ring has less than 3 vertices or an odd number of values.
+     */
+    public static Polygon2 valueOf(final float[] outer, final float[]... holes) {
+        float[][] rings = new float[holes.length + 1][];
+        rings[0] = checkRing(outer);
+        for (int i = 0; i < holes.length; i++) {
+            rings[i + 1] = checkRing(holes[i]);
+        }
+        return new Polygon2(rings);
+    }
+
+    /**
+     * Create a polygon without hole.
+     *
+     * @param outer Outer ring vertices.
+     * @return The created polygon.
+     * @throws IllegalArgumentException If there is less than 3 vertices.
+     */
+    public static Polygon2 valueOf(final Point2D... outer) {
+        float[] ring = new float[outer.length * 2];
+        for (int i = 0; i < outer.length; i++) {
+            ring[i * 2] = outer[i].x;
+            ring[i * 2 + 1] = outer[i].y;
+        }
+        return new Polygon2(new float[][]{checkRing(ring)});
+    }
+
+    private static float[] checkRing(final float[] ring) {
+        if (ring.length < 6 || ring.length % 2 != 0) {
+            throw new IllegalArgumentException("A ring needs at least 3 vertices as x,y pairs, got " + ring.length + " values.");
+        }
+        return ring.clone();
+    }
+
+    /**
+     * Check if a point is inside the polygon, by testing all the edges.
+     *
+     * @param x Point x position.
+     * @param y Point y position.
+     * @return true if the point is inside the outer ring and outside all holes.
+     */
+    public boolean contains(final float x, final float y) {
+        boolean inside = false;
+        for (float[] ring : this.rings) {
+            for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+                if (crosses(ring[j], ring[j + 1], ring[i], ring[i + 1], x, y)) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Check if a point is inside the polygon, by testing all the edges.
+     *
+     * @param point Point to check.
+     * @return true if the point is inside the outer ring and outside all holes.
+     */
+    public boolean contains(final Point2D point) {
+        return this.contains(point.x, point.y);
+    }
+
+    /**
+     * Check if the edge from (x1, y1) to (x2, y2) crosses the horizontal ray going right from a point.
+     */
+    static boolean crosses(final double x1, final double y1, final double x2, final double y2, final double x, final double y) {
+        return (y1 > y) != (y2 > y) && x < (x2 - x1) * (y - y1) / (y2 - y1) + x1;
+    }
+
+    /**
+     * Build an indexed form of this polygon for repeated point queries.
+     *
+     * @return The prepared polygon.
+     */
+    public PreparedPolygon2 prepare() {
+        IndexBuildEvent event = new IndexBuildEvent();
+        event.begin();
+        PreparedPolygon2 prepared = new PreparedPolygon2(this.rings);
+        event.commit("PreparedPolygon2", this.getVertexCount(), prepared.getEntryCount());
+        return prepared;
+    }
+
+    /**
+     * @return The area of the outer ring minus the area of the holes.
+     */
+    public double getArea() {
+        double area = Math.abs(signedArea(this.rings[0]));
+        for (int i = 1; i < this.rings.length; i++) {
+            area -= Math.abs(signedArea(this.rings[i]));
+        }
+        return area;
+    }
+
+    private static double signedArea(final float[] ring) {
+        double area = 0;
+        for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+            area += (double) ring[j] * ring[i + 1] - (double) ring[i] * ring[j + 1];
+        }
+        return area / 2;
+    }
+
+    /**
+     * @return The number of rings, the outer one included.
+     */
+    public int getRingCount() {
+        return this.rings.length;
+    }
+
+    /**
+     * @param index Ring index, 0 for the outer ring.
+     * @return A copy of the ring coordinates.
+     */
+    public float[] getRing(final int index) {
+        return this.rings[index].clone();
+    }
+
+    /**
+     * @return The total number of vertices in all rings.
+     */
+    public int getVertexCount() {
+        int count = 0;
+        for (float[] ring : this.rings) {
+            count += ring.length / 2;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Polygon2 polygon = (Polygon2) o;
+        return Arrays.deepEquals(this.rings, polygon.rings);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.deepHashCode(this.rings);
+    }
+
+    @Override
+    public String toString() {
+        return "Polygon2: " + this.getVertexCount() + " vertices, " + (this.rings.length - 1) + " holes";
+    }
+}
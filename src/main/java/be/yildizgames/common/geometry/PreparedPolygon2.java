@@ -0,0 +1,362 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Polygon indexed for fast point queries, immutable, created with {@link Polygon2#prepare()}.
+ * The y range of the polygon is split in horizontal bands. In each band, the edges crossing the whole band never
+ * intersect, so they are kept sorted on x and the number of them on the right of a point is found by binary search;
+ * only the few edges starting or ending inside the band are tested one by one.
+ * The band count is chosen to keep the index size linear in the number of edges.
+ * Results are the same as {@link Polygon2#contains(float, float)}.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class PreparedPolygon2 {
+
+    /**
+     * Maximum number of bands.
+     */
+    private static final int MAX_BANDS = 1 << 16;
+
+    /**
+     * Maximum number of sorted edge entries per edge.
+     */
+    private static final int ENTRIES_PER_EDGE = 16;
+
+    private final double minX;
+
+    private final double minY;
+
+    private final double maxX;
+
+    private final double maxY;
+
+    /**
+     * Number of bands per unit of y.
+     */
+    private final double bandScale;
+
+    private final int bandCount;
+
+    /**
+     * Edges, 4 values per edge: x1, y1, x2, y2, horizontal edges excluded.
+     */
+    private final double[] edges;
+
+    /**
+     * First partial edge of each band, and the total count at the end.
+     */
+    private final int[] partialOffsets;
+
+    /**
+     * Edges with an end inside their band.
+     */
+    private final int[] partialEdges;
+
+    /**
+     * First crossing edge of each band, and the total count at the end.
+     */
+    private final int[] crossingOffsets;
+
+    /**
+     * Edges crossing their whole band, sorted on x in each band.
+     */
+    private final int[] crossingEdges;
+
+    /**
+     * Query counters, the visited elements are the partial edges tested and the binary search steps.
+     */
+    private final QueryCounters counters = new QueryCounters();
+
+    PreparedPolygon2(final float[][] rings) {
+        super();
+        double left = Double.POSITIVE_INFINITY;
+        double bottom = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double top = Double.NEGATIVE_INFINITY;
+        int edgeCount = 0;
+        for (float[] ring : rings) {
+            for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+                left = Math.min(left, ring[i]);
+                right = Math.max(right, ring[i]);
+                bottom = Math.min(bottom, ring[i + 1]);
+                top = Math.max(top, ring[i + 1]);
+                if (ring[j + 1] != ring[i + 1]) {
+                    edgeCount++;
+                }
+            }
+        }
+        this.minX = left;
+        this.minY = bottom;
+        this.maxX = right;
+        this.maxY = top;
+        this.edges = new double[edgeCount * 4];
+        double height = 0;
+        int edge = 0;
+        for (float[] ring : rings) {
+            for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+                if (ring[j + 1] != ring[i + 1]) {
+                    this.edges[edge * 4] = ring[j];
+                    this.edges[edge * 4 + 1] = ring[j + 1];
+                    this.edges[edge * 4 + 2] = ring[i];
+                    this.edges[edge * 4 + 3] = ring[i + 1];
+                    height += Math.abs(ring[i + 1] - ring[j + 1]);
+                    edge++;
+                }
+            }
+        }
+        if (edgeCount == 0) {
+            this.bandCount = 1;
+            this.bandScale = 0;
+        } else {
+            double spannedPerBand = Math.max(1, height / (top - bottom));
+            this.bandCount = (int) Math.max(1, Math.min(Math.min(edgeCount, MAX_BANDS), ENTRIES_PER_EDGE * edgeCount / spannedPerBand));
+            this.bandScale = this.bandCount / (top - bottom);
+        }
+        this.partialOffsets = new int[this.bandCount + 1];
+        this.crossingOffsets = new int[this.bandCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            int first = this.firstBand(e);
+            int last = this.lastBand(e);
+            this.partialOffsets[first + 1]++;
+            if (last != first) {
+                this.partialOffsets[last + 1]++;
+            }
+            for (int b = first + 1; b < last; b++) {
+                this.crossingOffsets[b + 1]++;
+            }
+        }
+        for (int b = 0; b < this.bandCount; b++) {
+            this.partialOffsets[b + 1] += this.partialOffsets[b];
+            this.crossingOffsets[b + 1] += this.crossingOffsets[b];
+        }
+        this.partialEdges = new int[this.partialOffsets[this.bandCount]];
+        this.crossingEdges = new int[this.crossingOffsets[this.bandCount]];
+        int[] partialPosition = new int[this.bandCount];
+        int[] crossingPosition = new int[this.bandCount];
+        System.arraycopy(this.partialOffsets, 0, partialPosition, 0, this.bandCount);
+        System.arraycopy(this.crossingOffsets, 0, crossingPosition, 0, this.bandCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int first = this.firstBand(e);
+            int last = this.lastBand(e);
+            this.partialEdges[partialPosition[first]++] = e;
+            if (last != first) {
+                this.partialEdges[partialPosition[last]++] = e;
+            }
+            for (int b = first + 1; b < last; b++) {
+                this.crossingEdges[crossingPosition[b]++] = e;
+            }
+        }
+        double[] keys = new double[16];
+        for (int b = 0; b < this.bandCount; b++) {
+            int from = this.crossingOffsets[b];
+            int to = this.crossingOffsets[b + 1];
+            if (keys.length < to - from) {
+                keys = new double[to - from];
+            }
+            double y = bottom + (b + 0.5) / this.bandScale;
+            for (int i = from; i < to; i++) {
+                keys[i - from] = this.intersection(this.crossingEdges[i], y);
+            }
+            sort(this.crossingEdges, keys, from, from, to - 1);
+        }
+    }
+
+    private int band(final double y) {
+        return Math.min((int) ((y - this.minY) * this.bandScale), this.bandCount - 1);
+    }
+
+    private int firstBand(final int edge) {
+        return this.band(Math.min(this.edges[edge * 4 + 1], this.edges[edge * 4 + 3]));
+    }
+
+    private int lastBand(final int edge) {
+        return this.band(Math.max(this.edges[edge * 4 + 1], this.edges[edge * 4 + 3]));
+    }
+
+    /**
+     * Compute the x position of an edge at a given y, with the same expression as {@link Polygon2#crosses}.
+     */
+    private double intersection(final int edge, final double y) {
+        double x1 = this.edges[edge * 4];
+        double y1 = this.edges[edge * 4 + 1];
+        return (this.edges[edge * 4 + 2] - x1) * (y - y1) / (this.edges[edge * 4 + 3] - y1) + x1;
+    }
+
+    /**
+     * Quicksort of edges on their key, keys are indexed from the start of the band.
+     */
+    private static void sort(final int[] values, final double[] keys, final int offset, final int from, final int to) {
+        if (from >= to) {
+            return;
+        }
+        double pivot = keys[((from + to) >>> 1) - offset];
+        int i = from;
+        int j = to;
+        while (i <= j) {
+            while (keys[i - offset] < pivot) {
+                i++;
+            }
+            while (keys[j - offset] > pivot) {
+                j--;
+            }
+            if (i <= j) {
+                double key = keys[i - offset];
+                keys[i - offset] = keys[j - offset];
+                keys[j - offset] = key;
+                int value = values[i];
+                values[i] = values[j];
+                values[j] = value;
+                i++;
+                j--;
+            }
+        }
+        sort(values, keys, offset, from, j);
+        sort(values, keys, offset, i, to);
+    }
+
+    /**
+     * Check if a point is inside the polygon.
+     *
+     * @param x Point x position.
+     * @param y Point y position.
+     * @return true if the point is inside the outer ring and outside all holes.
+     */
+    public boolean contains(final float x, final float y) {
+        int result = this.test(x, y);
+        this.counters.query(1, result >>> 1);
+        return (result & 1) == 1;
+    }
+
+    /**
+     * Check if a point is inside the polygon.
+     *
+     * @return The number of elements visited shifted left by 1, or-ed with 1 if the point is inside.
+     */
+    private int test(final float x, final float y) {
+        if (!(x >= this.minX && x < this.maxX && y >= this.minY && y < this.maxY)) {
+            return 0;
+        }
+        int b = this.band(y);
+        boolean inside = false;
+        int start = this.partialOffsets[b];
+        int partialEnd = this.partialOffsets[b + 1];
+        for (int i = start; i < partialEnd; i++) {
+            int e = this.partialEdges[i] * 4;
+            if (Polygon2.crosses(this.edges[e], this.edges[e + 1], this.edges[e + 2], this.edges[e + 3], x, y)) {
+                inside = !inside;
+            }
+        }
+        int visited = partialEnd - start;
+        int low = this.crossingOffsets[b];
+        int high = this.crossingOffsets[b + 1];
+        int end = high;
+        while (low < high) {
+            visited++;
+            int middle = (low + high) >>> 1;
+            if (x < this.intersection(this.crossingEdges[middle], y)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return visited << 1 | (inside != (((end - low) & 1) == 1) ? 1 : 0);
+    }
+
+    /**
+     * Check if a point is inside the polygon.
+     *
+     * @param point Point to check.
+     * @return true if the point is inside the outer ring and outside all holes.
+     */
+    public boolean contains(final Point2D point) {
+        return this.contains(point.x, point.y);
+    }
+
+    /**
+     * Classify a batch of points.
+     *
+     * @param coordinates Points to check, interleaved x,y values.
+     * @param result Receive for each point true if it is inside the polygon.
+     * @return The number of points inside the polygon.
+     * @throws IllegalArgumentException If the result array is smaller than the number of points.
+     */
+    public int contains(final float[] coordinates, final boolean[] result) {
+        int count = coordinates.length / 2;
+        if (result.length < count) {
+            throw new IllegalArgumentException("Result array too small: " + result.length + " for " + count + " points.");
+        }
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        int inside = 0;
+        long visited = 0;
+        for (int i = 0; i < count; i++) {
+            int test = this.test(coordinates[i * 2], coordinates[i * 2 + 1]);
+            boolean contained = (test & 1) == 1;
+            result[i] = contained;
+            visited += test >>> 1;
+            if (contained) {
+                inside++;
+            }
+        }
+        this.counters.query(count, visited);
+        event.commit("PreparedPolygon2", "contains", this.getEntryCount(), count, visited, inside);
+        return inside;
+    }
+
+    /**
+     * @return The number of bands of the index.
+     */
+    public int getBandCount() {
+        return this.bandCount;
+    }
+
+    /**
+     * @return The number of edge entries stored in the bands.
+     */
+    public int getEntryCount() {
+        return this.partialEdges.length + this.crossingEdges.length;
+    }
+
+    /**
+     * The bands are the leaves of a flat index, their occupancy is their number of edge entries.
+     *
+     * @return A snapshot of the index shape and of the queries run so far.
+     */
+    public IndexStatistics getStatistics() {
+        IndexStatistics.Histogram occupancy = new IndexStatistics.Histogram();
+        for (int b = 0; b < this.bandCount; b++) {
+            int entries = this.partialOffsets[b + 1] - this.partialOffsets[b] + this.crossingOffsets[b + 1] - this.crossingOffsets[b];
+            occupancy.add(IndexStatistics.occupancyBucket(entries), 1);
+        }
+        long memory = IndexStatistics.arraySize(this.edges.length, Double.BYTES)
+                + IndexStatistics.arraySize(this.partialOffsets.length, Integer.BYTES)
+                + IndexStatistics.arraySize(this.partialEdges.length, Integer.BYTES)
+                + IndexStatistics.arraySize(this.crossingOffsets.length, Integer.BYTES)
+                + IndexStatistics.arraySize(this.crossingEdges.length, Integer.BYTES);
+        return this.counters.snapshot(this.bandCount, new int[]{this.bandCount}, occupancy.toArray(), memory);
+    }
+}
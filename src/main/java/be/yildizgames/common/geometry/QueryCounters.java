@@ -0,0 +1,74 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage counters of a spatial index, safe to update from concurrent queries.
+ *
+ * @author Gregory Van den Borre
+ */
+final class QueryCounters {
+
+    private final LongAdder queries = new LongAdder();
+
+    private final LongAdder visited = new LongAdder();
+
+    private final LongAdder rebuilds = new LongAdder();
+
+    /**
+     * Count queries.
+     *
+     * @param count Number of queries.
+     * @param nodes Total number of nodes or elements visited by the queries.
+     */
+    void query(final int count, final long nodes) {
+        this.queries.add(count);
+        this.visited.add(nodes);
+    }
+
+    /**
+     * Count a rebuild of the index.
+     */
+    void rebuild() {
+        this.rebuilds.increment();
+    }
+
+    /**
+     * Create a snapshot with the current counter values.
+     *
+     * @param nodeCount          Number of nodes.
+     * @param depthHistogram     Number of leaves at each depth.
+     * @param occupancyHistogram Number of leaves per occupancy bucket.
+     * @param memoryFootprint    Estimated memory used.
+     * @return The snapshot.
+     */
+    IndexStatistics snapshot(final long nodeCount, final int[] depthHistogram, final int[] occupancyHistogram,
+                             final long memoryFootprint) {
+        return new IndexStatistics(nodeCount, depthHistogram, occupancyHistogram, memoryFootprint,
+                this.rebuilds.sum(), this.queries.sum(), this.visited.sum());
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Axis aligned rectangle with float coordinates, immutable and normalized at construction: left is never greater
+ * than right and top never greater than bottom. Borders are part of the rectangle, as for {@link Rectangle}.
+ * Safe to share between threads.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Rect2f {
+
+    /**
+     * Lowest x value.
+     */
+    public final float left;
+
+    /**
+     * Lowest y value.
+     */
+    public final float top;
+
+    /**
+     * Highest x value.
+     */
+    public final float right;
+
+    /**
+     * Highest y value.
+     */
+    public final float bottom;
+
+    private Rect2f(final float left, final float top, final float right, final float bottom) {
+        super();
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+    }
+
+    /**
+     * Create a rectangle from two corners, in any order.
+     *
+     * @param x1 First x value.
+     * @param y1 First y value.
+     * @param x2 Second x value.
+     * @param y2 Second y value.
+     * @return The created rectangle.
+     */
+    public static Rect2f valueOf(final float x1, final float y1, final float x2, final float y2) {
+        return new Rect2f(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+    }
+
+    /**
+     * Create a rectangle from a mutable one.
+     *
+     * @param rectangle Rectangle to copy.
+     * @return The created rectangle.
+     */
+    public static Rect2f valueOf(final Rectangle rectangle) {
+        return valueOf(rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+    }
+
+    /**
+     * Create a rectangle from an integer one.
+     *
+     * @param rectangle Rectangle to convert.
+     * @return The created rectangle.
+     */
+    public static Rect2f valueOf(final Rect2i rectangle) {
+        return new Rect2f(rectangle.left, rectangle.top, rectangle.right, rectangle.bottom);
+    }
+
+    /**
+     * @return A new mutable rectangle, the smallest one containing this rectangle.
+     */
+    public Rectangle toRectangle() {
+        return Rect2i.valueOf(this).toRectangle();
+    }
+
+    /**
+     * @return The rectangle width.
+     */
+    public float getWidth() {
+        return this.right - this.left;
+    }
+
+    /**
+     * @return The rectangle height.
+     */
+    public float getHeight() {
+        return this.bottom - this.top;
+    }
+
+    /**
+     * Check if a point is in this rectangle, borders included.
+     *
+     * @param x Point x value.
+     * @param y Point y value.
+     * @return true if the point is inside.
+     */
+    public boolean contains(final float x, final float y) {
+        return x >= this.left & x <= this.right & y >= this.top & y <= this.bottom;
+    }
+
+    /**
+     * Check if a point is in this rectangle, borders included.
+     *
+     * @param point Point to check.
+     * @return true if the point is inside.
+     */
+    public boolean contains(final Point2D point) {
+        return this.contains(point.x, point.y);
+    }
+
+    /**
+     * Check if another rectangle is completely inside this one.
+     *
+     * @param other Rectangle to check.
+     * @return true if all points of the other rectangle are in this one.
+     */
+    public boolean contains(final Rect2f other) {
+        return other.left >= this.left & other.right <= this.right & other.top >= this.top & other.bottom <= this.bottom;
+    }
+
+    /**
+     * Check if this rectangle and another one share at least one point, touching borders included.
+     *
+     * @param other Rectangle to check.
+     * @return true if the rectangles intersect.
+     */
+    public boolean intersects(final Rect2f other) {
+        return other.left <= this.right & other.right >= this.left & other.top <= this.bottom & other.bottom >= this.top;
+    }
+
+    /**
+     * @param other Rectangle to intersect with.
+     * @return The rectangle shared by this rectangle and the other, null if they do not intersect.
+     */
+    public Rect2f intersection(final Rect2f other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        return new Rect2f(Math.max(this.left, other.left), Math.max(this.top, other.top),
+                Math.min(this.right, other.right), Math.min(this.bottom, other.bottom));
+    }
+
+    /**
+     * @param other Rectangle to merge with.
+     * @return The smallest rectangle containing this rectangle and the other.
+     */
+    public Rect2f union(final Rect2f other) {
+        return new Rect2f(Math.min(this.left, other.left), Math.min(this.top, other.top),
+                Math.max(this.right, other.right), Math.max(this.bottom, other.bottom));
+    }
+
+    /**
+     * Grow the rectangle on all sides, a negative value shrinks it, down to its center.
+     *
+     * @param x Value to add on the left and right sides.
+     * @param y Value to add on the top and bottom sides.
+     * @return The expanded rectangle.
+     */
+    public Rect2f expand(final float x, final float y) {
+        float newLeft = this.left - x;
+        float newRight = this.right + x;
+        if (newLeft > newRight) {
+            newLeft = newRight = this.left + (this.right - this.left) / 2;
+        }
+        float newTop = this.top - y;
+        float newBottom = this.bottom + y;
+        if (newTop > newBottom) {
+            newTop = newBottom = this.top + (this.bottom - this.top) / 2;
+        }
+        return new Rect2f(newLeft, newTop, newRight, newBottom);
+    }
+
+    /**
+     * Grow the rectangle on all sides, a negative value shrinks it, down to its center.
+     *
+     * @param amount Value to add on all sides.
+     * @return The expanded rectangle.
+     */
+    public Rect2f expand(final float amount) {
+        return this.expand(amount, amount);
+    }
+
+    /**
+     * @param x Value to add on x.
+     * @param y Value to add on y.
+     * @return A moved copy of this rectangle.
+     */
+    public Rect2f translate(final float x, final float y) {
+        return new Rect2f(this.left + x, this.top + y, this.right + x, this.bottom + y);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Rect2f other = (Rect2f) o;
+        return Float.compare(this.left, other.left) == 0
+                && Float.compare(this.top, other.top) == 0
+                && Float.compare(this.right, other.right) == 0
+                && Float.compare(this.bottom, other.bottom) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.hashCode(this.left);
+        result = 31 * result + Float.hashCode(this.top);
+        result = 31 * result + Float.hashCode(this.right);
+        return 31 * result + Float.hashCode(this.bottom);
+    }
+
+    @Override
+    public String toString() {
+        return "Rect2f(left=" + this.left + ", top=" + this.top + ", right=" + this.right + ", bottom=" + this.bottom + ")";
+    }
+}
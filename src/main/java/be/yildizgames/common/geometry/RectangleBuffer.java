@@ -0,0 +1,338 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of rectangles stored as normalized primitive columns, for batch hit tests.
+ * Each rectangle is normalized when added, so tests are plain comparisons without the ordering branches of
+ * {@link Rectangle#contain(float, float)}, with the same result: borders are included.
+ * Batch results are written in caller provided bitsets, one bit per rectangle packed in long words, bit i of the set
+ * being bit (i % 64) of word (i / 64). The loops are branch free on the columns so the JIT can unroll and vectorize
+ * the comparisons.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class RectangleBuffer {
+
+    private int[] left;
+
+    private int[] top;
+
+    private int[] right;
+
+    private int[] bottom;
+
+    private int size;
+
+    /**
+     * Query counters, the visited elements are the rectangles tested, growths count as rebuilds.
+     */
+    private final QueryCounters counters = new QueryCounters();
+
+    /**
+     * Create an empty buffer.
+     */
+    public RectangleBuffer() {
+        this(16);
+    }
+
+    /**
+     * Create an empty buffer.
+     *
+     * @param capacity Initial number of rectangles the buffer can hold without growing.
+     */
+    public RectangleBuffer(final int capacity) {
+        super();
+        int initial = Math.max(1, capacity);
+        this.left = new int[initial];
+        this.top = new int[initial];
+        this.right = new int[initial];
+        this.bottom = new int[initial];
+    }
+
+    /**
+     * Compute the number of long words needed by a bitset.
+     *
+     * @param bits Number of bits.
+     * @return The number of words.
+     */
+    public static int wordCount(final int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Add a rectangle.
+     *
+     * @param rectangle Rectangle to add, its values are copied and normalized.
+     * @return The rectangle index in the buffer.
+     */
+    public int add(final Rectangle rectangle) {
+        return this.add(rectangle.getLeft(), rectangle.getTop(), rectangle.getRight(), rectangle.getBottom());
+    }
+
+    /**
+     * Add a rectangle.
+     *
+     * @param rectangle Rectangle to add.
+     * @return The rectangle index in the buffer.
+     */
+    public int add(final Rect2i rectangle) {
+        return this.add(rectangle.left, rectangle.top, rectangle.right, rectangle.bottom);
+    }
+
+    /**
+     * Add a rectangle.
+     *
+     * @param x1 First x value.
+     * @param y1 First y value.
+     * @param x2 Second x value.
+     * @param y2 Second y value.
+     * @return The rectangle index in the buffer.
+     */
+    public int add(final int x1, final int y1, final int x2, final int y2) {
+        if (this.size == this.left.length) {
+            int capacity = this.size * 2;
+            this.left = Arrays.copyOf(this.left, capacity);
+            this.top = Arrays.copyOf(this.top, capacity);
+            this.right = Arrays.copyOf(this.right, capacity);
+            this.bottom = Arrays.copyOf(this.bottom, capacity);
+            this.counters.rebuild();
+        }
+        this.left[this.size] = Math.min(x1, x2);
+        this.right[this.size] = Math.max(x1, x2);
+        this.top[this.size] = Math.min(y1, y2);
+        this.bottom[this.size] = Math.max(y1, y2);
+        return this.size++;
+    }
+
+    /**
+     * Replace a rectangle.
+     *
+     * @param index Rectangle index.
+     * @param x1    First x value.
+     * @param y1    First y value.
+     * @param x2    Second x value.
+     * @param y2    Second y value.
+     * @throws IndexOutOfBoundsException If there is no rectangle at the index.
+     */
+    public void set(final int index, final int x1, final int y1, final int x2, final int y2) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        this.left[index] = Math.min(x1, x2);
+        this.right[index] = Math.max(x1, x2);
+        this.top[index] = Math.min(y1, y2);
+        this.bottom[index] = Math.max(y1, y2);
+    }
+
+    /**
+     * Remove a rectangle, the last rectangle is moved at its index.
+     *
+     * @param index Index of the rectangle to remove.
+     */
+    public void remove(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        this.size--;
+        this.left[index] = this.left[this.size];
+        this.top[index] = this.top[this.size];
+        this.right[index] = this.right[this.size];
+        this.bottom[index] = this.bottom[this.size];
+    }
+
+    /**
+     * Remove all rectangles, the capacity is kept.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return The number of rectangles.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * The buffer is a single leaf holding all the rectangles.
+     *
+     * @return A snapshot of the buffer shape and of the queries run so far.
+     */
+    public IndexStatistics getStatistics() {
+        int[] occupancy = new int[IndexStatistics.occupancyBucket(this.size) + 1];
+        occupancy[occupancy.length - 1] = 1;
+        return this.counters.snapshot(1, new int[]{1}, occupancy, IndexStatistics.arraySize(this.left.length, Integer.BYTES) * 4);
+    }
+
+    /**
+     * @param index Rectangle index.
+     * @return A new Rectangle with the normalized values.
+     */
+    public Rectangle get(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+        return new Rectangle(this.left[index], this.top[index], this.right[index], this.bottom[index]);
+    }
+
+    /**
+     * Find the rectangles containing a point.
+     *
+     * @param x      Point x value.
+     * @param y      Point y value.
+     * @param result Bitset receiving a bit per rectangle, at least {@link #wordCount(int)} of size words.
+     * @return The number of rectangles containing the point.
+     */
+    public int containing(final float x, final float y, final long[] result) {
+        this.checkResult(result, 1);
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        int count = this.containing(x, y, result, 0);
+        this.counters.query(1, this.size);
+        event.commit("RectangleBuffer", "containing", this.size, 1, this.size, count);
+        return count;
+    }
+
+    private int containing(final float x, final float y, final long[] result, final int offset) {
+        int count = 0;
+        for (int base = 0, word = offset; base < this.size; base += 64, word++) {
+            int end = Math.min(64, this.size - base);
+            long bits = 0;
+            for (int j = 0; j < end; j++) {
+                int i = base + j;
+                boolean inside = x >= this.left[i] & x <= this.right[i] & y >= this.top[i] & y <= this.bottom[i];
+                bits |= (inside ? 1L : 0L) << j;
+            }
+            result[word] = bits;
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    /**
+     * Find the rectangles overlapping a query rectangle, rectangles sharing only a border overlap.
+     *
+     * @param query  Query rectangle, normalized for the test.
+     * @param result Bitset receiving a bit per rectangle, at least {@link #wordCount(int)} of size words.
+     * @return The number of rectangles overlapping the query.
+     */
+    public int overlapping(final Rectangle query, final long[] result) {
+        this.checkResult(result, 1);
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        int queryLeft = Math.min(query.getLeft(), query.getRight());
+        int queryRight = Math.max(query.getLeft(), query.getRight());
+        int queryTop = Math.min(query.getTop(), query.getBottom());
+        int queryBottom = Math.max(query.getTop(), query.getBottom());
+        int count = 0;
+        for (int base = 0, word = 0; base < this.size; base += 64, word++) {
+            int end = Math.min(64, this.size - base);
+            long bits = 0;
+            for (int j = 0; j < end; j++) {
+                int i = base + j;
+                boolean overlap = this.left[i] <= queryRight & this.right[i] >= queryLeft
+                        & this.top[i] <= queryBottom & this.bottom[i] >= queryTop;
+                bits |= (overlap ? 1L : 0L) << j;
+            }
+            result[word] = bits;
+            count += Long.bitCount(bits);
+        }
+        this.counters.query(1, this.size);
+        event.commit("RectangleBuffer", "overlapping", this.size, 1, this.size, count);
+        return count;
+    }
+
+    /**
+     * Test many points against all rectangles.
+     * The result is a bit matrix with one row per point, each row is {@link #wordCount(int)} of size words long and
+     * holds a bit per rectangle.
+     *
+     * @param coordinates Points, interleaved x,y values.
+     * @param result      Bit matrix, at least point count times the row length words.
+     * @return The total number of point and rectangle pairs where the rectangle contains the point.
+     */
+    public int containing(final float[] coordinates, final long[] result) {
+        int points = coordinates.length / 2;
+        this.checkResult(result, points);
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        int row = wordCount(this.size);
+        int count = 0;
+        for (int p = 0; p < points; p++) {
+            count += this.containing(coordinates[p * 2], coordinates[p * 2 + 1], result, p * row);
+        }
+        this.counters.query(points, (long) this.size * points);
+        event.commit("RectangleBuffer", "containing", this.size, points, (long) this.size * points, count);
+        return count;
+    }
+
+    /**
+     * For each point, check if any rectangle contains it.
+     *
+     * @param coordinates Points, interleaved x,y values.
+     * @param result      Bitset receiving a bit per point, at least {@link #wordCount(int)} of point count words.
+     * @return The number of points contained by at least one rectangle.
+     */
+    public int containedPoints(final float[] coordinates, final long[] result) {
+        int points = coordinates.length / 2;
+        if (result.length < wordCount(points)) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " words for " + points + " points.");
+        }
+        SpatialQueryEvent event = new SpatialQueryEvent();
+        event.begin();
+        Arrays.fill(result, 0, wordCount(points), 0L);
+        int count = 0;
+        long visited = 0;
+        for (int p = 0; p < points; p++) {
+            float x = coordinates[p * 2];
+            float y = coordinates[p * 2 + 1];
+            boolean inside = false;
+            int i = 0;
+            while (i < this.size && !inside) {
+                inside = x >= this.left[i] & x <= this.right[i] & y >= this.top[i] & y <= this.bottom[i];
+                i++;
+            }
+            visited += i;
+            if (inside) {
+                result[p >>> 6] |= 1L << p;
+                count++;
+            }
+        }
+        this.counters.query(points, visited);
+        event.commit("RectangleBuffer", "containedPoints", this.size, points, visited, count);
+        return count;
+    }
+
+    private void checkResult(final long[] result, final int rows) {
+        long needed = (long) wordCount(this.size) * rows;
+        if (result.length < needed) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " words, " + needed + " needed.");
+        }
+    }
+}
@@ -0,0 +1,445 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Pack rectangles in a fixed size bin, typically a texture atlas.
+ * Two algorithms are available: the skyline, fast and with a small state, well suited to glyphs inserted while
+ * rendering, and the maximal rectangles, slower but denser, better suited to atlases built once.
+ * Rectangles are inserted one by one in the remaining space, so an atlas can grow incrementally, or in batch, sorted
+ * from the largest to the smallest for a better occupancy. Sizes are rounded up to integers, rectangles are never
+ * rotated. Placed rectangles go from (left, top) to (left + width, top + height).
+ *
+ * @author Gregory Van den Borre
+ */
+public final class RectanglePacker {
+
+    /**
+     * Packing algorithm.
+     */
+    private final Bin bin;
+
+    private final int width;
+
+    private final int height;
+
+    /**
+     * Area covered by the placed rectangles.
+     */
+    private long usedArea;
+
+    private RectanglePacker(final Bin bin, final int width, final int height) {
+        super();
+        this.bin = bin;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Create a packer using the skyline bottom left algorithm.
+     *
+     * @param width  Bin width.
+     * @param height Bin height.
+     * @return The created packer.
+     * @throws IllegalArgumentException If a dimension is not positive.
+     */
+    public static RectanglePacker skyline(final int width, final int height) {
+        checkBin(width, height);
+        return new RectanglePacker(new Skyline(width, height), width, height);
+    }
+
+    /**
+     * Create a packer using the maximal rectangles algorithm, with the best short side fit heuristic.
+     *
+     * @param width  Bin width.
+     * @param height Bin height.
+     * @return The created packer.
+     * @throws IllegalArgumentException If a dimension is not positive.
+     */
+    public static RectanglePacker maxRects(final int width, final int height) {
+        checkBin(width, height);
+        return new RectanglePacker(new MaxRects(width, height), width, height);
+    }
+
+    private static void checkBin(final int width, final int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid bin size: " + width + "x" + height);
+        }
+    }
+
+    /**
+     * Place a rectangle in the remaining space.
+     *
+     * @param size Rectangle size.
+     * @return The placed rectangle, or null if there is no room left for it.
+     * @throws IllegalArgumentException If the size is negative.
+     */
+    public Rectangle insert(final Size2 size) {
+        int w = toPixels(size.width);
+        int h = toPixels(size.height);
+        if (w == 0 || h == 0) {
+            return new Rectangle(0, 0, w, h);
+        }
+        if (w > this.width || h > this.height) {
+            return null;
+        }
+        long position = this.bin.place(w, h);
+        if (position == -1) {
+            return null;
+        }
+        this.usedArea += (long) w * h;
+        int x = (int) (position >>> 32);
+        int y = (int) position;
+        return new Rectangle(x, y, x + w, y + h);
+    }
+
+    /**
+     * Place several rectangles, the largest ones are inserted first.
+     *
+     * @param sizes Rectangle sizes.
+     * @return The placed rectangles, in the same order as the sizes, null for the ones without room left.
+     * @throws IllegalArgumentException If a size is negative.
+     */
+    public Rectangle[] insertAll(final Size2[] sizes) {
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        long[] keys = new long[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            int w = toPixels(sizes[i].width);
+            int h = toPixels(sizes[i].height);
+            keys[i] = ~(((long) Math.max(w, h) << 32) | Math.min(w, h));
+        }
+        int[] order = Morton.radixSort(keys);
+        Rectangle[] result = new Rectangle[sizes.length];
+        int placed = 0;
+        for (int i : order) {
+            result[i] = this.insert(sizes[i]);
+            if (result[i] != null) {
+                placed++;
+            }
+        }
+        event.commit("RectanglePacker.insertAll", sizes.length, placed);
+        return result;
+    }
+
+    private static int toPixels(final float value) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("Invalid size: " + value);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(value));
+    }
+
+    /**
+     * @return The bin width.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return The bin height.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * @return The ratio of the bin area covered by placed rectangles, between 0 and 1.
+     */
+    public float getOccupancy() {
+        return (float) ((double) this.usedArea / ((long) this.width * this.height));
+    }
+
+    /**
+     * Placement algorithm.
+     */
+    private abstract static class Bin {
+
+        /**
+         * Find a position for a rectangle and mark its area as used.
+         *
+         * @param w Rectangle width.
+         * @param h Rectangle height.
+         * @return The position, x in the high 32 bits, y in the low ones, or -1 if there is no room.
+         */
+        abstract long place(int w, int h);
+    }
+
+    /**
+     * Skyline bottom left: the top of the used space is kept as horizontal segments, a rectangle is put at the lowest
+     * position where it fits above the skyline. Segments at the same height are merged, so their count stays small.
+     */
+    private static final class Skyline extends Bin {
+
+        private final int width;
+
+        private final int height;
+
+        private int[] x = new int[16];
+
+        private int[] y = new int[16];
+
+        private int[] w = new int[16];
+
+        private int count = 1;
+
+        private Skyline(final int width, final int height) {
+            super();
+            this.width = width;
+            this.height = height;
+            this.w[0] = width;
+        }
+
+        @Override
+        long place(final int rectWidth, final int rectHeight) {
+            int best = -1;
+            int bestY = Integer.MAX_VALUE;
+            int bestWaste = Integer.MAX_VALUE;
+            for (int i = 0; i < this.count && this.x[i] + rectWidth <= this.width; i++) {
+                int top = 0;
+                int waste = 0;
+                int covered = 0;
+                for (int j = i; covered < rectWidth; j++) {
+                    top = Math.max(top, this.y[j]);
+                    covered += this.w[j];
+                }
+                if (top + rectHeight > this.height || top > bestY) {
+                    continue;
+                }
+                covered = 0;
+                for (int j = i; covered < rectWidth; j++) {
+                    int span = Math.min(this.w[j], rectWidth - covered);
+                    waste += span * (top - this.y[j]);
+                    covered += span;
+                }
+                if (top < bestY || waste < bestWaste) {
+                    best = i;
+                    bestY = top;
+                    bestWaste = waste;
+                }
+            }
+            if (best == -1) {
+                return -1;
+            }
+            int left = this.x[best];
+            this.add(best, left, bestY + rectHeight, rectWidth);
+            return (long) left << 32 | bestY;
+        }
+
+        /**
+         * Add a segment at the index of the first segment it covers, trim the covered ones and merge the neighbours
+         * at the same height.
+         */
+        private void add(final int index, final int left, final int top, final int segmentWidth) {
+            int end = left + segmentWidth;
+            int next = index;
+            while (next < this.count && this.x[next] + this.w[next] <= end) {
+                next++;
+            }
+            if (next < this.count && this.x[next] < end) {
+                this.w[next] -= end - this.x[next];
+                this.x[next] = end;
+            }
+            int removed = next - index;
+            if (removed == 0) {
+                this.grow();
+                System.arraycopy(this.x, index, this.x, index + 1, this.count - index);
+                System.arraycopy(this.y, index, this.y, index + 1, this.count - index);
+                System.arraycopy(this.w, index, this.w, index + 1, this.count - index);
+                this.count++;
+            } else if (removed > 1) {
+                System.arraycopy(this.x, next, this.x, index + 1, this.count - next);
+                System.arraycopy(this.y, next, this.y, index + 1, this.count - next);
+                System.arraycopy(this.w, next, this.w, index + 1, this.count - next);
+                this.count -= removed - 1;
+            }
+            this.x[index] = left;
+            this.y[index] = top;
+            this.w[index] = segmentWidth;
+            if (index + 1 < this.count && this.y[index + 1] == top) {
+                this.w[index] += this.w[index + 1];
+                this.removeAt(index + 1);
+            }
+            if (index > 0 && this.y[index - 1] == top) {
+                this.w[index - 1] += this.w[index];
+                this.removeAt(index);
+            }
+        }
+
+        private void removeAt(final int index) {
+            System.arraycopy(this.x, index + 1, this.x, index, this.count - index - 1);
+            System.arraycopy(this.y, index + 1, this.y, index, this.count - index - 1);
+            System.arraycopy(this.w, index + 1, this.w, index, this.count - index - 1);
+            this.count--;
+        }
+
+        private void grow() {
+            if (this.count == this.x.length) {
+                this.x = Arrays.copyOf(this.x, this.count * 2);
+                this.y = Arrays.copyOf(this.y, this.count * 2);
+                this.w = Arrays.copyOf(this.w, this.count * 2);
+            }
+        }
+    }
+
+    /**
+     * Maximal rectangles: the free space is kept as the list of all maximal free rectangles, possibly overlapping.
+     * A rectangle is put in the free one leaving the shortest side, then every free rectangle it overlaps is split and
+     * the free rectangles contained in another one are removed.
+     */
+    private static final class MaxRects extends Bin {
+
+        /**
+         * Free rectangles, 4 values each: x, y, width, height.
+         */
+        private int[] free = new int[64];
+
+        private int count = 1;
+
+        /**
+         * Number of free rectangles before the last split, the next ones are new.
+         */
+        private int kept;
+
+        private MaxRects(final int width, final int height) {
+            super();
+            this.free[2] = width;
+            this.free[3] = height;
+        }
+
+        @Override
+        long place(final int rectWidth, final int rectHeight) {
+            int best = -1;
+            int bestShort = Integer.MAX_VALUE;
+            int bestLong = Integer.MAX_VALUE;
+            for (int i = 0; i < this.count; i++) {
+                int freeWidth = this.free[i * 4 + 2];
+                int freeHeight = this.free[i * 4 + 3];
+                if (freeWidth >= rectWidth && freeHeight >= rectHeight) {
+                    int shortSide = Math.min(freeWidth - rectWidth, freeHeight - rectHeight);
+                    int longSide = Math.max(freeWidth - rectWidth, freeHeight - rectHeight);
+                    if (shortSide < bestShort || (shortSide == bestShort && longSide < bestLong)) {
+                        best = i;
+                        bestShort = shortSide;
+                        bestLong = longSide;
+                    }
+                }
+            }
+            if (best == -1) {
+                return -1;
+            }
+            int left = this.free[best * 4];
+            int top = this.free[best * 4 + 1];
+            this.split(left, top, left + rectWidth, top + rectHeight);
+            this.prune();
+            return (long) left << 32 | top;
+        }
+
+        /**
+         * Replace every free rectangle overlapping the used area by its parts outside of it.
+         */
+        private void split(final int left, final int top, final int right, final int bottom) {
+            int i = 0;
+            int end = this.count;
+            while (i < end) {
+                int fx = this.free[i * 4];
+                int fy = this.free[i * 4 + 1];
+                int fr = fx + this.free[i * 4 + 2];
+                int fb = fy + this.free[i * 4 + 3];
+                if (left >= fr || right <= fx || top >= fb || bottom <= fy) {
+                    i++;
+                    continue;
+                }
+                if (left > fx) {
+                    this.add(fx, fy, left - fx, fb - fy);
+                }
+                if (right < fr) {
+                    this.add(right, fy, fr - right, fb - fy);
+                }
+                if (top > fy) {
+                    this.add(fx, fy, fr - fx, top - fy);
+                }
+                if (bottom < fb) {
+                    this.add(fx, bottom, fr - fx, fb - bottom);
+                }
+                this.count--;
+                end--;
+                System.arraycopy(this.free, (i + 1) * 4, this.free, i * 4, (this.count - i) * 4);
+            }
+            this.kept = end;
+        }
+
+        private void add(final int x, final int y, final int w, final int h) {
+            if (this.free.length == this.count * 4) {
+                this.free = Arrays.copyOf(this.free, this.free.length * 2);
+            }
+            this.free[this.count * 4] = x;
+            this.free[this.count * 4 + 1] = y;
+            this.free[this.count * 4 + 2] = w;
+            this.free[this.count * 4 + 3] = h;
+            this.count++;
+        }
+
+        /**
+         * Remove the free rectangles contained in another one. Only the new rectangles need to be checked: the kept
+         * ones were maximal and cannot be inside a part of a rectangle they were not inside of.
+         */
+        private void prune() {
+            for (int i = this.kept; i < this.count; i++) {
+                boolean removed = false;
+                for (int j = 0; j < this.count; j++) {
+                    if (i != j && this.inside(i, j) && (j < this.kept || !this.inside(j, i) || j < i)) {
+                        removed = true;
+                        break;
+                    }
+                }
+                if (removed) {
+                    this.removeAt(i);
+                    i--;
+                }
+            }
+        }
+
+        /**
+         * Check if the free rectangle a is inside the free rectangle b.
+         */
+        private boolean inside(final int a, final int b) {
+            return this.free[a * 4] >= this.free[b * 4]
+                    && this.free[a * 4 + 1] >= this.free[b * 4 + 1]
+                    && this.free[a * 4] + this.free[a * 4 + 2] <= this.free[b * 4] + this.free[b * 4 + 2]
+                    && this.free[a * 4 + 1] + this.free[a * 4 + 3] <= this.free[b * 4 + 1] + this.free[b * 4 + 3];
+        }
+
+        private void removeAt(final int index) {
+            this.count--;
+            if (index < this.kept) {
+                this.kept--;
+            }
+            System.arraycopy(this.free, (index + 1) * 4, this.free, index * 4, (this.count - index) * 4);
+        }
+    }
+}
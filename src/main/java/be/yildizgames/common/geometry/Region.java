@@ -0,0 +1,489 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Set of pixels made of integer rectangles, immutable.
+ * The region is stored as y-banded rectangles: each band is a range of rows holding sorted, non touching x spans,
+ * bands do not overlap and two adjacent bands never have the same spans, so a region has only one representation
+ * and its rectangle list is already coalesced. Boolean operations merge the bands of both regions in one pass.
+ * A rectangle covers the pixels from left included to right excluded, and from top included to bottom excluded,
+ * unlike {@link Rectangle#contain(float, float)} and {@link Rect2i#contains(float, float)} which include their borders.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Region {
+
+    /**
+     * Region without any pixel.
+     */
+    public static final Region EMPTY = new Region(new int[0]);
+
+    private static final int UNION = 0;
+
+    private static final int INTERSECTION = 1;
+
+    private static final int SUBTRACTION = 2;
+
+    /**
+     * Banded rectangles, 4 values per rectangle: left, top, right, bottom, sorted on top then left.
+     */
+    private final int[] rects;
+
+    private Region(final int[] rects) {
+        super();
+        this.rects = rects;
+    }
+
+    /**
+     * Create a region from a rectangle.
+     *
+     * @param rectangle Rectangle to use, its coordinates are normalized.
+     * @return The created region, empty if the rectangle has no width or no height.
+     */
+    public static Region valueOf(final Rectangle rectangle) {
+        int left = Math.min(rectangle.getLeft(), rectangle.getRight());
+        int right = Math.max(rectangle.getLeft(), rectangle.getRight());
+        int top = Math.min(rectangle.getTop(), rectangle.getBottom());
+        int bottom = Math.max(rectangle.getTop(), rectangle.getBottom());
+        if (left == right || top == bottom) {
+            return EMPTY;
+        }
+        return new Region(new int[]{left, top, right, bottom});
+    }
+
+    /**
+     * Create a region from an immutable rectangle.
+     * The region covers the area of the rectangle: the pixels from left to right - 1 and from top to bottom - 1,
+     * so it holds getWidth() * getHeight() pixels. The points on the right and bottom borders are in the rectangle
+     * but not in the region, and a rectangle with no width or no height gives an empty region.
+     *
+     * @param rectangle Rectangle to use.
+     * @return The created region, empty if the rectangle has no width or no height.
+     */
+    public static Region valueOf(final Rect2i rectangle) {
+        if (rectangle.left == rectangle.right || rectangle.top == rectangle.bottom) {
+            return EMPTY;
+        }
+        return new Region(new int[]{rectangle.left, rectangle.top, rectangle.right, rectangle.bottom});
+    }
+
+    /**
+     * Create a region from the union of several rectangles, merged pairwise in a balanced way.
+     *
+     * @param rectangles Rectangles to use.
+     * @return The created region.
+     */
+    public static Region valueOf(final Rectangle... rectangles) {
+        return unionAll(rectangles, 0, rectangles.length);
+    }
+
+    private static Region unionAll(final Rectangle[] rectangles, final int from, final int to) {
+        if (to - from == 0) {
+            return EMPTY;
+        }
+        if (to - from == 1) {
+            return valueOf(rectangles[from]);
+        }
+        int middle = (from + to) >>> 1;
+        return unionAll(rectangles, from, middle).union(unionAll(rectangles, middle, to));
+    }
+
+    /**
+     * @param other Region to add.
+     * @return A region with the pixels in this region or in the other.
+     */
+    public Region union(final Region other) {
+        if (other.rects.length == 0 || this == other) {
+            return this;
+        }
+        if (this.rects.length == 0) {
+            return other;
+        }
+        return this.combine(other, UNION);
+    }
+
+    /**
+     * @param rectangle Rectangle to add.
+     * @return A region with the pixels in this region or in the rectangle.
+     */
+    public Region union(final Rectangle rectangle) {
+        return this.union(valueOf(rectangle));
+    }
+
+    /**
+     * @param other Region to intersect with.
+     * @return A region with the pixels in both this region and the other.
+     */
+    public Region intersection(final Region other) {
+        if (this.rects.length == 0 || other.rects.length == 0) {
+            return EMPTY;
+        }
+        if (this == other) {
+            return this;
+        }
+        return this.combine(other, INTERSECTION);
+    }
+
+    /**
+     * @param other Region to remove.
+     * @return A region with the pixels in this region but not in the other.
+     */
+    public Region subtract(final Region other) {
+        if (this.rects.length == 0 || other.rects.length == 0) {
+            return this;
+        }
+        if (this == other) {
+            return EMPTY;
+        }
+        return this.combine(other, SUBTRACTION);
+    }
+
+    /**
+     * Check if a pixel is part of the region.
+     *
+     * @param x Pixel x position.
+     * @param y Pixel y position.
+     * @return true if the pixel is in one of the region rectangles.
+     */
+    public boolean contains(final int x, final int y) {
+        int band = this.lastAtMost(y, Integer.MAX_VALUE);
+        if (band < 0 || y >= this.rects[band * 4 + 3]) {
+            return false;
+        }
+        int top = this.rects[band * 4 + 1];
+        int candidate = this.lastAtMost(top, x);
+        return candidate >= 0 && this.rects[candidate * 4 + 1] == top && x < this.rects[candidate * 4 + 2];
+    }
+
+    /**
+     * @return The last rectangle whose top and left are lower or equal to the given ones, -1 if none.
+     */
+    private int lastAtMost(final int top, final int left) {
+        int low = 0;
+        int high = this.rects.length / 4;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int rectTop = this.rects[middle * 4 + 1];
+            if (rectTop < top || (rectTop == top && this.rects[middle * 4] <= left)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * @return true if the region has no pixel.
+     */
+    public boolean isEmpty() {
+        return this.rects.length == 0;
+    }
+
+    /**
+     * @return The number of rectangles of the region.
+     */
+    public int getRectangleCount() {
+        return this.rects.length / 4;
+    }
+
+    /**
+     * @return The banded rectangles of the region, sorted on top then left.
+     */
+    public Rectangle[] getRectangles() {
+        Rectangle[] result = new Rectangle[this.rects.length / 4];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Rectangle(this.rects[i * 4], this.rects[i * 4 + 1], this.rects[i * 4 + 2], this.rects[i * 4 + 3]);
+        }
+        return result;
+    }
+
+    /**
+     * @return The smallest rectangle containing the region, an empty rectangle if the region is empty.
+     */
+    public Rectangle getBounds() {
+        if (this.rects.length == 0) {
+            return new Rectangle();
+        }
+        int left = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        for (int i = 0; i < this.rects.length; i += 4) {
+            left = Math.min(left, this.rects[i]);
+            right = Math.max(right, this.rects[i + 2]);
+        }
+        return new Rectangle(left, this.rects[1], right, this.rects[this.rects.length - 1]);
+    }
+
+    /**
+     * @return The number of pixels in the region.
+     */
+    public long getArea() {
+        long area = 0;
+        for (int i = 0; i < this.rects.length; i += 4) {
+            area += (long) (this.rects[i + 2] - this.rects[i]) * (this.rects[i + 3] - this.rects[i + 1]);
+        }
+        return area;
+    }
+
+    /**
+     * Merge the bands of two regions.
+     */
+    private Region combine(final Region other, final int operation) {
+        Builder builder = new Builder(this.rects.length + other.rects.length);
+        int[] a = this.rects;
+        int[] b = other.rects;
+        int aStart = 0;
+        int bStart = 0;
+        int aEnd = bandEnd(a, 0);
+        int bEnd = bandEnd(b, 0);
+        int aTop = a[1];
+        int bTop = b[1];
+        while (aStart < a.length && bStart < b.length) {
+            int aBottom = a[aStart + 3];
+            int bBottom = b[bStart + 3];
+            int bottom;
+            if (aTop < bTop) {
+                bottom = Math.min(aBottom, bTop);
+                if (operation != INTERSECTION) {
+                    builder.band(aTop, bottom, a, aStart, aEnd, b, 0, 0, UNION);
+                }
+                aTop = bottom;
+            } else if (bTop < aTop) {
+                bottom = Math.min(bBottom, aTop);
+                if (operation == UNION) {
+                    builder.band(bTop, bottom, b, bStart, bEnd, a, 0, 0, UNION);
+                }
+                bTop = bottom;
+            } else {
+                bottom = Math.min(aBottom, bBottom);
+                builder.band(aTop, bottom, a, aStart, aEnd, b, bStart, bEnd, operation);
+                aTop = bottom;
+                bTop = bottom;
+            }
+            if (aTop == aBottom) {
+                aStart = aEnd;
+                if (aStart < a.length) {
+                    aEnd = bandEnd(a, aStart);
+                    aTop = a[aStart + 1];
+                }
+            }
+            if (bTop == bBottom) {
+                bStart = bEnd;
+                if (bStart < b.length) {
+                    bEnd = bandEnd(b, bStart);
+                    bTop = b[bStart + 1];
+                }
+            }
+        }
+        if (operation != INTERSECTION) {
+            while (aStart < a.length) {
+                builder.band(aTop, a[aStart + 3], a, aStart, aEnd, b, 0, 0, UNION);
+                aStart = aEnd;
+                if (aStart < a.length) {
+                    aEnd = bandEnd(a, aStart);
+                    aTop = a[aStart + 1];
+                }
+            }
+        }
+        if (operation == UNION) {
+            while (bStart < b.length) {
+                builder.band(bTop, b[bStart + 3], b, bStart, bEnd, a, 0, 0, UNION);
+                bStart = bEnd;
+                if (bStart < b.length) {
+                    bEnd = bandEnd(b, bStart);
+                    bTop = b[bStart + 1];
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return The index after the last rectangle of the band starting at an index.
+     */
+    private static int bandEnd(final int[] rects, final int start) {
+        int end = start + 4;
+        while (end < rects.length && rects[end + 1] == rects[start + 1]) {
+            end += 4;
+        }
+        return end;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(this.rects, ((Region) o).rects);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.rects);
+    }
+
+    @Override
+    public String toString() {
+        return "Region: " + this.getRectangleCount() + " rectangles, bounds " + this.getBounds();
+    }
+
+    /**
+     * Append bands of spans, coalescing a band with the previous one when they touch and have the same spans.
+     */
+    private static final class Builder {
+
+        private int[] rects;
+
+        private int size;
+
+        /**
+         * Start of the last band.
+         */
+        private int lastBand = -1;
+
+        private Builder(final int capacity) {
+            super();
+            this.rects = new int[Math.max(16, capacity)];
+        }
+
+        /**
+         * Append a band made of the spans of a combined with the spans of b.
+         */
+        private void band(final int top, final int bottom, final int[] a, final int aFrom, final int aTo,
+                          final int[] b, final int bFrom, final int bTo, final int operation) {
+            int start = this.size;
+            int i = aFrom;
+            int j = bFrom;
+            if (operation == UNION) {
+                int left = 0;
+                int right = 0;
+                boolean open = false;
+                while (i < aTo || j < bTo) {
+                    int[] source;
+                    int index;
+                    if (j >= bTo || (i < aTo && a[i] <= b[j])) {
+                        source = a;
+                        index = i;
+                        i += 4;
+                    } else {
+                        source = b;
+                        index = j;
+                        j += 4;
+                    }
+                    if (open && source[index] <= right) {
+                        right = Math.max(right, source[index + 2]);
+                    } else {
+                        if (open) {
+                            this.add(left, top, right, bottom);
+                        }
+                        left = source[index];
+                        right = source[index + 2];
+                        open = true;
+                    }
+                }
+                if (open) {
+                    this.add(left, top, right, bottom);
+                }
+            } else if (operation == INTERSECTION) {
+                while (i < aTo && j < bTo) {
+                    int left = Math.max(a[i], b[j]);
+                    int right = Math.min(a[i + 2], b[j + 2]);
+                    if (left < right) {
+                        this.add(left, top, right, bottom);
+                    }
+                    if (a[i + 2] < b[j + 2]) {
+                        i += 4;
+                    } else {
+                        j += 4;
+                    }
+                }
+            } else {
+                for (; i < aTo; i += 4) {
+                    int left = a[i];
+                    int right = a[i + 2];
+                    while (j < bTo && b[j + 2] <= left) {
+                        j += 4;
+                    }
+                    for (int k = j; k < bTo && b[k] < right; k += 4) {
+                        if (b[k] > left) {
+                            this.add(left, top, b[k], bottom);
+                        }
+                        left = Math.max(left, b[k + 2]);
+                    }
+                    if (left < right) {
+                        this.add(left, top, right, bottom);
+                    }
+                }
+            }
+            this.coalesce(start);
+        }
+
+        /**
+         * Merge the band starting at an index with the previous band if possible.
+         */
+        private void coalesce(final int start) {
+            if (start == this.size) {
+                return;
+            }
+            int previous = this.lastBand;
+            this.lastBand = start;
+            if (previous == -1 || this.rects[previous + 3] != this.rects[start + 1] || start - previous != this.size - start) {
+                return;
+            }
+            for (int i = 0; i < start - previous; i += 4) {
+                if (this.rects[previous + i] != this.rects[start + i] || this.rects[previous + i + 2] != this.rects[start + i + 2]) {
+                    return;
+                }
+            }
+            int bottom = this.rects[start + 3];
+            for (int i = previous; i < start; i += 4) {
+                this.rects[i + 3] = bottom;
+            }
+            this.size = start;
+            this.lastBand = previous;
+        }
+
+        private void add(final int left, final int top, final int right, final int bottom) {
+            if (this.size == this.rects.length) {
+                this.rects = Arrays.copyOf(this.rects, this.size * 2);
+            }
+            this.rects[this.size] = left;
+            this.rects[this.size + 1] = top;
+            this.rects[this.size + 2] = right;
+            this.rects[this.size + 3] = bottom;
+            this.size += 4;
+        }
+
+        private Region build() {
+            return this.size == 0 ? EMPTY : new Region(Arrays.copyOf(this.rects, this.size));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Precomputed rotations for angles that are multiples of a fixed step, for example whole degrees.
+ * A table holds the cosine and sine of every step, and the unit quaternion of every step around each {@link Axis},
+ * lookups are done by step index, without trigonometry or allocation.
+ * A rotation in an axis plane goes in the direction the {@link Point3D#getAngle(Axis)} value increases: from X to Y
+ * for XY, from X to Z for XZ and from Z to Y for ZY.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class RotationTable {
+
+    /**
+     * Table with one step per degree.
+     */
+    public static final RotationTable DEGREES = new RotationTable(360);
+
+    /**
+     * Number of steps in a full turn.
+     */
+    private final int steps;
+
+    private final float[] cos;
+
+    private final float[] sin;
+
+    /**
+     * Quaternions, one block of steps per axis, in axis ordinal order.
+     */
+    private final Quaternion[] quaternions;
+
+    private RotationTable(final int steps) {
+        super();
+        this.steps = steps;
+        this.cos = new float[steps];
+        this.sin = new float[steps];
+        Axis[] axes = Axis.values();
+        this.quaternions = new Quaternion[steps * axes.length];
+        for (int i = 0; i < steps; i++) {
+            this.cos[i] = (float) cos(2L * i, steps);
+            this.sin[i] = (float) cos(2L * i - steps / 2.0, steps);
+            float w = (float) cos(i, steps);
+            float s = (float) cos(i - steps / 2.0, steps);
+            for (Axis axis : axes) {
+                this.quaternions[axis.ordinal() * steps + i] = quaternion(axis, w, s);
+            }
+        }
+    }
+
+    /**
+     * Create a table.
+     *
+     * @param steps Number of steps in a full turn, 360 for whole degrees, 8 for 45 degrees steps...
+     * @return The table.
+     * @throws IllegalArgumentException If steps is not positive.
+     */
+    public static RotationTable valueOf(final int steps) {
+        if (steps <= 0) {
+            throw new IllegalArgumentException("Steps must be positive: " + steps);
+        }
+        return steps == 360 ? DEGREES : new RotationTable(steps);
+    }
+
+    /**
+     * Compute the cosine of half turns * PI / steps, with exact values on quarter turns.
+     */
+    private static double cos(final double halfTurns, final int steps) {
+        double quarters = halfTurns * 2 / steps;
+        if (quarters == Math.rint(quarters)) {
+            int quarter = (int) Math.floorMod((long) quarters, 4L);
+            return quarter == 0 ? 1 : quarter == 2 ? -1 : 0;
+        }
+        return Math.cos(Math.PI * halfTurns / steps);
+    }
+
+    private static Quaternion quaternion(final Axis axis, final float w, final float s) {
+        switch (axis) {
+            case XY:
+                return Quaternion.valueOf(w, 0, 0, s);
+            case XZ:
+                return Quaternion.valueOf(w, 0, -s, 0);
+            case ZY:
+                return Quaternion.valueOf(w, -s, 0, 0);
+            default:
+                throw new IllegalArgumentException(axis + " is unknown.");
+        }
+    }
+
+    /**
+     * @return The number of steps in a full turn.
+     */
+    public int getSteps() {
+        return this.steps;
+    }
+
+    /**
+     * Find the step closest to an angle.
+     *
+     * @param angle Angle.
+     * @return The step index, in [0, steps).
+     */
+    public int index(final Degree angle) {
+        return Math.floorMod(Math.round(angle.angle / 360.0 * this.steps), this.steps);
+    }
+
+    /**
+     * Find the step closest to an angle.
+     *
+     * @param angle Angle.
+     * @return The step index, in [0, steps).
+     */
+    public int index(final Radian angle) {
+        return Math.floorMod(Math.round(angle.angle / Radian.PI2 * this.steps), this.steps);
+    }
+
+    /**
+     * @param step Step index, wrapped around a full turn.
+     * @return The angle of the step.
+     */
+    public Degree getDegree(final int step) {
+        return Degree.valueOf(Math.floorMod(step, this.steps) * 360.0f / this.steps);
+    }
+
+    /**
+     * @param step Step index, wrapped around a full turn.
+     * @return The cosine of the step angle.
+     */
+    public float cos(final int step) {
+        return this.cos[Math.floorMod(step, this.steps)];
+    }
+
+    /**
+     * @param step Step index, wrapped around a full turn.
+     * @return The sine of the step angle.
+     */
+    public float sin(final int step) {
+        return this.sin[Math.floorMod(step, this.steps)];
+    }
+
+    /**
+     * Provide the rotation of a step around an axis, the same instance is returned on each call.
+     *
+     * @param axis Plane to rotate in.
+     * @param step Step index, wrapped around a full turn.
+     * @return The unit quaternion.
+     */
+    public Quaternion getQuaternion(final Axis axis, final int step) {
+        return this.quaternions[axis.ordinal() * this.steps + Math.floorMod(step, this.steps)];
+    }
+
+    /**
+     * Provide the rotation of the step closest to an angle.
+     *
+     * @param axis  Plane to rotate in.
+     * @param angle Angle.
+     * @return The unit quaternion.
+     */
+    public Quaternion getQuaternion(final Axis axis, final Degree angle) {
+        return this.getQuaternion(axis, this.index(angle));
+    }
+
+    /**
+     * Provide the rotation of the step closest to an angle.
+     *
+     * @param axis  Plane to rotate in.
+     * @param angle Angle.
+     * @return The unit quaternion.
+     */
+    public Quaternion getQuaternion(final Axis axis, final Radian angle) {
+        return this.getQuaternion(axis, this.index(angle));
+    }
+
+    /**
+     * Rotate 2D points around the origin.
+     *
+     * @param step        Step index, wrapped around a full turn.
+     * @param coordinates Interleaved x,y values, rotated in place.
+     */
+    public void rotate(final int step, final float[] coordinates) {
+        int s = Math.floorMod(step, this.steps);
+        float c = this.cos[s];
+        float n = this.sin[s];
+        for (int i = 0; i + 1 < coordinates.length; i += 2) {
+            float x = coordinates[i];
+            float y = coordinates[i + 1];
+            coordinates[i] = x * c - y * n;
+            coordinates[i + 1] = x * n + y * c;
+        }
+    }
+
+    /**
+     * Rotate a 2D point around the origin.
+     *
+     * @param step  Step index, wrapped around a full turn.
+     * @param point Point to rotate.
+     * @return The rotated point.
+     */
+    public Point2D rotate(final int step, final Point2D point) {
+        int s = Math.floorMod(step, this.steps);
+        return Point2D.valueOf(point.x * this.cos[s] - point.y * this.sin[s], point.x * this.sin[s] + point.y * this.cos[s]);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Objects;
+
+/**
+ * 2d line segment between two points, immutable.
+ * Intersection tests use exact orientation predicates, so segments touching at an end point or overlapping on a
+ * line are always detected as intersecting.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Segment2 {
+
+    /**
+     * First point.
+     */
+    public final Point2D start;
+
+    /**
+     * Second point.
+     */
+    public final Point2D end;
+
+    private Segment2(final Point2D start, final Point2D end) {
+        super();
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Create a segment.
+     *
+     * @param start First point.
+     * @param end   Second point.
+     * @return The created segment.
+     */
+    public static Segment2 valueOf(final Point2D start, final Point2D end) {
+        return new Segment2(Objects.requireNonNull(start), Objects.requireNonNull(end));
+    }
+
+    /**
+     * Create a segment.
+     *
+     * @param x1 First point x value.
+     * @param y1 First point y value.
+     * @param x2 Second point x value.
+     * @param y2 Second point y value.
+     * @return The created segment.
+     */
+    public static Segment2 valueOf(final float x1, final float y1, final float x2, final float y2) {
+        return new Segment2(Point2D.valueOf(x1, y1), Point2D.valueOf(x2, y2));
+    }
+
+    /**
+     * @return The segment length.
+     */
+    public float length() {
+        return (float) Math.hypot((double) this.end.x - this.start.x, (double) this.end.y - this.start.y);
+    }
+
+    /**
+     * Check if this segment and another one share at least one point.
+     *
+     * @param other Other segment.
+     * @return true if the segments cross, touch or overlap.
+     */
+    public boolean intersects(final Segment2 other) {
+        return intersects(this.start.x, this.start.y, this.end.x, this.end.y,
+                other.start.x, other.start.y, other.end.x, other.end.y);
+    }
+
+    /**
+     * Compute a point shared by this segment and another one.
+     * When the segments overlap, the shared point with the lowest x, then lowest y, is returned.
+     *
+     * @param other Other segment.
+     * @return The intersection point, or null if the segments do not intersect.
+     */
+    public Point2D intersection(final Segment2 other) {
+        if (!this.intersects(other)) {
+            return null;
+        }
+        double dax = (double) this.end.x - this.start.x;
+        double day = (double) this.end.y - this.start.y;
+        double dbx = (double) other.end.x - other.start.x;
+        double dby = (double) other.end.y - other.start.y;
+        double denominator = dax * dby - day * dbx;
+        if (denominator != 0) {
+            double t = (((double) other.start.x - this.start.x) * dby - ((double) other.start.y - this.start.y) * dbx) / denominator;
+            t = Math.max(0, Math.min(1, t));
+            return Point2D.valueOf((float) (this.start.x + dax * t), (float) (this.start.y + day * t));
+        }
+        Point2D result = null;
+        for (Point2D candidate : new Point2D[]{this.start, this.end, other.start, other.end}) {
+            if (contains(this, candidate) && contains(other, candidate)
+                    && (result == null || candidate.x < result.x || (candidate.x == result.x && candidate.y < result.y))) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(final Segment2 segment, final Point2D point) {
+        return Delaunay.orient(segment.start.x, segment.start.y, segment.end.x, segment.end.y, point.x, point.y) == 0
+                && inBox(segment.start.x, segment.start.y, segment.end.x, segment.end.y, point.x, point.y);
+    }
+
+    /**
+     * Exact intersection test of the segments a and b.
+     *
+     * @return true if the segments share at least one point.
+     */
+    static boolean intersects(final float ax1, final float ay1, final float ax2, final float ay2,
+                              final float bx1, final float by1, final float bx2, final float by2) {
+        double d1 = Math.signum(Delaunay.orient(bx1, by1, bx2, by2, ax1, ay1));
+        double d2 = Math.signum(Delaunay.orient(bx1, by1, bx2, by2, ax2, ay2));
+        double d3 = Math.signum(Delaunay.orient(ax1, ay1, ax2, ay2, bx1, by1));
+        double d4 = Math.signum(Delaunay.orient(ax1, ay1, ax2, ay2, bx2, by2));
+        if (d1 * d2 < 0 && d3 * d4 < 0) {
+            return true;
+        }
+        return (d1 == 0 && inBox(bx1, by1, bx2, by2, ax1, ay1))
+                || (d2 == 0 && inBox(bx1, by1, bx2, by2, ax2, ay2))
+                || (d3 == 0 && inBox(ax1, ay1, ax2, ay2, bx1, by1))
+                || (d4 == 0 && inBox(ax1, ay1, ax2, ay2, bx2, by2));
+    }
+
+    /**
+     * Check if a point is in the bounding box of a segment.
+     */
+    private static boolean inBox(final float x1, final float y1, final float x2, final float y2, final float x, final float y) {
+        return x >= Math.min(x1, x2) && x <= Math.max(x1, x2) && y >= Math.min(y1, y2) && y <= Math.max(y1, y2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Segment2 segment = (Segment2) o;
+        return this.start.equals(segment.start) && this.end.equals(segment.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.start.hashCode() + this.end.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Segment2: " + this.start + " - " + this.end;
+    }
+}
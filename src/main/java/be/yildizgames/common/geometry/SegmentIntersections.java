@@ -0,0 +1,601 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Find the intersecting pairs in a set of segments with a Bentley-Ottmann sweep, in O((n + k) log n).
+ * The sweep line moves on x, then y. The status of the sweep is a tree of the segments crossing it, ordered with
+ * exact orientation tests at insertion and updated by swaps at crossings, so its order never depends on rounded
+ * intersection points. Pairs touching at an end point or overlapping on a line are detected on the end point events.
+ * Segments are given as 4 values: x1, y1, x2, y2, pairs are returned as segment indexes.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class SegmentIntersections {
+
+    private SegmentIntersections() {
+        super();
+    }
+
+    /**
+     * Find all intersecting pairs.
+     *
+     * @param segments Segments to check.
+     * @return The intersecting pairs, 2 indexes per pair, the lowest first, sorted.
+     */
+    public static int[] findAll(final Segment2[] segments) {
+        return findAll(toCoordinates(segments));
+    }
+
+    /**
+     * Find all intersecting pairs.
+     *
+     * @param coordinates Segments to check, 4 values per segment: x1, y1, x2, y2.
+     * @return The intersecting pairs, 2 indexes per pair, the lowest first, sorted.
+     * @throws IllegalArgumentException If the coordinate count is not a multiple of 4.
+     */
+    public static int[] findAll(final float[] coordinates) {
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int[] pairs = new Sweep(coordinates, false).run();
+        event.commit("SegmentIntersections.findAll", coordinates.length / 4, pairs.length / 2);
+        return pairs;
+    }
+
+    /**
+     * Check if any segments intersect, the sweep stops at the first intersection found.
+     *
+     * @param segments Segments to check.
+     * @return true if at least two segments intersect.
+     */
+    public static boolean any(final Segment2[] segments) {
+        return findAny(toCoordinates(segments)).length != 0;
+    }
+
+    /**
+     * Find an intersecting pair, the sweep stops at the first intersection found.
+     *
+     * @param coordinates Segments to check, 4 values per segment: x1, y1, x2, y2.
+     * @return An intersecting pair, lowest index first, or an empty array if no segments intersect.
+     * @throws IllegalArgumentException If the coordinate count is not a multiple of 4.
+     */
+    public static int[] findAny(final float[] coordinates) {
+        return new Sweep(coordinates, true).run();
+    }
+
+    private static float[] toCoordinates(final Segment2[] segments) {
+        float[] coordinates = new float[segments.length * 4];
+        for (int i = 0; i < segments.length; i++) {
+            coordinates[i * 4] = segments[i].start.x;
+            coordinates[i * 4 + 1] = segments[i].start.y;
+            coordinates[i * 4 + 2] = segments[i].end.x;
+            coordinates[i * 4 + 3] = segments[i].end.y;
+        }
+        return coordinates;
+    }
+
+    /**
+     * Map a point to an unsigned key following the sweep order, x first, then y.
+     */
+    private static long key(final float x, final float y) {
+        return (long) sortable(x) << 32 | sortable(y) & 0xFFFFFFFFL;
+    }
+
+    private static int sortable(final float value) {
+        int bits = Float.floatToIntBits(value + 0.0f);
+        return bits ^ (bits >> 31 & 0x7FFFFFFF) ^ 0x80000000;
+    }
+
+    /**
+     * Intersection of two segments, not yet processed by the sweep.
+     */
+    private static final class Crossing implements Comparable<Crossing> {
+
+        private final double x;
+
+        private final double y;
+
+        /**
+         * Segment below the other one before the crossing.
+         */
+        private final int lower;
+
+        /**
+         * Segment above the other one before the crossing.
+         */
+        private final int upper;
+
+        private Crossing(final double x, final double y, final int lower, final int upper) {
+            super();
+            this.x = x;
+            this.y = y;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        @Override
+        public int compareTo(final Crossing o) {
+            int result = Double.compare(this.x, o.x);
+            return result != 0 ? result : Double.compare(this.y, o.y);
+        }
+    }
+
+    /**
+     * State of a sweep.
+     * The status is a treap, nodes are kept for a segment from its insertion to its removal so neighbours and swaps
+     * never need a comparison.
+     */
+    private static final class Sweep {
+
+        /**
+         * Segments with their lowest end point first, 4 values per segment.
+         */
+        private final float[] s;
+
+        private final int count;
+
+        /**
+         * Stop at the first intersection.
+         */
+        private final boolean stopAtFirst;
+
+        private final int[] left;
+
+        private final int[] right;
+
+        private final int[] parent;
+
+        private final int[] priority;
+
+        /**
+         * Segment held by a node.
+         */
+        private final int[] segment;
+
+        /**
+         * Node holding a segment, -1 when the segment is not crossing the sweep line.
+         */
+        private final int[] node;
+
+        private final int[] free;
+
+        private int freeCount;
+
+        private int root = -1;
+
+        private int seed = 0x2545F491;
+
+        private final PriorityQueue<Crossing> crossings = new PriorityQueue<>();
+
+        private double sweepX = Double.NEGATIVE_INFINITY;
+
+        private double sweepY = Double.NEGATIVE_INFINITY;
+
+        private long[] pairs = new long[16];
+
+        private int pairCount;
+
+        private int[] members = new int[16];
+
+        private Sweep(final float[] coordinates, final boolean stopAtFirst) {
+            super();
+            if (coordinates.length % 4 != 0) {
+                throw new IllegalArgumentException("Segments need 4 values each, got " + coordinates.length + " values.");
+            }
+            this.count = coordinates.length / 4;
+            this.stopAtFirst = stopAtFirst;
+            this.s = new float[coordinates.length];
+            for (int i = 0; i < coordinates.length; i += 4) {
+                boolean swap = Long.compareUnsigned(key(coordinates[i], coordinates[i + 1]), key(coordinates[i + 2], coordinates[i + 3])) > 0;
+                int first = swap ? 2 : 0;
+                this.s[i] = coordinates[i + first];
+                this.s[i + 1] = coordinates[i + first + 1];
+                this.s[i + 2] = coordinates[i + 2 - first];
+                this.s[i + 3] = coordinates[i + 3 - first];
+            }
+            this.left = new int[this.count];
+            this.right = new int[this.count];
+            this.parent = new int[this.count];
+            this.priority = new int[this.count];
+            this.segment = new int[this.count];
+            this.node = new int[this.count];
+            this.free = new int[this.count];
+            Arrays.fill(this.node, -1);
+            for (int i = 0; i < this.count; i++) {
+                this.free[i] = this.count - 1 - i;
+            }
+            this.freeCount = this.count;
+        }
+
+        private int[] run() {
+            long[] keys = new long[this.count * 2];
+            for (int i = 0; i < this.count; i++) {
+                keys[i * 2] = key(this.s[i * 4], this.s[i * 4 + 1]);
+                keys[i * 2 + 1] = key(this.s[i * 4 + 2], this.s[i * 4 + 3]);
+            }
+            int[] order = Morton.radixSort(keys);
+            int k = 0;
+            while ((k < order.length || !this.crossings.isEmpty()) && !(this.stopAtFirst && this.pairCount > 0)) {
+                Crossing crossing = this.crossings.peek();
+                if (crossing != null && (k == order.length || this.before(crossing, order[k]))) {
+                    this.crossings.poll();
+                    this.processCrossing(crossing);
+                    continue;
+                }
+                int end = k + 1;
+                while (end < order.length && keys[end] == keys[k]) {
+                    end++;
+                }
+                this.processPoint(order, k, end);
+                k = end;
+            }
+            Arrays.sort(this.pairs, 0, this.pairCount);
+            int[] result = new int[this.pairCount * 2];
+            int size = 0;
+            for (int i = 0; i < this.pairCount; i++) {
+                if (i == 0 || this.pairs[i] != this.pairs[i - 1]) {
+                    result[size++] = (int) (this.pairs[i] >>> 32);
+                    result[size++] = (int) this.pairs[i];
+                }
+            }
+            return this.stopAtFirst ? Arrays.copyOf(result, Math.min(size, 2)) : Arrays.copyOf(result, size);
+        }
+
+        /**
+         * Check if a crossing comes before or at an end point event.
+         */
+        private boolean before(final Crossing crossing, final int endPoint) {
+            int index = (endPoint >> 1) * 4 + (endPoint & 1) * 2;
+            return crossing.x < this.s[index] || (crossing.x == this.s[index] && crossing.y <= this.s[index + 1]);
+        }
+
+        /**
+         * Handle all the segments starting, ending or passing through an end point.
+         */
+        private void processPoint(final int[] order, final int from, final int to) {
+            int index = (order[from] >> 1) * 4 + (order[from] & 1) * 2;
+            float px = this.s[index];
+            float py = this.s[index + 1];
+            this.sweepX = px;
+            this.sweepY = py;
+            int size = 0;
+            int inserted = 0;
+            for (int i = from; i < to; i++) {
+                int seg = order[i] >> 1;
+                if ((order[i] & 1) == 0) {
+                    size = this.addMember(size, seg);
+                    if (!this.isPoint(seg)) {
+                        inserted++;
+                    }
+                }
+            }
+            int found = this.locate(px, py);
+            int below = -1;
+            int above = -1;
+            int blockStart = size;
+            if (found != -1) {
+                int low = found;
+                int high = found;
+                for (int n = this.predecessor(low); n != -1 && this.passesThrough(this.segment[n], px, py); n = this.predecessor(n)) {
+                    low = n;
+                }
+                for (int n = this.successor(high); n != -1 && this.passesThrough(this.segment[n], px, py); n = this.successor(n)) {
+                    high = n;
+                }
+                below = this.predecessor(low);
+                above = this.successor(high);
+                for (int n = low; ; n = this.successor(n)) {
+                    size = this.addMember(size, this.segment[n]);
+                    if (n == high) {
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                for (int j = i + 1; j < size; j++) {
+                    this.report(this.members[i], this.members[j]);
+                }
+            }
+            if (this.stopAtFirst && this.pairCount > 0) {
+                return;
+            }
+            for (int i = blockStart; i < size; i++) {
+                this.remove(this.node[this.members[i]]);
+            }
+            for (int i = blockStart; i < size; i++) {
+                int seg = this.members[i];
+                if (this.s[seg * 4 + 2] != px || this.s[seg * 4 + 3] != py) {
+                    this.insert(seg, px, py);
+                    inserted++;
+                }
+            }
+            for (int i = 0; i < blockStart; i++) {
+                if (!this.isPoint(this.members[i])) {
+                    this.insert(this.members[i], px, py);
+                }
+            }
+            if (inserted == 0) {
+                this.check(below, above);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                int n = this.node[this.members[i]];
+                if (n != -1) {
+                    this.check(this.predecessor(n), n);
+                    this.check(n, this.successor(n));
+                }
+            }
+        }
+
+        /**
+         * Swap two segments at their crossing if they are still neighbours.
+         */
+        private void processCrossing(final Crossing crossing) {
+            int lowerNode = this.node[crossing.lower];
+            int upperNode = this.node[crossing.upper];
+            if (lowerNode == -1 || upperNode == -1 || this.successor(lowerNode) != upperNode
+                    || !this.crossingAhead(crossing.lower, crossing.upper)) {
+                return;
+            }
+            this.sweepX = crossing.x;
+            this.sweepY = crossing.y;
+            this.segment[lowerNode] = crossing.upper;
+            this.segment[upperNode] = crossing.lower;
+            this.node[crossing.upper] = lowerNode;
+            this.node[crossing.lower] = upperNode;
+            this.report(crossing.lower, crossing.upper);
+            this.check(this.predecessor(lowerNode), lowerNode);
+            this.check(upperNode, this.successor(upperNode));
+        }
+
+        /**
+         * Schedule the crossing of two neighbour nodes if it is ahead of the sweep line.
+         */
+        private void check(final int lowerNode, final int upperNode) {
+            if (lowerNode == -1 || upperNode == -1) {
+                return;
+            }
+            int a = this.segment[lowerNode];
+            int b = this.segment[upperNode];
+            if (!this.crossingAhead(a, b)) {
+                return;
+            }
+            if (this.stopAtFirst) {
+                this.report(a, b);
+                return;
+            }
+            double ax = this.s[a * 4];
+            double ay = this.s[a * 4 + 1];
+            double dax = this.s[a * 4 + 2] - ax;
+            double day = this.s[a * 4 + 3] - ay;
+            double dbx = this.s[b * 4 + 2] - (double) this.s[b * 4];
+            double dby = this.s[b * 4 + 3] - (double) this.s[b * 4 + 1];
+            double t = ((this.s[b * 4] - ax) * dby - (this.s[b * 4 + 1] - ay) * dbx) / (dax * dby - day * dbx);
+            t = Math.max(0, Math.min(1, t));
+            double x = ax + dax * t;
+            double y = ay + day * t;
+            if (x < this.sweepX || (x == this.sweepX && y < this.sweepY)) {
+                x = this.sweepX;
+                y = this.sweepY;
+            }
+            this.crossings.add(new Crossing(x, y, a, b));
+        }
+
+        /**
+         * Check if the segment a, below b on the sweep line, is above it at the end of their common range.
+         */
+        private boolean crossingAhead(final int a, final int b) {
+            long aEnd = key(this.s[a * 4 + 2], this.s[a * 4 + 3]);
+            long bEnd = key(this.s[b * 4 + 2], this.s[b * 4 + 3]);
+            if (Long.compareUnsigned(aEnd, bEnd) <= 0) {
+                return this.orient(b, this.s[a * 4 + 2], this.s[a * 4 + 3]) > 0;
+            }
+            return this.orient(a, this.s[b * 4 + 2], this.s[b * 4 + 3]) < 0;
+        }
+
+        /**
+         * Orientation of a point relative to a segment directed from its lowest end point.
+         */
+        private double orient(final int seg, final double x, final double y) {
+            return Delaunay.orient(this.s[seg * 4], this.s[seg * 4 + 1], this.s[seg * 4 + 2], this.s[seg * 4 + 3], x, y);
+        }
+
+        private boolean passesThrough(final int seg, final double x, final double y) {
+            return this.orient(seg, x, y) == 0;
+        }
+
+        private boolean isPoint(final int seg) {
+            return this.s[seg * 4] == this.s[seg * 4 + 2] && this.s[seg * 4 + 1] == this.s[seg * 4 + 3];
+        }
+
+        private int addMember(final int size, final int seg) {
+            if (size == this.members.length) {
+                this.members = Arrays.copyOf(this.members, size * 2);
+            }
+            this.members[size] = seg;
+            return size + 1;
+        }
+
+        private void report(final int a, final int b) {
+            if (this.pairCount == this.pairs.length) {
+                this.pairs = Arrays.copyOf(this.pairs, this.pairCount * 2);
+            }
+            this.pairs[this.pairCount++] = (long) Math.min(a, b) << 32 | Math.max(a, b);
+        }
+
+        /**
+         * Find a node whose segment passes through a point of the sweep line.
+         *
+         * @return The node, or -1 if no segment passes through the point.
+         */
+        private int locate(final double x, final double y) {
+            int n = this.root;
+            while (n != -1) {
+                double side = this.orient(this.segment[n], x, y);
+                if (side == 0) {
+                    return n;
+                }
+                n = side > 0 ? this.right[n] : this.left[n];
+            }
+            return -1;
+        }
+
+        /**
+         * Order of a segment being inserted at a point of the sweep line, relative to a segment already there.
+         * Ties on the point are broken by the direction after the point, then by index for overlapping segments.
+         */
+        private double compare(final int seg, final int other, final double x, final double y) {
+            double side = this.orient(other, x, y);
+            if (side == 0) {
+                side = this.orient(other, this.s[seg * 4 + 2], this.s[seg * 4 + 3]);
+            }
+            return side != 0 ? side : seg - other;
+        }
+
+        private void insert(final int seg, final double x, final double y) {
+            int n = this.free[--this.freeCount];
+            this.segment[n] = seg;
+            this.node[seg] = n;
+            this.left[n] = -1;
+            this.right[n] = -1;
+            this.seed ^= this.seed << 13;
+            this.seed ^= this.seed >>> 17;
+            this.seed ^= this.seed << 5;
+            this.priority[n] = this.seed;
+            if (this.root == -1) {
+                this.root = n;
+                this.parent[n] = -1;
+                return;
+            }
+            int current = this.root;
+            while (true) {
+                if (this.compare(seg, this.segment[current], x, y) > 0) {
+                    if (this.right[current] == -1) {
+                        this.right[current] = n;
+                        break;
+                    }
+                    current = this.right[current];
+                } else {
+                    if (this.left[current] == -1) {
+                        this.left[current] = n;
+                        break;
+                    }
+                    current = this.left[current];
+                }
+            }
+            this.parent[n] = current;
+            while (this.parent[n] != -1 && this.priority[n] > this.priority[this.parent[n]]) {
+                this.rotateUp(n);
+            }
+        }
+
+        private void remove(final int n) {
+            while (this.left[n] != -1 || this.right[n] != -1) {
+                int child;
+                if (this.left[n] == -1) {
+                    child = this.right[n];
+                } else if (this.right[n] == -1) {
+                    child = this.left[n];
+                } else {
+                    child = this.priority[this.left[n]] > this.priority[this.right[n]] ? this.left[n] : this.right[n];
+                }
+                this.rotateUp(child);
+            }
+            int p = this.parent[n];
+            if (p == -1) {
+                this.root = -1;
+            } else if (this.left[p] == n) {
+                this.left[p] = -1;
+            } else {
+                this.right[p] = -1;
+            }
+            this.node[this.segment[n]] = -1;
+            this.free[this.freeCount++] = n;
+        }
+
+        /**
+         * Rotate a node above its parent.
+         */
+        private void rotateUp(final int n) {
+            int p = this.parent[n];
+            int g = this.parent[p];
+            if (this.left[p] == n) {
+                this.left[p] = this.right[n];
+                if (this.right[n] != -1) {
+                    this.parent[this.right[n]] = p;
+                }
+                this.right[n] = p;
+            } else {
+                this.right[p] = this.left[n];
+                if (this.left[n] != -1) {
+                    this.parent[this.left[n]] = p;
+                }
+                this.left[n] = p;
+            }
+            this.parent[p] = n;
+            this.parent[n] = g;
+            if (g == -1) {
+                this.root = n;
+            } else if (this.left[g] == p) {
+                this.left[g] = n;
+            } else {
+                this.right[g] = n;
+            }
+        }
+
+        private int predecessor(final int start) {
+            int n = start;
+            if (this.left[n] != -1) {
+                n = this.left[n];
+                while (this.right[n] != -1) {
+                    n = this.right[n];
+                }
+                return n;
+            }
+            while (this.parent[n] != -1 && this.left[this.parent[n]] == n) {
+                n = this.parent[n];
+            }
+            return this.parent[n];
+        }
+
+        private int successor(final int start) {
+            int n = start;
+            if (this.right[n] != -1) {
+                n = this.right[n];
+                while (this.left[n] != -1) {
+                    n = this.left[n];
+                }
+                return n;
+            }
+            while (this.parent[n] != -1 && this.right[this.parent[n]] == n) {
+                n = this.parent[n];
+            }
+            return this.parent[n];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a query on a spatial structure.
+ * Disabled by default, enable it in the recording settings with be.yildizgames.geometry.SpatialQuery#enabled=true.
+ *
+ * @author Gregory Van den Borre
+ */
+@Name("be.yildizgames.geometry.SpatialQuery")
+@Label("Spatial Query")
+@Category({"Yildiz", "Geometry"})
+@Description("Query on a spatial structure")
+@Enabled(false)
+@StackTrace(false)
+final class SpatialQueryEvent extends Event {
+
+    @Label("Structure")
+    String structure;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Elements")
+    @Description("Number of elements in the structure")
+    int elements;
+
+    @Label("Queries")
+    @Description("Number of queried points or shapes")
+    int queries;
+
+    @Label("Visited")
+    @Description("Number of nodes or elements tested")
+    long visited;
+
+    @Label("Results")
+    int results;
+
+    /**
+     * Fill and commit the event if it is enabled and lasted longer than its threshold.
+     */
+    void commit(final String structure, final String operation, final int elements, final int queries,
+                final long visited, final int results) {
+        if (this.shouldCommit()) {
+            this.structure = structure;
+            this.operation = operation;
+            this.elements = elements;
+            this.queries = queries;
+            this.visited = visited;
+            this.results = results;
+            this.commit();
+        }
+    }
+}
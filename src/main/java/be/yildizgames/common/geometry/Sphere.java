@@ -0,0 +1,121 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Immutable sphere, safe to share between threads.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Sphere implements ConvexShape {
+
+    /**
+     * Sphere center.
+     */
+    public final Point3D center;
+
+    /**
+     * Sphere radius, never negative.
+     */
+    public final float radius;
+
+    /**
+     * Values in the {@link NarrowPhase} batch layout.
+     */
+    final float[] data;
+
+    private Sphere(final Point3D center, final float radius) {
+        super();
+        this.center = center;
+        this.radius = radius;
+        this.data = new float[]{center.x, center.y, center.z, radius};
+    }
+
+    /**
+     * Create a sphere.
+     *
+     * @param center Sphere center.
+     * @param radius Sphere radius.
+     * @return The created sphere.
+     * @throws IllegalArgumentException If the radius is negative or not a number.
+     */
+    public static Sphere valueOf(final Point3D center, final float radius) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Invalid radius: " + radius);
+        }
+        return new Sphere(center, radius);
+    }
+
+    /**
+     * Create a sphere.
+     *
+     * @param x      Center x value.
+     * @param y      Center y value.
+     * @param z      Center z value.
+     * @param radius Sphere radius.
+     * @return The created sphere.
+     * @throws IllegalArgumentException If the radius is negative or not a number.
+     */
+    public static Sphere valueOf(final float x, final float y, final float z, final float radius) {
+        return valueOf(Point3D.valueOf(x, y, z), radius);
+    }
+
+    @Override
+    public void support(final double x, final double y, final double z, final double[] result) {
+        double length = Math.sqrt(x * x + y * y + z * z);
+        if (length > 0) {
+            double scale = this.radius / length;
+            result[0] = this.center.x + x * scale;
+            result[1] = this.center.y + y * scale;
+            result[2] = this.center.z + z * scale;
+        } else {
+            result[0] = this.center.x + this.radius;
+            result[1] = this.center.y;
+            result[2] = this.center.z;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Sphere other = (Sphere) o;
+        return this.center.equals(other.center) && Float.compare(this.radius, other.radius) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.center.hashCode() + Float.hashCode(this.radius);
+    }
+
+    @Override
+    public String toString() {
+        return "Sphere(center=" + this.center + ", radius=" + this.radius + ")";
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Immutable 3d path made of cubic segments, evaluated at constant speed from a distance along the path.
+ * Catmull-Rom paths are centripetal, so they go through all their waypoints without cusp or self intersection inside
+ * a segment, the end tangents are computed from phantom points mirroring the second and second last waypoints.
+ * Bezier paths are chains of cubic curves sharing their end control points.
+ * Each segment is stored as its polynomial coefficients. An arc length table, built once, holds the cumulative length
+ * at regular parameter steps of each segment, a distance is mapped to a parameter by binary search and linear
+ * interpolation in this table. Sampling with caller provided arrays does not allocate.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class SplinePath {
+
+    /**
+     * Default number of arc length samples per segment.
+     */
+    public static final int DEFAULT_SAMPLES = 32;
+
+    /**
+     * Polynomial coefficients, 12 per segment: a, b, c, d for x, y and z, with p(u) = a u^3 + b u^2 + c u + d.
+     */
+    private final float[] coefficients;
+
+    /**
+     * Number of arc length samples per segment.
+     */
+    private final int samples;
+
+    /**
+     * Cumulative length at each sample, segment count times samples plus one values.
+     */
+    private final float[] lengths;
+
+    private SplinePath(final float[] coefficients, final int samples) {
+        super();
+        this.coefficients = coefficients;
+        this.samples = samples;
+        int segments = coefficients.length / 12;
+        this.lengths = new float[segments * samples + 1];
+        float[] point = new float[3];
+        double total = 0;
+        this.evaluate(0, 0, point, 0);
+        float x = point[0];
+        float y = point[1];
+        float z = point[2];
+        for (int i = 1; i < this.lengths.length; i++) {
+            int segment = (i - 1) / samples;
+            this.evaluate(segment, (float) (i - segment * samples) / samples, point, 0);
+            double dx = point[0] - x;
+            double dy = point[1] - y;
+            double dz = point[2] - z;
+            total += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            this.lengths[i] = (float) total;
+            x = point[0];
+            y = point[1];
+            z = point[2];
+        }
+    }
+
+    /**
+     * Create a centripetal Catmull-Rom path going through waypoints.
+     *
+     * @param waypoints Points to go through, at least 2.
+     * @return The created path.
+     * @throws IllegalArgumentException If there are less than 2 waypoints.
+     */
+    public static SplinePath catmullRom(final Point3D... waypoints) {
+        return catmullRom(toCoordinates(waypoints), DEFAULT_SAMPLES);
+    }
+
+    /**
+     * Create a centripetal Catmull-Rom path going through waypoints.
+     *
+     * @param coordinates Points to go through, interleaved x,y,z values, at least 2 points.
+     * @param samples     Number of arc length samples per segment, at least 1.
+     * @return The created path.
+     * @throws IllegalArgumentException If there are less than 2 points, or the sample count is invalid.
+     */
+    public static SplinePath catmullRom(final float[] coordinates, final int samples) {
+        int count = coordinates.length / 3;
+        if (count < 2 || coordinates.length % 3 != 0) {
+            throw new IllegalArgumentException("A path needs at least 2 points, as x,y,z values.");
+        }
+        checkSamples(samples);
+        float[] coefficients = new float[(count - 1) * 12];
+        float[] p = new float[12];
+        for (int s = 0; s < count - 1; s++) {
+            for (int d = 0; d < 3; d++) {
+                float p1 = coordinates[s * 3 + d];
+                float p2 = coordinates[s * 3 + 3 + d];
+                p[d] = s == 0 ? 2 * p1 - p2 : coordinates[s * 3 - 3 + d];
+                p[3 + d] = p1;
+                p[6 + d] = p2;
+                p[9 + d] = s == count - 2 ? 2 * p2 - p1 : coordinates[s * 3 + 6 + d];
+            }
+            double t01 = knot(p, 0);
+            double t12 = knot(p, 3);
+            double t23 = knot(p, 6);
+            for (int d = 0; d < 3; d++) {
+                double p0 = p[d];
+                double p1 = p[3 + d];
+                double p2 = p[6 + d];
+                double p3 = p[9 + d];
+                double m1 = ((p1 - p0) / t01 - (p2 - p0) / (t01 + t12) + (p2 - p1) / t12) * t12;
+                double m2 = ((p2 - p1) / t12 - (p3 - p1) / (t12 + t23) + (p3 - p2) / t23) * t12;
+                int c = s * 12 + d;
+                coefficients[c] = (float) (2 * p1 - 2 * p2 + m1 + m2);
+                coefficients[c + 3] = (float) (-3 * p1 + 3 * p2 - 2 * m1 - m2);
+                coefficients[c + 6] = (float) m1;
+                coefficients[c + 9] = (float) p1;
+            }
+        }
+        return new SplinePath(coefficients, samples);
+    }
+
+    /**
+     * Create a path from a chain of cubic Bezier curves, each curve starts at the last control point of the previous one.
+     *
+     * @param controls Control points, 3 per curve plus 1.
+     * @return The created path.
+     * @throws IllegalArgumentException If the control point count is not 3 per curve plus 1.
+     */
+    public static SplinePath bezier(final Point3D... controls) {
+        return bezier(toCoordinates(controls), DEFAULT_SAMPLES);
+    }
+
+    /**
+     * Create a path from a chain of cubic Bezier curves, each curve starts at the last control point of the previous one.
+     *
+     * @param coordinates Control points, interleaved x,y,z values, 3 per curve plus 1.
+     * @param samples     Number of arc length samples per segment, at least 1.
+     * @return The created path.
+     * @throws IllegalArgumentException If the control point count is not 3 per curve plus 1, or the sample count is invalid.
+     */
+    public static SplinePath bezier(final float[] coordinates, final int samples) {
+        int count = coordinates.length / 3;
+        if (count < 4 || coordinates.length % 3 != 0 || (count - 1) % 3 != 0) {
+            throw new IllegalArgumentException("A Bezier path needs 3 control points per curve plus 1, as x,y,z values.");
+        }
+        checkSamples(samples);
+        int segments = (count - 1) / 3;
+        float[] coefficients = new float[segments * 12];
+        for (int s = 0; s < segments; s++) {
+            for (int d = 0; d < 3; d++) {
+                float p0 = coordinates[s * 9 + d];
+                float p1 = coordinates[s * 9 + 3 + d];
+                float p2 = coordinates[s * 9 + 6 + d];
+                float p3 = coordinates[s * 9 + 9 + d];
+                int c = s * 12 + d;
+                coefficients[c] = p3 - 3 * p2 + 3 * p1 - p0;
+                coefficients[c + 3] = 3 * (p2 - 2 * p1 + p0);
+                coefficients[c + 6] = 3 * (p1 - p0);
+                coefficients[c + 9] = p0;
+            }
+        }
+        return new SplinePath(coefficients, samples);
+    }
+
+    private static float[] toCoordinates(final Point3D[] points) {
+        float[] coordinates = new float[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 3] = points[i].x;
+            coordinates[i * 3 + 1] = points[i].y;
+            coordinates[i * 3 + 2] = points[i].z;
+        }
+        return coordinates;
+    }
+
+    private static void checkSamples(final int samples) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("At least 1 sample per segment is needed: " + samples);
+        }
+    }
+
+    /**
+     * Centripetal knot interval between two consecutive points, a tiny value replaces 0 for repeated points.
+     */
+    private static double knot(final float[] p, final int from) {
+        double dx = p[from + 3] - p[from];
+        double dy = p[from + 4] - p[from + 1];
+        double dz = p[from + 5] - p[from + 2];
+        return Math.max(Math.sqrt(Math.sqrt(dx * dx + dy * dy + dz * dz)), 1e-6);
+    }
+
+    /**
+     * @return The path length.
+     */
+    public float getLength() {
+        return this.lengths[this.lengths.length - 1];
+    }
+
+    /**
+     * @return The number of cubic segments.
+     */
+    public int getSegmentCount() {
+        return this.coefficients.length / 12;
+    }
+
+    /**
+     * Compute the position at a distance from the start, the distance is clamped to the path length.
+     *
+     * @param distance Distance along the path.
+     * @return The position.
+     */
+    public Point3D getPoint(final float distance) {
+        float[] result = new float[3];
+        this.getPoint(distance, result, 0);
+        return Point3D.valueOf(result[0], result[1], result[2]);
+    }
+
+    /**
+     * Compute the position at a distance from the start, the distance is clamped to the path length.
+     *
+     * @param distance Distance along the path.
+     * @param result   Receive the x,y,z values.
+     * @param offset   Index of the x value in the result.
+     */
+    public void getPoint(final float distance, final float[] result, final int offset) {
+        float t = this.parameter(distance);
+        int segment = Math.min((int) t, this.getSegmentCount() - 1);
+        this.evaluate(segment, t - segment, result, offset);
+    }
+
+    /**
+     * Compute the unit direction at a distance from the start, the distance is clamped to the path length.
+     * The direction is 0 where the path does not move.
+     *
+     * @param distance Distance along the path.
+     * @param result   Receive the x,y,z values.
+     * @param offset   Index of the x value in the result.
+     */
+    public void getDirection(final float distance, final float[] result, final int offset) {
+        float t = this.parameter(distance);
+        int segment = Math.min((int) t, this.getSegmentCount() - 1);
+        float u = t - segment;
+        int c = segment * 12;
+        float dx = (3 * this.coefficients[c] * u + 2 * this.coefficients[c + 3]) * u + this.coefficients[c + 6];
+        float dy = (3 * this.coefficients[c + 1] * u + 2 * this.coefficients[c + 4]) * u + this.coefficients[c + 7];
+        float dz = (3 * this.coefficients[c + 2] * u + 2 * this.coefficients[c + 5]) * u + this.coefficients[c + 8];
+        float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float inverse = length == 0 ? 0 : 1 / length;
+        result[offset] = dx * inverse;
+        result[offset + 1] = dy * inverse;
+        result[offset + 2] = dz * inverse;
+    }
+
+    /**
+     * Compute the positions at many distances, for example the agents moving on this path.
+     *
+     * @param distances Distances along the path, clamped to the path length.
+     * @param result    Receive the x,y,z values of each position, at least 3 values per distance.
+     * @throws IllegalArgumentException If the result array is too small.
+     */
+    public void sample(final float[] distances, final float[] result) {
+        if (result.length < distances.length * 3) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + distances.length + " distances.");
+        }
+        for (int i = 0; i < distances.length; i++) {
+            this.getPoint(distances[i], result, i * 3);
+        }
+    }
+
+    /**
+     * Convert a distance to a curve parameter, the integer part being the segment index.
+     *
+     * @param distance Distance along the path.
+     * @return The parameter, from 0 to the segment count.
+     */
+    private float parameter(final float distance) {
+        int last = this.lengths.length - 1;
+        if (!(distance > 0)) {
+            return 0;
+        }
+        if (distance >= this.lengths[last]) {
+            return (float) last / this.samples;
+        }
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (this.lengths[middle] <= distance) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        float span = this.lengths[high] - this.lengths[low];
+        float fraction = span > 0 ? (distance - this.lengths[low]) / span : 0;
+        return (low + fraction) / this.samples;
+    }
+
+    private void evaluate(final int segment, final float u, final float[] result, final int offset) {
+        int c = segment * 12;
+        result[offset] = ((this.coefficients[c] * u + this.coefficients[c + 3]) * u + this.coefficients[c + 6]) * u + this.coefficients[c + 9];
+        result[offset + 1] = ((this.coefficients[c + 1] * u + this.coefficients[c + 4]) * u + this.coefficients[c + 7]) * u + this.coefficients[c + 10];
+        result[offset + 2] = ((this.coefficients[c + 2] * u + this.coefficients[c + 5]) * u + this.coefficients[c + 8]) * u + this.coefficients[c + 11];
+    }
+}
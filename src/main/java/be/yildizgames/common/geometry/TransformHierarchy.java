@@ -0,0 +1,507 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Hierarchy of rigid transforms, each node has a local position and rotation relative to its parent, and a world
+ * position and rotation computed by {@link #update()}.
+ * The nodes are stored in flat arrays in breadth first order, so a node is always after its parent and the nodes of a
+ * same depth are contiguous, as are the children of contiguous parents. Changing a local transform marks the node dirty,
+ * an update only recomputes the dirty nodes and their descendants, one depth after the other. Each depth only scans the
+ * positions between its first and last dirty node, widened to the children of the range scanned at the previous depth,
+ * so a dirty leaf costs O(1) plus the depth lookup; nodes spread across a depth make the scan cover the positions
+ * between them. The nodes of a same depth are independent, large ranges are split in tasks running on a ForkJoinPool.
+ * Nodes are identified by their index in the parent array given at creation, the breadth first order is internal.
+ * World values are only valid after an update. Not thread safe.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class TransformHierarchy {
+
+    /**
+     * Number of nodes of a depth from which the update is forked.
+     */
+    private static final int FORK_THRESHOLD = 4_096;
+
+    /**
+     * Breadth first position of each node.
+     */
+    private final int[] positions;
+
+    /**
+     * Node at each breadth first position.
+     */
+    private final int[] nodes;
+
+    /**
+     * Parent position of each position, -1 for roots.
+     */
+    private final int[] parents;
+
+    /**
+     * First position of each depth, and the node count at the end.
+     */
+    private final int[] depthStarts;
+
+    /**
+     * Position of the first child of each position, or of the next child after it for a leaf, and the node count at
+     * the end: the children of the positions from a to b - 1 are from firstChildren[a] to firstChildren[b] - 1.
+     */
+    private final int[] firstChildren;
+
+    /**
+     * Local positions, x,y,z per position.
+     */
+    private final float[] localPositions;
+
+    /**
+     * Local rotations, w,x,y,z per position.
+     */
+    private final float[] localRotations;
+
+    private final float[] worldPositions;
+
+    private final float[] worldRotations;
+
+    /**
+     * Positions whose local transform changed since the last update.
+     */
+    private final boolean[] dirty;
+
+    /**
+     * Update number in which the world transform of each position was last recomputed.
+     */
+    private final int[] changed;
+
+    /**
+     * Current update number.
+     */
+    private int epoch;
+
+    private int dirtyCount;
+
+    /**
+     * Lowest dirty position of each depth, the depth end if there is none.
+     */
+    private final int[] dirtyLows;
+
+    /**
+     * Position after the highest dirty position of each depth, the depth start if there is none.
+     */
+    private final int[] dirtyHighs;
+
+    /**
+     * Lowest depth holding a dirty position.
+     */
+    private int firstDirtyDepth;
+
+    /**
+     * Highest depth holding a dirty position.
+     */
+    private int lastDirtyDepth;
+
+    /**
+     * Create a hierarchy with identity transforms, all nodes dirty.
+     *
+     * @param parents Parent of each node, -1 for a root, a parent must come before its children.
+     * @throws IllegalArgumentException If a parent index is not before its child.
+     */
+    public TransformHierarchy(final int[] parents) {
+        super();
+        int count = parents.length;
+        int[] childCount = new int[count + 1];
+        int[] depths = new int[count];
+        int maxDepth = 0;
+        for (int i = 0; i < count; i++) {
+            int parent = parents[i];
+            if (parent < -1 || parent >= i) {
+                throw new IllegalArgumentException("Node " + i + " has an invalid parent: " + parent);
+            }
+            if (parent >= 0) {
+                childCount[parent + 1]++;
+                depths[i] = depths[parent] + 1;
+                maxDepth = Math.max(maxDepth, depths[i]);
+            }
+        }
+        int[] childStarts = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            childStarts[i + 1] = childStarts[i] + childCount[i + 1];
+        }
+        int[] children = new int[count];
+        int[] fill = new int[count];
+        System.arraycopy(childStarts, 0, fill, 0, count);
+        for (int i = 0; i < count; i++) {
+            if (parents[i] >= 0) {
+                children[fill[parents[i]]++] = i;
+            }
+        }
+        this.positions = new int[count];
+        this.nodes = new int[count];
+        this.parents = new int[count];
+        this.depthStarts = new int[count == 0 ? 1 : maxDepth + 2];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (parents[i] < 0) {
+                this.nodes[size++] = i;
+            }
+        }
+        int depth = 0;
+        for (int head = 0; head < size; head++) {
+            int node = this.nodes[head];
+            if (depths[node] != depth) {
+                depth = depths[node];
+                this.depthStarts[depth] = head;
+            }
+            this.positions[node] = head;
+            for (int c = childStarts[node]; c < childStarts[node + 1]; c++) {
+                this.nodes[size++] = children[c];
+            }
+        }
+        this.depthStarts[this.depthStarts.length - 1] = count;
+        for (int p = 0; p < count; p++) {
+            int parent = parents[this.nodes[p]];
+            this.parents[p] = parent < 0 ? -1 : this.positions[parent];
+        }
+        this.firstChildren = new int[count + 1];
+        this.firstChildren[count] = count;
+        for (int p = count - 1; p >= 0; p--) {
+            int node = this.nodes[p];
+            boolean leaf = childStarts[node] == childStarts[node + 1];
+            this.firstChildren[p] = leaf ? this.firstChildren[p + 1] : this.positions[children[childStarts[node]]];
+        }
+        this.localPositions = new float[count * 3];
+        this.localRotations = new float[count * 4];
+        this.worldPositions = new float[count * 3];
+        this.worldRotations = new float[count * 4];
+        this.dirty = new boolean[count];
+        this.changed = new int[count];
+        for (int p = 0; p < count; p++) {
+            this.localRotations[p * 4] = 1;
+            this.worldRotations[p * 4] = 1;
+            this.dirty[p] = true;
+        }
+        this.dirtyCount = count;
+        int depthCount = this.depthStarts.length - 1;
+        this.dirtyLows = new int[depthCount];
+        this.dirtyHighs = new int[depthCount];
+        System.arraycopy(this.depthStarts, 0, this.dirtyLows, 0, depthCount);
+        System.arraycopy(this.depthStarts, 1, this.dirtyHighs, 0, depthCount);
+        this.firstDirtyDepth = 0;
+        this.lastDirtyDepth = count == 0 ? -1 : depthCount - 1;
+    }
+
+    /**
+     * @return The number of nodes.
+     */
+    public int size() {
+        return this.nodes.length;
+    }
+
+    /**
+     * @param node Node index.
+     * @return The parent node index, -1 for a root.
+     */
+    public int getParent(final int node) {
+        int parent = this.parents[this.positions[node]];
+        return parent < 0 ? -1 : this.nodes[parent];
+    }
+
+    /**
+     * @param node Node index.
+     * @return The number of ancestors of the node.
+     */
+    public int getDepth(final int node) {
+        return this.depthOf(this.positions[node]);
+    }
+
+    private int depthOf(final int position) {
+        int low = 0;
+        int high = this.depthStarts.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.depthStarts[middle] <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return The number of depths, 0 if there is no node.
+     */
+    public int getDepthCount() {
+        return this.size() == 0 ? 0 : this.depthStarts.length - 1;
+    }
+
+    /**
+     * Set the position of a node relative to its parent.
+     *
+     * @param node Node index.
+     * @param x    Local x position.
+     * @param y    Local y position.
+     * @param z    Local z position.
+     */
+    public void setLocalPosition(final int node, final float x, final float y, final float z) {
+        int p = this.positions[node];
+        this.localPositions[p * 3] = x;
+        this.localPositions[p * 3 + 1] = y;
+        this.localPositions[p * 3 + 2] = z;
+        this.markDirty(p);
+    }
+
+    /**
+     * Set the position of a node relative to its parent.
+     *
+     * @param node     Node index.
+     * @param position Local position.
+     */
+    public void setLocalPosition(final int node, final Point3D position) {
+        this.setLocalPosition(node, position.x, position.y, position.z);
+    }
+
+    /**
+     * Set the rotation of a node relative to its parent.
+     *
+     * @param node     Node index.
+     * @param rotation Local rotation, a unit quaternion.
+     */
+    public void setLocalRotation(final int node, final Quaternion rotation) {
+        int p = this.positions[node];
+        this.localRotations[p * 4] = rotation.w;
+        this.localRotations[p * 4 + 1] = rotation.x;
+        this.localRotations[p * 4 + 2] = rotation.y;
+        this.localRotations[p * 4 + 3] = rotation.z;
+        this.markDirty(p);
+    }
+
+    private void markDirty(final int position) {
+        if (!this.dirty[position]) {
+            this.dirty[position] = true;
+            this.dirtyCount++;
+            int depth = this.depthOf(position);
+            this.dirtyLows[depth] = Math.min(this.dirtyLows[depth], position);
+            this.dirtyHighs[depth] = Math.max(this.dirtyHighs[depth], position + 1);
+            this.firstDirtyDepth = Math.min(this.firstDirtyDepth, depth);
+            this.lastDirtyDepth = Math.max(this.lastDirtyDepth, depth);
+        }
+    }
+
+    /**
+     * @param node Node index.
+     * @return true if the local transform of the node changed since the last update.
+     */
+    public boolean isDirty(final int node) {
+        return this.dirty[this.positions[node]];
+    }
+
+    /**
+     * @param node Node index.
+     * @return The position of the node relative to its parent.
+     */
+    public Point3D getLocalPosition(final int node) {
+        int p = this.positions[node] * 3;
+        return Point3D.valueOf(this.localPositions[p], this.localPositions[p + 1], this.localPositions[p + 2]);
+    }
+
+    /**
+     * @param node Node index.
+     * @return The rotation of the node relative to its parent.
+     */
+    public Quaternion getLocalRotation(final int node) {
+        int p = this.positions[node] * 4;
+        return Quaternion.valueOf(this.localRotations[p], this.localRotations[p + 1], this.localRotations[p + 2], this.localRotations[p + 3]);
+    }
+
+    /**
+     * @param node Node index.
+     * @return The world position of the node, as of the last update.
+     */
+    public Point3D getWorldPosition(final int node) {
+        int p = this.positions[node] * 3;
+        return Point3D.valueOf(this.worldPositions[p], this.worldPositions[p + 1], this.worldPositions[p + 2]);
+    }
+
+    /**
+     * Copy the world position of a node without allocating.
+     *
+     * @param node   Node index.
+     * @param result Receive the x,y,z values.
+     * @param offset Index of the x value in the result.
+     */
+    public void getWorldPosition(final int node, final float[] result, final int offset) {
+        System.arraycopy(this.worldPositions, this.positions[node] * 3, result, offset, 3);
+    }
+
+    /**
+     * @param node Node index.
+     * @return The world rotation of the node, as of the last update.
+     */
+    public Quaternion getWorldRotation(final int node) {
+        int p = this.positions[node] * 4;
+        return Quaternion.valueOf(this.worldRotations[p], this.worldRotations[p + 1], this.worldRotations[p + 2], this.worldRotations[p + 3]);
+    }
+
+    /**
+     * Recompute the world transforms of the dirty nodes and their descendants.
+     *
+     * @return The number of recomputed nodes.
+     */
+    public int update() {
+        return this.update(null);
+    }
+
+    /**
+     * Recompute the world transforms of the dirty nodes and their descendants, large depths are split on a pool.
+     *
+     * @param pool Pool running the tasks, null to update on the calling thread.
+     * @return The number of recomputed nodes.
+     */
+    public int update(final ForkJoinPool pool) {
+        if (this.dirtyCount == 0) {
+            return 0;
+        }
+        this.epoch++;
+        int updated = 0;
+        // Children of the range scanned at the previous depth.
+        int low = 0;
+        int high = 0;
+        for (int depth = this.firstDirtyDepth; depth < this.dirtyLows.length && (depth <= this.lastDirtyDepth || low < high); depth++) {
+            int from = this.dirtyLows[depth];
+            int to = this.dirtyHighs[depth];
+            if (from >= to) {
+                from = low;
+                to = high;
+            } else if (low < high) {
+                from = Math.min(from, low);
+                to = Math.max(to, high);
+            }
+            this.dirtyLows[depth] = this.depthStarts[depth + 1];
+            this.dirtyHighs[depth] = this.depthStarts[depth];
+            if (from >= to) {
+                low = 0;
+                high = 0;
+                continue;
+            }
+            if (pool == null || to - from < FORK_THRESHOLD) {
+                updated += this.update(from, to);
+            } else {
+                updated += pool.invoke(new UpdateTask(this, from, to));
+            }
+            low = this.firstChildren[from];
+            high = this.firstChildren[to];
+        }
+        this.dirtyCount = 0;
+        this.firstDirtyDepth = this.dirtyLows.length;
+        this.lastDirtyDepth = -1;
+        return updated;
+    }
+
+    /**
+     * Update a range of positions of the same depth, their parents being up to date.
+     *
+     * @return The number of recomputed positions.
+     */
+    private int update(final int from, final int to) {
+        int updated = 0;
+        for (int p = from; p < to; p++) {
+            int parent = this.parents[p];
+            if (!this.dirty[p] && (parent < 0 || this.changed[parent] != this.epoch)) {
+                continue;
+            }
+            this.dirty[p] = false;
+            this.changed[p] = this.epoch;
+            updated++;
+            int l3 = p * 3;
+            int l4 = p * 4;
+            if (parent < 0) {
+                System.arraycopy(this.localPositions, l3, this.worldPositions, l3, 3);
+                System.arraycopy(this.localRotations, l4, this.worldRotations, l4, 4);
+                continue;
+            }
+            int p3 = parent * 3;
+            int p4 = parent * 4;
+            float qw = this.worldRotations[p4];
+            float qx = this.worldRotations[p4 + 1];
+            float qy = this.worldRotations[p4 + 2];
+            float qz = this.worldRotations[p4 + 3];
+            float vx = this.localPositions[l3];
+            float vy = this.localPositions[l3 + 1];
+            float vz = this.localPositions[l3 + 2];
+            float tx = 2 * (qy * vz - qz * vy);
+            float ty = 2 * (qz * vx - qx * vz);
+            float tz = 2 * (qx * vy - qy * vx);
+            this.worldPositions[l3] = this.worldPositions[p3] + vx + qw * tx + qy * tz - qz * ty;
+            this.worldPositions[l3 + 1] = this.worldPositions[p3 + 1] + vy + qw * ty + qz * tx - qx * tz;
+            this.worldPositions[l3 + 2] = this.worldPositions[p3 + 2] + vz + qw * tz + qx * ty - qy * tx;
+            float rw = this.localRotations[l4];
+            float rx = this.localRotations[l4 + 1];
+            float ry = this.localRotations[l4 + 2];
+            float rz = this.localRotations[l4 + 3];
+            this.worldRotations[l4] = qw * rw - qx * rx - qy * ry - qz * rz;
+            this.worldRotations[l4 + 1] = qw * rx + qx * rw + qy * rz - qz * ry;
+            this.worldRotations[l4 + 2] = qw * ry + qy * rw + qz * rx - qx * rz;
+            this.worldRotations[l4 + 3] = qw * rz + qz * rw + qx * ry - qy * rx;
+        }
+        return updated;
+    }
+
+    /**
+     * Update a range of positions of the same depth, forking halves until the range is small enough.
+     */
+    private static final class UpdateTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient TransformHierarchy hierarchy;
+
+        private final int from;
+
+        private final int to;
+
+        private UpdateTask(final TransformHierarchy hierarchy, final int from, final int to) {
+            super();
+            this.hierarchy = hierarchy;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.to - this.from <= FORK_THRESHOLD) {
+                return this.hierarchy.update(this.from, this.to);
+            }
+            int middle = (this.from + this.to) >>> 1;
+            UpdateTask right = new UpdateTask(this.hierarchy, middle, this.to);
+            right.fork();
+            int left = new UpdateTask(this.hierarchy, this.from, middle).compute();
+            return left + right.join();
+        }
+    }
+}
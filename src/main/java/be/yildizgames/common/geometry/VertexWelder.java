@@ -0,0 +1,362 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge the vertices of a 3d point set which are within a tolerance of each other.
+ * Vertices are hashed in a grid whose cells are twice the tolerance wide, so the vertices close enough to a vertex
+ * are in its cell or in one of the 7 cells on the side of the cell it is nearest to.
+ * Vertices are processed in input order: a vertex is merged to the first kept vertex within the tolerance, or kept.
+ * The quantization and hashing of the vertices is done in parallel, the merge is a single linear pass.
+ * A tolerance of 0 merges the vertices with exactly the same coordinates, -0 being equal to 0.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class VertexWelder {
+
+    /**
+     * Number of vertices from which the hashing is run on the pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 100_000;
+
+    /**
+     * Number of vertices hashed by a single task.
+     */
+    private static final int TASK_SIZE = 32_768;
+
+    /**
+     * Index of the kept vertex for each input vertex.
+     */
+    private final int[] remap;
+
+    /**
+     * Kept vertices, as interleaved x,y,z values.
+     */
+    private final float[] coordinates;
+
+    private VertexWelder(final int[] remap, final float[] coordinates) {
+        super();
+        this.remap = remap;
+        this.coordinates = coordinates;
+    }
+
+    /**
+     * Weld a set of points, large inputs are hashed on the common pool.
+     *
+     * @param points    Points to weld.
+     * @param tolerance Maximum distance between two merged points.
+     * @return The welded set.
+     * @throws IllegalArgumentException If the tolerance is negative or not finite.
+     */
+    public static VertexWelder weld(final Point3D[] points, final float tolerance) {
+        float[] values = new float[points.length * 3];
+        for (int i = 0; i < points.length; i++) {
+            values[i * 3] = points[i].x;
+            values[i * 3 + 1] = points[i].y;
+            values[i * 3 + 2] = points[i].z;
+        }
+        return weld(values, tolerance);
+    }
+
+    /**
+     * Weld a set of points, large inputs are hashed on the common pool.
+     *
+     * @param coordinates Interleaved x,y,z values.
+     * @param tolerance   Maximum distance between two merged points.
+     * @return The welded set.
+     * @throws IllegalArgumentException If the tolerance is negative or not finite, or the length is not a multiple of 3.
+     */
+    public static VertexWelder weld(final float[] coordinates, final float tolerance) {
+        return weld(coordinates, tolerance, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Weld a set of points.
+     *
+     * @param coordinates Interleaved x,y,z values.
+     * @param tolerance   Maximum distance between two merged points.
+     * @param pool        Pool used to hash large inputs.
+     * @return The welded set.
+     * @throws IllegalArgumentException If the tolerance is negative or not finite, or the length is not a multiple of 3.
+     */
+    public static VertexWelder weld(final float[] coordinates, final float tolerance, final ForkJoinPool pool) {
+        if (!(tolerance >= 0) || tolerance == Float.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+        }
+        if (coordinates.length % 3 != 0) {
+            throw new IllegalArgumentException("Coordinates length must be a multiple of 3: " + coordinates.length);
+        }
+        BulkOperationEvent event = new BulkOperationEvent();
+        event.begin();
+        int count = coordinates.length / 3;
+        Grid grid = new Grid(coordinates, tolerance);
+        if (count < PARALLEL_THRESHOLD) {
+            grid.hash(0, count);
+        } else {
+            pool.invoke(new HashTask(grid, 0, count));
+        }
+        VertexWelder welder = grid.merge();
+        event.commit("VertexWelder.weld", count, welder.getVertexCount());
+        return welder;
+    }
+
+    /**
+     * @return The number of kept vertices.
+     */
+    public int getVertexCount() {
+        return this.coordinates.length / 3;
+    }
+
+    /**
+     * @return The index of the kept vertex for each input vertex.
+     */
+    public int[] getRemap() {
+        return this.remap.clone();
+    }
+
+    /**
+     * @param index Input vertex index.
+     * @return The index of the kept vertex the input vertex is merged to.
+     */
+    public int getRemap(final int index) {
+        return this.remap[index];
+    }
+
+    /**
+     * @return The kept vertices as interleaved x,y,z values, in the order of their first occurrence.
+     */
+    public float[] getCoordinates() {
+        return this.coordinates.clone();
+    }
+
+    /**
+     * @param index Kept vertex index.
+     * @return The kept vertex.
+     */
+    public Point3D getVertex(final int index) {
+        return Point3D.valueOf(this.coordinates[index * 3], this.coordinates[index * 3 + 1], this.coordinates[index * 3 + 2]);
+    }
+
+    /**
+     * Rewrite indexes of the input vertices, like a triangle index buffer, to the kept vertices.
+     *
+     * @param indexes Indexes to rewrite in place.
+     */
+    public void remapIndexes(final int[] indexes) {
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = this.remap[indexes[i]];
+        }
+    }
+
+    /**
+     * Grid cells of the vertices, the hash of each cell is computed in advance so it can be done in parallel.
+     */
+    private static final class Grid {
+
+        private final float[] coordinates;
+
+        private final float tolerance;
+
+        /**
+         * Inverse of the cell size, 0 when the cells are the exact coordinates.
+         */
+        private final double scale;
+
+        /**
+         * Cell coordinates, 3 values per vertex.
+         */
+        private final int[] cells;
+
+        /**
+         * Hash of the cell of each vertex.
+         */
+        private final int[] hashes;
+
+        /**
+         * Side of the neighbour cells to check for each vertex: bit 0 set for the positive x side, 1 for y, 2 for z.
+         */
+        private final byte[] sides;
+
+        private Grid(final float[] coordinates, final float tolerance) {
+            super();
+            int count = coordinates.length / 3;
+            this.coordinates = coordinates;
+            this.tolerance = tolerance;
+            this.scale = tolerance == 0 ? 0 : 0.5 / tolerance;
+            this.cells = new int[count * 3];
+            this.hashes = new int[count];
+            this.sides = new byte[count];
+        }
+
+        private void hash(final int from, final int to) {
+            for (int i = from; i < to; i++) {
+                int side = 0;
+                for (int d = 0; d < 3; d++) {
+                    float value = this.coordinates[i * 3 + d];
+                    int cell;
+                    if (this.scale == 0) {
+                        cell = PointHashTable.bits(value);
+                    } else {
+                        double scaled = value * this.scale;
+                        double floor = Math.floor(scaled);
+                        cell = (int) floor;
+                        if (scaled - floor >= 0.5f) {
+                            side |= 1 << d;
+                        }
+                    }
+                    this.cells[i * 3 + d] = cell;
+                }
+                this.hashes[i] = PointHashTable.hash(this.cells[i * 3], this.cells[i * 3 + 1], this.cells[i * 3 + 2]);
+                this.sides[i] = (byte) side;
+            }
+        }
+
+        private VertexWelder merge() {
+            int count = this.hashes.length;
+            int[] remap = new int[count];
+            float[] kept = new float[count * 3];
+            int[] next = new int[count];
+            CellTable table = new CellTable(count);
+            float squared = this.tolerance * this.tolerance;
+            int neighbours = this.scale == 0 ? 1 : 8;
+            int keptCount = 0;
+            for (int i = 0; i < count; i++) {
+                int cx = this.cells[i * 3];
+                int cy = this.cells[i * 3 + 1];
+                int cz = this.cells[i * 3 + 2];
+                float x = this.coordinates[i * 3];
+                float y = this.coordinates[i * 3 + 1];
+                float z = this.coordinates[i * 3 + 2];
+                int side = this.sides[i];
+                int found = -1;
+                for (int n = 0; n < neighbours && found < 0; n++) {
+                    int slot;
+                    if (n == 0) {
+                        slot = table.find(cx, cy, cz, this.hashes[i]);
+                    } else {
+                        slot = table.find(
+                                (n & 1) == 0 ? cx : (side & 1) == 0 ? cx - 1 : cx + 1,
+                                (n & 2) == 0 ? cy : (side & 2) == 0 ? cy - 1 : cy + 1,
+                                (n & 4) == 0 ? cz : (side & 4) == 0 ? cz - 1 : cz + 1);
+                    }
+                    for (int k = slot < 0 ? -1 : table.heads[slot]; k >= 0; k = next[k]) {
+                        float dx = kept[k * 3] - x;
+                        float dy = kept[k * 3 + 1] - y;
+                        float dz = kept[k * 3 + 2] - z;
+                        if (dx * dx + dy * dy + dz * dz <= squared) {
+                            found = k;
+                            break;
+                        }
+                    }
+                }
+                if (found < 0) {
+                    found = keptCount++;
+                    kept[found * 3] = x;
+                    kept[found * 3 + 1] = y;
+                    kept[found * 3 + 2] = z;
+                    int slot = table.insert(cx, cy, cz, this.hashes[i]);
+                    if (slot < 0) {
+                        slot = -slot - 1;
+                        next[found] = -1;
+                    } else {
+                        next[found] = table.heads[slot];
+                    }
+                    table.heads[slot] = found;
+                }
+                remap[i] = found;
+            }
+            return new VertexWelder(remap, Arrays.copyOf(kept, keptCount * 3));
+        }
+    }
+
+    /**
+     * Grid cells holding vertices, each slot is the head of the list of the kept vertices in the cell.
+     */
+    private static final class CellTable extends PointHashTable {
+
+        private int[] heads;
+
+        private CellTable(final int expected) {
+            super(3, expected);
+            this.heads = new int[this.capacity()];
+        }
+
+        @Override
+        void remapValues(final int[] slots, final boolean[] oldUsed, final int capacity) {
+            int[] moved = new int[capacity];
+            for (int i = 0; i < slots.length; i++) {
+                if (oldUsed[i]) {
+                    moved[slots[i]] = this.heads[i];
+                }
+            }
+            this.heads = moved;
+        }
+
+        @Override
+        int valueSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        void moveValue(final int from, final int to) {
+            this.heads[to] = this.heads[from];
+        }
+    }
+
+    /**
+     * Hash a range of vertices, forking halves until the range is small enough.
+     */
+    private static final class HashTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Grid grid;
+
+        private final int from;
+
+        private final int to;
+
+        private HashTask(final Grid grid, final int from, final int to) {
+            super();
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= TASK_SIZE) {
+                this.grid.hash(this.from, this.to);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new HashTask(this.grid, this.from, middle), new HashTask(this.grid, middle, this.to));
+        }
+    }
+}
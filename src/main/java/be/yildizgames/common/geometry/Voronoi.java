@@ -0,0 +1,173 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Voronoi diagram of a set of 2d points, immutable, built from a Delaunay triangulation.
+ * Each cell is a convex polygon, counter clockwise, clipped to a rectangle. All cells are stored in a single
+ * coordinate array, the vertices of cell i are between offsets[i] and offsets[i + 1].
+ * Duplicated points and points whose cell falls outside the rectangle have an empty cell.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class Voronoi {
+
+    /**
+     * Interleaved x,y values of all cell vertices.
+     */
+    private final float[] coordinates;
+
+    /**
+     * First vertex of each cell, and the total vertex count at the end.
+     */
+    private final int[] offsets;
+
+    private Voronoi(final float[] coordinates, final int[] offsets) {
+        super();
+        this.coordinates = coordinates;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Clip the bounds against the bisector of each Delaunay neighbour.
+     *
+     * @param points Site coordinates.
+     * @param neighbours Neighbours of all sites.
+     * @param neighbourOffsets First neighbour of each site.
+     * @param used Flag for the sites present in the triangulation.
+     * @param bounds Clipping rectangle.
+     * @return The diagram.
+     */
+    static Voronoi build(final float[] points, final int[] neighbours, final int[] neighbourOffsets, final boolean[] used, final Rectangle bounds) {
+        int count = used.length;
+        double minX = Math.min(bounds.getLeft(), bounds.getRight());
+        double maxX = Math.max(bounds.getLeft(), bounds.getRight());
+        double minY = Math.min(bounds.getTop(), bounds.getBottom());
+        double maxY = Math.max(bounds.getTop(), bounds.getBottom());
+        int[] offsets = new int[count + 1];
+        float[] result = new float[count * 12];
+        double[] polygon = new double[32];
+        double[] clipped = new double[32];
+        for (int site = 0; site < count; site++) {
+            int size = 0;
+            if (used[site]) {
+                polygon[0] = minX;
+                polygon[1] = minY;
+                polygon[2] = maxX;
+                polygon[3] = minY;
+                polygon[4] = maxX;
+                polygon[5] = maxY;
+                polygon[6] = minX;
+                polygon[7] = maxY;
+                size = 4;
+                double x = points[site * 2];
+                double y = points[site * 2 + 1];
+                for (int n = neighbourOffsets[site]; n < neighbourOffsets[site + 1] && size > 0; n++) {
+                    int other = neighbours[n];
+                    double nx = points[other * 2] - x;
+                    double ny = points[other * 2 + 1] - y;
+                    double mx = x + nx * 0.5;
+                    double my = y + ny * 0.5;
+                    if (clipped.length < (size + 1) * 2) {
+                        clipped = new double[(size + 1) * 4];
+                    }
+                    int clippedSize = 0;
+                    for (int v = 0; v < size; v++) {
+                        int w = v + 1 == size ? 0 : v + 1;
+                        double vx = polygon[v * 2];
+                        double vy = polygon[v * 2 + 1];
+                        double wx = polygon[w * 2];
+                        double wy = polygon[w * 2 + 1];
+                        double fv = (vx - mx) * nx + (vy - my) * ny;
+                        double fw = (wx - mx) * nx + (wy - my) * ny;
+                        if (fv <= 0) {
+                            clipped[clippedSize * 2] = vx;
+                            clipped[clippedSize * 2 + 1] = vy;
+                            clippedSize++;
+                        }
+                        if ((fv < 0 && fw > 0) || (fv > 0 && fw < 0)) {
+                            double ratio = fv / (fv - fw);
+                            clipped[clippedSize * 2] = vx + (wx - vx) * ratio;
+                            clipped[clippedSize * 2 + 1] = vy + (wy - vy) * ratio;
+                            clippedSize++;
+                        }
+                    }
+                    double[] swap = polygon;
+                    polygon = clipped;
+                    clipped = swap;
+                    size = clippedSize < 3 ? 0 : clippedSize;
+                }
+            }
+            int start = offsets[site];
+            if (result.length < (start + size) * 2) {
+                result = Arrays.copyOf(result, Math.max(result.length * 2, (start + size) * 2));
+            }
+            for (int v = 0; v < size * 2; v++) {
+                result[start * 2 + v] = (float) polygon[v];
+            }
+            offsets[site + 1] = start + size;
+        }
+        return new Voronoi(Arrays.copyOf(result, offsets[count] * 2), offsets);
+    }
+
+    /**
+     * @return The number of cells, one per site.
+     */
+    public int getCellCount() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * @param site Site index.
+     * @return The number of vertices of the cell, 0 if the cell is empty.
+     */
+    public int getVertexCount(final int site) {
+        return this.offsets[site + 1] - this.offsets[site];
+    }
+
+    /**
+     * @param site Site index.
+     * @return The cell polygon, interleaved x,y values, counter clockwise.
+     */
+    public float[] getCell(final int site) {
+        return Arrays.copyOfRange(this.coordinates, this.offsets[site] * 2, this.offsets[site + 1] * 2);
+    }
+
+    /**
+     * @return A copy of the vertices of all cells, interleaved x,y values.
+     */
+    public float[] getCoordinates() {
+        return this.coordinates.clone();
+    }
+
+    /**
+     * @return A copy of the first vertex index of each cell, followed by the total vertex count.
+     */
+    public int[] getOffsets() {
+        return this.offsets.clone();
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Immutable position in a large world: an integer sector coordinate and a float offset inside the sector.
+ * Sectors are cubes of {@link #SECTOR_SIZE} units, offsets are kept in [0, SECTOR_SIZE), so their precision is the
+ * same everywhere in the world. The sector size is a power of 2, sector boundaries are exact in float.
+ * Positions are converted to camera relative {@link Point3D} for rendering and physics, keeping the float precision
+ * where it matters: close to the camera.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class WorldPosition {
+
+    /**
+     * Size of a sector on each axis.
+     */
+    public static final float SECTOR_SIZE = 1024;
+
+    /**
+     * Constant for the world origin.
+     */
+    public static final WorldPosition ORIGIN = new WorldPosition(0, 0, 0, 0, 0, 0);
+
+    /**
+     * Sector x coordinate.
+     */
+    public final int sectorX;
+
+    /**
+     * Sector y coordinate.
+     */
+    public final int sectorY;
+
+    /**
+     * Sector z coordinate.
+     */
+    public final int sectorZ;
+
+    /**
+     * X offset in the sector, in [0, SECTOR_SIZE).
+     */
+    public final float x;
+
+    /**
+     * Y offset in the sector, in [0, SECTOR_SIZE).
+     */
+    public final float y;
+
+    /**
+     * Z offset in the sector, in [0, SECTOR_SIZE).
+     */
+    public final float z;
+
+    private WorldPosition(final int sectorX, final int sectorY, final int sectorZ, final float x, final float y, final float z) {
+        super();
+        this.sectorX = sectorX;
+        this.sectorY = sectorY;
+        this.sectorZ = sectorZ;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Create a position, the offsets are moved to the sectors they fall in.
+     *
+     * @param sectorX Sector x coordinate.
+     * @param sectorY Sector y coordinate.
+     * @param sectorZ Sector z coordinate.
+     * @param x       X offset from the sector origin.
+     * @param y       Y offset from the sector origin.
+     * @param z       Z offset from the sector origin.
+     * @return The normalized position.
+     * @throws IllegalArgumentException If an offset is not finite.
+     */
+    public static WorldPosition valueOf(final int sectorX, final int sectorY, final int sectorZ, final float x, final float y, final float z) {
+        if (!Float.isFinite(x) || !Float.isFinite(y) || !Float.isFinite(z)) {
+            throw new IllegalArgumentException("Offsets must be finite: " + x + ", " + y + ", " + z);
+        }
+        return new WorldPosition(
+                sectorX + sectorShift(x), sectorY + sectorShift(y), sectorZ + sectorShift(z),
+                normalize(x), normalize(y), normalize(z));
+    }
+
+    /**
+     * Create a position from absolute coordinates.
+     *
+     * @param x Absolute x value.
+     * @param y Absolute y value.
+     * @param z Absolute z value.
+     * @return The position.
+     * @throws IllegalArgumentException If a value is not finite.
+     */
+    public static WorldPosition valueOf(final double x, final double y, final double z) {
+        if (!Double.isFinite(x) || !Double.isFinite(y) || !Double.isFinite(z)) {
+            throw new IllegalArgumentException("Coordinates must be finite: " + x + ", " + y + ", " + z);
+        }
+        int sx = (int) Math.floor(x / SECTOR_SIZE);
+        int sy = (int) Math.floor(y / SECTOR_SIZE);
+        int sz = (int) Math.floor(z / SECTOR_SIZE);
+        return valueOf(sx, sy, sz, (float) (x - (double) sx * SECTOR_SIZE), (float) (y - (double) sy * SECTOR_SIZE),
+                (float) (z - (double) sz * SECTOR_SIZE));
+    }
+
+    /**
+     * Create a position from absolute coordinates, in the sector containing them.
+     *
+     * @param point Absolute position.
+     * @return The position.
+     * @throws IllegalArgumentException If a value is not finite.
+     */
+    public static WorldPosition valueOf(final Point3D point) {
+        return valueOf((double) point.x, (double) point.y, (double) point.z);
+    }
+
+    /**
+     * @param offset Offset on an axis.
+     * @return The number of sectors to add so the offset is in [0, SECTOR_SIZE).
+     */
+    static int sectorShift(final float offset) {
+        int shift = (int) Math.floor(offset / SECTOR_SIZE);
+        return offset - shift * SECTOR_SIZE >= SECTOR_SIZE ? shift + 1 : shift;
+    }
+
+    /**
+     * @param offset Offset on an axis.
+     * @return The offset moved in [0, SECTOR_SIZE).
+     */
+    static float normalize(final float offset) {
+        float normalized = offset - (float) Math.floor(offset / SECTOR_SIZE) * SECTOR_SIZE;
+        return normalized >= SECTOR_SIZE ? 0 : normalized;
+    }
+
+    /**
+     * Move this position.
+     *
+     * @param dx Move on x.
+     * @param dy Move on y.
+     * @param dz Move on z.
+     * @return The moved position, in the sectors it falls in.
+     */
+    public WorldPosition add(final float dx, final float dy, final float dz) {
+        return valueOf(this.sectorX, this.sectorY, this.sectorZ, this.x + dx, this.y + dy, this.z + dz);
+    }
+
+    /**
+     * Move this position.
+     *
+     * @param move Move to apply.
+     * @return The moved position, in the sectors it falls in.
+     */
+    public WorldPosition add(final Point3D move) {
+        return this.add(move.x, move.y, move.z);
+    }
+
+    /**
+     * Compute the position relative to an origin, for example the camera.
+     *
+     * @param origin Origin to use.
+     * @return This position minus the origin.
+     */
+    public Point3D subtract(final WorldPosition origin) {
+        return Point3D.valueOf(
+                relative(this.sectorX, this.x, origin.sectorX, origin.x),
+                relative(this.sectorY, this.y, origin.sectorY, origin.y),
+                relative(this.sectorZ, this.z, origin.sectorZ, origin.z));
+    }
+
+    /**
+     * Compute a relative coordinate, the sector difference is scaled exactly before the offsets are added.
+     */
+    static float relative(final int sector, final float offset, final int originSector, final float originOffset) {
+        return (float) ((sector - (long) originSector) * (double) SECTOR_SIZE) + (offset - originOffset);
+    }
+
+    /**
+     * Compute the distance to another position.
+     *
+     * @param other Other position.
+     * @return The distance.
+     */
+    public double distance(final WorldPosition other) {
+        double dx = (this.sectorX - (long) other.sectorX) * (double) SECTOR_SIZE + (this.x - other.x);
+        double dy = (this.sectorY - (long) other.sectorY) * (double) SECTOR_SIZE + (this.y - other.y);
+        double dz = (this.sectorZ - (long) other.sectorZ) * (double) SECTOR_SIZE + (this.z - other.z);
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * @return The absolute x value.
+     */
+    public double getAbsoluteX() {
+        return this.sectorX * (double) SECTOR_SIZE + this.x;
+    }
+
+    /**
+     * @return The absolute y value.
+     */
+    public double getAbsoluteY() {
+        return this.sectorY * (double) SECTOR_SIZE + this.y;
+    }
+
+    /**
+     * @return The absolute z value.
+     */
+    public double getAbsoluteZ() {
+        return this.sectorZ * (double) SECTOR_SIZE + this.z;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WorldPosition)) {
+            return false;
+        }
+        WorldPosition other = (WorldPosition) o;
+        return this.sectorX == other.sectorX && this.sectorY == other.sectorY && this.sectorZ == other.sectorZ
+                && Float.compare(this.x, other.x) == 0 && Float.compare(this.y, other.y) == 0 && Float.compare(this.z, other.z) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.sectorX;
+        result = 31 * result + this.sectorY;
+        result = 31 * result + this.sectorZ;
+        result = 31 * result + Float.floatToIntBits(this.x);
+        result = 31 * result + Float.floatToIntBits(this.y);
+        result = 31 * result + Float.floatToIntBits(this.z);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "WorldPosition: sector " + this.sectorX + "," + this.sectorY + "," + this.sectorZ
+                + " offset " + this.x + "," + this.y + "," + this.z;
+    }
+}
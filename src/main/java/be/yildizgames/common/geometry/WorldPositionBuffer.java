@@ -0,0 +1,260 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Growable buffer of large world positions, for example one per entity.
+ * Each position takes 18 bytes: 3 float offsets and 3 short sector coordinates, so sectors are limited to
+ * [-32768, 32767], more than 33 000 km on each axis with the default sector size.
+ * Positions are moved and converted to camera relative coordinates in bulk without allocation.
+ *
+ * @author Gregory Van den Borre
+ */
+public final class WorldPositionBuffer {
+
+    /**
+     * Offsets, x,y,z per position.
+     */
+    private float[] offsets;
+
+    /**
+     * Sector coordinates, x,y,z per position.
+     */
+    private short[] sectors;
+
+    private int size;
+
+    /**
+     * Create an empty buffer.
+     */
+    public WorldPositionBuffer() {
+        this(16);
+    }
+
+    /**
+     * Create an empty buffer.
+     *
+     * @param capacity Initial number of positions the buffer can hold without growing.
+     */
+    public WorldPositionBuffer(final int capacity) {
+        super();
+        int initial = Math.max(1, capacity);
+        this.offsets = new float[initial * 3];
+        this.sectors = new short[initial * 3];
+    }
+
+    /**
+     * Add a position.
+     *
+     * @param position Position to add.
+     * @return The position index in the buffer.
+     * @throws IllegalArgumentException If a sector coordinate does not fit in a short.
+     */
+    public int add(final WorldPosition position) {
+        if (this.size * 3 == this.offsets.length) {
+            this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+            this.sectors = Arrays.copyOf(this.sectors, this.sectors.length * 2);
+        }
+        this.write(this.size, position);
+        return this.size++;
+    }
+
+    /**
+     * Replace a position.
+     *
+     * @param index    Position index.
+     * @param position New position.
+     * @throws IllegalArgumentException If a sector coordinate does not fit in a short.
+     * @throws IndexOutOfBoundsException If there is no position at the index.
+     */
+    public void set(final int index, final WorldPosition position) {
+        this.checkIndex(index);
+        this.write(index, position);
+    }
+
+    /**
+     * Write a position without checking the index, the buffer is left unchanged if a sector is out of range.
+     */
+    private void write(final int index, final WorldPosition position) {
+        short sectorX = toShort(position.sectorX);
+        short sectorY = toShort(position.sectorY);
+        short sectorZ = toShort(position.sectorZ);
+        int i = index * 3;
+        this.sectors[i] = sectorX;
+        this.sectors[i + 1] = sectorY;
+        this.sectors[i + 2] = sectorZ;
+        this.offsets[i] = position.x;
+        this.offsets[i + 1] = position.y;
+        this.offsets[i + 2] = position.z;
+    }
+
+    private static short toShort(final int sector) {
+        if (sector < Short.MIN_VALUE || sector > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Sector out of the buffer range: " + sector);
+        }
+        return (short) sector;
+    }
+
+    /**
+     * @param index Position index.
+     * @return The position.
+     */
+    public WorldPosition get(final int index) {
+        this.checkIndex(index);
+        int i = index * 3;
+        return WorldPosition.valueOf(this.sectors[i], this.sectors[i + 1], this.sectors[i + 2],
+                this.offsets[i], this.offsets[i + 1], this.offsets[i + 2]);
+    }
+
+    /**
+     * Remove a position, the last position is moved at its index.
+     *
+     * @param index Index of the position to remove.
+     */
+    public void remove(final int index) {
+        this.checkIndex(index);
+        this.size--;
+        System.arraycopy(this.offsets, this.size * 3, this.offsets, index * 3, 3);
+        System.arraycopy(this.sectors, this.size * 3, this.sectors, index * 3, 3);
+    }
+
+    /**
+     * Remove all positions, the capacity is kept.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return The number of positions.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Move a position, it is moved to the sector it falls in. The position is left unchanged if the move is invalid.
+     *
+     * @param index Position index.
+     * @param dx    Move on x.
+     * @param dy    Move on y.
+     * @param dz    Move on z.
+     * @throws IllegalArgumentException If a move is not finite or the position leaves the buffer sector range.
+     */
+    public void translate(final int index, final float dx, final float dy, final float dz) {
+        this.checkIndex(index);
+        int i = index * 3;
+        short sectorX = this.movedSector(i, dx);
+        short sectorY = this.movedSector(i + 1, dy);
+        short sectorZ = this.movedSector(i + 2, dz);
+        this.move(i, dx, sectorX);
+        this.move(i + 1, dy, sectorY);
+        this.move(i + 2, dz, sectorZ);
+    }
+
+    /**
+     * Move all positions. The buffer is left unchanged if a move is invalid.
+     *
+     * @param moves Move of each position, interleaved x,y,z values.
+     * @throws IllegalArgumentException If there are less than 3 values per position, a move is not finite, or a position
+     *                                  leaves the buffer sector range.
+     */
+    public void translateAll(final float[] moves) {
+        if (moves.length < this.size * 3) {
+            throw new IllegalArgumentException("Moves too small: " + moves.length + " for " + this.size + " positions.");
+        }
+        for (int i = 0; i < this.size * 3; i++) {
+            this.movedSector(i, moves[i]);
+        }
+        for (int i = 0; i < this.size * 3; i++) {
+            this.move(i, moves[i], this.movedSector(i, moves[i]));
+        }
+    }
+
+    /**
+     * Compute the sector of a coordinate after a move, without changing it.
+     *
+     * @return The new sector.
+     * @throws IllegalArgumentException If the move is not finite or the sector does not fit in a short.
+     */
+    private short movedSector(final int i, final float delta) {
+        float offset = this.offsets[i] + delta;
+        if (offset >= 0 && offset < WorldPosition.SECTOR_SIZE) {
+            return this.sectors[i];
+        }
+        if (!Float.isFinite(delta)) {
+            throw new IllegalArgumentException("Move must be finite: " + delta);
+        }
+        return toShort(this.sectors[i] + WorldPosition.sectorShift(offset));
+    }
+
+    private void move(final int i, final float delta, final short sector) {
+        float offset = this.offsets[i] + delta;
+        this.sectors[i] = sector;
+        this.offsets[i] = offset >= 0 && offset < WorldPosition.SECTOR_SIZE ? offset : WorldPosition.normalize(offset);
+    }
+
+    /**
+     * Convert all positions to coordinates relative to an origin, for example the camera.
+     *
+     * @param origin Origin to use.
+     * @param result Receive the relative x,y,z values, at least 3 per position.
+     * @throws IllegalArgumentException If the result is too small.
+     */
+    public void toRelative(final WorldPosition origin, final float[] result) {
+        if (result.length < this.size * 3) {
+            throw new IllegalArgumentException("Result too small: " + result.length + " for " + this.size + " positions.");
+        }
+        for (int i = 0; i < this.size * 3; i += 3) {
+            result[i] = WorldPosition.relative(this.sectors[i], this.offsets[i], origin.sectorX, origin.x);
+            result[i + 1] = WorldPosition.relative(this.sectors[i + 1], this.offsets[i + 1], origin.sectorY, origin.y);
+            result[i + 2] = WorldPosition.relative(this.sectors[i + 2], this.offsets[i + 2], origin.sectorZ, origin.z);
+        }
+    }
+
+    /**
+     * Convert a position to coordinates relative to an origin.
+     *
+     * @param index  Position index.
+     * @param origin Origin to use.
+     * @return The relative position.
+     */
+    public Point3D toRelative(final int index, final WorldPosition origin) {
+        this.checkIndex(index);
+        int i = index * 3;
+        return Point3D.valueOf(
+                WorldPosition.relative(this.sectors[i], this.offsets[i], origin.sectorX, origin.x),
+                WorldPosition.relative(this.sectors[i + 1], this.offsets[i + 1], origin.sectorY, origin.y),
+                WorldPosition.relative(this.sectors[i + 2], this.offsets[i + 2], origin.sectorZ, origin.z));
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size);
+        }
+    }
+}
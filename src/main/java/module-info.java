@@ -27,5 +27,7 @@
  */
 open module be.yildizgames.common.geometry {
 
+    requires jdk.jfr;
+
     exports be.yildizgames.common.geometry;
 }
@@ -0,0 +1,310 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets of the hot paths, the temporaries of the point arithmetic must be removed by escape analysis and
+ * the bulk operations must not allocate per element.
+ *
+ * @author Gregory Van den Borre
+ */
+final class AllocationTest {
+
+    /**
+     * Results are accumulated here so the operations are not removed as dead code.
+     */
+    private float sink;
+
+    /**
+     * Escaping allocations are stored here.
+     */
+    private Object escaped;
+
+    @BeforeEach
+    void supported() {
+        assumeTrue(Allocations.isSupported(), "Thread allocation counter not available.");
+    }
+
+    @Nested
+    class Harness {
+
+        @Test
+        void detectsAllocation() {
+            assertTrue(Allocations.bytesPerOperation(0, () -> escaped = new float[4]) >= 16);
+        }
+    }
+
+    @Nested
+    class PointArithmetic {
+
+        @Test
+        void point3D() {
+            Point3D a = Point3D.valueOf(1, 2, 3);
+            Point3D b = Point3D.valueOf(4, 5, 6);
+            Allocations.assertAllocationFree("Point3D chain",
+                    () -> sink += a.add(b).multiply(0.5f).subtract(a).add(1, 1, 1).x);
+        }
+
+        @Test
+        void point2D() {
+            Point2D a = Point2D.valueOf(1, 2);
+            Point2D b = Point2D.valueOf(4, 5);
+            Allocations.assertAllocationFree("Point2D chain",
+                    () -> sink += a.add(b).multiplyByScalar(0.5f).subtract(a).y);
+        }
+
+        @Test
+        void quaternion() {
+            Quaternion a = Quaternion.valueOf(1, 0, 0, 0);
+            Quaternion b = Quaternion.valueOf(0.5f, 0.5f, 0.5f, 0.5f);
+            Allocations.assertAllocationFree("Quaternion multiply", () -> sink += a.multiply(b).multiply(b).w);
+        }
+    }
+
+    @Nested
+    class Encoding {
+
+        @Test
+        void morton() {
+            Allocations.assertAllocationFree("Morton encode",
+                    () -> sink += Morton.encode2D((int) sink, 7) + Morton.encode3D(1, (int) sink, 3));
+        }
+
+        @Test
+        void hilbert() {
+            Allocations.assertAllocationFree("Hilbert encode",
+                    () -> sink += Hilbert.encode2D((int) sink & 0xFFFF, 7) + Hilbert.encode3D(1, 2, 3));
+        }
+    }
+
+    @Nested
+    class Bulk {
+
+        @Test
+        void preparedPolygon() {
+            PreparedPolygon2 polygon = Polygon2.valueOf(new float[]{0, 0, 10, 0, 10, 10, 5, 4, 0, 10}).prepare();
+            float[] coordinates = new float[2_000];
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = (i * 7919) % 120 * 0.1f;
+            }
+            boolean[] result = new boolean[coordinates.length / 2];
+            Allocations.assertAllocationFree("PreparedPolygon2 bulk contains",
+                    () -> sink += polygon.contains(coordinates, result));
+            Allocations.assertAllocationFree("PreparedPolygon2 contains", () -> sink += polygon.contains(sink, 2) ? 1 : 0);
+        }
+
+        @Test
+        void rectangleBuffer() {
+            RectangleBuffer buffer = new RectangleBuffer();
+            for (int i = 0; i < 500; i++) {
+                buffer.add(i % 50 * 10, i / 50 * 10, i % 50 * 10 + 15, i / 50 * 10 + 15);
+            }
+            long[] result = new long[RectangleBuffer.wordCount(buffer.size())];
+            Rectangle query = new Rectangle(100, 20, 130, 60);
+            Allocations.assertAllocationFree("RectangleBuffer containing", () -> sink += buffer.containing(125, 47, result));
+            Allocations.assertAllocationFree("RectangleBuffer overlapping", () -> sink += buffer.overlapping(query, result));
+        }
+
+        @Test
+        void pointMap() {
+            Point3DIntMap map = new Point3DIntMap(1_000);
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, -i, i * 0.5f, i);
+            }
+            Allocations.assertAllocationFree("Point3DIntMap", () -> {
+                int key = (int) sink & 1023;
+                sink += map.getOrDefault(key, -key, key * 0.5f, 0);
+                map.addTo(key, -key, key * 0.5f, 1);
+            });
+        }
+    }
+
+    @Nested
+    class Paths {
+
+        @Test
+        void splineSample() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(10, 0, 0), Point3D.valueOf(10, 10, 5));
+            float[] distances = new float[500];
+            for (int i = 0; i < distances.length; i++) {
+                distances[i] = i * 0.05f;
+            }
+            float[] result = new float[distances.length * 3];
+            Allocations.assertAllocationFree("SplinePath sample", () -> {
+                path.sample(distances, result);
+                sink += result[7];
+            });
+        }
+    }
+
+    @Nested
+    class Hulls {
+
+        @Test
+        void incrementalAdd() {
+            ConvexHull2D hull = new ConvexHull2D();
+            hull.add(0, 1);
+            hull.add(0, -1);
+            hull.add(1, 0);
+            float[] apex = {1};
+            // Each point replaces the previous apex of the triangle, so the hull changes on every add.
+            Allocations.assertAllocationFree("ConvexHull2D add", () -> sink += hull.add(++apex[0], 0) ? 1 : 0);
+        }
+    }
+
+    @Nested
+    class Flattening {
+
+        @Test
+        void path() {
+            CurveFlattener flattener = new CurveFlattener(0.25f);
+            byte[] verbs = {CurveFlattener.MOVE_TO, CurveFlattener.QUAD_TO, CurveFlattener.CUBIC_TO, CurveFlattener.CLOSE};
+            float[] coordinates = {0, 0, 50, 80, 100, 0, 120, 50, 80, 90, 20, 40};
+            Allocations.assertAllocationFree("CurveFlattener flatten", () -> sink += flattener.flatten(verbs, coordinates));
+        }
+    }
+
+    @Nested
+    class Rotations {
+
+        @Test
+        void rotationTable() {
+            RotationTable table = RotationTable.DEGREES;
+            float[] coordinates = {1, 2, 3, 4, 5, 6};
+            Allocations.assertAllocationFree("RotationTable lookups", () -> {
+                int step = table.index(Degree.HALF) + (int) sink;
+                table.rotate(step, coordinates);
+                sink += table.getQuaternion(Axis.XZ, step).w + table.cos(step) * table.sin(step);
+            });
+        }
+
+        @Test
+        void eulerBulk() {
+            float[] angles = new float[300];
+            for (int i = 0; i < angles.length; i++) {
+                angles[i] = i * 0.1f;
+            }
+            float[] quaternions = new float[400];
+            Allocations.assertAllocationFree("EulerAngles bulk conversions", () -> {
+                EulerAngles.toQuaternions(angles, EulerOrder.YXZ, quaternions);
+                EulerAngles.toEulerAngles(quaternions, EulerOrder.YXZ, angles);
+                sink += angles[5];
+            });
+        }
+    }
+
+    @Nested
+    class Collisions {
+
+        @Test
+        void narrowPhaseBatch() {
+            float[] spheres = new float[64 * NarrowPhase.SPHERE_STRIDE];
+            float[] boxes = new float[64 * NarrowPhase.ORIENTED_BOX_STRIDE];
+            for (int i = 0; i < 64; i++) {
+                spheres[i * NarrowPhase.SPHERE_STRIDE] = i;
+                spheres[i * NarrowPhase.SPHERE_STRIDE + 3] = 1.5f;
+                System.arraycopy(OrientedBox3f.valueOf(Point3D.valueOf(i, 0, 0), Point3D.valueOf(0.75f),
+                        RotationTable.DEGREES.getQuaternion(Axis.XY, i)).data, 0, boxes, i * NarrowPhase.ORIENTED_BOX_STRIDE, NarrowPhase.ORIENTED_BOX_STRIDE);
+            }
+            int[] pairs = new int[256];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = i * 7 % 64;
+            }
+            long[] bits = new long[2];
+            float[] contacts = new float[128 * NarrowPhase.CONTACT_STRIDE];
+            Allocations.assertAllocationFree("NarrowPhase batch", () -> {
+                sink += NarrowPhase.intersectSpheres(spheres, pairs, bits);
+                sink += NarrowPhase.contactOrientedBoxes(boxes, pairs, contacts);
+            });
+        }
+
+        @Test
+        void gjk() {
+            Gjk gjk = new Gjk();
+            GjkCache cache = new GjkCache();
+            OrientedBox3f box = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1, 0.5f, 0.25f), RotationTable.DEGREES.getQuaternion(Axis.XZ, 30));
+            Capsule capsule = Capsule.valueOf(Point3D.valueOf(0.5f, -1, 0), Point3D.valueOf(1.5f, 2, 0.5f), 0.5f);
+            Sphere sphere = Sphere.valueOf(3, 0, 0, 1);
+            float[] contact = new float[NarrowPhase.CONTACT_STRIDE];
+            Allocations.assertAllocationFree("Gjk queries", () -> {
+                sink += gjk.contact(box, capsule, cache, contact);
+                sink += gjk.distance(box, sphere);
+                sink += gjk.intersects(capsule, sphere) ? 1 : 0;
+            });
+        }
+    }
+
+    @Nested
+    class LargeWorld {
+
+        @Test
+        void worldPositionBuffer() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            for (int i = 0; i < 300; i++) {
+                buffer.add(WorldPosition.valueOf(i * 100.0, -i * 3000.0, 1e7 + i));
+            }
+            WorldPosition camera = WorldPosition.valueOf(15000.0, -40000.0, 1e7);
+            float[] moves = new float[buffer.size() * 3];
+            float[] back = new float[moves.length];
+            Arrays.fill(moves, 700);
+            Arrays.fill(back, -700);
+            float[] result = new float[buffer.size() * 3];
+            Allocations.assertAllocationFree("WorldPositionBuffer translate and toRelative", () -> {
+                buffer.translateAll(moves);
+                buffer.translateAll(back);
+                buffer.toRelative(camera, result);
+                sink += result[4];
+            });
+        }
+    }
+
+    @Nested
+    class Intersections {
+
+        @Test
+        void segment() {
+            Segment2 a = Segment2.valueOf(0, 0, 10, 10);
+            Segment2 b = Segment2.valueOf(0, 10, 10, 0);
+            Allocations.assertAllocationFree("Segment2 intersects", () -> sink += a.intersects(b) ? 1 : 0);
+        }
+
+        @Test
+        void rect() {
+            Rect2f a = Rect2f.valueOf(0, 0, 10, 10);
+            Rect2f b = Rect2f.valueOf(5, 5, 15, 15);
+            Allocations.assertAllocationFree("Rect2f intersection chain",
+                    () -> sink += a.intersection(b).union(a).translate(1, 1).getWidth());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measure the bytes allocated by an operation on the current thread, to check the hot paths do not allocate.
+ * The operation is run in rounds until it is compiled, the best round is kept so the allocations of the interpreter
+ * and the cost of the measure itself are not counted.
+ * The thread allocation counter is reached by reflection, as com.sun.management is not available on every runtime.
+ *
+ * @author Gregory Van den Borre
+ */
+final class Allocations {
+
+    /**
+     * Number of operations per round.
+     */
+    private static final int OPERATIONS = 50_000;
+
+    /**
+     * Maximum number of rounds to wait for the operation to be compiled.
+     */
+    private static final int ROUNDS = 40;
+
+    private static final Object BEAN;
+
+    private static final Method ALLOCATED;
+
+    static {
+        Object bean = null;
+        Method allocated = null;
+        try {
+            bean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+            Class<?> type = Class.forName("com.sun.management.ThreadMXBean");
+            if (type.isInstance(bean) && (Boolean) type.getMethod("isThreadAllocatedMemorySupported").invoke(bean)) {
+                type.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+                allocated = type.getMethod("getThreadAllocatedBytes", long.class);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            allocated = null;
+        }
+        BEAN = bean;
+        ALLOCATED = allocated;
+    }
+
+    private Allocations() {
+        super();
+    }
+
+    /**
+     * @return true if the runtime can count the bytes allocated by a thread.
+     */
+    static boolean isSupported() {
+        return ALLOCATED != null;
+    }
+
+    /**
+     * Measure the bytes allocated by an operation.
+     *
+     * @param budget    Number of bytes per operation from which the measure stops.
+     * @param operation Operation to measure.
+     * @return The lowest number of bytes allocated per operation over the rounds.
+     */
+    static double bytesPerOperation(final double budget, final Runnable operation) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && best > budget; round++) {
+            long before = allocated();
+            for (int i = 0; i < OPERATIONS; i++) {
+                operation.run();
+            }
+            long after = allocated();
+            best = Math.min(best, (double) (after - before) / OPERATIONS);
+        }
+        return best;
+    }
+
+    /**
+     * Check an operation allocates less than a budget.
+     *
+     * @param name      Operation name, for the failure message.
+     * @param budget    Maximum number of bytes per operation.
+     * @param operation Operation to measure.
+     */
+    static void assertBudget(final String name, final double budget, final Runnable operation) {
+        double bytes = bytesPerOperation(budget, operation);
+        assertTrue(bytes <= budget, name + " allocates " + bytes + " bytes per operation, budget is " + budget);
+    }
+
+    /**
+     * Check an operation does not allocate, the measure overhead being tolerated.
+     *
+     * @param name      Operation name, for the failure message.
+     * @param operation Operation to measure.
+     */
+    static void assertAllocationFree(final String name, final Runnable operation) {
+        assertBudget(name, 0.01, operation);
+    }
+
+    private static long allocated() {
+        try {
+            return (Long) ALLOCATED.invoke(BEAN, Thread.currentThread().getId());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class ConvexHull2DTest {
+
+    private static final float[] SQUARE = {0, 0, 1, 1, 2, 2, 0, 2, 2, 0, 1, 0, 0.5f, 1.5f};
+
+    private static float[] random(final int count, final long seed) {
+        Random random = new Random(seed);
+        float[] result = new float[count * 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = random.nextFloat() * 1000;
+        }
+        return result;
+    }
+
+    /**
+     * @return The integer points of a hexagon in a random order, its top and bottom edges are parallel to the line
+     * between its leftmost and rightmost points and hold many collinear points.
+     */
+    private static float[] hexagon(final int half, final long seed) {
+        int count = 0;
+        float[] result = new float[(2 * half + 1) * (2 * half + 1) * 2];
+        for (int y = -half / 2; y <= half / 2; y++) {
+            for (int x = Math.abs(y) - half; x <= half - Math.abs(y); x++) {
+                result[count * 2] = x;
+                result[count * 2 + 1] = y;
+                count++;
+            }
+        }
+        Random random = new Random(seed);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            float x = result[i * 2];
+            float y = result[i * 2 + 1];
+            result[i * 2] = result[j * 2];
+            result[i * 2 + 1] = result[j * 2 + 1];
+            result[j * 2] = x;
+            result[j * 2 + 1] = y;
+        }
+        return Arrays.copyOf(result, count * 2);
+    }
+
+    @Nested
+    class Compute {
+
+        @Test
+        void happyFlow() {
+            assertArrayEquals(new int[]{0, 4, 2, 3}, ConvexHull2D.compute(SQUARE));
+        }
+
+        @Test
+        void points() {
+            Point2D[] result = ConvexHull2D.compute(new Point2D[]{Point2D.valueOf(0, 0), Point2D.valueOf(1, 0.2f), Point2D.valueOf(2, 0), Point2D.valueOf(1, 2)});
+            assertArrayEquals(new Point2D[]{Point2D.valueOf(0, 0), Point2D.valueOf(2, 0), Point2D.valueOf(1, 2)}, result);
+        }
+
+        @Test
+        void degenerate() {
+            assertEquals(0, ConvexHull2D.compute(new float[0]).length);
+            assertArrayEquals(new int[]{0}, ConvexHull2D.compute(new float[]{1, 1}));
+            assertArrayEquals(new int[]{0}, ConvexHull2D.compute(new float[]{1, 1, 1, 1, 1, 1}));
+            assertArrayEquals(new int[]{1, 2}, ConvexHull2D.compute(new float[]{1, 1, 0, 0, 3, 3, 2, 2}));
+        }
+
+        @Test
+        void quickHullSameAsMonotoneChain() {
+            float[] points = random(200_000, 42);
+            assertArrayEquals(ConvexHull2D.monotoneChain(points), ConvexHull2D.quickHull(points, ForkJoinPool.commonPool()));
+            assertArrayEquals(ConvexHull2D.monotoneChain(SQUARE), ConvexHull2D.quickHull(SQUARE, ForkJoinPool.commonPool()));
+            float[] lattice = hexagon(200, 3);
+            assertArrayEquals(ConvexHull2D.monotoneChain(lattice), ConvexHull2D.quickHull(lattice, ForkJoinPool.commonPool()));
+        }
+
+        @Test
+        void quickHullDegenerate() {
+            assertArrayEquals(new int[]{0}, ConvexHull2D.quickHull(new float[]{1, 1, 1, 1}, ForkJoinPool.commonPool()));
+            assertArrayEquals(new int[]{1, 2}, ConvexHull2D.quickHull(new float[]{1, 1, 0, 0, 3, 3, 2, 2}, ForkJoinPool.commonPool()));
+        }
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            ConvexHull2D hull = new ConvexHull2D();
+            assertTrue(hull.addAll(SQUARE));
+            assertEquals(4, hull.size());
+            assertFalse(hull.add(1.5f, 1.5f));
+            assertFalse(hull.add(Point2D.valueOf(2, 1)));
+            assertTrue(hull.add(3, 1));
+            assertEquals(5, hull.size());
+        }
+
+        @Test
+        void sameAsBatch() {
+            float[] points = random(5_000, 7);
+            ConvexHull2D hull = new ConvexHull2D();
+            hull.addAll(points);
+            int[] expected = ConvexHull2D.compute(points);
+            float[] computed = hull.getCoordinates();
+            assertEquals(expected.length, hull.size());
+            int offset = 0;
+            while (computed[offset * 2] != points[expected[0] * 2] || computed[offset * 2 + 1] != points[expected[0] * 2 + 1]) {
+                offset++;
+            }
+            for (int i = 0; i < expected.length; i++) {
+                int j = (i + offset) % expected.length;
+                assertEquals(points[expected[i] * 2], computed[j * 2]);
+                assertEquals(points[expected[i] * 2 + 1], computed[j * 2 + 1]);
+            }
+        }
+
+        @Test
+        void collinearThenTriangle() {
+            ConvexHull2D hull = new ConvexHull2D();
+            hull.add(1, 1);
+            assertFalse(hull.add(1, 1));
+            hull.add(2, 2);
+            assertFalse(hull.add(1.5f, 1.5f));
+            assertTrue(hull.add(0, 0));
+            assertTrue(hull.add(3, 3));
+            assertEquals(2, hull.size());
+            assertTrue(hull.add(3, 0));
+            assertArrayEquals(new Point2D[]{Point2D.valueOf(0, 0), Point2D.valueOf(3, 0), Point2D.valueOf(3, 3)}, hull.getPoints());
+        }
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void happyFlow() {
+            ConvexHull2D hull = new ConvexHull2D();
+            hull.addAll(SQUARE);
+            assertTrue(hull.contains(1, 1));
+            assertTrue(hull.contains(0, 0));
+            assertTrue(hull.contains(2, 1));
+            assertFalse(hull.contains(2.1f, 1));
+            assertFalse(hull.contains(-1, -1));
+        }
+    }
+}
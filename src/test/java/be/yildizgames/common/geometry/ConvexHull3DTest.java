@@ -0,0 +1,147 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class ConvexHull3DTest {
+
+    private static Point3D[] cube() {
+        Point3D[] points = new Point3D[8 + 100];
+        int i = 0;
+        for (int x = 0; x < 2; x++) {
+            for (int y = 0; y < 2; y++) {
+                for (int z = 0; z < 2; z++) {
+                    points[i++] = Point3D.valueOf(x * 10, y * 10, z * 10);
+                }
+            }
+        }
+        Random random = new Random(1);
+        while (i < points.length) {
+            points[i++] = Point3D.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10);
+        }
+        return points;
+    }
+
+    private static float[] sphere(final int count) {
+        Random random = new Random(3);
+        float[] result = new float[count * 3];
+        for (int i = 0; i < count; i++) {
+            Point3D p = Point3D.normalizeAndMultiply(Point3D.valueOf((float) random.nextGaussian(), (float) random.nextGaussian(), (float) random.nextGaussian()), 5 + random.nextFloat());
+            result[i * 3] = p.x;
+            result[i * 3 + 1] = p.y;
+            result[i * 3 + 2] = p.z;
+        }
+        return result;
+    }
+
+    private static void assertClosedAndOutward(final ConvexHull3D hull) {
+        assertEquals(2 * hull.getVertexCount() - 4, hull.getTriangleCount());
+        float[] v = hull.getVertices();
+        int[] t = hull.getTriangles();
+        float cx = 0;
+        float cy = 0;
+        float cz = 0;
+        for (int i = 0; i < v.length; i += 3) {
+            cx += v[i];
+            cy += v[i + 1];
+            cz += v[i + 2];
+        }
+        Point3D center = Point3D.valueOf(cx, cy, cz).multiply(3f / v.length);
+        for (int i = 0; i < t.length; i += 3) {
+            Point3D a = Point3D.valueOf(v[t[i] * 3], v[t[i] * 3 + 1], v[t[i] * 3 + 2]);
+            Point3D b = Point3D.valueOf(v[t[i + 1] * 3], v[t[i + 1] * 3 + 1], v[t[i + 1] * 3 + 2]).subtract(a);
+            Point3D c = Point3D.valueOf(v[t[i + 2] * 3], v[t[i + 2] * 3 + 1], v[t[i + 2] * 3 + 2]).subtract(a);
+            Point3D normal = Point3D.valueOf(b.y * c.z - b.z * c.y, b.z * c.x - b.x * c.z, b.x * c.y - b.y * c.x);
+            Point3D toFace = a.subtract(center);
+            assertTrue(normal.x * toFace.x + normal.y * toFace.y + normal.z * toFace.z > 0);
+        }
+    }
+
+    @Nested
+    class Compute {
+
+        @Test
+        void cubeWithInsidePoints() {
+            ConvexHull3D hull = ConvexHull3D.compute(cube());
+            assertEquals(8, hull.getVertexCount());
+            assertEquals(12, hull.getTriangleCount());
+            for (int source : hull.getSourceIndexes()) {
+                assertTrue(source < 8);
+            }
+            assertClosedAndOutward(hull);
+        }
+
+        @Test
+        void sphere() {
+            float[] points = ConvexHull3DTest.sphere(20_000);
+            ConvexHull3D hull = ConvexHull3D.compute(points);
+            assertClosedAndOutward(hull);
+            for (int i = 0; i < points.length; i += 3) {
+                assertTrue(hull.contains(Point3D.valueOf(points[i], points[i + 1], points[i + 2])));
+            }
+            assertFalse(hull.contains(Point3D.valueOf(7, 0, 0)));
+        }
+
+        @Test
+        void coplanar() {
+            Point3D[] points = {Point3D.ZERO, Point3D.valueOf(1, 0, 0), Point3D.valueOf(0, 1, 0), Point3D.valueOf(1, 1, 0.000001f)};
+            assertThrows(IllegalArgumentException.class, () -> ConvexHull3D.compute(points));
+        }
+
+        @Test
+        void notEnoughPoints() {
+            assertThrows(IllegalArgumentException.class, () -> ConvexHull3D.compute(new float[9]));
+        }
+    }
+
+    @Nested
+    class VertexLimit {
+
+        @Test
+        void happyFlow() {
+            ConvexHull3D hull = ConvexHull3D.compute(ConvexHull3DTest.sphere(5_000), 32);
+            assertTrue(hull.getVertexCount() <= 32);
+            assertTrue(hull.getVertexCount() > 16);
+            assertClosedAndOutward(hull);
+        }
+
+        @Test
+        void tooLow() {
+            assertThrows(IllegalArgumentException.class, () -> ConvexHull3D.compute(cube(), 3));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class CurveFlattenerTest {
+
+    /**
+     * Distance from a point to the polyline made of the flattener points.
+     */
+    private static double distance(final float[] points, final double x, final double y) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i + 3 < points.length; i += 2) {
+            double dx = points[i + 2] - points[i];
+            double dy = points[i + 3] - points[i + 1];
+            double length = dx * dx + dy * dy;
+            double t = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - points[i]) * dx + (y - points[i + 1]) * dy) / length));
+            double px = points[i] + t * dx - x;
+            double py = points[i + 1] + t * dy - y;
+            best = Math.min(best, Math.sqrt(px * px + py * py));
+        }
+        return best;
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void invalidTolerance() {
+            assertThrows(IllegalArgumentException.class, () -> new CurveFlattener(0));
+            assertThrows(IllegalArgumentException.class, () -> new CurveFlattener(Float.NaN));
+        }
+    }
+
+    @Nested
+    class QuadTo {
+
+        @Test
+        void withinTolerance() {
+            CurveFlattener flattener = new CurveFlattener(0.1f);
+            flattener.moveTo(0, 0);
+            flattener.quadTo(50, 100, 100, 0);
+            float[] points = flattener.getPoints();
+            for (int i = 0; i <= 1000; i++) {
+                double t = i / 1000.0;
+                double s = 1 - t;
+                assertTrue(distance(points, 2 * s * t * 50 + t * t * 100, 2 * s * t * 100) <= 0.1);
+            }
+            assertEquals(CurveFlattener.quadraticSegments(0, 0, 50, 100, 100, 0, 0.1f) + 1, flattener.getPointCount());
+        }
+
+        @Test
+        void straight() {
+            CurveFlattener flattener = new CurveFlattener(0.1f);
+            flattener.moveTo(0, 0);
+            flattener.quadTo(5, 5, 10, 10);
+            assertArrayEquals(new float[]{0, 0, 10, 10}, flattener.getPoints());
+        }
+
+        @Test
+        void notStarted() {
+            assertThrows(IllegalStateException.class, () -> new CurveFlattener(1).quadTo(1, 1, 2, 2));
+        }
+    }
+
+    @Nested
+    class CubicTo {
+
+        @Test
+        void withinTolerance() {
+            CurveFlattener flattener = new CurveFlattener(0.05f);
+            flattener.moveTo(0, 0);
+            flattener.cubicTo(0, 100, 100, -100, 100, 0);
+            float[] points = flattener.getPoints();
+            for (int i = 0; i <= 1000; i++) {
+                double t = i / 1000.0;
+                double s = 1 - t;
+                double x = 3 * s * t * t * 100 + t * t * t * 100;
+                double y = 3 * s * s * t * 100 - 3 * s * t * t * 100;
+                assertTrue(distance(points, x, y) <= 0.05);
+            }
+        }
+
+        @Test
+        void tighterToleranceMoreSegments() {
+            assertTrue(CurveFlattener.cubicSegments(0, 0, 0, 10, 10, 10, 10, 0, 0.01f)
+                    > CurveFlattener.cubicSegments(0, 0, 0, 10, 10, 10, 10, 0, 1f));
+            assertEquals(1, CurveFlattener.cubicSegments(0, 0, 1, 1, 2, 2, 3, 3, 0.01f));
+        }
+    }
+
+    @Nested
+    class Flatten {
+
+        @Test
+        void happyFlow() {
+            CurveFlattener flattener = new CurveFlattener(0.5f);
+            byte[] verbs = {CurveFlattener.MOVE_TO, CurveFlattener.LINE_TO, CurveFlattener.QUAD_TO, CurveFlattener.CLOSE,
+                    CurveFlattener.MOVE_TO, CurveFlattener.CUBIC_TO};
+            float[] coordinates = {0, 0, 10, 0, 10, 10, 0, 10, 20, 20, 20, 30, 30, 30, 30, 20};
+            int count = flattener.flatten(verbs, coordinates);
+            assertEquals(2, flattener.getPolylineCount());
+            assertEquals(0, flattener.getPolylineStart(0));
+            int first = flattener.getPolylineSize(0);
+            assertEquals(first, flattener.getPolylineStart(1));
+            assertEquals(count, first + flattener.getPolylineSize(1));
+            Point2D[] polyline = flattener.getPolyline(0);
+            assertEquals(Point2D.ZERO, polyline[0]);
+            assertEquals(Point2D.ZERO, polyline[polyline.length - 1]);
+            assertEquals(Point2D.valueOf(30, 20), flattener.getPolyline(1)[flattener.getPolylineSize(1) - 1]);
+        }
+
+        @Test
+        void reused() {
+            CurveFlattener flattener = new CurveFlattener(0.5f);
+            flattener.flatten(new byte[]{CurveFlattener.MOVE_TO, CurveFlattener.LINE_TO}, new float[]{0, 0, 1, 1});
+            flattener.flatten(new byte[]{CurveFlattener.MOVE_TO, CurveFlattener.LINE_TO}, new float[]{2, 2, 3, 3});
+            float[] points = new float[4];
+            flattener.copyPoints(points);
+            assertArrayEquals(new float[]{2, 2, 3, 3}, points);
+            assertEquals(1, flattener.getPolylineCount());
+        }
+
+        @Test
+        void missingCoordinates() {
+            CurveFlattener flattener = new CurveFlattener(0.5f);
+            assertThrows(IllegalArgumentException.class,
+                    () -> flattener.flatten(new byte[]{CurveFlattener.MOVE_TO, CurveFlattener.CUBIC_TO}, new float[4]));
+        }
+
+        @Test
+        void unknownVerb() {
+            assertThrows(IllegalArgumentException.class, () -> new CurveFlattener(1).flatten(new byte[]{9}, new float[2]));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class DelaunayTest {
+
+    private static void assertValid(final float[] c, final Delaunay delaunay) {
+        int[] triangles = delaunay.getTriangles();
+        int[] halfedges = delaunay.getHalfedges();
+        for (int e = 0; e < triangles.length; e++) {
+            int opposite = halfedges[e];
+            if (opposite != -1) {
+                assertEquals(e, halfedges[opposite]);
+                assertEquals(triangles[Delaunay.next(e)], triangles[opposite]);
+                int a = triangles[e];
+                int b = triangles[Delaunay.next(e)];
+                int d = triangles[Delaunay.next(Delaunay.next(e))];
+                int o = triangles[Delaunay.next(Delaunay.next(opposite))];
+                assertTrue(Delaunay.inCircle(c[a * 2], c[a * 2 + 1], c[b * 2], c[b * 2 + 1], c[d * 2], c[d * 2 + 1], c[o * 2], c[o * 2 + 1]) <= 0);
+            }
+        }
+        for (int t = 0; t < triangles.length; t += 3) {
+            int a = triangles[t];
+            int b = triangles[t + 1];
+            int d = triangles[t + 2];
+            assertTrue(Delaunay.orient(c[a * 2], c[a * 2 + 1], c[b * 2], c[b * 2 + 1], c[d * 2], c[d * 2 + 1]) > 0);
+        }
+    }
+
+    @Nested
+    class Triangulate {
+
+        @Test
+        void happyFlow() {
+            Delaunay delaunay = Delaunay.triangulate(new Point2D[]{
+                    Point2D.valueOf(0, 0), Point2D.valueOf(1, 0), Point2D.valueOf(1, 1), Point2D.valueOf(0, 1)});
+            assertEquals(2, delaunay.getTriangleCount());
+            assertEquals(4, delaunay.getHull().length);
+            assertValid(new float[]{0, 0, 1, 0, 1, 1, 0, 1}, delaunay);
+        }
+
+        @Test
+        void random() {
+            Random random = new Random(42);
+            float[] coordinates = new float[20_000];
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = random.nextFloat() * 100;
+            }
+            Delaunay delaunay = Delaunay.triangulate(coordinates);
+            assertEquals(2 * 10_000 - delaunay.getHull().length - 2, delaunay.getTriangleCount());
+            assertValid(coordinates, delaunay);
+        }
+
+        @Test
+        void grid() {
+            float[] coordinates = new float[2 * 30 * 30];
+            for (int i = 0; i < 30 * 30; i++) {
+                coordinates[i * 2] = i % 30;
+                coordinates[i * 2 + 1] = i / 30;
+            }
+            Delaunay delaunay = Delaunay.triangulate(coordinates);
+            assertEquals(29 * 29 * 2, delaunay.getTriangleCount());
+            assertValid(coordinates, delaunay);
+        }
+
+        @Test
+        void duplicates() {
+            float[] coordinates = {0, 0, 2, 0, 0, 0, 0, 2, 2, 0};
+            Delaunay delaunay = Delaunay.triangulate(coordinates);
+            assertEquals(1, delaunay.getTriangleCount());
+            assertEquals(5, delaunay.getPointCount());
+        }
+
+        @Test
+        void collinear() {
+            Delaunay delaunay = Delaunay.triangulate(new float[]{0, 0, 2, 2, 1, 1, 3, 3});
+            assertEquals(0, delaunay.getTriangleCount());
+            assertArrayEquals(new int[]{0, 2, 1, 3}, delaunay.getHull());
+        }
+
+        @Test
+        void empty() {
+            Delaunay delaunay = Delaunay.triangulate(new float[0]);
+            assertEquals(0, delaunay.getTriangleCount());
+            assertEquals(0, delaunay.getHull().length);
+        }
+    }
+
+    @Nested
+    class Orient {
+
+        @Test
+        void happyFlow() {
+            assertTrue(Delaunay.orient(0, 0, 1, 0, 0, 1) > 0);
+            assertTrue(Delaunay.orient(0, 0, 0, 1, 1, 0) < 0);
+        }
+
+        @Test
+        void nearlyCollinear() {
+            assertEquals(0, Delaunay.orient(0.1, 0.1, 0.3, 0.3, 1e10 + 0.5, 1e10 + 0.5));
+            assertTrue(Delaunay.orient(0, 0, 1e8, 1e8, 1e8, Math.nextUp(1e8)) > 0);
+        }
+    }
+
+    @Nested
+    class InCircle {
+
+        @Test
+        void happyFlow() {
+            assertTrue(Delaunay.inCircle(0, 0, 2, 0, 0, 2, 1, 1) > 0);
+            assertTrue(Delaunay.inCircle(0, 0, 2, 0, 0, 2, 3, 3) < 0);
+        }
+
+        @Test
+        void cocircular() {
+            assertEquals(0, Delaunay.inCircle(0, 0, 1, 0, 1, 1, 0, 1));
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class EulerAnglesTest {
+
+    private static Quaternion axis(final int axis, final double angle) {
+        float s = (float) Math.sin(angle / 2);
+        return Quaternion.valueOf((float) Math.cos(angle / 2), axis == 0 ? s : 0, axis == 1 ? s : 0, axis == 2 ? s : 0);
+    }
+
+    /**
+     * Build the expected rotation by multiplying the quaternions of each axis in order.
+     */
+    private static Quaternion expected(final float x, final float y, final float z, final EulerOrder order) {
+        float[] angles = {x, y, z};
+        return axis(order.first, angles[order.first])
+                .multiply(axis(order.second, angles[order.second]))
+                .multiply(axis(order.third, angles[order.third]));
+    }
+
+    /**
+     * Quaternions q and -q are the same rotation.
+     */
+    private static void assertSameRotation(final Quaternion expected, final Quaternion actual, final float delta) {
+        float dot = expected.w * actual.w + expected.x * actual.x + expected.y * actual.y + expected.z * actual.z;
+        assertEquals(1, Math.abs(dot), delta, expected.w + "," + expected.x + "," + expected.y + "," + expected.z
+                + " != " + actual.w + "," + actual.x + "," + actual.y + "," + actual.z);
+    }
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void degree() {
+            EulerAngles angles = EulerAngles.valueOf(Degree.valueOf(90), Degree.valueOf(-180), Degree.ZERO);
+            assertEquals((float) Math.PI / 2, angles.x);
+            assertEquals((float) -Math.PI, angles.y);
+            assertEquals(0, angles.z);
+        }
+
+        @Test
+        void radian() {
+            assertEquals(EulerAngles.valueOf(1, 2, 3), EulerAngles.valueOf(Radian.valueOf(1), Radian.valueOf(2), Radian.valueOf(3)));
+        }
+
+        @Test
+        void zeroQuaternion() {
+            assertThrows(IllegalArgumentException.class, () -> EulerAngles.valueOf(Quaternion.valueOf(0, 0, 0, 0), EulerOrder.XYZ));
+        }
+    }
+
+    @Nested
+    class ToQuaternion {
+
+        @Test
+        void happyFlow() {
+            Quaternion q = EulerAngles.valueOf(Degree.ZERO, Degree.valueOf(90), Degree.ZERO).toQuaternion(EulerOrder.YXZ);
+            assertEquals((float) Math.sqrt(0.5), q.w, 1e-7f);
+            assertEquals(0, q.x);
+            assertEquals((float) Math.sqrt(0.5), q.y, 1e-7f);
+            assertEquals(0, q.z);
+        }
+
+        @Test
+        void allOrders() {
+            Random random = new Random(11);
+            for (EulerOrder order : EulerOrder.values()) {
+                for (int i = 0; i < 200; i++) {
+                    float x = (random.nextFloat() - 0.5f) * 20;
+                    float y = (random.nextFloat() - 0.5f) * 20;
+                    float z = (random.nextFloat() - 0.5f) * 20;
+                    Quaternion expected = expected(x, y, z, order);
+                    Quaternion actual = EulerAngles.valueOf(x, y, z).toQuaternion(order);
+                    assertEquals(expected.w, actual.w, 1e-6f);
+                    assertEquals(expected.x, actual.x, 1e-6f);
+                    assertEquals(expected.y, actual.y, 1e-6f);
+                    assertEquals(expected.z, actual.z, 1e-6f);
+                }
+            }
+        }
+
+        @Test
+        void largeAngle() {
+            assertSameRotation(expected(1e9f, 0, 0, EulerOrder.XYZ), EulerAngles.valueOf(1e9f, 0, 0).toQuaternion(EulerOrder.XYZ), 1e-6f);
+        }
+    }
+
+    @Nested
+    class FromQuaternion {
+
+        @Test
+        void roundTrip() {
+            Random random = new Random(5);
+            for (EulerOrder order : EulerOrder.values()) {
+                for (int i = 0; i < 200; i++) {
+                    float[] values = {(random.nextFloat() - 0.5f) * 6, (random.nextFloat() - 0.5f) * 6, (random.nextFloat() - 0.5f) * 6};
+                    values[order.second] *= 0.5f;
+                    Quaternion q = EulerAngles.valueOf(values[0], values[1], values[2]).toQuaternion(order);
+                    EulerAngles result = EulerAngles.valueOf(q, order);
+                    assertSameRotation(q, result.toQuaternion(order), 1e-5f);
+                    float[] extracted = {result.x, result.y, result.z};
+                    for (int axis = 0; axis < 3; axis++) {
+                        assertEquals(values[axis], extracted[axis], 1e-3f);
+                    }
+                }
+            }
+        }
+
+        @Test
+        void gimbalLock() {
+            for (EulerOrder order : EulerOrder.values()) {
+                for (float sign = -1; sign <= 1; sign += 2) {
+                    float[] values = {0.3f, 0.3f, 0.3f};
+                    values[order.second] = sign * (float) Math.PI / 2;
+                    Quaternion q = EulerAngles.valueOf(values[0], values[1], values[2]).toQuaternion(order);
+                    EulerAngles result = EulerAngles.valueOf(q, order);
+                    float[] extracted = {result.x, result.y, result.z};
+                    assertEquals(0, extracted[order.third]);
+                    assertEquals(sign * (float) Math.PI / 2, extracted[order.second], 1e-6f);
+                    assertSameRotation(q, result.toQuaternion(order), 1e-5f);
+                }
+            }
+        }
+
+        @Test
+        void notNormalized() {
+            Quaternion q = EulerAngles.valueOf(0.1f, 0.2f, 0.3f).toQuaternion(EulerOrder.ZYX);
+            EulerAngles result = EulerAngles.valueOf(Quaternion.valueOf(q.w * 3, q.x * 3, q.y * 3, q.z * 3), EulerOrder.ZYX);
+            assertEquals(0.1f, result.x, 1e-6f);
+            assertEquals(0.2f, result.y, 1e-6f);
+            assertEquals(0.3f, result.z, 1e-6f);
+        }
+    }
+
+    @Nested
+    class Bulk {
+
+        @Test
+        void sameAsScalar() {
+            Random random = new Random(9);
+            float[] angles = new float[300];
+            for (int i = 0; i < angles.length; i++) {
+                angles[i] = (random.nextFloat() - 0.5f) * 10;
+            }
+            float[] quaternions = new float[400];
+            float[] back = new float[300];
+            EulerAngles.toQuaternions(angles, EulerOrder.YXZ, quaternions);
+            EulerAngles.toEulerAngles(quaternions, EulerOrder.YXZ, back);
+            for (int i = 0; i < 100; i++) {
+                Quaternion q = EulerAngles.valueOf(angles[i * 3], angles[i * 3 + 1], angles[i * 3 + 2]).toQuaternion(EulerOrder.YXZ);
+                assertEquals(q.w, quaternions[i * 4]);
+                assertEquals(q.x, quaternions[i * 4 + 1]);
+                assertEquals(q.y, quaternions[i * 4 + 2]);
+                assertEquals(q.z, quaternions[i * 4 + 3]);
+                EulerAngles e = EulerAngles.valueOf(q, EulerOrder.YXZ);
+                assertEquals(e.x, back[i * 3]);
+                assertEquals(e.y, back[i * 3 + 1]);
+                assertEquals(e.z, back[i * 3 + 2]);
+            }
+        }
+
+        @Test
+        void wrongSize() {
+            assertThrows(IllegalArgumentException.class, () -> EulerAngles.toQuaternions(new float[4], EulerOrder.XYZ, new float[8]));
+            assertThrows(IllegalArgumentException.class, () -> EulerAngles.toQuaternions(new float[6], EulerOrder.XYZ, new float[7]));
+            assertThrows(IllegalArgumentException.class, () -> EulerAngles.toEulerAngles(new float[5], EulerOrder.XYZ, new float[3]));
+            assertThrows(IllegalArgumentException.class, () -> EulerAngles.toEulerAngles(new float[8], EulerOrder.XYZ, new float[5]));
+        }
+    }
+
+    @Nested
+    class Equals {
+
+        @Test
+        void happyFlow() {
+            assertEquals(EulerAngles.valueOf(1, 2, 3), EulerAngles.valueOf(1, 2, 3));
+            assertEquals(EulerAngles.valueOf(1, 2, 3).hashCode(), EulerAngles.valueOf(1, 2, 3).hashCode());
+            assertEquals(EulerAngles.ZERO, EulerAngles.valueOf(0, 0, 0));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class FlightRecorderEventTest {
+
+    private static List<RecordedEvent> record(final String name, final Runnable operation) throws IOException {
+        Path file = Files.createTempFile("geometry", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(name).withThreshold(Duration.ZERO);
+            recording.start();
+            operation.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Nested
+    class Registration {
+
+        @Test
+        void disabledByDefault() {
+            new SpatialQueryEvent();
+            new IndexBuildEvent();
+            new BulkOperationEvent();
+            List<EventType> types = FlightRecorder.getFlightRecorder().getEventTypes().stream()
+                    .filter(t -> t.getName().startsWith("be.yildizgames.geometry."))
+                    .collect(Collectors.toList());
+            assertEquals(3, types.size());
+            types.forEach(t -> assertFalse(t.isEnabled()));
+        }
+    }
+
+    @Nested
+    class SpatialQuery {
+
+        @Test
+        void happyFlow() throws IOException {
+            RectangleBuffer buffer = new RectangleBuffer();
+            buffer.add(0, 0, 10, 10);
+            buffer.add(5, 5, 20, 20);
+            List<RecordedEvent> events = record("be.yildizgames.geometry.SpatialQuery",
+                    () -> buffer.containing(7, 7, new long[1]));
+            assertEquals(1, events.size());
+            RecordedEvent event = events.get(0);
+            assertEquals("RectangleBuffer", event.getString("structure"));
+            assertEquals(2, event.getInt("elements"));
+            assertEquals(2L, event.getLong("visited"));
+            assertEquals(2, event.getInt("results"));
+        }
+    }
+
+    @Nested
+    class IndexBuild {
+
+        @Test
+        void happyFlow() throws IOException {
+            List<RecordedEvent> events = record("be.yildizgames.geometry.IndexBuild",
+                    () -> Delaunay.triangulate(new float[]{0, 0, 1, 0, 0, 1, 1, 1}));
+            assertEquals(1, events.size());
+            assertEquals("Delaunay", events.get(0).getString("structure"));
+            assertEquals(4, events.get(0).getInt("elements"));
+            assertEquals(2L, events.get(0).getLong("nodes"));
+        }
+    }
+
+    @Nested
+    class BulkOperation {
+
+        @Test
+        void happyFlow() throws IOException {
+            List<RecordedEvent> events = record("be.yildizgames.geometry.BulkOperation",
+                    () -> VertexWelder.weld(new float[]{0, 0, 0, 0, 0, 0.1f, 5, 5, 5}, 0.5f));
+            assertEquals(1, events.size());
+            assertEquals("VertexWelder.weld", events.get(0).getString("operation"));
+            assertEquals(3, events.get(0).getInt("elements"));
+            assertEquals(2, events.get(0).getInt("results"));
+        }
+    }
+}
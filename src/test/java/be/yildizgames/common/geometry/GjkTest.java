@@ -0,0 +1,272 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class GjkTest {
+
+    private static Quaternion rotation(final Random random) {
+        return Quaternion.valueOf(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+    }
+
+    private static Point3D point(final Random random, final float range) {
+        return Point3D.valueOf((random.nextFloat() - 0.5f) * range, (random.nextFloat() - 0.5f) * range, (random.nextFloat() - 0.5f) * range);
+    }
+
+    private static ConvexHull3D cube(final float x, final float y, final float z, final float half) {
+        float[] coordinates = new float[24];
+        for (int c = 0; c < 8; c++) {
+            coordinates[c * 3] = x + ((c & 1) == 0 ? -half : half);
+            coordinates[c * 3 + 1] = y + ((c & 2) == 0 ? -half : half);
+            coordinates[c * 3 + 2] = z + ((c & 4) == 0 ? -half : half);
+        }
+        return ConvexHull3D.compute(coordinates);
+    }
+
+    @Nested
+    class Intersects {
+
+        @Test
+        void happyFlow() {
+            Gjk gjk = new Gjk();
+            assertTrue(gjk.intersects(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(1.5f, 0, 0, 1)));
+            assertFalse(gjk.intersects(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(2.5f, 0, 0, 1)));
+        }
+
+        @Test
+        void touching() {
+            Gjk gjk = new Gjk();
+            assertTrue(gjk.intersects(Box3f.valueOf(0, 0, 0, 1, 1, 1), Box3f.valueOf(1, 0, 0, 2, 1, 1)));
+        }
+
+        @Test
+        void sameAsNarrowPhase() {
+            Random random = new Random(7);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 500; i++) {
+                OrientedBox3f a = OrientedBox3f.valueOf(point(random, 4), Point3D.valueOf(0.2f + random.nextFloat()), rotation(random));
+                OrientedBox3f b = OrientedBox3f.valueOf(point(random, 4), Point3D.valueOf(0.2f + random.nextFloat()), rotation(random));
+                float expected = NarrowPhase.distance(a, b);
+                if (Math.abs(expected) > 1e-3f) {
+                    assertEquals(expected < 0, gjk.intersects(a, b));
+                }
+            }
+        }
+    }
+
+    @Nested
+    class Distance {
+
+        @Test
+        void happyFlow() {
+            Gjk gjk = new Gjk();
+            assertEquals(0.5f, gjk.distance(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(2.5f, 0, 0, 1)), 1e-5f);
+            float[] points = new float[6];
+            gjk.getClosestPoints(points);
+            assertEquals(1, points[0], 1e-5f);
+            assertEquals(1.5f, points[3], 1e-5f);
+        }
+
+        @Test
+        void penetration() {
+            Gjk gjk = new Gjk();
+            assertEquals(-0.5f, gjk.distance(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(1.5f, 0, 0, 1)), 1e-3f);
+            assertEquals(-0.25f, gjk.distance(Box3f.valueOf(0, 0, 0, 1, 1, 1), Box3f.valueOf(0.75f, 0.1f, 0.2f, 2, 0.9f, 0.8f)), 1e-5f);
+        }
+
+        @Test
+        void capsules() {
+            Random random = new Random(11);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 200; i++) {
+                Capsule a = Capsule.valueOf(point(random, 6), point(random, 6), 0.5f * random.nextFloat());
+                Capsule b = Capsule.valueOf(point(random, 6), point(random, 6), 0.5f * random.nextFloat());
+                float expected = NarrowPhase.distance(a, b);
+                if (expected > 0) {
+                    assertEquals(expected, gjk.distance(a, b), 1e-3f);
+                }
+            }
+        }
+
+        @Test
+        void sameAsNarrowPhase() {
+            Random random = new Random(3);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 500; i++) {
+                Box3f a = Box3f.valueOf(point(random, 4), point(random, 4));
+                Box3f b = Box3f.valueOf(point(random, 4), point(random, 4));
+                assertEquals(NarrowPhase.distance(a, b), gjk.distance(a, b), 1e-3f);
+                Sphere s = Sphere.valueOf(point(random, 4), random.nextFloat());
+                float expected = NarrowPhase.distance(s, a);
+                // The polytope only approximates the curved sphere when they overlap.
+                assertEquals(expected, gjk.distance(s, a), expected < 0 ? 1e-2f : 1e-3f);
+            }
+        }
+
+        @Test
+        void hulls() {
+            Gjk gjk = new Gjk();
+            assertEquals(1, gjk.distance(cube(0, 0, 0, 1), cube(3, 0, 0, 1)), 1e-5f);
+            assertEquals(-0.5f, gjk.distance(cube(0, 0, 0, 1), cube(0, 1.5f, 0.2f, 1)), 1e-4f);
+        }
+    }
+
+    @Nested
+    class Contact {
+
+        @Test
+        void happyFlow() {
+            Gjk gjk = new Gjk();
+            be.yildizgames.common.geometry.Contact contact = gjk.contact(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(0, 3, 0, 1));
+            assertEquals(1, contact.distance, 1e-5f);
+            assertEquals(0, contact.normal.x, 1e-3f);
+            assertEquals(1, contact.normal.y, 1e-6f);
+            assertEquals(0, contact.normal.z, 1e-3f);
+            assertFalse(contact.isIntersecting());
+        }
+
+        @Test
+        void penetration() {
+            Gjk gjk = new Gjk();
+            float[] result = new float[NarrowPhase.CONTACT_STRIDE];
+            gjk.contact(Box3f.valueOf(0, 0, 0, 2, 2, 2), Sphere.valueOf(1, 1, 2.5f, 1), null, result);
+            assertEquals(0, result[0], 1e-4f);
+            assertEquals(0, result[1], 1e-4f);
+            assertEquals(1, result[2], 1e-4f);
+            assertEquals(-0.5f, result[3], 1e-3f);
+        }
+
+        @Test
+        void orientedBoxes() {
+            Random random = new Random(5);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 300; i++) {
+                OrientedBox3f a = OrientedBox3f.valueOf(point(random, 3), Point3D.valueOf(0.3f + random.nextFloat()), rotation(random));
+                OrientedBox3f b = OrientedBox3f.valueOf(point(random, 3), Point3D.valueOf(0.3f + random.nextFloat()), rotation(random));
+                be.yildizgames.common.geometry.Contact expected = NarrowPhase.contact(a, b);
+                be.yildizgames.common.geometry.Contact contact = gjk.contact(a, b);
+                assertEquals(expected.distance, contact.distance, 1e-3f);
+            }
+        }
+
+        @Test
+        void penetratingSpheres() {
+            Gjk gjk = new Gjk();
+            Sphere a = Sphere.valueOf(1.6544625f, 1.0583916f, 1.0241652f, 0.45067304f);
+            Sphere b = Sphere.valueOf(1.6174333f, 0.690874f, 1.3027735f, 0.6349866f);
+            be.yildizgames.common.geometry.Contact expected = NarrowPhase.contact(a, b);
+            be.yildizgames.common.geometry.Contact contact = gjk.contact(a, b);
+            assertEquals(expected.distance, contact.distance, 1e-3f);
+            assertEquals(expected.normal.x, contact.normal.x, 1e-2f);
+            assertEquals(expected.normal.y, contact.normal.y, 1e-2f);
+            assertEquals(expected.normal.z, contact.normal.z, 1e-2f);
+        }
+
+        @Test
+        void penetrationSameAsNarrowPhase() {
+            Random random = new Random(13);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 2000; i++) {
+                Sphere a = Sphere.valueOf(point(random, 2), random.nextFloat());
+                Sphere b = Sphere.valueOf(point(random, 2), random.nextFloat());
+                float expected = NarrowPhase.distance(a, b);
+                if (expected < -1e-3f) {
+                    // The polytope only approximates the curved spheres.
+                    assertEquals(expected, gjk.contact(a, b).distance, -expected * 1e-2f, a + " " + b);
+                }
+            }
+        }
+
+        @Test
+        void orientedBoxesPenetration() {
+            Random random = new Random(17);
+            Gjk gjk = new Gjk();
+            for (int i = 0; i < 2000; i++) {
+                // Every other pair has a flat box, the Minkowski difference then has sliver faces.
+                float flat = i % 2 == 0 ? 1 : 0.05f;
+                OrientedBox3f a = OrientedBox3f.valueOf(point(random, 2),
+                        Point3D.valueOf(0.01f + flat * random.nextFloat(), 0.2f + random.nextFloat(), 0.2f + 3 * random.nextFloat()), rotation(random));
+                OrientedBox3f b = OrientedBox3f.valueOf(point(random, 2),
+                        Point3D.valueOf(0.2f + random.nextFloat(), 0.01f + flat * random.nextFloat(), 0.2f + random.nextFloat()), rotation(random));
+                float expected = NarrowPhase.distance(a, b);
+                if (expected < 0) {
+                    assertEquals(expected, gjk.distance(a, b), 1e-4f, a + " " + b);
+                }
+            }
+        }
+    }
+
+    @Nested
+    class WarmStart {
+
+        @Test
+        void happyFlow() {
+            Gjk gjk = new Gjk();
+            GjkCache cache = new GjkCache();
+            assertTrue(cache.isEmpty());
+            ConvexHull3D a = cube(0, 0, 0, 1);
+            Capsule b = Capsule.valueOf(Point3D.valueOf(3, -1, 0.5f), Point3D.valueOf(4, 2, 0.7f), 0.5f);
+            float cold = gjk.distance(a, b, cache);
+            int coldCalls = gjk.getSupportCalls();
+            assertFalse(cache.isEmpty());
+            Capsule moved = Capsule.valueOf(Point3D.valueOf(3.01f, -1, 0.5f), Point3D.valueOf(4.01f, 2, 0.7f), 0.5f);
+            assertEquals(cold + 0.01f, gjk.distance(a, moved, cache), 1e-4f);
+            assertTrue(gjk.getSupportCalls() < coldCalls);
+        }
+
+        @Test
+        void reset() {
+            GjkCache cache = new GjkCache();
+            new Gjk().intersects(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(3, 0, 0, 1), cache);
+            assertFalse(cache.isEmpty());
+            cache.reset();
+            assertTrue(cache.isEmpty());
+        }
+
+        @Test
+        void sameResult() {
+            Random random = new Random(9);
+            Gjk gjk = new Gjk();
+            GjkCache cache = new GjkCache();
+            OrientedBox3f a = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1, 0.5f, 0.25f), rotation(random));
+            for (int i = 0; i < 200; i++) {
+                OrientedBox3f b = OrientedBox3f.valueOf(Point3D.valueOf(2 * (float) Math.cos(i * 0.05), 2 * (float) Math.sin(i * 0.05), 0.1f),
+                        Point3D.valueOf(0.5f), rotation(random));
+                assertEquals(gjk.distance(a, b), gjk.distance(a, b, cache), 1e-3f);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class HilbertTest {
+
+    /**
+     * Reference loop implementation, one level at a time.
+     */
+    private static long reference(final int size, final int xValue, final int yValue) {
+        int x = xValue;
+        int y = yValue;
+        long d = 0;
+        for (int s = size / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = size - 1 - x;
+                    y = size - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    @Nested
+    class Encode2D {
+
+        @Test
+        void happyFlow() {
+            assertEquals(0, Hilbert.encode2D(0, 0, 1));
+            assertEquals(1, Hilbert.encode2D(0, 1, 1));
+            assertEquals(2, Hilbert.encode2D(1, 1, 1));
+            assertEquals(3, Hilbert.encode2D(1, 0, 1));
+        }
+
+        @Test
+        void sameAsReference() {
+            for (int order = 1; order <= 6; order++) {
+                int size = 1 << order;
+                for (int x = 0; x < size; x++) {
+                    for (int y = 0; y < size; y++) {
+                        assertEquals(reference(size, x, y), Hilbert.encode2D(x, y, order));
+                    }
+                }
+            }
+        }
+
+        @Test
+        void roundTrip() {
+            int[] result = new int[2];
+            Hilbert.decode2D(Hilbert.encode2D(0xFFFFFFFF, 0x12345678), result);
+            assertArrayEquals(new int[]{0xFFFFFFFF, 0x12345678}, result);
+            Hilbert.decode2D(Hilbert.encode2D(5, 3, 3), 3, result);
+            assertArrayEquals(new int[]{5, 3}, result);
+        }
+
+        @Test
+        void consecutiveCellsAreNeighbours() {
+            int[] previous = new int[2];
+            int[] current = new int[2];
+            for (long index = 1; index < 1 << 10; index++) {
+                Hilbert.decode2D(index - 1, 5, previous);
+                Hilbert.decode2D(index, 5, current);
+                assertEquals(1, Math.abs(previous[0] - current[0]) + Math.abs(previous[1] - current[1]));
+            }
+        }
+
+        @Test
+        void invalidOrder() {
+            assertThrows(IllegalArgumentException.class, () -> Hilbert.encode2D(0, 0, 33));
+            assertThrows(IllegalArgumentException.class, () -> Hilbert.encode2D(0, 0, 0));
+        }
+    }
+
+    @Nested
+    class Encode3D {
+
+        @Test
+        void roundTrip() {
+            int[] result = new int[3];
+            Hilbert.decode3D(Hilbert.encode3D(Morton.MAX_3D, 12345, 7), result);
+            assertArrayEquals(new int[]{Morton.MAX_3D, 12345, 7}, result);
+        }
+
+        @Test
+        void consecutiveCellsAreNeighbours() {
+            int[] previous = new int[3];
+            int[] current = new int[3];
+            for (long index = 1; index < 1 << 12; index++) {
+                Hilbert.decode3D(index - 1, 4, previous);
+                Hilbert.decode3D(index, 4, current);
+                assertEquals(1, Math.abs(previous[0] - current[0]) + Math.abs(previous[1] - current[1]) + Math.abs(previous[2] - current[2]));
+                assertEquals(index, Hilbert.encode3D(current[0], current[1], current[2], 4));
+            }
+        }
+    }
+
+    @Nested
+    class EncodePoint {
+
+        @Test
+        void point2D() {
+            assertEquals(Hilbert.encode2D(2, 3), Hilbert.encode(Point2D.valueOf(2.5f, 3.5f), Point2D.ZERO, 1));
+        }
+
+        @Test
+        void point3D() {
+            assertEquals(Hilbert.encode3D(0, 3, 4), Hilbert.encode(Point3D.valueOf(-1, 1.5f, 2), Point3D.ZERO, 0.5f));
+        }
+    }
+
+    @Nested
+    class Ranges {
+
+        @Test
+        void sameAsBruteForce() {
+            Rectangle query = new Rectangle(3, 9, 11, 2);
+            long[] expected = bruteForce(query, 4);
+            assertArrayEquals(expected, Hilbert.ranges(query, 4));
+        }
+
+        @Test
+        void fullCurve() {
+            assertArrayEquals(new long[]{0, 255}, Hilbert.ranges(new Rectangle(-5, -5, 100, 100), 4));
+            assertArrayEquals(new long[]{0, 0}, Hilbert.ranges(new Rectangle(0, 0, -1, -1), 32));
+        }
+
+        @Test
+        void outside() {
+            assertEquals(0, Hilbert.ranges(new Rectangle(-5, -5, -1, -1), 4).length);
+        }
+
+        @Test
+        void limited() {
+            Rectangle query = new Rectangle(3, 9, 11, 2);
+            long[] exact = Hilbert.ranges(query, 4);
+            long[] limited = Hilbert.ranges(query, 4, 2);
+            assertTrue(exact.length > 4);
+            assertEquals(4, limited.length);
+            assertEquals(exact[0], limited[0]);
+            assertEquals(exact[exact.length - 1], limited[3]);
+            for (int i = 0; i < exact.length; i += 2) {
+                boolean covered = (exact[i] >= limited[0] && exact[i + 1] <= limited[1]) || (exact[i] >= limited[2] && exact[i + 1] <= limited[3]);
+                assertTrue(covered);
+            }
+        }
+
+        private long[] bruteForce(final Rectangle query, final int order) {
+            List<Long> indexes = new ArrayList<>();
+            for (int x = 0; x < 1 << order; x++) {
+                for (int y = 0; y < 1 << order; y++) {
+                    if (query.contain(x, y)) {
+                        indexes.add(Hilbert.encode2D(x, y, order));
+                    }
+                }
+            }
+            indexes.sort(Long::compare);
+            List<Long> ranges = new ArrayList<>();
+            for (long index : indexes) {
+                if (!ranges.isEmpty() && ranges.get(ranges.size() - 1) + 1 == index) {
+                    ranges.set(ranges.size() - 1, index);
+                } else {
+                    ranges.add(index);
+                    ranges.add(index);
+                }
+            }
+            return ranges.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class IndexStatisticsTest {
+
+    @Nested
+    class OccupancyBucket {
+
+        @Test
+        void happyFlow() {
+            assertEquals(0, IndexStatistics.occupancyBucket(0));
+            assertEquals(1, IndexStatistics.occupancyBucket(1));
+            assertEquals(2, IndexStatistics.occupancyBucket(3));
+            assertEquals(3, IndexStatistics.occupancyBucket(4));
+        }
+    }
+
+    @Nested
+    class GetAverageVisited {
+
+        @Test
+        void happyFlow() {
+            IndexStatistics statistics = new IndexStatistics(1, new int[]{1}, new int[]{0, 1}, 0, 0, 4, 10);
+            assertEquals(2.5, statistics.getAverageVisited(), 0);
+        }
+
+        @Test
+        void noQuery() {
+            IndexStatistics statistics = new IndexStatistics(1, new int[]{1}, new int[]{0, 1}, 0, 0, 0, 0);
+            assertEquals(0, statistics.getAverageVisited(), 0);
+        }
+    }
+
+    @Nested
+    class Histogram {
+
+        @Test
+        void happyFlow() {
+            IndexStatistics.Histogram histogram = new IndexStatistics.Histogram();
+            histogram.add(2, 1);
+            histogram.add(20, 3);
+            histogram.add(2, 1);
+            int[] values = histogram.toArray();
+            assertEquals(21, values.length);
+            assertEquals(2, values[2]);
+            assertEquals(3, values[20]);
+        }
+
+        @Test
+        void copies() {
+            int[] depths = {4, 2};
+            IndexStatistics statistics = new IndexStatistics(6, depths, new int[]{0, 6}, 0, 0, 0, 0);
+            statistics.getDepthHistogram()[0] = 0;
+            assertArrayEquals(new int[]{4, 2}, statistics.getDepthHistogram());
+            assertEquals(1, statistics.getMaxDepth());
+        }
+    }
+}
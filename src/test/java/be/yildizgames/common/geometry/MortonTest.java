@@ -0,0 +1,140 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class MortonTest {
+
+    @Nested
+    class Encode2D {
+
+        @Test
+        void happyFlow() {
+            assertEquals(0b1011, Morton.encode2D(0b01, 0b11));
+        }
+
+        @Test
+        void roundTrip() {
+            long code = Morton.encode2D(0xFFFFFFFF, 0x12345678);
+            assertEquals(0xFFFFFFFF, Morton.decode2DX(code));
+            assertEquals(0x12345678, Morton.decode2DY(code));
+        }
+    }
+
+    @Nested
+    class Encode3D {
+
+        @Test
+        void happyFlow() {
+            assertEquals(0b1001001L, Morton.encode3D(0b111, 0, 0));
+            assertEquals(0b110L, Morton.encode3D(0, 1, 1));
+        }
+
+        @Test
+        void roundTrip() {
+            long code = Morton.encode3D(Morton.MAX_3D, 12345, 1);
+            assertEquals(Morton.MAX_3D, Morton.decode3DX(code));
+            assertEquals(12345, Morton.decode3DY(code));
+            assertEquals(1, Morton.decode3DZ(code));
+        }
+    }
+
+    @Nested
+    class EncodePoint {
+
+        @Test
+        void point2D() {
+            long code = Morton.encode(Point2D.valueOf(2.5f, 3.5f), Point2D.ZERO, 1);
+            assertEquals(2, Morton.decode2DX(code));
+            assertEquals(3, Morton.decode2DY(code));
+        }
+
+        @Test
+        void point3DClamped() {
+            long code = Morton.encode(Point3D.valueOf(-5, 1.5f, 1e9f), Point3D.ZERO, 0.5f);
+            assertEquals(0, Morton.decode3DX(code));
+            assertEquals(3, Morton.decode3DY(code));
+            assertEquals(Morton.MAX_3D, Morton.decode3DZ(code));
+        }
+    }
+
+    @Nested
+    class Sort2D {
+
+        @Test
+        void happyFlow() {
+            float[] coordinates = {3, 3, 0, 0, 1, 0, 0, 1};
+            int[] ids = {30, 0, 10, 1};
+            long[] keys = Morton.sort2D(coordinates, ids, Point2D.ZERO, 1);
+            assertArrayEquals(new int[]{0, 10, 1, 30}, ids);
+            assertArrayEquals(new float[]{0, 0, 1, 0, 0, 1, 3, 3}, coordinates);
+            assertArrayEquals(new long[]{0, 1, 2, 15}, keys);
+        }
+
+        @Test
+        void autoBounds() {
+            float[] coordinates = {-10, -10, 10, 10, -10, 10, 10, -10};
+            int[] ids = {0, 1, 2, 3};
+            long[] keys = Morton.sort2D(coordinates, ids);
+            assertArrayEquals(new int[]{0, 3, 2, 1}, ids);
+            for (int i = 1; i < keys.length; i++) {
+                assertTrue(Long.compareUnsigned(keys[i - 1], keys[i]) <= 0);
+            }
+        }
+
+        @Test
+        void wrongIdLength() {
+            assertThrows(IllegalArgumentException.class, () -> Morton.sort2D(new float[4], new int[1]));
+        }
+    }
+
+    @Nested
+    class Sort3D {
+
+        @Test
+        void happyFlow() {
+            float[] coordinates = {1, 1, 1, 0, 0, 1, 0, 0, 0};
+            int[] ids = {7, 4, 0};
+            Morton.sort3D(coordinates, ids, Point3D.ZERO, 1);
+            assertArrayEquals(new int[]{0, 4, 7}, ids);
+            assertArrayEquals(new float[]{0, 0, 0, 0, 0, 1, 1, 1, 1}, coordinates);
+        }
+
+        @Test
+        void empty() {
+            assertEquals(0, Morton.sort3D(new float[0], new int[0]).length);
+        }
+    }
+}
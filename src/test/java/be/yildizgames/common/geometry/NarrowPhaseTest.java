@@ -0,0 +1,465 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class NarrowPhaseTest {
+
+    private static void assertNormal(final float x, final float y, final float z, final Contact contact) {
+        assertEquals(x, contact.normal.x, 1e-6f);
+        assertEquals(y, contact.normal.y, 1e-6f);
+        assertEquals(z, contact.normal.z, 1e-6f);
+    }
+
+    private static Quaternion rotation(final Random random) {
+        return Quaternion.valueOf(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, random.nextFloat() - 0.5f);
+    }
+
+    /**
+     * @return The 8 corners of a box, x,y,z interleaved.
+     */
+    private static double[] corners(final OrientedBox3f box) {
+        double[] result = new double[24];
+        for (int c = 0; c < 8; c++) {
+            for (int k = 0; k < 3; k++) {
+                double v = box.data[k];
+                for (int axis = 0; axis < 3; axis++) {
+                    double sign = (c >> axis & 1) == 0 ? -1 : 1;
+                    v += sign * box.data[12 + axis] * box.data[3 + axis * 3 + k];
+                }
+                result[c * 3 + k] = v;
+            }
+        }
+        return result;
+    }
+
+    private static double[] project(final double[] corners, final Point3D axis) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < 8; c++) {
+            double p = corners[c * 3] * axis.x + corners[c * 3 + 1] * axis.y + corners[c * 3 + 2] * axis.z;
+            min = Math.min(min, p);
+            max = Math.max(max, p);
+        }
+        return new double[]{min, max};
+    }
+
+    private static boolean inside(final OrientedBox3f box, final double x, final double y, final double z) {
+        for (int axis = 0; axis < 3; axis++) {
+            double p = (x - box.center.x) * box.data[3 + axis * 3] + (y - box.center.y) * box.data[4 + axis * 3] + (z - box.center.z) * box.data[5 + axis * 3];
+            if (Math.abs(p) > box.data[12 + axis]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nested
+    class SphereSphere {
+
+        @Test
+        void separated() {
+            Sphere a = Sphere.valueOf(0, 0, 0, 1);
+            Sphere b = Sphere.valueOf(0, 5, 0, 2);
+            assertFalse(NarrowPhase.intersects(a, b));
+            assertEquals(2, NarrowPhase.distance(a, b));
+            assertNormal(0, 1, 0, NarrowPhase.contact(a, b));
+        }
+
+        @Test
+        void overlapping() {
+            Contact contact = NarrowPhase.contact(Sphere.valueOf(0, 0, 0, 2), Sphere.valueOf(-3, 0, 0, 2));
+            assertTrue(contact.isIntersecting());
+            assertEquals(1, contact.getPenetration());
+            assertNormal(-1, 0, 0, contact);
+        }
+
+        @Test
+        void touching() {
+            assertTrue(NarrowPhase.intersects(Sphere.valueOf(0, 0, 0, 1), Sphere.valueOf(0, 0, 2, 1)));
+        }
+
+        @Test
+        void concentric() {
+            Contact contact = NarrowPhase.contact(Sphere.valueOf(1, 1, 1, 1), Sphere.valueOf(1, 1, 1, 2));
+            assertEquals(-3, contact.distance);
+            assertNormal(1, 0, 0, contact);
+        }
+
+        @Test
+        void invalidRadius() {
+            assertThrows(IllegalArgumentException.class, () -> Sphere.valueOf(0, 0, 0, -1));
+            assertThrows(IllegalArgumentException.class, () -> Sphere.valueOf(0, 0, 0, Float.NaN));
+        }
+    }
+
+    @Nested
+    class SphereBox {
+
+        @Test
+        void separatedFace() {
+            Contact contact = NarrowPhase.contact(Sphere.valueOf(0, 5, 0, 1), Box3f.valueOf(-1, -1, -1, 1, 1, 1));
+            assertEquals(3, contact.distance);
+            assertNormal(0, -1, 0, contact);
+        }
+
+        @Test
+        void separatedCorner() {
+            Sphere sphere = Sphere.valueOf(2, 2, 2, 1);
+            Box3f box = Box3f.valueOf(-1, -1, -1, 1, 1, 1);
+            assertFalse(NarrowPhase.intersects(sphere, box));
+            assertEquals((float) (Math.sqrt(3) - 1), NarrowPhase.distance(sphere, box), 1e-6f);
+        }
+
+        @Test
+        void centerInside() {
+            Contact contact = NarrowPhase.contact(Sphere.valueOf(0.8f, 0, 0, 0.5f), Box3f.valueOf(-1, -1, -1, 1, 1, 1));
+            assertTrue(NarrowPhase.intersects(Sphere.valueOf(0.8f, 0, 0, 0.5f), Box3f.valueOf(-1, -1, -1, 1, 1, 1)));
+            assertEquals(-0.7f, contact.distance, 1e-6f);
+            assertNormal(-1, 0, 0, contact);
+        }
+
+        @Test
+        void overlappingFromOutside() {
+            Contact contact = NarrowPhase.contact(Sphere.valueOf(0, 0, -1.5f, 1), Box3f.valueOf(-1, -1, -1, 1, 1, 1));
+            assertEquals(-0.5f, contact.distance);
+            assertNormal(0, 0, 1, contact);
+        }
+    }
+
+    @Nested
+    class BoxBox {
+
+        @Test
+        void overlapping() {
+            Box3f a = Box3f.valueOf(0, 0, 0, 4, 4, 4);
+            Box3f b = Box3f.valueOf(3, 1, -2, 6, 2, 10);
+            assertTrue(NarrowPhase.intersects(a, b));
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(-1, contact.distance);
+            assertNormal(1, 0, 0, contact);
+        }
+
+        @Test
+        void separated() {
+            Box3f a = Box3f.valueOf(0, 0, 0, 1, 1, 1);
+            Box3f b = Box3f.valueOf(4, -6, 0.5f, 5, -4, 2);
+            assertFalse(NarrowPhase.intersects(a, b));
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(5, contact.distance);
+            assertNormal(0.6f, -0.8f, 0, contact);
+        }
+
+        @Test
+        void contained() {
+            Contact contact = NarrowPhase.contact(Box3f.valueOf(0, 0, 0, 10, 10, 10), Box3f.valueOf(1, 4, 2, 3, 6, 9));
+            assertEquals(-3, contact.distance);
+            assertNormal(-1, 0, 0, contact);
+        }
+
+        @Test
+        void touching() {
+            Box3f a = Box3f.valueOf(0, 0, 0, 1, 1, 1);
+            Box3f b = Box3f.valueOf(1, 0, 0, 2, 1, 1);
+            assertTrue(NarrowPhase.intersects(a, b));
+            assertTrue(NarrowPhase.contact(a, b).isIntersecting());
+        }
+
+        @Test
+        void normalizedCorners() {
+            assertEquals(Box3f.valueOf(0, 0, 0, 1, 2, 3), Box3f.valueOf(Point3D.valueOf(1, 2, 3), Point3D.ZERO));
+        }
+    }
+
+    @Nested
+    class CapsuleCapsule {
+
+        @Test
+        void parallel() {
+            Capsule a = Capsule.valueOf(Point3D.ZERO, Point3D.valueOf(10, 0, 0), 1);
+            Capsule b = Capsule.valueOf(Point3D.valueOf(2, 3, 0), Point3D.valueOf(5, 3, 0), 0.5f);
+            assertFalse(NarrowPhase.intersects(a, b));
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(1.5f, contact.distance);
+            assertNormal(0, 1, 0, contact);
+        }
+
+        @Test
+        void crossing() {
+            Capsule a = Capsule.valueOf(Point3D.valueOf(-1, 0, 0), Point3D.valueOf(1, 0, 0), 0.25f);
+            Capsule b = Capsule.valueOf(Point3D.valueOf(0, -1, 0), Point3D.valueOf(0, 1, 0), 0.25f);
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(-0.5f, contact.distance);
+            assertNormal(0, 0, 1, contact);
+        }
+
+        @Test
+        void endToEnd() {
+            Capsule a = Capsule.valueOf(Point3D.ZERO, Point3D.valueOf(1, 1, 0), 1);
+            Capsule b = Capsule.valueOf(Point3D.valueOf(4, 5, 0), Point3D.valueOf(10, 10, 10), 1);
+            assertEquals(3, NarrowPhase.distance(a, b), 1e-6f);
+        }
+
+        @Test
+        void degenerate() {
+            Capsule a = Capsule.valueOf(Point3D.valueOf(0, 3, 0), Point3D.valueOf(0, 3, 0), 1);
+            Capsule b = Capsule.valueOf(Point3D.valueOf(-1, 0, 0), Point3D.valueOf(1, 0, 0), 1);
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(1, contact.distance);
+            assertNormal(0, -1, 0, contact);
+        }
+
+        @Test
+        void sameAsSampling() {
+            Random random = new Random(2);
+            for (int i = 0; i < 50; i++) {
+                Point3D p1 = Point3D.valueOf(random.nextFloat() * 4, random.nextFloat() * 4, random.nextFloat() * 4);
+                Point3D q1 = Point3D.valueOf(random.nextFloat() * 4, random.nextFloat() * 4, random.nextFloat() * 4);
+                Point3D p2 = Point3D.valueOf(random.nextFloat() * 4, random.nextFloat() * 4, random.nextFloat() * 4);
+                Point3D q2 = Point3D.valueOf(random.nextFloat() * 4, random.nextFloat() * 4, random.nextFloat() * 4);
+                double best = Double.POSITIVE_INFINITY;
+                for (int s = 0; s <= 400; s++) {
+                    for (int t = 0; t <= 400; t++) {
+                        double u = s / 400.0;
+                        double v = t / 400.0;
+                        double dx = p1.x + (q1.x - p1.x) * u - p2.x - (q2.x - p2.x) * v;
+                        double dy = p1.y + (q1.y - p1.y) * u - p2.y - (q2.y - p2.y) * v;
+                        double dz = p1.z + (q1.z - p1.z) * u - p2.z - (q2.z - p2.z) * v;
+                        best = Math.min(best, Math.sqrt(dx * dx + dy * dy + dz * dz));
+                    }
+                }
+                float distance = NarrowPhase.distance(Capsule.valueOf(p1, q1, 0.1f), Capsule.valueOf(p2, q2, 0.2f));
+                assertTrue(distance <= best - 0.3 + 1e-5);
+                assertEquals(best - 0.3, distance, 0.03);
+            }
+        }
+    }
+
+    @Nested
+    class OrientedBoxes {
+
+        @Test
+        void axisAlignedSameAsBoxes() {
+            Random random = new Random(4);
+            for (int i = 0; i < 200; i++) {
+                Box3f a = Box3f.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                        random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10);
+                Box3f b = Box3f.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                        random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10);
+                OrientedBox3f oa = OrientedBox3f.valueOf(a);
+                OrientedBox3f ob = OrientedBox3f.valueOf(b);
+                assertEquals(NarrowPhase.intersects(a, b), NarrowPhase.intersects(oa, ob));
+                Contact expected = NarrowPhase.contact(a, b);
+                if (expected.isIntersecting()) {
+                    Contact actual = NarrowPhase.contact(oa, ob);
+                    assertEquals(expected.distance, actual.distance, 1e-5f);
+                    assertEquals(expected.normal, actual.normal);
+                }
+            }
+        }
+
+        @Test
+        void rotated() {
+            Quaternion yaw = RotationTable.DEGREES.getQuaternion(Axis.XY, 45);
+            OrientedBox3f a = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1), yaw);
+            OrientedBox3f b = OrientedBox3f.valueOf(Point3D.valueOf(3, 0, 0), Point3D.valueOf(1), Quaternion.valueOf(1, 0, 0, 0));
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(2 - Math.sqrt(2), contact.distance, 1e-6f);
+            assertNormal(1, 0, 0, contact);
+            OrientedBox3f c = OrientedBox3f.valueOf(Point3D.valueOf(2, 0, 0), Point3D.valueOf(1), Quaternion.valueOf(1, 0, 0, 0));
+            assertTrue(NarrowPhase.intersects(a, c));
+            assertEquals(1 - Math.sqrt(2), NarrowPhase.distance(a, c), 1e-6f);
+        }
+
+        @Test
+        void edgeEdge() {
+            Quaternion aRotation = RotationTable.DEGREES.getQuaternion(Axis.XY, 45);
+            Quaternion bRotation = RotationTable.DEGREES.getQuaternion(Axis.ZY, 45);
+            OrientedBox3f a = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1), aRotation);
+            OrientedBox3f b = OrientedBox3f.valueOf(Point3D.valueOf(0, 3, 0), Point3D.valueOf(1), bRotation);
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(3 - 2 * Math.sqrt(2), contact.distance, 1e-5f);
+            assertNormal(0, 1, 0, contact);
+        }
+
+        @Test
+        void cornerToCorner() {
+            OrientedBox3f a = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1), Quaternion.valueOf(1, 0, 0, 0));
+            OrientedBox3f b = OrientedBox3f.valueOf(Point3D.valueOf(3, 3, 3), Point3D.valueOf(1), Quaternion.valueOf(1, 0, 0, 0));
+            Contact contact = NarrowPhase.contact(a, b);
+            assertEquals(Math.sqrt(3), contact.distance, 1e-5f);
+            float n = (float) Math.sqrt(1.0 / 3);
+            assertNormal(n, n, n, contact);
+            assertEquals(contact.distance, NarrowPhase.distance(a, b));
+        }
+
+        @Test
+        void consistentWithCorners() {
+            Random random = new Random(8);
+            for (int i = 0; i < 300; i++) {
+                OrientedBox3f a = OrientedBox3f.valueOf(Point3D.ZERO,
+                        Point3D.valueOf(random.nextFloat() + 0.1f, random.nextFloat() + 0.1f, random.nextFloat() + 0.1f), rotation(random));
+                OrientedBox3f b = OrientedBox3f.valueOf(
+                        Point3D.valueOf(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2),
+                        Point3D.valueOf(random.nextFloat() + 0.1f, random.nextFloat() + 0.1f, random.nextFloat() + 0.1f), rotation(random));
+                Contact contact = NarrowPhase.contact(a, b);
+                assertEquals(contact.isIntersecting(), NarrowPhase.intersects(a, b));
+                assertEquals(1, Math.sqrt(Point3D.squaredDistance(Point3D.ZERO, contact.normal)), 1e-5);
+                double[] pa = project(corners(a), contact.normal);
+                double[] pb = project(corners(b), contact.normal);
+                if (contact.isIntersecting()) {
+                    assertEquals(-contact.distance, pa[1] - pb[0], 1e-4);
+                } else {
+                    assertEquals(contact.distance, pb[0] - pa[1], 1e-4);
+                    double[] ca = corners(a);
+                    for (int c = 0; c < 8; c++) {
+                        assertFalse(inside(b, ca[c * 3], ca[c * 3 + 1], ca[c * 3 + 2]));
+                    }
+                }
+            }
+        }
+
+        @Test
+        void getAxis() {
+            OrientedBox3f box = OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1), Quaternion.valueOf(2, 0, 0, 2));
+            assertEquals(0, Point3D.squaredDistance(Point3D.valueOf(0, 1, 0), box.getAxis(0)), 1e-12f);
+            assertEquals(0, Point3D.squaredDistance(Point3D.valueOf(-1, 0, 0), box.getAxis(1)), 1e-12f);
+            assertEquals(0, Point3D.squaredDistance(Point3D.valueOf(0, 0, 1), box.getAxis(2)), 1e-12f);
+            assertThrows(IllegalArgumentException.class, () -> box.getAxis(3));
+        }
+
+        @Test
+        void invalid() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1, -1, 1), Quaternion.valueOf(1, 0, 0, 0)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> OrientedBox3f.valueOf(Point3D.ZERO, Point3D.valueOf(1), Quaternion.valueOf(0, 0, 0, 0)));
+        }
+    }
+
+    @Nested
+    class Batch {
+
+        @Test
+        void intersectSpheres() {
+            float[] spheres = {0, 0, 0, 1, 3, 0, 0, 1, 1.5f, 0, 0, 1};
+            int[] pairs = {0, 1, 0, 2, 1, 2, 2, 2};
+            long[] result = new long[1];
+            assertEquals(3, NarrowPhase.intersectSpheres(spheres, pairs, result));
+            assertEquals(0b1110L, result[0]);
+        }
+
+        @Test
+        void sameAsScalar() {
+            Random random = new Random(6);
+            int count = 150;
+            float[] spheres = new float[count * NarrowPhase.SPHERE_STRIDE];
+            float[] boxes = new float[count * NarrowPhase.BOX_STRIDE];
+            float[] capsules = new float[count * NarrowPhase.CAPSULE_STRIDE];
+            float[] orientedBoxes = new float[count * NarrowPhase.ORIENTED_BOX_STRIDE];
+            Sphere[] s = new Sphere[count];
+            Box3f[] b = new Box3f[count];
+            Capsule[] c = new Capsule[count];
+            OrientedBox3f[] o = new OrientedBox3f[count];
+            for (int i = 0; i < count; i++) {
+                s[i] = Sphere.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 2);
+                b[i] = Box3f.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10,
+                        random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10);
+                c[i] = Capsule.valueOf(Point3D.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10),
+                        Point3D.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10), random.nextFloat());
+                o[i] = OrientedBox3f.valueOf(Point3D.valueOf(random.nextFloat() * 10, random.nextFloat() * 10, random.nextFloat() * 10),
+                        Point3D.valueOf(random.nextFloat() * 2, random.nextFloat() * 2, random.nextFloat() * 2), rotation(random));
+                System.arraycopy(s[i].data, 0, spheres, i * NarrowPhase.SPHERE_STRIDE, NarrowPhase.SPHERE_STRIDE);
+                System.arraycopy(b[i].data, 0, boxes, i * NarrowPhase.BOX_STRIDE, NarrowPhase.BOX_STRIDE);
+                System.arraycopy(c[i].data, 0, capsules, i * NarrowPhase.CAPSULE_STRIDE, NarrowPhase.CAPSULE_STRIDE);
+                System.arraycopy(o[i].data, 0, orientedBoxes, i * NarrowPhase.ORIENTED_BOX_STRIDE, NarrowPhase.ORIENTED_BOX_STRIDE);
+            }
+            int[] pairs = new int[400];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = random.nextInt(count);
+            }
+            long[] bits = new long[RectangleBuffer.wordCount(200)];
+            float[] contacts = new float[200 * NarrowPhase.CONTACT_STRIDE];
+            int spheresIntersecting = NarrowPhase.intersectSpheres(spheres, pairs, bits);
+            assertEquals(spheresIntersecting, NarrowPhase.contactSpheres(spheres, pairs, contacts));
+            for (int p = 0; p < 200; p++) {
+                Sphere x = s[pairs[p * 2]];
+                Sphere y = s[pairs[p * 2 + 1]];
+                assertEquals(NarrowPhase.intersects(x, y), (bits[p >> 6] >>> p & 1) == 1);
+                assertContact(NarrowPhase.contact(x, y), contacts, p);
+            }
+            NarrowPhase.intersectSphereBoxes(spheres, boxes, pairs, bits);
+            NarrowPhase.contactSphereBoxes(spheres, boxes, pairs, contacts);
+            for (int p = 0; p < 200; p++) {
+                assertEquals(NarrowPhase.intersects(s[pairs[p * 2]], b[pairs[p * 2 + 1]]), (bits[p >> 6] >>> p & 1) == 1);
+                assertContact(NarrowPhase.contact(s[pairs[p * 2]], b[pairs[p * 2 + 1]]), contacts, p);
+            }
+            NarrowPhase.intersectBoxes(boxes, pairs, bits);
+            NarrowPhase.contactBoxes(boxes, pairs, contacts);
+            for (int p = 0; p < 200; p++) {
+                assertEquals(NarrowPhase.intersects(b[pairs[p * 2]], b[pairs[p * 2 + 1]]), (bits[p >> 6] >>> p & 1) == 1);
+                assertContact(NarrowPhase.contact(b[pairs[p * 2]], b[pairs[p * 2 + 1]]), contacts, p);
+            }
+            NarrowPhase.intersectCapsules(capsules, pairs, bits);
+            NarrowPhase.contactCapsules(capsules, pairs, contacts);
+            for (int p = 0; p < 200; p++) {
+                assertEquals(NarrowPhase.intersects(c[pairs[p * 2]], c[pairs[p * 2 + 1]]), (bits[p >> 6] >>> p & 1) == 1);
+                assertContact(NarrowPhase.contact(c[pairs[p * 2]], c[pairs[p * 2 + 1]]), contacts, p);
+            }
+            NarrowPhase.intersectOrientedBoxes(orientedBoxes, pairs, bits);
+            NarrowPhase.contactOrientedBoxes(orientedBoxes, pairs, contacts);
+            for (int p = 0; p < 200; p++) {
+                assertEquals(NarrowPhase.intersects(o[pairs[p * 2]], o[pairs[p * 2 + 1]]), (bits[p >> 6] >>> p & 1) == 1);
+                assertContact(NarrowPhase.contact(o[pairs[p * 2]], o[pairs[p * 2 + 1]]), contacts, p);
+            }
+        }
+
+        private void assertContact(final Contact expected, final float[] contacts, final int pair) {
+            int r = pair * NarrowPhase.CONTACT_STRIDE;
+            assertArrayEquals(new float[]{expected.normal.x, expected.normal.y, expected.normal.z, expected.distance},
+                    new float[]{contacts[r], contacts[r + 1], contacts[r + 2], contacts[r + 3]});
+        }
+
+        @Test
+        void wrongSize() {
+            assertThrows(IllegalArgumentException.class, () -> NarrowPhase.intersectBoxes(new float[12], new int[3], new long[1]));
+            assertThrows(IllegalArgumentException.class, () -> NarrowPhase.intersectBoxes(new float[12], new int[130], new long[1]));
+            assertThrows(IllegalArgumentException.class, () -> NarrowPhase.contactBoxes(new float[12], new int[4], new float[7]));
+        }
+    }
+}
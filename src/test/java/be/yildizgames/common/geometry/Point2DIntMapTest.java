@@ -0,0 +1,173 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point2DIntMapTest {
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void negativeExpected() {
+            assertThrows(IllegalArgumentException.class, () -> new Point2DIntMap(-1));
+        }
+    }
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            Point2DIntMap map = new Point2DIntMap();
+            assertTrue(map.put(1, 2, 5));
+            assertFalse(map.put(Point2D.valueOf(1, 2), 6));
+            assertEquals(1, map.size());
+            assertEquals(6, map.getOrDefault(1, 2, -1));
+        }
+
+        @Test
+        void negativeZero() {
+            Point2DIntMap map = new Point2DIntMap();
+            map.put(0.0f, -0.0f, 5);
+            assertEquals(5, map.getOrDefault(-0.0f, 0.0f, -1));
+        }
+
+        @Test
+        void grow() {
+            Point2DIntMap map = new Point2DIntMap(0);
+            for (int i = 0; i < 1000; i++) {
+                map.put(i * 0.5f, -i, i);
+            }
+            assertEquals(1000, map.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, map.getOrDefault(i * 0.5f, -i, -1));
+            }
+        }
+    }
+
+    @Nested
+    class GetOrDefault {
+
+        @Test
+        void missing() {
+            assertEquals(-1, new Point2DIntMap().getOrDefault(Point2D.ZERO, -1));
+        }
+    }
+
+    @Nested
+    class AddTo {
+
+        @Test
+        void happyFlow() {
+            Point2DIntMap map = new Point2DIntMap();
+            assertEquals(2, map.addTo(3, 4, 2));
+            assertEquals(5, map.addTo(Point2D.valueOf(3, 4), 3));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            Point2DIntMap map = new Point2DIntMap();
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i, i);
+            }
+            for (int i = 0; i < 100; i += 2) {
+                assertTrue(map.remove(i, i));
+            }
+            assertFalse(map.remove(0, 0));
+            assertEquals(50, map.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i % 2 == 0 ? -1 : i, map.getOrDefault(i, i, -1));
+            }
+        }
+    }
+
+    @Nested
+    class Values {
+
+        @Test
+        void sameOrderAsKeys() {
+            Point2DIntMap map = new Point2DIntMap();
+            map.put(1, 10, 1);
+            map.put(2, 20, 2);
+            map.put(3, 30, 3);
+            float[] keys = map.keys();
+            int[] values = map.values();
+            assertEquals(6, keys.length);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], keys[i * 2], 0);
+                assertEquals(values[i] * 10, keys[i * 2 + 1], 0);
+            }
+        }
+
+        @Test
+        void cleared() {
+            Point2DIntMap map = new Point2DIntMap();
+            map.put(1, 1, 1);
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertArrayEquals(new int[0], map.values());
+        }
+    }
+
+    @Nested
+    class GetStatistics {
+
+        @Test
+        void happyFlow() {
+            Point2DIntMap map = new Point2DIntMap(0);
+            for (int i = 0; i < 20; i++) {
+                map.put(i, i, i);
+            }
+            map.getOrDefault(100, 100, 0);
+            IndexStatistics statistics = map.getStatistics();
+            assertEquals(32, statistics.getNodeCount());
+            assertEquals(2, statistics.getRebuildCount());
+            assertArrayEquals(new int[]{12, 20}, statistics.getOccupancyHistogram());
+            int keys = 0;
+            for (int count : statistics.getDepthHistogram()) {
+                keys += count;
+            }
+            assertEquals(20, keys);
+            assertEquals(21, statistics.getQueryCount());
+            assertEquals(16 + 64 * 4 + 16 + 32 + 16 + 32 * 4, statistics.getMemoryFootprint());
+        }
+    }
+}
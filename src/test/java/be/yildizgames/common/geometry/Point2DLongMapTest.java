@@ -0,0 +1,110 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point2DLongMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            Point2DLongMap map = new Point2DLongMap();
+            assertTrue(map.put(1, 2, 5L << 40));
+            assertFalse(map.put(Point2D.valueOf(1, 2), 6));
+            assertEquals(1, map.size());
+            assertEquals(6, map.getOrDefault(1, 2, -1));
+            assertEquals(-1, map.getOrDefault(2, 1, -1));
+        }
+
+        @Test
+        void grow() {
+            Point2DLongMap map = new Point2DLongMap(0);
+            for (int i = 0; i < 1000; i++) {
+                map.put(i * 0.5f, -i, i);
+            }
+            assertEquals(1000, map.size());
+            assertTrue(map.getStatistics().getRebuildCount() > 0);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, map.getOrDefault(i * 0.5f, -i, -1));
+            }
+        }
+    }
+
+    @Nested
+    class AddTo {
+
+        @Test
+        void happyFlow() {
+            Point2DLongMap map = new Point2DLongMap();
+            assertEquals(2L << 40, map.addTo(3, 4, 2L << 40));
+            assertEquals((2L << 40) + 3, map.addTo(Point2D.valueOf(3, 4), 3));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void collision() {
+            Point2DLongMap map = new Point2DLongMap();
+            float[] keys = PointKeys.colliding(2, map.capacity(), 4);
+            for (int i = 0; i < 4; i++) {
+                map.put(keys[i * 2], keys[i * 2 + 1], i);
+            }
+            assertTrue(map.remove(keys[2], keys[3]));
+            assertFalse(map.containsKey(Point2D.valueOf(keys[2], keys[3])));
+            assertEquals(3, map.size());
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i == 1 ? -1 : i, map.getOrDefault(keys[i * 2], keys[i * 2 + 1], -1));
+            }
+        }
+    }
+
+    @Nested
+    class Clear {
+
+        @Test
+        void happyFlow() {
+            Point2DLongMap map = new Point2DLongMap();
+            map.put(1, 1, 1);
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertFalse(map.containsKey(1, 1));
+            assertArrayEquals(new long[0], map.values());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point2DObjectMapTest {
+
+    /**
+     * @return The value array of the map, to check no reference is kept.
+     */
+    private static Object[] storage(final Point2DObjectMap<?> map) throws ReflectiveOperationException {
+        Field field = Point2DObjectMap.class.getDeclaredField("values");
+        field.setAccessible(true);
+        return (Object[]) field.get(map);
+    }
+
+    private static int references(final Point2DObjectMap<?> map) throws ReflectiveOperationException {
+        int result = 0;
+        for (Object value : storage(map)) {
+            if (value != null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            Point2DObjectMap<String> map = new Point2DObjectMap<>();
+            assertNull(map.put(1, 2, "a"));
+            assertEquals("a", map.put(Point2D.valueOf(1, 2), "b"));
+            assertEquals("b", map.get(1, 2));
+            assertNull(map.get(2, 1));
+            assertTrue(map.containsKey(Point2D.valueOf(1, 2)));
+        }
+
+        @Test
+        void grow() {
+            Point2DObjectMap<Integer> map = new Point2DObjectMap<>(0);
+            for (int i = 0; i < 1000; i++) {
+                map.put(i, i * 0.5f, i);
+            }
+            assertEquals(1000, map.size());
+            assertTrue(map.getStatistics().getRebuildCount() > 0);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(Integer.valueOf(i), map.get(i, i * 0.5f));
+            }
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void collision() throws ReflectiveOperationException {
+            Point2DObjectMap<String> map = new Point2DObjectMap<>();
+            float[] keys = PointKeys.colliding(2, map.capacity(), 4);
+            for (int i = 0; i < 4; i++) {
+                map.put(keys[i * 2], keys[i * 2 + 1], "v" + i);
+            }
+            assertEquals("v0", map.remove(Point2D.valueOf(keys[0], keys[1])));
+            assertNull(map.remove(keys[0], keys[1]));
+            assertEquals(3, map.size());
+            for (int i = 1; i < 4; i++) {
+                assertEquals("v" + i, map.get(keys[i * 2], keys[i * 2 + 1]));
+            }
+            assertEquals(3, references(map));
+        }
+    }
+
+    @Nested
+    class Clear {
+
+        @Test
+        void happyFlow() throws ReflectiveOperationException {
+            Point2DObjectMap<String> map = new Point2DObjectMap<>();
+            for (int i = 0; i < 10; i++) {
+                map.put(i, i, "v" + i);
+            }
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertFalse(map.containsKey(1, 1));
+            assertEquals(0, references(map));
+        }
+    }
+}
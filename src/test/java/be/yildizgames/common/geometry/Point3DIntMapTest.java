@@ -0,0 +1,130 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point3DIntMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            Point3DIntMap map = new Point3DIntMap();
+            assertTrue(map.put(1, 2, 3, 5));
+            assertFalse(map.put(Point3D.valueOf(1, 2, 3), 6));
+            assertEquals(1, map.size());
+            assertEquals(6, map.getOrDefault(1, 2, 3, -1));
+            assertEquals(-1, map.getOrDefault(1, 2, 4, -1));
+        }
+
+        @Test
+        void nearZero() {
+            Point3DIntMap map = new Point3DIntMap();
+            Point3D point = Point3D.valueOf(1e-7f, 0, -1e-7f);
+            map.put(Point3D.ZERO, 1);
+            assertEquals(Point3D.ZERO, point);
+            assertTrue(map.containsKey(point));
+            assertEquals(1, map.getOrDefault(point, -1));
+            assertEquals(2, map.addTo(point, 1));
+            assertEquals(1, map.size());
+        }
+
+        @Test
+        void grow() {
+            Point3DIntMap map = new Point3DIntMap(0);
+            for (int i = 0; i < 1000; i++) {
+                map.put(i * 0.5f, -i, i % 7, i);
+            }
+            assertEquals(1000, map.size());
+            assertTrue(map.getStatistics().getRebuildCount() > 0);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, map.getOrDefault(i * 0.5f, -i, i % 7, -1));
+            }
+        }
+    }
+
+    @Nested
+    class AddTo {
+
+        @Test
+        void happyFlow() {
+            Point3DIntMap map = new Point3DIntMap();
+            assertEquals(2, map.addTo(3, 4, 5, 2));
+            assertEquals(5, map.addTo(Point3D.valueOf(3, 4, 5), 3));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void collision() {
+            Point3DIntMap map = new Point3DIntMap();
+            float[] keys = PointKeys.colliding(3, map.capacity(), 4);
+            for (int i = 0; i < 4; i++) {
+                map.put(keys[i * 3], keys[i * 3 + 1], keys[i * 3 + 2], i);
+            }
+            assertTrue(map.remove(keys[0], keys[1], keys[2]));
+            assertFalse(map.remove(keys[0], keys[1], keys[2]));
+            assertEquals(3, map.size());
+            for (int i = 1; i < 4; i++) {
+                assertEquals(i, map.getOrDefault(keys[i * 3], keys[i * 3 + 1], keys[i * 3 + 2], -1));
+            }
+        }
+
+        @Test
+        void nearZero() {
+            Point3DIntMap map = new Point3DIntMap();
+            map.put(0, 1, 0, 1);
+            assertTrue(map.remove(Point3D.valueOf(-1e-6f, 1, 1e-6f)));
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Nested
+    class Clear {
+
+        @Test
+        void happyFlow() {
+            Point3DIntMap map = new Point3DIntMap();
+            map.put(1, 1, 1, 1);
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertFalse(map.containsKey(1, 1, 1));
+            assertArrayEquals(new int[0], map.values());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point3DObjectMapTest {
+
+    @Nested
+    class Put {
+
+        @Test
+        void happyFlow() {
+            Point3DObjectMap<String> map = new Point3DObjectMap<>();
+            assertNull(map.put(1, 2, 3, "a"));
+            assertEquals("a", map.put(Point3D.valueOf(1, 2, 3), "b"));
+            assertEquals("b", map.get(1, 2, 3));
+            assertNull(map.get(1, 2, 4));
+            assertTrue(map.containsKey(Point3D.valueOf(1, 2, 3)));
+        }
+
+        @Test
+        void nearZero() {
+            Point3DObjectMap<String> map = new Point3DObjectMap<>();
+            map.put(Point3D.ZERO, "a");
+            assertEquals("a", map.put(Point3D.valueOf(1e-7f, 0, 0), "b"));
+            assertEquals("b", map.get(Point3D.valueOf(0, 0, -1e-7f)));
+            assertEquals(1, map.size());
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            Point3DObjectMap<String> map = new Point3DObjectMap<>(2);
+            for (int i = 0; i < 50; i++) {
+                map.put(i, 0, -i, "v" + i);
+            }
+            assertEquals("v7", map.remove(7, 0, -7));
+            assertNull(map.remove(7, 0, -7));
+            assertFalse(map.containsKey(7, 0, -7));
+            assertEquals(49, map.size());
+            assertEquals("v8", map.get(Point3D.valueOf(8, 0, -8)));
+        }
+    }
+
+    @Nested
+    class Values {
+
+        @Test
+        void sameOrderAsKeys() {
+            Point3DObjectMap<Integer> map = new Point3DObjectMap<>();
+            for (int i = 0; i < 20; i++) {
+                map.put(i, i, i, i);
+            }
+            float[] keys = map.keys();
+            Object[] values = map.values();
+            for (int i = 0; i < values.length; i++) {
+                assertEquals((int) keys[i * 3 + 2], values[i]);
+            }
+        }
+    }
+}
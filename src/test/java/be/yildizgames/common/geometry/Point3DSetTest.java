@@ -0,0 +1,106 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Point3DSetTest {
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            Point3DSet set = new Point3DSet();
+            assertTrue(set.add(1.5f, 2, 3));
+            assertFalse(set.add(Point3D.valueOf(1.5f, 2, 3)));
+            assertTrue(set.contains(1.5f, 2, 3));
+            assertFalse(set.contains(3, 2, 1.5f));
+            assertEquals(1, set.size());
+        }
+
+        @Test
+        void nearZero() {
+            Point3DSet set = new Point3DSet();
+            set.add(Point3D.ZERO);
+            assertFalse(set.add(Point3D.valueOf(1e-7f, 0, 0)));
+            assertTrue(set.contains(Point3D.valueOf(0, -1e-7f, 0)));
+        }
+
+        @Test
+        void grow() {
+            Point3DSet set = new Point3DSet(0);
+            for (int i = 0; i < 1000; i++) {
+                set.add(i, i * 0.25f, -i);
+            }
+            assertEquals(1000, set.size());
+            assertTrue(set.getStatistics().getRebuildCount() > 0);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(set.contains(i, i * 0.25f, -i));
+            }
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void collision() {
+            Point3DSet set = new Point3DSet();
+            float[] keys = PointKeys.colliding(3, set.capacity(), 5);
+            for (int i = 0; i < 5; i++) {
+                set.add(keys[i * 3], keys[i * 3 + 1], keys[i * 3 + 2]);
+            }
+            assertTrue(set.remove(Point3D.valueOf(keys[3], keys[4], keys[5])));
+            assertTrue(set.remove(keys[9], keys[10], keys[11]));
+            assertEquals(3, set.size());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i != 1 && i != 3, set.contains(keys[i * 3], keys[i * 3 + 1], keys[i * 3 + 2]));
+            }
+        }
+    }
+
+    @Nested
+    class Clear {
+
+        @Test
+        void happyFlow() {
+            Point3DSet set = new Point3DSet();
+            set.add(1, 2, 3);
+            set.clear();
+            assertTrue(set.isEmpty());
+            assertFalse(set.contains(1, 2, 3));
+            assertEquals(0, set.keys().length);
+        }
+    }
+}
@@ -222,6 +222,14 @@ final class Point3DTest {
             assertEquals(Point3D.valueOf(2, 0, 6).hashCode(), Point3D.valueOf(2, 0, 6).hashCode());
         }
 
+        @Test
+        void nearZeroConsistentWithEquals() {
+            Point3D a = Point3D.valueOf(2, 0.000001f, -0.0f);
+            Point3D b = Point3D.valueOf(2, -0.000002f, 0);
+            assertEquals(a, b);
+            assertEquals(a.hashCode(), b.hashCode());
+        }
+
     }
 
     @Nested
@@ -0,0 +1,168 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class PointCollectorsTest {
+
+    @Nested
+    class Sum3D {
+
+        @Test
+        void happyFlow() {
+            Point3D result = Stream.of(Point3D.valueOf(1, 2, 3), Point3D.valueOf(4, 5, 6)).collect(PointCollectors.sum3D());
+            assertEquals(Point3D.valueOf(5, 7, 9), result);
+        }
+
+        @Test
+        void empty() {
+            assertEquals(Point3D.ZERO, Stream.<Point3D>empty().collect(PointCollectors.sum3D()));
+        }
+
+        @Test
+        void compensated() {
+            Point3D result = IntStream.range(0, 10_000_000).parallel()
+                    .mapToObj(i -> Point3D.valueOf(0.1f, 1, 0))
+                    .collect(PointCollectors.sum3D());
+            assertEquals(1_000_000.0149, result.x, 0.1);
+            assertEquals(10_000_000, result.y, 0);
+        }
+    }
+
+    @Nested
+    class Centroid3D {
+
+        @Test
+        void happyFlow() {
+            Point3D result = Stream.of(Point3D.valueOf(1, 2, 3), Point3D.valueOf(3, 4, 5)).parallel().collect(PointCollectors.centroid3D());
+            assertEquals(Point3D.valueOf(2, 3, 4), result);
+        }
+
+        @Test
+        void empty() {
+            assertEquals(Point3D.ZERO, Stream.<Point3D>empty().collect(PointCollectors.centroid3D()));
+        }
+    }
+
+    @Nested
+    class Bounds3D {
+
+        @Test
+        void happyFlow() {
+            Point3DStatistics result = Stream.of(Point3D.valueOf(1, -2, 3), Point3D.valueOf(-4, 5, 6), Point3D.valueOf(0, 0, -1))
+                    .parallel()
+                    .collect(PointCollectors.bounds3D());
+            assertEquals(3, result.getCount());
+            assertEquals(Point3D.valueOf(-4, -2, -1), result.getMin());
+            assertEquals(Point3D.valueOf(1, 5, 6), result.getMax());
+        }
+    }
+
+    @Nested
+    class Covariance3D {
+
+        @Test
+        void happyFlow() {
+            Point3DCovariance result = Stream.of(Point3D.valueOf(0, 0, 0), Point3D.valueOf(2, 4, 0), Point3D.valueOf(4, 8, 0))
+                    .collect(PointCollectors.covariance3D());
+            assertEquals(Point3D.valueOf(2, 4, 0), result.getMean());
+            assertEquals(8.0 / 3, result.getXX(), 0.00001);
+            assertEquals(16.0 / 3, result.getXY(), 0.00001);
+            assertEquals(32.0 / 3, result.getYY(), 0.00001);
+            assertEquals(0, result.getZZ(), 0.00001);
+        }
+
+        @Test
+        void parallelSameAsSequential() {
+            Point3DCovariance sequential = IntStream.range(0, 100_000)
+                    .mapToObj(i -> Point3D.valueOf(i % 17, (i * 7) % 13, i % 5 - i % 3))
+                    .collect(PointCollectors.covariance3D());
+            Point3DCovariance parallel = IntStream.range(0, 100_000).parallel()
+                    .mapToObj(i -> Point3D.valueOf(i % 17, (i * 7) % 13, i % 5 - i % 3))
+                    .collect(PointCollectors.covariance3D());
+            double[] expected = sequential.getMatrix();
+            double[] computed = parallel.getMatrix();
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], computed[i], 0.000001);
+            }
+        }
+    }
+
+    @Nested
+    class Sum2D {
+
+        @Test
+        void happyFlow() {
+            Point2D result = Stream.of(Point2D.valueOf(1, 2), Point2D.valueOf(4, 5)).collect(PointCollectors.sum2D());
+            assertEquals(Point2D.valueOf(5, 7), result);
+        }
+    }
+
+    @Nested
+    class Centroid2D {
+
+        @Test
+        void happyFlow() {
+            Point2D result = Stream.of(Point2D.valueOf(1, 2), Point2D.valueOf(3, 4)).parallel().collect(PointCollectors.centroid2D());
+            assertEquals(Point2D.valueOf(2, 3), result);
+        }
+    }
+
+    @Nested
+    class Bounds2D {
+
+        @Test
+        void happyFlow() {
+            Point2DStatistics result = Stream.of(Point2D.valueOf(1, -2), Point2D.valueOf(-4, 5)).collect(PointCollectors.bounds2D());
+            assertEquals(Point2D.valueOf(-4, -2), result.getMin());
+            assertEquals(Point2D.valueOf(1, 5), result.getMax());
+        }
+    }
+
+    @Nested
+    class Covariance2D {
+
+        @Test
+        void happyFlow() {
+            Point2DCovariance result = Stream.of(Point2D.valueOf(0, 4), Point2D.valueOf(2, 2), Point2D.valueOf(4, 0))
+                    .parallel()
+                    .collect(PointCollectors.covariance2D());
+            assertEquals(Point2D.valueOf(2, 2), result.getMean());
+            assertEquals(8.0 / 3, result.getXX(), 0.00001);
+            assertEquals(-8.0 / 3, result.getXY(), 0.00001);
+            assertEquals(8.0 / 3, result.getYY(), 0.00001);
+        }
+    }
+}
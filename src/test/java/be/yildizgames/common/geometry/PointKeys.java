@@ -0,0 +1,67 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+/**
+ * Build keys colliding in a point hash table, to check probing and backward shift deletion.
+ *
+ * @author Gregory Van den Borre
+ */
+final class PointKeys {
+
+    private PointKeys() {
+        super();
+    }
+
+    /**
+     * Find keys sharing the same home slot, with x values counting up from 1 and the other coordinates fixed.
+     *
+     * @param dimension Number of coordinates per key, 2 or 3.
+     * @param capacity  Table capacity, a power of 2.
+     * @param count     Number of keys to find.
+     * @return The keys, dimension values per key.
+     */
+    static float[] colliding(final int dimension, final int capacity, final int count) {
+        float[] result = new float[count * dimension];
+        int slot = -1;
+        int found = 0;
+        for (int x = 1; found < count; x++) {
+            int z = dimension == 3 ? PointHashTable.bits(-2) : 0;
+            int home = PointHashTable.hash(PointHashTable.bits(x), PointHashTable.bits(0.5f), z) & (capacity - 1);
+            if (slot == -1) {
+                slot = home;
+            }
+            if (home == slot) {
+                result[found * dimension] = x;
+                result[found * dimension + 1] = 0.5f;
+                if (dimension == 3) {
+                    result[found * dimension + 2] = -2;
+                }
+                found++;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Polygon2Test {
+
+    static final float[] SQUARE = {0, 0, 10, 0, 10, 10, 0, 10};
+
+    static final float[] HOLE = {4, 4, 6, 4, 6, 6, 4, 6};
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            Polygon2 polygon = Polygon2.valueOf(SQUARE, HOLE);
+            assertEquals(2, polygon.getRingCount());
+            assertEquals(8, polygon.getVertexCount());
+            assertArrayEquals(HOLE, polygon.getRing(1));
+        }
+
+        @Test
+        void fromPoints() {
+            Polygon2 polygon = Polygon2.valueOf(Point2D.valueOf(0, 0), Point2D.valueOf(10, 0), Point2D.valueOf(10, 10), Point2D.valueOf(0, 10));
+            assertEquals(Polygon2.valueOf(SQUARE), polygon);
+        }
+
+        @Test
+        void tooFewVertices() {
+            assertThrows(IllegalArgumentException.class, () -> Polygon2.valueOf(new float[]{0, 0, 1, 1}));
+        }
+
+        @Test
+        void oddValues() {
+            assertThrows(IllegalArgumentException.class, () -> Polygon2.valueOf(SQUARE, new float[]{0, 0, 1, 1, 2}));
+        }
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void happyFlow() {
+            Polygon2 polygon = Polygon2.valueOf(SQUARE, HOLE);
+            assertTrue(polygon.contains(1, 1));
+            assertTrue(polygon.contains(Point2D.valueOf(9, 5)));
+            assertFalse(polygon.contains(5, 5));
+            assertFalse(polygon.contains(11, 5));
+        }
+
+        @Test
+        void boundary() {
+            Polygon2 polygon = Polygon2.valueOf(SQUARE);
+            assertTrue(polygon.contains(0, 0));
+            assertFalse(polygon.contains(10, 5));
+            assertFalse(polygon.contains(5, 10));
+        }
+
+        @Test
+        void concave() {
+            Polygon2 polygon = Polygon2.valueOf(new float[]{0, 0, 10, 0, 10, 10, 5, 2, 0, 10});
+            assertTrue(polygon.contains(5, 1));
+            assertFalse(polygon.contains(5, 5));
+            assertTrue(polygon.contains(1, 5));
+        }
+    }
+
+    @Nested
+    class GetArea {
+
+        @Test
+        void happyFlow() {
+            assertEquals(96, Polygon2.valueOf(SQUARE, HOLE).getArea(), 0.0001);
+        }
+    }
+}
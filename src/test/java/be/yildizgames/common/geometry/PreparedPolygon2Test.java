@@ -0,0 +1,128 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class PreparedPolygon2Test {
+
+    private static Polygon2 star(final int points) {
+        float[] ring = new float[points * 4];
+        for (int i = 0; i < points * 2; i++) {
+            double angle = Math.PI * i / points;
+            double radius = i % 2 == 0 ? 100 : 40;
+            ring[i * 2] = (float) (Math.cos(angle) * radius);
+            ring[i * 2 + 1] = (float) (Math.sin(angle) * radius);
+        }
+        return Polygon2.valueOf(ring, new float[]{-10, -10, 10, -10, 10, 10, -10, 10});
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void happyFlow() {
+            PreparedPolygon2 prepared = Polygon2.valueOf(Polygon2Test.SQUARE, Polygon2Test.HOLE).prepare();
+            assertTrue(prepared.contains(1, 1));
+            assertTrue(prepared.contains(Point2D.valueOf(0, 0)));
+            assertFalse(prepared.contains(5, 5));
+            assertFalse(prepared.contains(10, 5));
+            assertFalse(prepared.contains(Float.NaN, 5));
+        }
+
+        @Test
+        void sameAsPolygon() {
+            Polygon2 polygon = star(500);
+            PreparedPolygon2 prepared = polygon.prepare();
+            Random random = new Random(7);
+            for (int i = 0; i < 20_000; i++) {
+                float x = random.nextFloat() * 220 - 110;
+                float y = random.nextFloat() * 220 - 110;
+                assertEquals(polygon.contains(x, y), prepared.contains(x, y));
+            }
+        }
+
+        @Test
+        void indexSize() {
+            PreparedPolygon2 prepared = star(500).prepare();
+            assertTrue(prepared.getBandCount() > 1);
+            assertTrue(prepared.getEntryCount() <= 1004 * 18);
+        }
+    }
+
+    @Nested
+    class ContainsBatch {
+
+        @Test
+        void happyFlow() {
+            PreparedPolygon2 prepared = Polygon2.valueOf(Polygon2Test.SQUARE, Polygon2Test.HOLE).prepare();
+            boolean[] result = new boolean[3];
+            assertEquals(1, prepared.contains(new float[]{1, 1, 5, 5, 20, 1}, result));
+            assertTrue(result[0]);
+            assertFalse(result[1]);
+            assertFalse(result[2]);
+        }
+
+        @Test
+        void resultTooSmall() {
+            PreparedPolygon2 prepared = Polygon2.valueOf(Polygon2Test.SQUARE).prepare();
+            assertThrows(IllegalArgumentException.class, () -> prepared.contains(new float[4], new boolean[1]));
+        }
+    }
+
+    @Nested
+    class GetStatistics {
+
+        @Test
+        void happyFlow() {
+            PreparedPolygon2 prepared = Polygon2.valueOf(Polygon2Test.SQUARE).prepare();
+            prepared.contains(1, 1);
+            prepared.contains(new float[]{1, 1, 100, 100}, new boolean[2]);
+            IndexStatistics statistics = prepared.getStatistics();
+            assertEquals(prepared.getBandCount(), statistics.getNodeCount());
+            assertEquals(0, statistics.getMaxDepth());
+            assertEquals(3, statistics.getQueryCount());
+            assertEquals(4, statistics.getVisitedCount());
+            assertEquals(0, statistics.getRebuildCount());
+            assertTrue(statistics.getMemoryFootprint() > 0);
+            int leaves = 0;
+            for (int count : statistics.getOccupancyHistogram()) {
+                leaves += count;
+            }
+            assertEquals(prepared.getBandCount(), leaves);
+        }
+    }
+}
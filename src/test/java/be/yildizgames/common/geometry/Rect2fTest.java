@@ -0,0 +1,77 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Rect2fTest {
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            Rect2f rect = Rect2f.valueOf(1.5f, 2, -1, 0);
+            assertEquals(-1, rect.left, 0);
+            assertEquals(0, rect.top, 0);
+            assertEquals(2.5f, rect.getWidth(), 0);
+            assertEquals(2, rect.getHeight(), 0);
+        }
+
+        @Test
+        void toRectangle() {
+            assertEquals(new Rectangle(-1, 0, 2, 2), Rect2f.valueOf(1.5f, 2, -1, 0).toRectangle());
+            assertEquals(Rect2f.valueOf(1, 2, 3, 4), Rect2f.valueOf(Rect2i.valueOf(1, 2, 3, 4)));
+        }
+    }
+
+    @Nested
+    class Operations {
+
+        @Test
+        void intersection() {
+            Rect2f a = Rect2f.valueOf(0, 0, 1, 1);
+            assertEquals(Rect2f.valueOf(0.5f, 0.5f, 1, 1), a.intersection(Rect2f.valueOf(0.5f, 0.5f, 2, 2)));
+            assertNull(a.intersection(Rect2f.valueOf(1.5f, 0, 2, 1)));
+            assertFalse(a.intersects(Rect2f.valueOf(1.5f, 0, 2, 1)));
+        }
+
+        @Test
+        void unionAndExpand() {
+            Rect2f a = Rect2f.valueOf(0, 0, 1, 1).union(Rect2f.valueOf(2, 2, 3, 3));
+            assertEquals(Rect2f.valueOf(-0.5f, -0.5f, 3.5f, 3.5f), a.expand(0.5f));
+            assertTrue(a.contains(Rect2f.valueOf(1, 1, 2, 2)));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Rect2iTest {
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            Rect2i rect = Rect2i.valueOf(10, 20, 0, 5);
+            assertEquals(0, rect.left);
+            assertEquals(5, rect.top);
+            assertEquals(10, rect.right);
+            assertEquals(20, rect.bottom);
+            assertEquals(10, rect.getWidth());
+            assertEquals(15, rect.getHeight());
+        }
+
+        @Test
+        void fromRectangle() {
+            Rectangle rectangle = new Rectangle(5, 5, 1, 1);
+            Rect2i rect = Rect2i.valueOf(rectangle);
+            rectangle.move(100, 100);
+            assertEquals(new Rectangle(1, 1, 5, 5), rect.toRectangle());
+        }
+
+        @Test
+        void fromRect2f() {
+            assertEquals(Rect2i.valueOf(-1, 0, 3, 2), Rect2i.valueOf(Rect2f.valueOf(-0.5f, 0, 2.1f, 2)));
+        }
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void happyFlow() {
+            Rect2i rect = Rect2i.valueOf(0, 0, 10, 10);
+            assertTrue(rect.contains(10, 0));
+            assertTrue(rect.contains(Point2D.valueOf(5.5f, 5)));
+            assertFalse(rect.contains(10.1f, 0));
+            assertEquals(new Rectangle(0, 0, 10, 10).contain(10.1f, 0), rect.contains(10.1f, 0));
+        }
+
+        @Test
+        void rectangle() {
+            Rect2i rect = Rect2i.valueOf(0, 0, 10, 10);
+            assertTrue(rect.contains(Rect2i.valueOf(0, 0, 10, 5)));
+            assertFalse(rect.contains(Rect2i.valueOf(-1, 0, 10, 5)));
+        }
+    }
+
+    @Nested
+    class Intersection {
+
+        @Test
+        void happyFlow() {
+            Rect2i a = Rect2i.valueOf(0, 0, 10, 10);
+            Rect2i b = Rect2i.valueOf(5, 5, 15, 15);
+            assertTrue(a.intersects(b));
+            assertEquals(Rect2i.valueOf(5, 5, 10, 10), a.intersection(b));
+        }
+
+        @Test
+        void touching() {
+            assertEquals(Rect2i.valueOf(10, 0, 10, 10), Rect2i.valueOf(0, 0, 10, 10).intersection(Rect2i.valueOf(10, 0, 20, 10)));
+        }
+
+        @Test
+        void disjoint() {
+            assertNull(Rect2i.valueOf(0, 0, 1, 1).intersection(Rect2i.valueOf(2, 2, 3, 3)));
+        }
+    }
+
+    @Nested
+    class Union {
+
+        @Test
+        void happyFlow() {
+            assertEquals(Rect2i.valueOf(-5, 0, 10, 30), Rect2i.valueOf(0, 0, 10, 10).union(Rect2i.valueOf(-5, 20, 0, 30)));
+        }
+    }
+
+    @Nested
+    class Expand {
+
+        @Test
+        void happyFlow() {
+            assertEquals(Rect2i.valueOf(-2, -2, 12, 12), Rect2i.valueOf(0, 0, 10, 10).expand(2));
+        }
+
+        @Test
+        void shrinkToCenter() {
+            assertEquals(Rect2i.valueOf(5, 1, 5, 9), Rect2i.valueOf(0, 0, 10, 10).expand(-6, -1));
+        }
+
+        @Test
+        void translate() {
+            assertEquals(Rect2i.valueOf(1, 2, 11, 12), Rect2i.valueOf(0, 0, 10, 10).translate(1, 2));
+        }
+    }
+}
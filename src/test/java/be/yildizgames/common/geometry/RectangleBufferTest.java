@@ -0,0 +1,183 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class RectangleBufferTest {
+
+    private static RectangleBuffer buffer() {
+        RectangleBuffer buffer = new RectangleBuffer(1);
+        buffer.add(new Rectangle(0, 0, 10, 10));
+        buffer.add(new Rectangle(20, 20, 5, 5));
+        buffer.add(100, 100, 110, 110);
+        return buffer;
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            RectangleBuffer buffer = buffer();
+            assertEquals(3, buffer.size());
+            assertEquals(new Rectangle(5, 5, 20, 20), buffer.get(1));
+        }
+
+        @Test
+        void remove() {
+            RectangleBuffer buffer = buffer();
+            buffer.remove(0);
+            assertEquals(2, buffer.size());
+            assertEquals(new Rectangle(100, 100, 110, 110), buffer.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(2));
+        }
+    }
+
+    @Nested
+    class Set {
+
+        @Test
+        void happyFlow() {
+            RectangleBuffer buffer = buffer();
+            buffer.set(2, 50, 60, 40, 30);
+            assertEquals(new Rectangle(40, 30, 50, 60), buffer.get(2));
+        }
+
+        @Test
+        void outOfBounds() {
+            RectangleBuffer buffer = buffer();
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(3, 0, 0, 1, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(-1, 0, 0, 1, 1));
+        }
+    }
+
+    @Nested
+    class Containing {
+
+        @Test
+        void happyFlow() {
+            long[] result = new long[1];
+            assertEquals(2, buffer().containing(7, 5, result));
+            assertEquals(0b011L, result[0]);
+        }
+
+        @Test
+        void sameAsRectangle() {
+            Random random = new Random(1);
+            RectangleBuffer buffer = new RectangleBuffer();
+            Rectangle[] rectangles = new Rectangle[150];
+            for (int i = 0; i < rectangles.length; i++) {
+                rectangles[i] = new Rectangle(random.nextInt(100), random.nextInt(100), random.nextInt(100), random.nextInt(100));
+                buffer.add(rectangles[i]);
+            }
+            long[] result = new long[RectangleBuffer.wordCount(150)];
+            for (int p = 0; p < 200; p++) {
+                float x = random.nextFloat() * 100;
+                float y = random.nextInt(100);
+                buffer.containing(x, y, result);
+                for (int i = 0; i < rectangles.length; i++) {
+                    assertEquals(rectangles[i].contain(x, y), (result[i >>> 6] >>> i & 1) == 1);
+                }
+            }
+        }
+
+        @Test
+        void resultTooSmall() {
+            RectangleBuffer buffer = new RectangleBuffer();
+            for (int i = 0; i < 65; i++) {
+                buffer.add(0, 0, 1, 1);
+            }
+            assertThrows(IllegalArgumentException.class, () -> buffer.containing(0, 0, new long[1]));
+        }
+    }
+
+    @Nested
+    class Overlapping {
+
+        @Test
+        void happyFlow() {
+            long[] result = new long[1];
+            assertEquals(2, buffer().overlapping(new Rectangle(110, 110, 15, 15), result));
+            assertEquals(0b110L, result[0]);
+        }
+
+        @Test
+        void touching() {
+            long[] result = new long[1];
+            assertEquals(1, buffer().overlapping(new Rectangle(-5, -5, 0, 0), result));
+        }
+    }
+
+    @Nested
+    class ContainingMany {
+
+        @Test
+        void happyFlow() {
+            long[] result = new long[3];
+            assertEquals(3, buffer().containing(new float[]{7, 5, 50, 50, 105, 100}, result));
+            assertArrayEquals(new long[]{0b011L, 0, 0b100L}, result);
+        }
+
+        @Test
+        void containedPoints() {
+            long[] result = new long[1];
+            assertEquals(2, buffer().containedPoints(new float[]{7, 5, 50, 50, 105, 100}, result));
+            assertEquals(0b101L, result[0]);
+        }
+    }
+
+    @Nested
+    class GetStatistics {
+
+        @Test
+        void happyFlow() {
+            RectangleBuffer buffer = new RectangleBuffer(2);
+            for (int i = 0; i < 5; i++) {
+                buffer.add(i, i, i + 1, i + 1);
+            }
+            long[] result = new long[1];
+            buffer.containing(1, 1, result);
+            buffer.overlapping(new Rectangle(0, 0, 2, 2), result);
+            IndexStatistics statistics = buffer.getStatistics();
+            assertEquals(2, statistics.getQueryCount());
+            assertEquals(10, statistics.getVisitedCount());
+            assertEquals(5, statistics.getAverageVisited(), 0);
+            assertEquals(2, statistics.getRebuildCount());
+            assertArrayEquals(new int[]{0, 0, 0, 1}, statistics.getOccupancyHistogram());
+            assertEquals(16 * 4 + 8 * 4 * 4, statistics.getMemoryFootprint());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class RectanglePackerTest {
+
+    private static boolean overlap(final Rectangle a, final Rectangle b) {
+        return a.getLeft() < b.getRight() && b.getLeft() < a.getRight() && a.getTop() < b.getBottom() && b.getTop() < a.getBottom();
+    }
+
+    private static void assertPacked(final RectanglePacker packer, final Rectangle[] placed) {
+        for (int i = 0; i < placed.length; i++) {
+            assertNotNull(placed[i]);
+            assertTrue(placed[i].getLeft() >= 0 && placed[i].getTop() >= 0);
+            assertTrue(placed[i].getRight() <= packer.getWidth() && placed[i].getBottom() <= packer.getHeight());
+            for (int j = i + 1; j < placed.length; j++) {
+                assertFalse(overlap(placed[i], placed[j]));
+            }
+        }
+    }
+
+    private static Size2[] randomSizes(final int count) {
+        Random random = new Random(11);
+        Size2[] sizes = new Size2[count];
+        for (int i = 0; i < count; i++) {
+            sizes[i] = Size2.valueOf(2 + random.nextInt(14), 2 + random.nextInt(14));
+        }
+        return sizes;
+    }
+
+    @Nested
+    class Skyline {
+
+        @Test
+        void happyFlow() {
+            RectanglePacker packer = RectanglePacker.skyline(10, 10);
+            assertEquals(new Rectangle(0, 0, 4, 3), packer.insert(Size2.valueOf(4, 3)));
+            assertEquals(new Rectangle(4, 0, 10, 2), packer.insert(Size2.valueOf(6, 2)));
+            assertEquals(new Rectangle(4, 2, 10, 4), packer.insert(Size2.valueOf(5.5f, 2)));
+        }
+
+        @Test
+        void full() {
+            RectanglePacker packer = RectanglePacker.skyline(10, 10);
+            assertNotNull(packer.insert(Size2.valueOf(10, 6)));
+            assertNull(packer.insert(Size2.valueOf(5, 5)));
+            assertNotNull(packer.insert(Size2.valueOf(5, 4)));
+            assertNull(packer.insert(Size2.valueOf(11, 1)));
+        }
+
+        @Test
+        void batch() {
+            RectanglePacker packer = RectanglePacker.skyline(256, 256);
+            Rectangle[] placed = packer.insertAll(randomSizes(500));
+            assertPacked(packer, placed);
+            assertTrue(packer.getOccupancy() > 0.5f);
+        }
+    }
+
+    @Nested
+    class MaxRects {
+
+        @Test
+        void happyFlow() {
+            RectanglePacker packer = RectanglePacker.maxRects(10, 10);
+            assertEquals(new Rectangle(0, 0, 10, 6), packer.insert(Size2.valueOf(10, 6)));
+            assertEquals(new Rectangle(0, 6, 4, 10), packer.insert(Size2.valueOf(4, 4)));
+            assertEquals(new Rectangle(4, 6, 10, 10), packer.insert(Size2.valueOf(6, 4)));
+            assertNull(packer.insert(Size2.valueOf(1, 1)));
+            assertEquals(1, packer.getOccupancy(), 0.0001);
+        }
+
+        @Test
+        void incremental() {
+            RectanglePacker packer = RectanglePacker.maxRects(256, 256);
+            Size2[] sizes = randomSizes(500);
+            Rectangle[] placed = new Rectangle[sizes.length];
+            for (int i = 0; i < sizes.length; i++) {
+                placed[i] = packer.insert(sizes[i]);
+            }
+            assertPacked(packer, placed);
+        }
+
+        @Test
+        void batch() {
+            RectanglePacker packer = RectanglePacker.maxRects(256, 256);
+            Rectangle[] placed = packer.insertAll(randomSizes(500));
+            assertPacked(packer, placed);
+        }
+    }
+
+    @Nested
+    class Insert {
+
+        @Test
+        void negativeSize() {
+            RectanglePacker packer = RectanglePacker.skyline(10, 10);
+            assertThrows(IllegalArgumentException.class, () -> packer.insert(Size2.valueOf(-1, 2)));
+        }
+
+        @Test
+        void emptySize() {
+            assertEquals(new Rectangle(0, 0, 0, 3), RectanglePacker.maxRects(10, 10).insert(Size2.valueOf(0, 3)));
+        }
+
+        @Test
+        void invalidBin() {
+            assertThrows(IllegalArgumentException.class, () -> RectanglePacker.skyline(0, 10));
+        }
+    }
+}
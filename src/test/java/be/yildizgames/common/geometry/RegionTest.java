@@ -0,0 +1,162 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class RegionTest {
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            Region region = Region.valueOf(new Rectangle(10, 20, 0, 5));
+            assertArrayEquals(new Rectangle[]{new Rectangle(0, 5, 10, 20)}, region.getRectangles());
+            assertEquals(150, region.getArea());
+        }
+
+        @Test
+        void emptyRectangle() {
+            assertSame(Region.EMPTY, Region.valueOf(new Rectangle(3, 3, 3, 10)));
+        }
+
+        @Test
+        void rect2i() {
+            Rect2i rectangle = Rect2i.valueOf(0, 0, 10, 5);
+            Region region = Region.valueOf(rectangle);
+            assertEquals(50, region.getArea());
+            assertTrue(rectangle.contains(10, 2));
+            assertFalse(region.contains(10, 2));
+            assertTrue(region.contains(9, 4));
+            assertSame(Region.EMPTY, Region.valueOf(Rect2i.valueOf(3, 0, 3, 10)));
+        }
+
+        @Test
+        void coalesced() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 10, 5), new Rectangle(0, 5, 10, 10), new Rectangle(10, 0, 20, 10));
+            assertArrayEquals(new Rectangle[]{new Rectangle(0, 0, 20, 10)}, region.getRectangles());
+        }
+    }
+
+    @Nested
+    class Union {
+
+        @Test
+        void happyFlow() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 10, 10)).union(new Rectangle(5, 5, 15, 15));
+            assertArrayEquals(new Rectangle[]{
+                    new Rectangle(0, 0, 10, 5),
+                    new Rectangle(0, 5, 15, 10),
+                    new Rectangle(5, 10, 15, 15)}, region.getRectangles());
+            assertEquals(175, region.getArea());
+            assertEquals(new Rectangle(0, 0, 15, 15), region.getBounds());
+        }
+
+        @Test
+        void disjoint() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 2, 2)).union(new Rectangle(4, 0, 6, 2));
+            assertEquals(2, region.getRectangleCount());
+        }
+
+        @Test
+        void withEmpty() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 2, 2));
+            assertSame(region, region.union(Region.EMPTY));
+        }
+    }
+
+    @Nested
+    class Intersection {
+
+        @Test
+        void happyFlow() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 10, 10)).intersection(Region.valueOf(new Rectangle(5, 5, 15, 15)));
+            assertEquals(Region.valueOf(new Rectangle(5, 5, 10, 10)), region);
+        }
+
+        @Test
+        void disjoint() {
+            assertTrue(Region.valueOf(new Rectangle(0, 0, 2, 2)).intersection(Region.valueOf(new Rectangle(2, 0, 4, 2))).isEmpty());
+        }
+    }
+
+    @Nested
+    class Subtract {
+
+        @Test
+        void happyFlow() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 9, 9)).subtract(Region.valueOf(new Rectangle(3, 3, 6, 6)));
+            assertArrayEquals(new Rectangle[]{
+                    new Rectangle(0, 0, 9, 3),
+                    new Rectangle(0, 3, 3, 6),
+                    new Rectangle(6, 3, 9, 6),
+                    new Rectangle(0, 6, 9, 9)}, region.getRectangles());
+            assertEquals(72, region.getArea());
+        }
+
+        @Test
+        void everything() {
+            Region region = Region.valueOf(new Rectangle(2, 2, 4, 4));
+            assertTrue(region.subtract(Region.valueOf(new Rectangle(0, 0, 10, 10))).isEmpty());
+        }
+
+        @Test
+        void restoredByUnion() {
+            Region full = Region.valueOf(new Rectangle(0, 0, 9, 9));
+            Region hole = Region.valueOf(new Rectangle(3, 3, 6, 6));
+            assertEquals(full, full.subtract(hole).union(hole));
+        }
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void happyFlow() {
+            Region region = Region.valueOf(new Rectangle(0, 0, 9, 9)).subtract(Region.valueOf(new Rectangle(3, 3, 6, 6)));
+            assertTrue(region.contains(0, 0));
+            assertTrue(region.contains(7, 4));
+            assertFalse(region.contains(4, 4));
+            assertFalse(region.contains(9, 0));
+            assertFalse(region.contains(0, -1));
+        }
+
+        @Test
+        void empty() {
+            assertFalse(Region.EMPTY.contains(0, 0));
+        }
+    }
+}
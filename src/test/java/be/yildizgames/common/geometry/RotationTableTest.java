@@ -0,0 +1,165 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class RotationTableTest {
+
+    /**
+     * Rotate a vector with a quaternion: q * v * conjugate(q).
+     */
+    private static Point3D rotate(final Quaternion q, final Point3D v) {
+        Quaternion r = q.multiply(Quaternion.valueOf(0, v.x, v.y, v.z)).multiply(Quaternion.valueOf(q.w, -q.x, -q.y, -q.z));
+        return Point3D.valueOf(r.x, r.y, r.z);
+    }
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            assertEquals(8, RotationTable.valueOf(8).getSteps());
+            assertSame(RotationTable.DEGREES, RotationTable.valueOf(360));
+        }
+
+        @Test
+        void notPositive() {
+            assertThrows(IllegalArgumentException.class, () -> RotationTable.valueOf(0));
+            assertThrows(IllegalArgumentException.class, () -> RotationTable.valueOf(-4));
+        }
+    }
+
+    @Nested
+    class Index {
+
+        @Test
+        void degree() {
+            RotationTable table = RotationTable.valueOf(8);
+            assertEquals(2, table.index(Degree.valueOf(90)));
+            assertEquals(1, table.index(Degree.valueOf(40)));
+            assertEquals(7, table.index(Degree.valueOf(-45)));
+            assertEquals(0, table.index(Degree.valueOf(720)));
+        }
+
+        @Test
+        void radian() {
+            assertEquals(180, RotationTable.DEGREES.index(Radian.valueOf((float) Math.PI)));
+            assertEquals(270, RotationTable.DEGREES.index(Radian.valueOf((float) -Math.PI / 2)));
+            assertEquals(57, RotationTable.DEGREES.index(Radian.valueOf(1)));
+        }
+
+        @Test
+        void getDegree() {
+            assertEquals(22.5f, RotationTable.valueOf(16).getDegree(1).angle);
+            assertEquals(315, RotationTable.valueOf(8).getDegree(-1).angle);
+        }
+    }
+
+    @Nested
+    class CosSin {
+
+        @Test
+        void happyFlow() {
+            for (int i = 0; i < 360; i++) {
+                assertEquals((float) Math.cos(Math.toRadians(i)), RotationTable.DEGREES.cos(i), 1e-7f);
+                assertEquals((float) Math.sin(Math.toRadians(i)), RotationTable.DEGREES.sin(i), 1e-7f);
+            }
+        }
+
+        @Test
+        void exactQuarterTurns() {
+            RotationTable table = RotationTable.DEGREES;
+            assertEquals(0, table.cos(90));
+            assertEquals(-1, table.cos(180));
+            assertEquals(0, table.sin(180));
+            assertEquals(-1, table.sin(270));
+            assertEquals(1, table.cos(360));
+            assertEquals(-1, table.sin(-90));
+        }
+    }
+
+    @Nested
+    class GetQuaternion {
+
+        @Test
+        void happyFlow() {
+            Quaternion q = RotationTable.DEGREES.getQuaternion(Axis.XY, 60);
+            assertEquals((float) Math.cos(Math.PI / 6), q.w, 1e-7f);
+            assertEquals(0.5f, q.z, 1e-7f);
+            assertEquals(1, q.w * q.w + q.x * q.x + q.y * q.y + q.z * q.z, 1e-6f);
+        }
+
+        @Test
+        void sameInstance() {
+            RotationTable table = RotationTable.valueOf(24);
+            assertSame(table.getQuaternion(Axis.XZ, 3), table.getQuaternion(Axis.XZ, Degree.valueOf(45)));
+            assertSame(table.getQuaternion(Axis.ZY, 23), table.getQuaternion(Axis.ZY, Radian.valueOf((float) -Math.PI / 12)));
+        }
+
+        @Test
+        void followsGetAngle() {
+            Point3D v = Point3D.valueOf(1, 2, 3);
+            for (Axis axis : Axis.values()) {
+                Point3D rotated = rotate(RotationTable.DEGREES.getQuaternion(axis, 10), v);
+                assertEquals(v.getAngle(axis) + Math.toRadians(10), rotated.getAngle(axis), 1e-5);
+            }
+        }
+
+        @Test
+        void halfTurn() {
+            Quaternion q = RotationTable.DEGREES.getQuaternion(Axis.XY, 180);
+            assertEquals(0, q.w);
+            assertEquals(1, q.z);
+        }
+    }
+
+    @Nested
+    class Rotate {
+
+        @Test
+        void happyFlow() {
+            float[] coordinates = {1, 0, 0, 2};
+            RotationTable.valueOf(4).rotate(1, coordinates);
+            assertArrayEquals(new float[]{0, 1, -2, 0}, coordinates);
+        }
+
+        @Test
+        void point() {
+            Point2D p = RotationTable.valueOf(8).rotate(-2, Point2D.valueOf(3, 4));
+            assertEquals(4, p.x);
+            assertEquals(-3, p.y);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class Segment2Test {
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            Segment2 segment = Segment2.valueOf(Point2D.valueOf(0, 0), Point2D.valueOf(3, 4));
+            assertEquals(Point2D.valueOf(3, 4), segment.end);
+            assertEquals(5, segment.length(), 0.0001);
+            assertEquals(Segment2.valueOf(0, 0, 3, 4), segment);
+        }
+
+        @Test
+        void withNull() {
+            assertThrows(NullPointerException.class, () -> Segment2.valueOf(null, Point2D.ZERO));
+        }
+    }
+
+    @Nested
+    class Intersects {
+
+        @Test
+        void happyFlow() {
+            assertTrue(Segment2.valueOf(0, 0, 2, 2).intersects(Segment2.valueOf(0, 2, 2, 0)));
+            assertFalse(Segment2.valueOf(0, 0, 1, 1).intersects(Segment2.valueOf(0, 1, 1, 2)));
+        }
+
+        @Test
+        void touchingEnd() {
+            assertTrue(Segment2.valueOf(0, 0, 1, 1).intersects(Segment2.valueOf(1, 1, 2, 0)));
+            assertTrue(Segment2.valueOf(0, 0, 2, 0).intersects(Segment2.valueOf(1, 0, 1, 5)));
+        }
+
+        @Test
+        void collinear() {
+            assertTrue(Segment2.valueOf(0, 0, 2, 0).intersects(Segment2.valueOf(1, 0, 3, 0)));
+            assertFalse(Segment2.valueOf(0, 0, 1, 0).intersects(Segment2.valueOf(2, 0, 3, 0)));
+        }
+    }
+
+    @Nested
+    class Intersection {
+
+        @Test
+        void happyFlow() {
+            assertEquals(Point2D.valueOf(1, 1), Segment2.valueOf(0, 0, 2, 2).intersection(Segment2.valueOf(0, 2, 2, 0)));
+        }
+
+        @Test
+        void overlap() {
+            assertEquals(Point2D.valueOf(1, 0), Segment2.valueOf(3, 0, 0, 0).intersection(Segment2.valueOf(1, 0, 5, 0)));
+        }
+
+        @Test
+        void none() {
+            assertNull(Segment2.valueOf(0, 0, 1, 0).intersection(Segment2.valueOf(0, 1, 1, 1)));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class SegmentIntersectionsTest {
+
+    private static int[] bruteForce(final float[] c) {
+        int[] result = new int[0];
+        for (int i = 0; i < c.length / 4; i++) {
+            for (int j = i + 1; j < c.length / 4; j++) {
+                if (Segment2.intersects(c[i * 4], c[i * 4 + 1], c[i * 4 + 2], c[i * 4 + 3], c[j * 4], c[j * 4 + 1], c[j * 4 + 2], c[j * 4 + 3])) {
+                    result = Arrays.copyOf(result, result.length + 2);
+                    result[result.length - 2] = i;
+                    result[result.length - 1] = j;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nested
+    class FindAll {
+
+        @Test
+        void happyFlow() {
+            Segment2[] segments = {
+                    Segment2.valueOf(0, 0, 4, 4),
+                    Segment2.valueOf(0, 4, 4, 0),
+                    Segment2.valueOf(5, 0, 5, 4),
+                    Segment2.valueOf(0, 1, 4, 1)};
+            assertArrayEquals(new int[]{0, 1, 0, 3, 1, 3}, SegmentIntersections.findAll(segments));
+        }
+
+        @Test
+        void touchingAndCollinear() {
+            float[] coordinates = {
+                    0, 0, 2, 0,
+                    2, 0, 2, 2,
+                    1, 0, 3, 0,
+                    5, 5, 5, 5,
+                    5, 4, 5, 6};
+            assertArrayEquals(new int[]{0, 1, 0, 2, 1, 2, 3, 4}, SegmentIntersections.findAll(coordinates));
+        }
+
+        @Test
+        void concurrent() {
+            float[] coordinates = new float[4 * 12];
+            for (int i = 0; i < 12; i++) {
+                double angle = Math.PI * i / 12;
+                coordinates[i * 4] = (float) Math.cos(angle) * 10;
+                coordinates[i * 4 + 1] = (float) Math.sin(angle) * 10;
+                coordinates[i * 4 + 2] = -coordinates[i * 4];
+                coordinates[i * 4 + 3] = -coordinates[i * 4 + 1];
+            }
+            assertEquals(66 * 2, SegmentIntersections.findAll(coordinates).length);
+        }
+
+        @Test
+        void sameAsBruteForce() {
+            Random random = new Random(3);
+            for (int test = 0; test < 200; test++) {
+                float[] coordinates = new float[4 * 30];
+                for (int i = 0; i < coordinates.length; i++) {
+                    coordinates[i] = test % 2 == 0 ? random.nextFloat() * 100 : random.nextInt(5);
+                }
+                assertArrayEquals(bruteForce(coordinates), SegmentIntersections.findAll(coordinates));
+            }
+        }
+
+        @Test
+        void wrongLength() {
+            assertThrows(IllegalArgumentException.class, () -> SegmentIntersections.findAll(new float[6]));
+        }
+    }
+
+    @Nested
+    class Any {
+
+        @Test
+        void happyFlow() {
+            assertTrue(SegmentIntersections.any(new Segment2[]{Segment2.valueOf(0, 0, 2, 2), Segment2.valueOf(0, 2, 2, 0)}));
+            assertFalse(SegmentIntersections.any(new Segment2[]{Segment2.valueOf(0, 0, 2, 0), Segment2.valueOf(0, 1, 2, 1)}));
+        }
+
+        @Test
+        void findAny() {
+            float[] coordinates = {0, 0, 1, 0, 0, 5, 1, 5, 0, 9, 1, 10, 1, 0, 1, -1};
+            assertArrayEquals(new int[]{0, 3}, SegmentIntersections.findAny(coordinates));
+        }
+
+        @Test
+        void empty() {
+            assertEquals(0, SegmentIntersections.findAny(new float[0]).length);
+        }
+    }
+}
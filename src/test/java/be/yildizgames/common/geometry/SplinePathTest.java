@@ -0,0 +1,178 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class SplinePathTest {
+
+    private static void assertPoint(final float x, final float y, final float z, final Point3D point, final float delta) {
+        assertEquals(x, point.x, delta);
+        assertEquals(y, point.y, delta);
+        assertEquals(z, point.z, delta);
+    }
+
+    @Nested
+    class CatmullRom {
+
+        @Test
+        void happyFlow() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(10, 0, 0), Point3D.valueOf(20, 0, 0));
+            assertEquals(2, path.getSegmentCount());
+            assertEquals(20, path.getLength(), 0.001f);
+            assertPoint(5, 0, 0, path.getPoint(5), 0.001f);
+            assertPoint(17.5f, 0, 0, path.getPoint(17.5f), 0.001f);
+        }
+
+        @Test
+        void throughWaypoints() {
+            Point3D[] waypoints = {Point3D.ZERO, Point3D.valueOf(10, 0, 0), Point3D.valueOf(10, 0, 10), Point3D.valueOf(0, 5, 10)};
+            SplinePath path = SplinePath.catmullRom(waypoints);
+            float[] point = new float[3];
+            int found = 0;
+            for (int i = 0; i <= 10_000; i++) {
+                path.getPoint(path.getLength() * i / 10_000, point, 0);
+                for (Point3D waypoint : waypoints) {
+                    float dx = point[0] - waypoint.x;
+                    float dy = point[1] - waypoint.y;
+                    float dz = point[2] - waypoint.z;
+                    if (dx * dx + dy * dy + dz * dz < 0.0001f) {
+                        found |= 1 << Arrays.asList(waypoints).indexOf(waypoint);
+                    }
+                }
+            }
+            assertEquals(0b1111, found);
+            assertTrue(path.getLength() > 30);
+        }
+
+        @Test
+        void repeatedPoint() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.ZERO, Point3D.valueOf(0, 4, 0));
+            assertEquals(4, path.getLength(), 0.01f);
+            assertPoint(0, 2, 0, path.getPoint(2), 0.01f);
+        }
+
+        @Test
+        void tooFewPoints() {
+            assertThrows(IllegalArgumentException.class, () -> SplinePath.catmullRom(Point3D.ZERO));
+        }
+
+        @Test
+        void invalidSamples() {
+            assertThrows(IllegalArgumentException.class, () -> SplinePath.catmullRom(new float[6], 0));
+        }
+    }
+
+    @Nested
+    class Bezier {
+
+        @Test
+        void happyFlow() {
+            SplinePath path = SplinePath.bezier(Point3D.ZERO, Point3D.valueOf(0, 0, 3), Point3D.valueOf(0, 0, 6), Point3D.valueOf(0, 0, 9));
+            assertEquals(1, path.getSegmentCount());
+            assertEquals(9, path.getLength(), 0.001f);
+            assertPoint(0, 0, 4, path.getPoint(4), 0.001f);
+        }
+
+        @Test
+        void circle() {
+            float k = 0.5522848f;
+            float[] controls = {
+                    1, 0, 0, 1, k, 0, k, 1, 0,
+                    0, 1, 0, -k, 1, 0, -1, k, 0,
+                    -1, 0, 0, -1, -k, 0, -k, -1, 0,
+                    0, -1, 0, k, -1, 0, 1, -k, 0,
+                    1, 0, 0};
+            SplinePath path = SplinePath.bezier(controls, 64);
+            assertEquals(2 * Math.PI, path.getLength(), 0.002);
+            Point3D quarter = path.getPoint(path.getLength() / 4);
+            assertPoint(0, 1, 0, quarter, 0.001f);
+        }
+
+        @Test
+        void wrongCount() {
+            assertThrows(IllegalArgumentException.class, () -> SplinePath.bezier(new float[15], 8));
+        }
+    }
+
+    @Nested
+    class GetPoint {
+
+        @Test
+        void clamped() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(3, 4, 0));
+            assertPoint(0, 0, 0, path.getPoint(-1), 0);
+            assertPoint(3, 4, 0, path.getPoint(100), 0.0001f);
+            assertPoint(0, 0, 0, path.getPoint(Float.NaN), 0);
+        }
+    }
+
+    @Nested
+    class GetDirection {
+
+        @Test
+        void happyFlow() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(3, 4, 0));
+            float[] direction = new float[3];
+            path.getDirection(2, direction, 0);
+            assertArrayEquals(new float[]{0.6f, 0.8f, 0}, direction, 0.0001f);
+        }
+    }
+
+    @Nested
+    class Sample {
+
+        @Test
+        void happyFlow() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(10, 0, 0), Point3D.valueOf(10, 10, 0));
+            float[] distances = {0, 3, 12, 50};
+            float[] result = new float[12];
+            path.sample(distances, result);
+            for (int i = 0; i < distances.length; i++) {
+                Point3D point = path.getPoint(distances[i]);
+                assertEquals(point.x, result[i * 3], 0);
+                assertEquals(point.y, result[i * 3 + 1], 0);
+                assertEquals(point.z, result[i * 3 + 2], 0);
+            }
+        }
+
+        @Test
+        void resultTooSmall() {
+            SplinePath path = SplinePath.catmullRom(Point3D.ZERO, Point3D.valueOf(10, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> path.sample(new float[2], new float[5]));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class TransformHierarchyTest {
+
+    /**
+     * Rotation of 90 degrees around the y axis.
+     */
+    private static final Quaternion QUARTER_Y = Quaternion.valueOf((float) Math.sqrt(0.5), 0, (float) Math.sqrt(0.5), 0);
+
+    private static void assertPoint(final float x, final float y, final float z, final Point3D point) {
+        assertEquals(x, point.x, 0.0001f);
+        assertEquals(y, point.y, 0.0001f);
+        assertEquals(z, point.z, 0.0001f);
+    }
+
+    @Nested
+    class Constructor {
+
+        @Test
+        void happyFlow() {
+            TransformHierarchy hierarchy = new TransformHierarchy(new int[]{-1, 0, 1, 0, -1, 4});
+            assertEquals(6, hierarchy.size());
+            assertEquals(3, hierarchy.getDepthCount());
+            assertEquals(2, hierarchy.getDepth(2));
+            assertEquals(0, hierarchy.getDepth(4));
+            assertEquals(1, hierarchy.getParent(2));
+            assertEquals(-1, hierarchy.getParent(4));
+            assertTrue(hierarchy.isDirty(5));
+        }
+
+        @Test
+        void parentAfterChild() {
+            assertThrows(IllegalArgumentException.class, () -> new TransformHierarchy(new int[]{1, -1}));
+        }
+
+        @Test
+        void empty() {
+            TransformHierarchy hierarchy = new TransformHierarchy(new int[0]);
+            assertEquals(0, hierarchy.getDepthCount());
+            assertEquals(0, hierarchy.update());
+        }
+    }
+
+    @Nested
+    class Update {
+
+        @Test
+        void happyFlow() {
+            TransformHierarchy hierarchy = new TransformHierarchy(new int[]{-1, 0, 1});
+            hierarchy.setLocalPosition(0, 10, 0, 0);
+            hierarchy.setLocalRotation(0, QUARTER_Y);
+            hierarchy.setLocalPosition(1, Point3D.valueOf(1, 0, 0));
+            hierarchy.setLocalPosition(2, 0, 2, 0);
+            assertEquals(3, hierarchy.update());
+            assertPoint(10, 0, 0, hierarchy.getWorldPosition(0));
+            assertPoint(10, 0, -1, hierarchy.getWorldPosition(1));
+            assertPoint(10, 2, -1, hierarchy.getWorldPosition(2));
+            Quaternion rotation = hierarchy.getWorldRotation(2);
+            assertEquals(QUARTER_Y.w, rotation.w, 0.0001f);
+            assertEquals(QUARTER_Y.y, rotation.y, 0.0001f);
+            float[] position = new float[4];
+            hierarchy.getWorldPosition(1, position, 1);
+            assertArrayEquals(new float[]{0, 10, 0, -1}, position, 0.0001f);
+        }
+
+        @Test
+        void onlyDirtySubtree() {
+            TransformHierarchy hierarchy = new TransformHierarchy(new int[]{-1, 0, 0, 1, 2, 4});
+            hierarchy.update();
+            assertEquals(0, hierarchy.update());
+            hierarchy.setLocalPosition(2, 0, 0, 5);
+            assertTrue(hierarchy.isDirty(2));
+            assertEquals(3, hierarchy.update());
+            assertFalse(hierarchy.isDirty(2));
+            assertPoint(0, 0, 5, hierarchy.getWorldPosition(5));
+            assertPoint(0, 0, 0, hierarchy.getWorldPosition(3));
+        }
+
+        @Test
+        void scatteredDirtyNodes() {
+            Random random = new Random(8);
+            int count = 2_000;
+            int[] parents = new int[count];
+            for (int i = 0; i < count; i++) {
+                parents[i] = i < 3 ? -1 : random.nextInt(i);
+            }
+            TransformHierarchy incremental = new TransformHierarchy(parents);
+            incremental.update();
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 5; i++) {
+                    int node = random.nextInt(count);
+                    incremental.setLocalPosition(node, Point3D.valueOf(random.nextFloat(), random.nextFloat(), random.nextFloat()));
+                    float angle = random.nextFloat();
+                    incremental.setLocalRotation(node, Quaternion.valueOf((float) Math.cos(angle), (float) Math.sin(angle), 0, 0));
+                }
+                incremental.update();
+                TransformHierarchy full = new TransformHierarchy(parents);
+                for (int i = 0; i < count; i++) {
+                    full.setLocalPosition(i, incremental.getLocalPosition(i));
+                    full.setLocalRotation(i, incremental.getLocalRotation(i));
+                }
+                full.update();
+                for (int i = 0; i < count; i++) {
+                    assertEquals(full.getWorldPosition(i), incremental.getWorldPosition(i));
+                }
+            }
+        }
+
+        @Test
+        void parallelSameAsSequential() {
+            Random random = new Random(5);
+            int count = 50_000;
+            int[] parents = new int[count];
+            for (int i = 0; i < count; i++) {
+                parents[i] = i < 4 ? -1 : random.nextInt(i);
+            }
+            TransformHierarchy sequential = new TransformHierarchy(parents);
+            TransformHierarchy parallel = new TransformHierarchy(parents);
+            for (int i = 0; i < count; i++) {
+                Point3D position = Point3D.valueOf(random.nextFloat(), random.nextFloat(), random.nextFloat());
+                float angle = random.nextFloat();
+                Quaternion rotation = Quaternion.valueOf((float) Math.cos(angle), 0, 0, (float) Math.sin(angle));
+                sequential.setLocalPosition(i, position);
+                sequential.setLocalRotation(i, rotation);
+                parallel.setLocalPosition(i, position);
+                parallel.setLocalRotation(i, rotation);
+            }
+            assertEquals(count, sequential.update());
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                assertEquals(count, parallel.update(pool));
+            } finally {
+                pool.shutdown();
+            }
+            for (int i = 0; i < count; i += 97) {
+                assertEquals(sequential.getWorldPosition(i), parallel.getWorldPosition(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class VertexWelderTest {
+
+    @Nested
+    class Weld {
+
+        @Test
+        void happyFlow() {
+            float[] coordinates = {
+                    0, 0, 0,
+                    1, 0, 0,
+                    0.05f, 0, 0,
+                    1, 0.08f, 0,
+                    5, 5, 5};
+            VertexWelder welder = VertexWelder.weld(coordinates, 0.1f);
+            assertEquals(3, welder.getVertexCount());
+            assertArrayEquals(new int[]{0, 1, 0, 1, 2}, welder.getRemap());
+            assertArrayEquals(new float[]{0, 0, 0, 1, 0, 0, 5, 5, 5}, welder.getCoordinates());
+        }
+
+        @Test
+        void acrossCells() {
+            VertexWelder welder = VertexWelder.weld(new float[]{0.199f, -0.001f, 0, 0.201f, 0.001f, 0}, 0.1f);
+            assertEquals(1, welder.getVertexCount());
+        }
+
+        @Test
+        void points() {
+            VertexWelder welder = VertexWelder.weld(new Point3D[]{Point3D.valueOf(1, 2, 3), Point3D.valueOf(1, 2, 3.5f)}, 0.5f);
+            assertEquals(1, welder.getVertexCount());
+            assertEquals(Point3D.valueOf(1, 2, 3), welder.getVertex(0));
+        }
+
+        @Test
+        void exact() {
+            VertexWelder welder = VertexWelder.weld(new float[]{0, 1, 2, -0.0f, 1, 2, 0, 1, 2.0001f}, 0);
+            assertArrayEquals(new int[]{0, 0, 1}, welder.getRemap());
+        }
+
+        @Test
+        void parallel() {
+            int count = 300_000;
+            float[] coordinates = new float[count * 3];
+            for (int i = 0; i < count; i++) {
+                coordinates[i * 3] = i % 1000;
+                coordinates[i * 3 + 1] = (i % 1000) * 0.5f;
+                coordinates[i * 3 + 2] = (i / 1000) % 2 * 0.001f;
+            }
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                VertexWelder welder = VertexWelder.weld(coordinates, 0.01f, pool);
+                assertEquals(1000, welder.getVertexCount());
+                assertEquals(7, welder.getRemap(123_007));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        void negativeTolerance() {
+            assertThrows(IllegalArgumentException.class, () -> VertexWelder.weld(new float[3], -1));
+        }
+
+        @Test
+        void wrongLength() {
+            assertThrows(IllegalArgumentException.class, () -> VertexWelder.weld(new float[4], 1));
+        }
+    }
+
+    @Nested
+    class RemapIndexes {
+
+        @Test
+        void happyFlow() {
+            VertexWelder welder = VertexWelder.weld(new float[]{0, 0, 0, 1, 1, 1, 0, 0, 0}, 0);
+            int[] triangles = {0, 1, 2, 2, 1, 0};
+            welder.remapIndexes(triangles);
+            assertArrayEquals(new int[]{0, 1, 0, 0, 1, 0}, triangles);
+        }
+    }
+}
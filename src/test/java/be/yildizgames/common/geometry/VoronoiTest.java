@@ -0,0 +1,89 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class VoronoiTest {
+
+    private static double area(final float[] polygon) {
+        double area = 0;
+        for (int i = 0; i < polygon.length; i += 2) {
+            int j = (i + 2) % polygon.length;
+            area += polygon[i] * polygon[j + 1] - polygon[j] * polygon[i + 1];
+        }
+        return area / 2;
+    }
+
+    @Nested
+    class Build {
+
+        @Test
+        void happyFlow() {
+            Voronoi voronoi = Delaunay.triangulate(new float[]{1, 1, 3, 1, 1, 3, 3, 3}).voronoi(new Rectangle(0, 0, 4, 4));
+            assertEquals(4, voronoi.getCellCount());
+            assertEquals(4, voronoi.getVertexCount(0));
+            assertArrayEquals(new float[]{0, 0, 2, 0, 2, 2, 0, 2}, voronoi.getCell(0));
+        }
+
+        @Test
+        void cellsCoverBounds() {
+            float[] coordinates = new float[2 * 10 * 10];
+            for (int i = 0; i < 100; i++) {
+                coordinates[i * 2] = (i % 10) + (i / 10) * 0.1f;
+                coordinates[i * 2 + 1] = i / 10;
+            }
+            Voronoi voronoi = Delaunay.triangulate(coordinates).voronoi(new Rectangle(-1, -1, 12, 10));
+            double total = 0;
+            for (int i = 0; i < voronoi.getCellCount(); i++) {
+                double area = area(voronoi.getCell(i));
+                assertTrue(area > 0);
+                total += area;
+            }
+            assertEquals(13 * 11, total, 1e-2);
+            assertEquals(voronoi.getOffsets()[100] * 2, voronoi.getCoordinates().length);
+        }
+
+        @Test
+        void duplicateIsEmpty() {
+            Voronoi voronoi = Delaunay.triangulate(new float[]{0, 0, 0, 0, 2, 0, 0, 2}).voronoi(new Rectangle(-4, -4, 4, 4));
+            assertEquals(0, voronoi.getVertexCount(1) * voronoi.getVertexCount(0));
+        }
+
+        @Test
+        void collinear() {
+            Voronoi voronoi = Delaunay.triangulate(new float[]{0, 0, 2, 0}).voronoi(new Rectangle(-1, 1, 3, -1));
+            assertArrayEquals(new float[]{-1, -1, 1, -1, 1, 1, -1, 1}, voronoi.getCell(0));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class WorldPositionBufferTest {
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer(1);
+            WorldPosition a = WorldPosition.valueOf(-5, 6, 32767, 1, 2, 3);
+            WorldPosition b = WorldPosition.valueOf(-32768, 0, 0, 4, 5, 6);
+            assertEquals(0, buffer.add(a));
+            assertEquals(1, buffer.add(b));
+            assertEquals(2, buffer.size());
+            assertEquals(a, buffer.get(0));
+            assertEquals(b, buffer.get(1));
+        }
+
+        @Test
+        void sectorOutOfRange() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            assertThrows(IllegalArgumentException.class, () -> buffer.add(WorldPosition.valueOf(0, 32768, 0, 0, 0, 0)));
+            assertThrows(IllegalArgumentException.class, () -> buffer.add(WorldPosition.valueOf(0, 0, -32769, 0, 0, 0)));
+        }
+    }
+
+    @Nested
+    class Remove {
+
+        @Test
+        void happyFlow() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            buffer.add(WorldPosition.valueOf(0, 0, 0, 1, 1, 1));
+            buffer.add(WorldPosition.valueOf(1, 1, 1, 2, 2, 2));
+            buffer.add(WorldPosition.valueOf(2, 2, 2, 3, 3, 3));
+            buffer.remove(0);
+            assertEquals(2, buffer.size());
+            assertEquals(WorldPosition.valueOf(2, 2, 2, 3, 3, 3), buffer.get(0));
+            assertEquals(WorldPosition.valueOf(1, 1, 1, 2, 2, 2), buffer.get(1));
+        }
+
+        @Test
+        void outOfBounds() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            buffer.add(WorldPosition.ORIGIN);
+            buffer.clear();
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.remove(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.set(0, WorldPosition.ORIGIN));
+        }
+    }
+
+    @Nested
+    class Translate {
+
+        @Test
+        void happyFlow() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            buffer.add(WorldPosition.valueOf(0, 0, 0, 1000, 10, 10));
+            buffer.translate(0, 30, -20, 2048);
+            assertEquals(WorldPosition.valueOf(1, -1, 2, 6, 1014, 10), buffer.get(0));
+        }
+
+        @Test
+        void sameAsPosition() {
+            Random random = new Random(7);
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            WorldPosition[] expected = new WorldPosition[50];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = WorldPosition.valueOf(random.nextInt(100) - 50, random.nextInt(100) - 50, random.nextInt(100) - 50,
+                        random.nextFloat() * 1024, random.nextFloat() * 1024, random.nextFloat() * 1024);
+                buffer.add(expected[i]);
+            }
+            float[] moves = new float[expected.length * 3];
+            for (int step = 0; step < 20; step++) {
+                for (int i = 0; i < moves.length; i++) {
+                    moves[i] = (random.nextFloat() - 0.5f) * 5000;
+                }
+                buffer.translateAll(moves);
+                for (int i = 0; i < expected.length; i++) {
+                    expected[i] = expected[i].add(moves[i * 3], moves[i * 3 + 1], moves[i * 3 + 2]);
+                    assertEquals(expected[i], buffer.get(i));
+                }
+            }
+        }
+
+        @Test
+        void outOfRange() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            buffer.add(WorldPosition.valueOf(32767, 0, 0, 1000, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> buffer.translate(0, 100, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> buffer.translateAll(new float[2]));
+        }
+
+        @Test
+        void outOfRangeUnchanged() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            WorldPosition first = WorldPosition.valueOf(0, 5, 0, 10, 10, 1000);
+            WorldPosition second = WorldPosition.valueOf(0, 0, 32767, 10, 10, 1000);
+            buffer.add(first);
+            buffer.add(second);
+            assertThrows(IllegalArgumentException.class, () -> buffer.translate(1, 2000, -2000, 100));
+            assertEquals(second, buffer.get(1));
+            assertThrows(IllegalArgumentException.class, () -> buffer.translateAll(new float[]{2000, -2000, 100, 2000, -2000, 100}));
+            assertEquals(first, buffer.get(0));
+            assertEquals(second, buffer.get(1));
+        }
+
+        @Test
+        void notFinite() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            WorldPosition first = WorldPosition.valueOf(0, 5, 0, 10, 10, 1000);
+            WorldPosition second = WorldPosition.valueOf(3, 0, 1, 10, 10, 1000);
+            buffer.add(first);
+            buffer.add(second);
+            assertThrows(IllegalArgumentException.class, () -> buffer.translate(0, 2000, 1, Float.NaN));
+            assertThrows(IllegalArgumentException.class, () -> buffer.translate(0, 1, Float.POSITIVE_INFINITY, 1));
+            assertEquals(first, buffer.get(0));
+            assertThrows(IllegalArgumentException.class, () -> buffer.translateAll(new float[]{2000, -2000, 100, 1, Float.NaN, 1}));
+            assertEquals(first, buffer.get(0));
+            assertEquals(second, buffer.get(1));
+        }
+    }
+
+    @Nested
+    class ToRelative {
+
+        @Test
+        void happyFlow() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            WorldPosition camera = WorldPosition.valueOf(2e7, -2e7, 1e6);
+            buffer.add(camera.add(1.5f, 2.25f, -3.125f));
+            buffer.add(camera.add(-5000, 0, 70000));
+            float[] result = new float[6];
+            buffer.toRelative(camera, result);
+            assertArrayEquals(new float[]{1.5f, 2.25f, -3.125f, -5000, 0, 70000}, result);
+            assertEquals(Point3D.valueOf(-5000, 0, 70000), buffer.toRelative(1, camera));
+        }
+
+        @Test
+        void sameAsSubtract() {
+            Random random = new Random(3);
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            WorldPosition camera = WorldPosition.valueOf(123456.789, -98765.4321, 3e6);
+            WorldPosition[] positions = new WorldPosition[40];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = camera.add((random.nextFloat() - 0.5f) * 1e5f, (random.nextFloat() - 0.5f) * 1e5f, random.nextFloat());
+                buffer.add(positions[i]);
+            }
+            float[] result = new float[positions.length * 3];
+            buffer.toRelative(camera, result);
+            for (int i = 0; i < positions.length; i++) {
+                Point3D p = positions[i].subtract(camera);
+                assertArrayEquals(new float[]{p.x, p.y, p.z}, new float[]{result[i * 3], result[i * 3 + 1], result[i * 3 + 2]});
+            }
+        }
+
+        @Test
+        void resultTooSmall() {
+            WorldPositionBuffer buffer = new WorldPositionBuffer();
+            buffer.add(WorldPosition.ORIGIN);
+            assertThrows(IllegalArgumentException.class, () -> buffer.toRelative(WorldPosition.ORIGIN, new float[2]));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of the Yildiz-Engine project, licenced under the MIT License  (MIT)
+ *
+ *  Copyright (c) 2019 Gregory Van den Borre
+ *
+ *  More infos available: https://engine.yildiz-games.be
+ *
+ *  Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ *  documentation files (the "Software"), to deal in the Software without restriction, including without
+ *  limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies
+ *  of the Software, and to permit persons to whom the Software is furnished to do so,
+ *  subject to the following conditions:
+ *
+ *  The above copyright notice and this permission notice shall be included in all copies or substantial
+ *  portions of the Software.
+ *
+ *  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ *  WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ *  OR COPYRIGHT  HOLDERS BE LIABLE FOR ANY CLAIM,
+ *  DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE  SOFTWARE.
+ *
+ */
+
+package be.yildizgames.common.geometry;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Gregory Van den Borre
+ */
+final class WorldPositionTest {
+
+    @Nested
+    class ValueOf {
+
+        @Test
+        void happyFlow() {
+            WorldPosition p = WorldPosition.valueOf(1, 2, 3, 10, 20, 30);
+            assertEquals(1, p.sectorX);
+            assertEquals(2, p.sectorY);
+            assertEquals(3, p.sectorZ);
+            assertEquals(10, p.x);
+            assertEquals(20, p.y);
+            assertEquals(30, p.z);
+        }
+
+        @Test
+        void normalized() {
+            WorldPosition p = WorldPosition.valueOf(0, 0, 0, 2100, -1, 1024);
+            assertEquals(2, p.sectorX);
+            assertEquals(52, p.x);
+            assertEquals(-1, p.sectorY);
+            assertEquals(1023, p.y);
+            assertEquals(1, p.sectorZ);
+            assertEquals(0, p.z);
+        }
+
+        @Test
+        void tinyNegativeOffset() {
+            WorldPosition p = WorldPosition.valueOf(0, 0, 0, -1e-9f, 0, 0);
+            assertEquals(WorldPosition.ORIGIN, p);
+        }
+
+        @Test
+        void absolute() {
+            WorldPosition p = WorldPosition.valueOf(1e9 + 0.25, -3000.5, 0);
+            assertEquals(976562, p.sectorX);
+            assertEquals(512.25f, p.x);
+            assertEquals(-3, p.sectorY);
+            assertEquals(71.5f, p.y);
+            assertEquals(1e9 + 0.25, p.getAbsoluteX());
+            assertEquals(-3000.5, p.getAbsoluteY());
+        }
+
+        @Test
+        void point() {
+            assertEquals(WorldPosition.valueOf(-1, 0, 0, 1014, 5, 6), WorldPosition.valueOf(Point3D.valueOf(-10, 5, 6)));
+        }
+
+        @Test
+        void notFinite() {
+            assertThrows(IllegalArgumentException.class, () -> WorldPosition.valueOf(0, 0, 0, Float.NaN, 0, 0));
+            assertThrows(IllegalArgumentException.class, () -> WorldPosition.valueOf(0, Double.POSITIVE_INFINITY, 0));
+        }
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void happyFlow() {
+            WorldPosition p = WorldPosition.valueOf(0, 0, 0, 1000, 10, 10).add(30, -20, 0);
+            assertEquals(WorldPosition.valueOf(1, -1, 0, 6, 1014, 10), p);
+        }
+
+        @Test
+        void keepsPrecisionFarAway() {
+            WorldPosition p = WorldPosition.valueOf(1e8, 0, 0);
+            for (int i = 0; i < 2000; i++) {
+                p = p.add(0.5f, 0, 0);
+            }
+            assertEquals(1e8 + 1000, p.getAbsoluteX());
+        }
+
+        @Test
+        void point() {
+            assertEquals(WorldPosition.valueOf(0, 0, 0, 1, 2, 3), WorldPosition.ORIGIN.add(Point3D.valueOf(1, 2, 3)));
+        }
+    }
+
+    @Nested
+    class Subtract {
+
+        @Test
+        void happyFlow() {
+            WorldPosition camera = WorldPosition.valueOf(5e8, 5e8, -5e8);
+            WorldPosition p = camera.add(12.5f, -3.25f, 1000.125f);
+            assertEquals(Point3D.valueOf(12.5f, -3.25f, 1000.125f), p.subtract(camera));
+        }
+
+        @Test
+        void sectorOverflow() {
+            WorldPosition a = WorldPosition.valueOf(Integer.MAX_VALUE, 0, 0, 0, 0, 0);
+            WorldPosition b = WorldPosition.valueOf(Integer.MIN_VALUE, 0, 0, 0, 0, 0);
+            assertEquals(((double) Integer.MAX_VALUE - Integer.MIN_VALUE) * WorldPosition.SECTOR_SIZE, a.subtract(b).x, 1e6);
+        }
+    }
+
+    @Nested
+    class Distance {
+
+        @Test
+        void happyFlow() {
+            WorldPosition a = WorldPosition.valueOf(1e9, 0, 0);
+            WorldPosition b = a.add(3, 4, 0);
+            assertEquals(5, a.distance(b), 1e-6);
+            assertEquals(5, b.distance(a), 1e-6);
+        }
+    }
+
+    @Nested
+    class Equals {
+
+        @Test
+        void happyFlow() {
+            WorldPosition a = WorldPosition.valueOf(1, 2, 3, 4, 5, 6);
+            WorldPosition b = WorldPosition.valueOf(0, 2, 3, 1028, 5, 6);
+            assertEquals(a, b);
+            assertEquals(a.hashCode(), b.hashCode());
+            assertNotEquals(a, WorldPosition.valueOf(1, 2, 3, 4, 5, 7));
+            assertNotEquals(a, WorldPosition.valueOf(1, 2, 4, 4, 5, 6));
+        }
+    }
+}